@@ -209,6 +209,51 @@ public class ImageUtility extends Object
 		return anImage;
 	}
 
+	/**
+	 * 画像の赤・緑・青を、行優先（y * width + x）の整数の平面として取り出して応答する。
+	 * 画素をまとめて読み出し、ビット演算だけで分けるので、倍精度の行列を経由しない。
+	 * @param anImage 画像
+	 * @return 赤の平面と緑の平面と青の平面の配列（各要素は 0〜255）
+	 */
+	public static int[][] convertImageToRGBPlanes(BufferedImage anImage)
+	{
+		int width = anImage.getWidth();
+		int height = anImage.getHeight();
+		int[] pixels = anImage.getRGB(0, 0, width, height, null, 0, width);
+		int[][] rgbPlanes = new int[3][pixels.length];
+		for (int index = 0; index < pixels.length; index++)
+		{
+			int aRGB = pixels[index];
+			rgbPlanes[0][index] = (aRGB >> 16) & 0xFF;
+			rgbPlanes[1][index] = (aRGB >> 8) & 0xFF;
+			rgbPlanes[2][index] = aRGB & 0xFF;
+		}
+		return rgbPlanes;
+	}
+
+	/**
+	 * 行優先（y * width + x）の赤・緑・青の整数の平面を画像へ変換して応答する。
+	 * 0〜255 の範囲を外れた値は範囲内に丸める。
+	 * @param rgbPlanes 赤の平面と緑の平面と青の平面の配列
+	 * @param width 幅(横)
+	 * @param height 高さ(縦)
+	 * @return 画像
+	 */
+	public static BufferedImage convertRGBPlanesToImage(int[][] rgbPlanes, int width, int height)
+	{
+		int[] pixels = new int[width * height];
+		for (int index = 0; index < pixels.length; index++)
+		{
+			int red = Math.max(0, Math.min(255, rgbPlanes[0][index]));
+			int green = Math.max(0, Math.min(255, rgbPlanes[1][index]));
+			int blue = Math.max(0, Math.min(255, rgbPlanes[2][index]));
+			pixels[index] = 0xFF000000 | (red << 16) | (green << 8) | blue;
+		}
+		BufferedImage anImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		anImage.setRGB(0, 0, width, height, pixels, 0, width);
+		return anImage;
+	}
+
 	/**
 	 * ファイル(aFile)から画像を読み込んで応答する。
 	 * @param aFile ファイル（ファイルの拡張子のフォーマットが重要）
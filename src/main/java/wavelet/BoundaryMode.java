@@ -0,0 +1,82 @@
+package wavelet;
+
+/**
+ * 1次元離散ウェーブレット変換で、信号の両端の外側をどのように延長するかを表す列挙型である。
+ * {@link DiscreteWavelet1dTransformation#boundaryMode(BoundaryMode)} に渡して選ぶ。
+ *
+ * <p>
+ * {@link #PERIODIC} 以外では、端の外側を参照する係数もすべて保持する（係数の個数は {@link #coefficientLength(int, int)}）ので、
+ * どの延長でも元の信号に完全に戻る。畳み込みは、延長した標本を参照しない内側の区間を剰余も分岐もないループで計算し、
+ * 端の数個の出力だけを {@link #valueAt(double[], int, int, int)} で標本を取り出すループで計算する。</p>
+ *
+ * @see ConvolutionKernel#analyzeExtended
+ * @see ConvolutionKernel#synthesizeExtended
+ */
+public enum BoundaryMode {
+    /**
+     * 信号を周期的に延長する（{@code x[n] = x[0]}）。係数の個数は信号の長さの半分で、従来の変換と同じである。
+     */
+    PERIODIC,
+
+    /**
+     * 端で折り返して対称に延長する（{@code x[-1] = x[0]}、{@code x[n] = x[n-1]}）。
+     */
+    SYMMETRIC,
+
+    /**
+     * 外側を 0 とする。
+     */
+    ZERO,
+
+    /**
+     * 端の2標本を通る直線で延長する（1次の外挿）。
+     */
+    SMOOTH;
+
+    /**
+     * 長さ length の信号を長さ filterLength のフィルターで分解したときの、スケーリング係数（ウェーブレット係数も同数）の個数を応答する。
+     *
+     * @param length 信号の長さ
+     * @param filterLength フィルターの長さ（偶数）
+     * @return 係数の個数（{@link #PERIODIC} では {@code length / 2}、それ以外では {@code (length + filterLength - 1) / 2}）
+     */
+    public int coefficientLength(int length, int filterLength) {
+        if (this == PERIODIC || length == 0) {
+            return length / 2;
+        }
+        return (length + filterLength - 1) / 2;
+    }
+
+    /**
+     * 延長した信号の index 番目の標本を応答する。index は信号の外側（負や length 以上）でもよい。
+     *
+     * @param source 信号を格納した配列
+     * @param offset 信号の先頭位置
+     * @param length 信号の長さ（1 以上）
+     * @param index 標本の位置
+     * @return 延長した信号の標本
+     */
+    public double valueAt(double[] source, int offset, int length, int index) {
+        if (index >= 0 && index < length) {
+            return source[offset + index];
+        }
+        switch (this) {
+            case PERIODIC:
+                return source[offset + Math.floorMod(index, length)];
+            case SYMMETRIC: {
+                int folded = Math.floorMod(index, length * 2);
+                return source[offset + (folded < length ? folded : length * 2 - 1 - folded)];
+            }
+            case ZERO:
+                return 0.0D;
+            default:
+                if (length == 1) {
+                    return source[offset];
+                }
+                if (index < 0) {
+                    return source[offset] + index * (source[offset + 1] - source[offset]);
+                }
+                return source[offset + length - 1] + (index - length + 1) * (source[offset + length - 1] - source[offset + length - 2]);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package wavelet;
+
+import java.util.Arrays;
+
+/**
+ * 1次元配列を行優先・ストライド付きで参照する係数行列である。
+ * 行は {@code double[][]} の1つ目の添字に、列は2つ目の添字に対応し、
+ * 要素 (row, column) は {@code values[offset + row * rowStride + column]} に格納される。
+ *
+ * <p>
+ * {@link #row(int)}・{@link #column(int)}・{@link #subMatrix(int, int, int, int)} および
+ * 帯域ごとの部分行列（{@link #scaling()} など）は、いずれも同じ配列を共有するビューであり、要素を複写しない。
+ * 列方向の処理はストライドをたどって読み書きするため、転置した行列を作る必要がない。</p>
+ *
+ * <p>
+ * 帯域の配置は {@link Wavelet2dModel} の合成画像と同じで、左上がスケーリング係数、
+ * 行方向（1つ目の添字）の後半が水平、列方向（2つ目の添字）の後半が垂直、両方の後半が対角のウェーブレット係数である。</p>
+ *
+ * @see DiscreteWavelet2dTransformation
+ * @see DiscreteWavelet2dPyramid
+ */
+public final class CoefficientMatrix extends Object {
+
+    private final double[] values;
+
+    private final int offset;
+
+    private final int rowSize;
+
+    private final int columnSize;
+
+    private final int rowStride;
+
+    /**
+     * 0 で埋めた rowSize × columnSize の行列を生成する。
+     *
+     * @param rowSize 行数
+     * @param columnSize 列数
+     */
+    public CoefficientMatrix(int rowSize, int columnSize) {
+        this(new double[rowSize * columnSize], 0, rowSize, columnSize, columnSize);
+    }
+
+    /**
+     * 既存の配列を参照する行列（ビュー）を生成する。
+     *
+     * @param values 要素を格納した配列（複写せずに共有する）
+     * @param offset 要素 (0, 0) の位置
+     * @param rowSize 行数
+     * @param columnSize 列数
+     * @param rowStride 隣り合う行の先頭の間隔
+     */
+    public CoefficientMatrix(double[] values, int offset, int rowSize, int columnSize, int rowStride) {
+        if (rowSize < 0 || columnSize < 0 || offset < 0 || rowStride < columnSize) {
+            throw new IllegalArgumentException("invalid matrix shape.");
+        }
+        if (rowSize > 0 && columnSize > 0 && offset + (rowSize - 1) * rowStride + columnSize > values.length) {
+            throw new IllegalArgumentException("matrix exceeds the backing array.");
+        }
+        this.values = values;
+        this.offset = offset;
+        this.rowSize = rowSize;
+        this.columnSize = columnSize;
+        this.rowStride = rowStride;
+    }
+
+    /**
+     * 2次元配列の内容を複写した行列を生成する。
+     *
+     * @param aMatrix 複写元の2次元配列（{@code [行][列]}）
+     * @return 新しい行列
+     */
+    public static CoefficientMatrix fromArray(double[][] aMatrix) {
+        CoefficientMatrix aCoefficientMatrix = new CoefficientMatrix(aMatrix.length, (aMatrix[0]).length);
+        aCoefficientMatrix.copyFrom(aMatrix);
+        return aCoefficientMatrix;
+    }
+
+    public double[] values() {
+        return this.values;
+    }
+
+    public int offset() {
+        return this.offset;
+    }
+
+    public int rowSize() {
+        return this.rowSize;
+    }
+
+    public int columnSize() {
+        return this.columnSize;
+    }
+
+    public int rowStride() {
+        return this.rowStride;
+    }
+
+    /**
+     * 要素 (row, column) が格納されている配列上の位置を応答する。
+     *
+     * @param row 行
+     * @param column 列
+     * @return 配列上の位置
+     */
+    public int indexOf(int row, int column) {
+        return this.offset + row * this.rowStride + column;
+    }
+
+    public double at(int row, int column) {
+        return this.values[this.indexOf(row, column)];
+    }
+
+    public void atPut(int row, int column, double value) {
+        this.values[this.indexOf(row, column)] = value;
+    }
+
+    /**
+     * 1行分（1 × columnSize）のビューを応答する。
+     *
+     * @param row 行
+     * @return 行のビュー
+     */
+    public CoefficientMatrix row(int row) {
+        return this.subMatrix(row, 0, 1, this.columnSize);
+    }
+
+    /**
+     * 1列分（rowSize × 1）のビューを応答する。要素はストライドをたどって参照される。
+     *
+     * @param column 列
+     * @return 列のビュー
+     */
+    public CoefficientMatrix column(int column) {
+        return this.subMatrix(0, column, this.rowSize, 1);
+    }
+
+    /**
+     * 部分行列のビューを応答する。
+     *
+     * @param rowOffset 部分行列の先頭行
+     * @param columnOffset 部分行列の先頭列
+     * @param rows 行数
+     * @param columns 列数
+     * @return 同じ配列を共有する部分行列
+     */
+    public CoefficientMatrix subMatrix(int rowOffset, int columnOffset, int rows, int columns) {
+        if (rowOffset < 0 || columnOffset < 0 || rows < 0 || columns < 0
+                || rowOffset + rows > this.rowSize || columnOffset + columns > this.columnSize) {
+            throw new IllegalArgumentException("sub matrix is out of range.");
+        }
+        return new CoefficientMatrix(this.values, this.indexOf(rowOffset, columnOffset), rows, columns, this.rowStride);
+    }
+
+    /**
+     * 左上の四半分（スケーリング係数の帯域）のビューを応答する。
+     *
+     * @return スケーリング係数の帯域
+     */
+    public CoefficientMatrix scaling() {
+        return this.subMatrix(0, 0, this.rowSize / 2, this.columnSize / 2);
+    }
+
+    /**
+     * 行方向の後半・列方向の前半の四半分（水平ウェーブレット係数の帯域）のビューを応答する。
+     *
+     * @return 水平ウェーブレット係数の帯域
+     */
+    public CoefficientMatrix horizontal() {
+        return this.subMatrix(this.rowSize / 2, 0, this.rowSize / 2, this.columnSize / 2);
+    }
+
+    /**
+     * 行方向の前半・列方向の後半の四半分（垂直ウェーブレット係数の帯域）のビューを応答する。
+     *
+     * @return 垂直ウェーブレット係数の帯域
+     */
+    public CoefficientMatrix vertical() {
+        return this.subMatrix(0, this.columnSize / 2, this.rowSize / 2, this.columnSize / 2);
+    }
+
+    /**
+     * 右下の四半分（対角ウェーブレット係数の帯域）のビューを応答する。
+     *
+     * @return 対角ウェーブレット係数の帯域
+     */
+    public CoefficientMatrix diagonal() {
+        return this.subMatrix(this.rowSize / 2, this.columnSize / 2, this.rowSize / 2, this.columnSize / 2);
+    }
+
+    /**
+     * 同じ大きさの行列の内容をこの行列に複写する。
+     *
+     * @param aCoefficientMatrix 複写元の行列
+     */
+    public void copyFrom(CoefficientMatrix aCoefficientMatrix) {
+        this.checkSameSize(aCoefficientMatrix.rowSize, aCoefficientMatrix.columnSize);
+        for (int row = 0; row < this.rowSize; row++) {
+            System.arraycopy(aCoefficientMatrix.values, aCoefficientMatrix.indexOf(row, 0), this.values, this.indexOf(row, 0), this.columnSize);
+        }
+    }
+
+    /**
+     * 同じ大きさの2次元配列の内容をこの行列に複写する。
+     *
+     * @param aMatrix 複写元の2次元配列（{@code [行][列]}）
+     */
+    public void copyFrom(double[][] aMatrix) {
+        this.checkSameSize(aMatrix.length, aMatrix.length == 0 ? 0 : (aMatrix[0]).length);
+        for (int row = 0; row < this.rowSize; row++) {
+            System.arraycopy(aMatrix[row], 0, this.values, this.indexOf(row, 0), this.columnSize);
+        }
+    }
+
+    public void fill(double value) {
+        for (int row = 0; row < this.rowSize; row++) {
+            int index = this.indexOf(row, 0);
+            Arrays.fill(this.values, index, index + this.columnSize, value);
+        }
+    }
+
+    /**
+     * 内容を隙間なく詰めた新しい行列に複写して応答する。
+     *
+     * @return 複写した行列
+     */
+    public CoefficientMatrix copy() {
+        CoefficientMatrix aCoefficientMatrix = new CoefficientMatrix(this.rowSize, this.columnSize);
+        aCoefficientMatrix.copyFrom(this);
+        return aCoefficientMatrix;
+    }
+
+    /**
+     * 内容を複写した2次元配列（{@code [行][列]}）を応答する。
+     *
+     * @return 2次元配列
+     */
+    public double[][] toArray() {
+        double[][] aMatrix = new double[this.rowSize][this.columnSize];
+        for (int row = 0; row < this.rowSize; row++) {
+            System.arraycopy(this.values, this.indexOf(row, 0), aMatrix[row], 0, this.columnSize);
+        }
+        return aMatrix;
+    }
+
+    /**
+     * 要素の絶対値の最大値を応答する。
+     *
+     * @return 絶対値の最大値
+     */
+    public double maximumAbsolute() {
+        double maximum = 0.0D;
+        for (int row = 0; row < this.rowSize; row++) {
+            int index = this.indexOf(row, 0);
+            for (int column = 0; column < this.columnSize; column++) {
+                maximum = Math.max(maximum, Math.abs(this.values[index + column]));
+            }
+        }
+        return maximum;
+    }
+
+    private void checkSameSize(int rows, int columns) {
+        if (rows != this.rowSize || columns != this.columnSize) {
+            throw new IllegalArgumentException("matrix sizes must be the same.");
+        }
+    }
+}
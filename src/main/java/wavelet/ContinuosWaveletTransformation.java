@@ -1,18 +1,531 @@
 package wavelet;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.math3.transform.DftNormalization;
+import org.apache.commons.math3.transform.FastFourierTransformer;
+import org.apache.commons.math3.transform.TransformType;
+
 /**
  * 連続ウェーブレット変換（CWT）を実装するクラス。
  * このクラスは、{@link WaveletTransformation} の具象サブクラスであり、
  * 信号の連続ウェーブレット変換を表現する。
  *
+ * <p>
+ * 各スケール s の係数 {@code W(s, n) = Σ_k x̂_k Ψ̂(sω_k) e^(iω_k nΔt)} を、時間領域の畳み込み（O(N²)）ではなく周波数領域で計算する。
+ * 信号を2の冪の長さまで 0 で延長して {@code commons-math3} の {@link FastFourierTransformer} で一度だけ順変換し、
+ * スケールごとにウェーブレットのスペクトル（{@link MotherWavelet#spectrum(int, double, double)}）を掛けて逆変換する。
+ * スペクトルは（変換の長さ, スケール）ごとに、合計が {@link #spectrumCacheBytes(long)} のバイト数（既定 64 MiB）に収まる分だけキャッシュし、
+ * 収まらないスケールのスペクトルはタスクの作業配列にその都度計算する。長い信号でも使うメモリは上限を超えず、
+ * 同じ長さの信号を繰り返し変換するときは、キャッシュに収まったスケールのスペクトルを作り直さない。
+ * {@link #transform(WaveletTransformation)} で作った変換はキャッシュを共有する。</p>
+ *
+ * <p>
+ * スケールごとの逆変換は互いに独立なので、フォーク／ジョインプール（{@link #forkJoinPool(ForkJoinPool)}）を設定すると、
+ * スケールの範囲を並列度の数ほどに分けて並列に計算する。{@link #forEachScale(ScaleConsumer)} を使えば、全スケールの係数を保持せずに
+ * スケールごとに受け取れる（{@link ScalogramModel} はこれで係数を直接画素に縮約する）。</p>
+ *
+ * <p>
+ * スケールを指定しない場合は、最小のスケール 2Δt から1オクターブあたり4声部で、信号の長さまでのスケールを用いる
+ * （{@link #defaultScales(int, double)}）。</p>
+ *
  * @see WaveletTransformation
+ * @see MotherWavelet
+ * @see ScalogramModel
  */
 public class ContinuosWaveletTransformation extends WaveletTransformation {
+  /**
+   * 1つのスケールの係数を受け取る関数である。
+   */
+  @FunctionalInterface
+  public interface ScaleConsumer {
+    /**
+     * スケール scaleIndex の係数を受け取る。配列は呼び出しの間だけ有効で、先頭の信号の長さ分が係数である。
+     * プールを設定した変換では、異なるスケールについて複数のスレッドから同時に呼ばれる。
+     *
+     * @param scaleIndex スケールの番号（{@link #scales()} の添字）
+     * @param real 係数の実部
+     * @param imaginary 係数の虚部
+     */
+    void accept(int scaleIndex, double[] real, double[] imaginary);
+  }
+
+  /**
+   * 既定のスケールで、1オクターブあたりの声部の数である。
+   */
+  private static final int DEFAULT_VOICES_PER_OCTAVE = 4;
+
+  /**
+   * スペクトルのキャッシュの既定の上限（バイト）である。2^20 点の変換なら 8 スケール分である。
+   */
+  public static final long DEFAULT_SPECTRUM_CACHE_BYTES = 64L << 20;
+
+  protected double[] sourceCoefficients;
+
+  protected double[] scales;
+
+  protected MotherWavelet motherWavelet;
+
+  protected double samplingInterval;
+
+  protected double[][] realCoefficients; // [スケール][位置]
+
+  protected double[][] imaginaryCoefficients; // [スケール][位置]
+
+  protected ForkJoinPool forkJoinPool;
+
+  /**
+   * スペクトルのキャッシュが保持してよいバイト数である（0 ならキャッシュしない）。
+   */
+  protected long spectrumCacheBytes;
+
+  /**
+   * ウェーブレットのスペクトルのキャッシュ（マザーウェーブレットと標本化の間隔が同じ変換の間で共有する）。
+   */
+  private SpectrumCache spectra;
+
+  public ContinuosWaveletTransformation() {
+    this.initialize();
+  }
+
+  public ContinuosWaveletTransformation(double[] paramArrayOfdouble, double[] scales) {
+    this.initialize();
+    this.scales(scales);
+    this.sourceCoefficients(paramArrayOfdouble);
+  }
+
+  @Override
+  protected void initialize() {
+    super.initialize();
+    this.sourceCoefficients = null;
+    this.scales = null;
+    this.motherWavelet = MotherWavelet.MORLET;
+    this.samplingInterval = 1.0;
+    this.realCoefficients = null;
+    this.imaginaryCoefficients = null;
+    this.forkJoinPool = null;
+    this.spectrumCacheBytes = DEFAULT_SPECTRUM_CACHE_BYTES;
+    this.spectra = new SpectrumCache();
+  }
+
+  /**
+   * 長さ length の信号に対する既定のスケール（最小 2Δt、1オクターブあたり4声部、最大は信号の時間長以下）を応答する。
+   *
+   * @param length 信号の長さ
+   * @param samplingInterval 標本化の間隔 Δt
+   * @return スケールの配列（昇順）
+   */
+  public static double[] defaultScales(int length, double samplingInterval) {
+    double smallest = 2.0 * samplingInterval;
+    int octaves = (int) Math.floor(Math.log(Math.max(1.0, length * samplingInterval / smallest)) / Math.log(2.0));
+    return dyadicScales(smallest, DEFAULT_VOICES_PER_OCTAVE, octaves * DEFAULT_VOICES_PER_OCTAVE + 1);
+  }
+
+  /**
+   * {@code smallest × 2^(j / voicesPerOctave)}（j = 0 .. count - 1）のスケールを応答する。
+   *
+   * @param smallest 最小のスケール
+   * @param voicesPerOctave 1オクターブあたりの声部の数
+   * @param count スケールの数
+   * @return スケールの配列（昇順）
+   */
+  public static double[] dyadicScales(double smallest, int voicesPerOctave, int count) {
+    if (!(smallest > 0.0) || voicesPerOctave < 1 || count < 1) {
+      throw new IllegalArgumentException("smallest, voicesPerOctave and count must be positive.");
+    }
+    double[] values = new double[count];
+    for (int j = 0; j < count; j++)
+      values[j] = smallest * Math.pow(2.0, (double) j / voicesPerOctave);
+    return values;
+  }
+
+  public double[] sourceCoefficients() {
+    return this.sourceCoefficients;
+  }
+
+  public void sourceCoefficients(double[] paramArrayOfdouble) {
+    if (paramArrayOfdouble == null || paramArrayOfdouble.length == 0) {
+      throw new IllegalArgumentException("signal must not be empty.");
+    }
+    this.sourceCoefficients = paramArrayOfdouble;
+    this.flushCoefficients();
+  }
+
+  /**
+   * 変換に用いるスケールを応答する。設定していない場合は信号の長さに応じた既定のスケールを応答する。
+   *
+   * @return スケールの配列
+   */
+  public double[] scales() {
+    if (this.scales == null && this.sourceCoefficients != null) {
+      return defaultScales(this.sourceCoefficients.length, this.samplingInterval);
+    }
+    return this.scales;
+  }
+
+  /**
+   * 変換に用いるスケール（時間の単位、正の値）を設定する。null を与えると既定のスケールに戻す。
+   *
+   * @param scales スケールの配列
+   */
+  public void scales(double[] scales) {
+    if (scales != null) {
+      if (scales.length == 0) {
+        throw new IllegalArgumentException("scales must not be empty.");
+      }
+      for (double scale : scales) {
+        if (!(scale > 0.0)) {
+          throw new IllegalArgumentException("scales must be positive.");
+        }
+      }
+      scales = scales.clone();
+    }
+    this.scales = scales;
+    this.flushCoefficients();
+  }
+
+  public MotherWavelet motherWavelet() {
+    return this.motherWavelet;
+  }
+
+  public void motherWavelet(MotherWavelet aMotherWavelet) {
+    if (aMotherWavelet == null) {
+      throw new IllegalArgumentException("mother wavelet must not be null.");
+    }
+    if (aMotherWavelet != this.motherWavelet) {
+      this.motherWavelet = aMotherWavelet;
+      this.spectra = new SpectrumCache();
+      this.flushCoefficients();
+    }
+  }
+
+  public ForkJoinPool forkJoinPool() {
+    return this.forkJoinPool;
+  }
+
+  /**
+   * スケールごとの計算に用いるフォーク／ジョインプールを設定する。null なら呼び出したスレッドで逐次に計算する。
+   * 係数は並列度によらず完全に一致する。
+   *
+   * @param aForkJoinPool フォーク／ジョインプール
+   */
+  public void forkJoinPool(ForkJoinPool aForkJoinPool) {
+    this.forkJoinPool = aForkJoinPool;
+  }
+
+  public long spectrumCacheBytes() {
+    return this.spectrumCacheBytes;
+  }
+
+  /**
+   * スペクトルのキャッシュが保持してよいバイト数を設定する。既にキャッシュしたスペクトルは捨てない。
+   * 0 ならキャッシュせず、スペクトルは毎回タスクの作業配列に計算する。
+   *
+   * @param bytes バイト数（0 以上）
+   */
+  public void spectrumCacheBytes(long bytes) {
+    if (bytes < 0L) {
+      throw new IllegalArgumentException("spectrum cache bytes must not be negative.");
+    }
+    this.spectrumCacheBytes = bytes;
+  }
+
+  public double samplingInterval() {
+    return this.samplingInterval;
+  }
+
+  public void samplingInterval(double samplingInterval) {
+    if (!(samplingInterval > 0.0)) {
+      throw new IllegalArgumentException("sampling interval must be positive.");
+    }
+    if (samplingInterval != this.samplingInterval) {
+      this.samplingInterval = samplingInterval;
+      this.spectra = new SpectrumCache();
+      this.flushCoefficients();
+    }
+  }
+
+  /**
+   * 各スケールに対応するフーリエ周期（時間の単位）を応答する。
+   *
+   * @return スケールと同じ順のフーリエ周期
+   */
+  public double[] periods() {
+    double[] arrayOfDouble = this.scales();
+    double[] values = new double[arrayOfDouble.length];
+    for (int j = 0; j < values.length; j++)
+      values[j] = arrayOfDouble[j] * this.motherWavelet.fourierFactor();
+    return values;
+  }
+
+  /**
+   * 係数の実部を応答する。
+   *
+   * @return {@code [スケール][位置]} の係数の実部
+   */
+  public double[][] realCoefficients() {
+    if (this.realCoefficients == null)
+      this.computeCoefficients();
+    return this.realCoefficients;
+  }
+
+  /**
+   * 係数の虚部を応答する。実数のウェーブレット（{@link MotherWavelet#MEXICAN_HAT}）では 0 になる。
+   *
+   * @return {@code [スケール][位置]} の係数の虚部
+   */
+  public double[][] imaginaryCoefficients() {
+    if (this.imaginaryCoefficients == null)
+      this.computeCoefficients();
+    return this.imaginaryCoefficients;
+  }
+
+  /**
+   * ウェーブレットパワースペクトル {@code |W(s, n)|²} を応答する。
+   *
+   * @return {@code [スケール][位置]} のパワー
+   */
+  public double[][] powerSpectrum() {
+    double[][] real = this.realCoefficients();
+    double[][] imaginary = this.imaginaryCoefficients();
+    double[][] power = new double[real.length][];
+    for (int j = 0; j < real.length; j++) {
+      power[j] = new double[real[j].length];
+      for (int n = 0; n < power[j].length; n++)
+        power[j][n] = real[j][n] * real[j][n] + imaginary[j][n] * imaginary[j][n];
+    }
+    return power;
+  }
+
+  @Override
   public WaveletTransformation applyTo(Object paramObject) {
+    if (!(paramObject instanceof double[])) {
+      throw new IllegalArgumentException("anObject must be a double[].");
+    }
+    this.sourceCoefficients((double[]) paramObject);
+    this.realCoefficients();
     return this;
   }
-  
+
+  /**
+   * 与えた変換の信号を、この変換と同じマザーウェーブレット・スケール・標本化の間隔で変換した新しい変換を応答する。
+   * 新しい変換はこの変換のスペクトルのキャッシュを共有する。
+   *
+   * @param paramWaveletTransformation 信号を持つ連続ウェーブレット変換
+   * @return 新しい変換
+   */
+  @Override
   public WaveletTransformation transform(WaveletTransformation paramWaveletTransformation) {
-    return this;
+    if (!(paramWaveletTransformation instanceof ContinuosWaveletTransformation)) {
+      throw new IllegalArgumentException("waveletTransformation must be a ContinuosWaveletTransformation.");
+    }
+    ContinuosWaveletTransformation aTransformation = (ContinuosWaveletTransformation) paramWaveletTransformation;
+    ContinuosWaveletTransformation result = new ContinuosWaveletTransformation();
+    result.motherWavelet = this.motherWavelet;
+    result.samplingInterval = this.samplingInterval;
+    result.spectra = this.spectra;
+    result.spectrumCacheBytes = this.spectrumCacheBytes;
+    result.forkJoinPool = this.forkJoinPool;
+    result.scales(this.scales);
+    result.sourceCoefficients(aTransformation.sourceCoefficients());
+    return result;
+  }
+
+  /**
+   * すべてのスケールの係数を計算し、スケールごとに aConsumer に渡す。係数は保持しない。
+   * 信号は一度だけ順変換し、スケールごとにスペクトルを掛けて逆変換する。
+   *
+   * @param aConsumer 係数を受け取る関数
+   */
+  public void forEachScale(ScaleConsumer aConsumer) {
+    if (this.sourceCoefficients == null) {
+      throw new IllegalArgumentException("signal is not set.");
+    }
+    int length = this.sourceCoefficients.length;
+    int padded = paddedLength(length);
+    double[] arrayOfDouble = this.scales();
+    double[][] signal = new double[2][padded];
+    System.arraycopy(this.sourceCoefficients, 0, signal[0], 0, length);
+    FastFourierTransformer.transformInPlace(signal, DftNormalization.STANDARD, TransformType.FORWARD);
+    int grain = this.forkJoinPool == null ? arrayOfDouble.length : (arrayOfDouble.length + this.forkJoinPool.getParallelism() - 1) / this.forkJoinPool.getParallelism();
+    ScaleTask task = new ScaleTask(this, signal, arrayOfDouble, aConsumer, 0, arrayOfDouble.length, grain);
+    if (this.forkJoinPool == null || arrayOfDouble.length < 2) {
+      task.compute();
+    } else {
+      this.forkJoinPool.invoke(task);
+    }
+  }
+
+  /**
+   * すべてのスケールの係数を計算して保持する。
+   */
+  protected void computeCoefficients() {
+    if (this.sourceCoefficients == null) {
+      return;
+    }
+    int length = this.sourceCoefficients.length;
+    int count = this.scales().length;
+    double[][] real = new double[count][];
+    double[][] imaginary = new double[count][];
+    this.forEachScale((j, realPart, imaginaryPart) -> {
+      real[j] = Arrays.copyOf(realPart, length);
+      imaginary[j] = Arrays.copyOf(imaginaryPart, length);
+    });
+    this.realCoefficients = real;
+    this.imaginaryCoefficients = imaginary;
+  }
+
+  /**
+   * スケール scale の係数を、順変換した信号 signal から product に逆変換する。
+   */
+  private void inverseAtScale(double[][] signal, double scale, double[][] product, double[] work) {
+    int padded = signal[0].length;
+    double[] spectrum = this.spectrum(padded, scale, work);
+    for (int k = 0; k < padded; k++) {
+      product[0][k] = signal[0][k] * spectrum[k];
+      product[1][k] = signal[1][k] * spectrum[k];
+    }
+    FastFourierTransformer.transformInPlace(product, DftNormalization.STANDARD, TransformType.INVERSE);
+  }
+
+  /**
+   * 長さ length の変換でのスケール scale のスペクトルを応答する。キャッシュになければ計算し、上限に収まればキャッシュに加え、
+   * 収まらなければ作業配列 work に書き込んでそれを応答する。
+   *
+   * @param length 変換の長さ
+   * @param scale スケール
+   * @param work 作業配列（長さ length 以上）
+   * @return スペクトル（変更してはならない）
+   */
+  protected double[] spectrum(int length, double scale, double[] work) {
+    SpectrumKey aKey = new SpectrumKey(length, scale);
+    double[] values = this.spectra.values.get(aKey);
+    if (values != null) {
+      return values;
+    }
+    long bytes = (long) length * Double.BYTES;
+    if (this.spectra.bytes.addAndGet(bytes) > this.spectrumCacheBytes) { // 上限を超えるなら予約を取り消してキャッシュしない
+      this.spectra.bytes.addAndGet(-bytes);
+      this.motherWavelet.spectrum(length, scale, this.samplingInterval, work);
+      return work;
+    }
+    values = this.motherWavelet.spectrum(length, scale, this.samplingInterval);
+    double[] previous = this.spectra.values.putIfAbsent(aKey, values);
+    if (previous != null) { // 別のスレッドが先に加えた
+      this.spectra.bytes.addAndGet(-bytes);
+      return previous;
+    }
+    return values;
+  }
+
+  /**
+   * キャッシュしているスペクトルの数を応答する。
+   *
+   * @return スペクトルの数
+   */
+  int cachedSpectrumCount() {
+    return this.spectra.values.size();
+  }
+
+  /**
+   * 長さ length の信号を延長する2の冪の長さを応答する。
+   */
+  static int paddedLength(int length) {
+    return length <= 1 ? 1 : Integer.highestOneBit(length - 1) << 1;
+  }
+
+  private void flushCoefficients() {
+    this.realCoefficients = null;
+    this.imaginaryCoefficients = null;
+  }
+
+  /**
+   * スケールの範囲を grain 個以下になるまで二分して並列に計算するタスクである。grain はスケール数をプールの並列度で割った切り上げなので、
+   * 末端のタスクはおおよそワーカーごとに1つになり、作業配列（長さ N の3本）を末端のタスクごとに一度だけ確保して範囲のスケールで使い回す。
+   */
+  private static final class ScaleTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final transient ContinuosWaveletTransformation transformation;
+
+    private final transient double[][] signal;
+
+    private final transient double[] scales;
+
+    private final transient ScaleConsumer consumer;
+
+    private final int from;
+
+    private final int to;
+
+    private final int grain;
+
+    private ScaleTask(ContinuosWaveletTransformation transformation, double[][] signal, double[] scales, ScaleConsumer consumer, int from, int to, int grain) {
+      this.transformation = transformation;
+      this.signal = signal;
+      this.scales = scales;
+      this.consumer = consumer;
+      this.from = from;
+      this.to = to;
+      this.grain = grain;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from > this.grain) {
+        int middle = (this.from + this.to) >>> 1;
+        invokeAll(new ScaleTask(this.transformation, this.signal, this.scales, this.consumer, this.from, middle, this.grain),
+            new ScaleTask(this.transformation, this.signal, this.scales, this.consumer, middle, this.to, this.grain));
+        return;
+      }
+      double[][] product = new double[2][this.signal[0].length];
+      double[] work = new double[this.signal[0].length];
+      for (int j = this.from; j < this.to; j++) {
+        this.transformation.inverseAtScale(this.signal, this.scales[j], product, work);
+        this.consumer.accept(j, product[0], product[1]);
+      }
+    }
+  }
+
+  /**
+   * スペクトルのキャッシュである。保持しているスペクトルの合計のバイト数を数え、上限を超えて加えない。
+   */
+  private static final class SpectrumCache {
+    private final Map<SpectrumKey, double[]> values = new ConcurrentHashMap<>();
+
+    private final AtomicLong bytes = new AtomicLong();
+  }
+
+  /**
+   * スペクトルのキャッシュのキー（変換の長さとスケールの組）である。
+   */
+  private static final class SpectrumKey {
+    private final int length;
+
+    private final double scale;
+
+    private SpectrumKey(int length, double scale) {
+      this.length = length;
+      this.scale = scale;
+    }
+
+    @Override
+    public boolean equals(Object anObject) {
+      if (!(anObject instanceof SpectrumKey)) {
+        return false;
+      }
+      SpectrumKey aKey = (SpectrumKey) anObject;
+      return this.length == aKey.length && Double.compare(this.scale, aKey.scale) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.length, this.scale);
+    }
   }
-}
\ No newline at end of file
+}
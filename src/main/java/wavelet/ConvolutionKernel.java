@@ -0,0 +1,432 @@
+package wavelet;
+
+/**
+ * 周期境界の2分割フィルターバンクの畳み込み（分析・合成）を計算する演算器である。
+ * フィルターの規約は {@link DiscreteWaveletTransformation#initialize(int)} と同じで、分析は
+ * {@code s[b] = Σ h[k] x[(k + 2b) mod n]}、合成は {@code x[2b + p] = Σ h[2m + p] s[(b - m) mod n/2] + g[2m + p] w[(b - m) mod n/2]} である。
+ *
+ * <p>
+ * {@link #scalar()} はスカラーの演算器、{@link #vector()} は Vector API（{@code jdk.incubator.vector}）で
+ * 連続する出力標本をまとめて計算する演算器を応答する。インキュベータモジュールが読み込まれていない環境
+ * （{@code --add-modules jdk.incubator.vector} を指定せずに起動した場合など）では、{@link #vector()} は
+ * スカラーの演算器を応答するので、同じ jar をどこでも実行できる。
+ * どちらも同じ順序で積和を行うため、結果は完全に一致する。</p>
+ *
+ * <p>
+ * 周期的な折り返しが要るのは信号の端の数個の出力標本だけなので、分析・合成とも内側の出力は剰余のないループで計算し、
+ * 端の出力だけを別のループで折り返して計算する（{@link #analysisInteriorBound(int, int)}・{@link #synthesisInteriorStart(int, int)}）。
+ * 周期境界以外の延長（{@link BoundaryMode}）は {@link #analyzeExtended}・{@link #synthesizeExtended} で、
+ * 間引かない変換（{@link StationaryWavelet1dTransformation}）は {@link #analyzeDilated}・{@link #synthesizeDilated} で扱う。</p>
+ *
+ * <p>
+ * インスタンスは状態を持たず、複数のスレッドから同時に利用できる。</p>
+ *
+ * @see WaveletEngine#VECTOR
+ */
+public abstract class ConvolutionKernel extends Object {
+
+    /**
+     * スカラーの演算器である。
+     */
+    private static final ConvolutionKernel SCALAR = new Scalar();
+
+    /**
+     * Vector API の演算器（利用できない場合はスカラーの演算器）である。
+     */
+    private static final ConvolutionKernel VECTOR = loadVector();
+
+    /**
+     * スカラーの演算器を応答する。
+     *
+     * @return スカラーの演算器
+     */
+    public static ConvolutionKernel scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * Vector API の演算器を応答する。利用できない環境ではスカラーの演算器を応答する。
+     *
+     * @return Vector API の演算器、またはスカラーの演算器
+     */
+    public static ConvolutionKernel vector() {
+        return VECTOR;
+    }
+
+    /**
+     * Vector API の演算器が利用できるかどうかを応答する。
+     *
+     * @return 利用できる場合は true
+     */
+    public static boolean isVectorAvailable() {
+        return VECTOR != SCALAR;
+    }
+
+    /**
+     * 長さ length の信号を分析し、スケーリング係数とウェーブレット係数（各 length / 2 個）を書き込む。
+     *
+     * @param source 信号を格納した配列（変更されない）
+     * @param sourceOffset 信号の先頭位置
+     * @param length 信号の長さ
+     * @param scalingFilter スケーリング（低域）フィルター h
+     * @param waveletFilter ウェーブレット（高域）フィルター g
+     * @param scaling スケーリング係数の出力先
+     * @param scalingOffset スケーリング係数の先頭位置
+     * @param wavelet ウェーブレット係数の出力先
+     * @param waveletOffset ウェーブレット係数の先頭位置
+     */
+    public abstract void analyze(double[] source, int sourceOffset, int length, double[] scalingFilter, double[] waveletFilter,
+            double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset);
+
+    /**
+     * 各 half 個のスケーリング係数とウェーブレット係数から、長さ half × 2 の信号を合成して書き込む。
+     * 出力先は係数と重ならないこと。
+     *
+     * @param scaling スケーリング係数を格納した配列（変更されない）
+     * @param scalingOffset スケーリング係数の先頭位置
+     * @param wavelet ウェーブレット係数を格納した配列（変更されない）
+     * @param waveletOffset ウェーブレット係数の先頭位置
+     * @param half 各係数列の長さ
+     * @param scalingFilter スケーリング（低域）フィルター h
+     * @param waveletFilter ウェーブレット（高域）フィルター g
+     * @param recomposed 合成した信号の出力先
+     * @param recomposedOffset 合成した信号の先頭位置
+     */
+    public abstract void synthesize(double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset, int half,
+            double[] scalingFilter, double[] waveletFilter, double[] recomposed, int recomposedOffset);
+
+    /**
+     * 長さ length の信号の周期境界の分析で、標本を周期的に折り返さずに済む出力標本の個数を応答する。
+     * 出力標本 b（{@code 0 <= b <} この値）は {@code x[2b] .. x[2b + filterLength - 1]} だけを参照する。
+     *
+     * @param length 信号の長さ
+     * @param filterLength フィルターの長さ
+     * @return 内側の出力標本の個数（0 .. length / 2）
+     */
+    protected static int analysisInteriorBound(int length, int filterLength) {
+        if (length < filterLength) {
+            return 0;
+        }
+        return Math.min(length / 2, (length - filterLength) / 2 + 1);
+    }
+
+    /**
+     * 長さ half × 2 の信号の周期境界の合成で、係数列を周期的に折り返す必要がある出力標本の組の個数を応答する。
+     * 出力標本の組 b（この値 {@code <= b < half}）は {@code s[b - taps + 1] .. s[b]} だけを参照する。
+     *
+     * @param half 各係数列の長さ
+     * @param filterLength フィルターの長さ（偶数）
+     * @return 端の出力標本の組の個数（0 .. half）
+     */
+    protected static int synthesisInteriorStart(int half, int filterLength) {
+        return Math.min(half, filterLength / 2 - 1);
+    }
+
+    /**
+     * 出力標本 b = from .. to-1 についてだけ、スカラーで分析する。Vector API の演算器の端数の処理にも用いる。
+     * 周期的に折り返さずに済む内側の出力は剰余のないループで、残りの端の出力だけを剰余で折り返して計算する。
+     * 積和の順序はどちらのループも同じである。
+     */
+    protected static void analyzeRange(double[] source, int sourceOffset, int length, double[] scalingFilter, double[] waveletFilter,
+            double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset, int from, int to) {
+        int interior = Math.max(from, Math.min(to, analysisInteriorBound(length, scalingFilter.length)));
+        for (int b = from; b < interior; b++) {
+            int base = sourceOffset + 2 * b;
+            double scalingValue = 0.0D;
+            double waveletValue = 0.0D;
+            for (int k = 0; k < scalingFilter.length; k++) {
+                double value = source[base + k];
+                scalingValue += scalingFilter[k] * value;
+                waveletValue += waveletFilter[k] * value;
+            }
+            scaling[scalingOffset + b] = scalingValue;
+            wavelet[waveletOffset + b] = waveletValue;
+        }
+        for (int b = interior; b < to; b++) {
+            double scalingValue = 0.0D;
+            double waveletValue = 0.0D;
+            for (int k = 0; k < scalingFilter.length; k++) {
+                double value = source[sourceOffset + (k + 2 * b) % length];
+                scalingValue += scalingFilter[k] * value;
+                waveletValue += waveletFilter[k] * value;
+            }
+            scaling[scalingOffset + b] = scalingValue;
+            wavelet[waveletOffset + b] = waveletValue;
+        }
+    }
+
+    /**
+     * 出力標本の組 b = from .. to-1（信号の 2b 番目と 2b+1 番目）についてだけ、スカラーで合成する。
+     * Vector API の演算器の端数の処理にも用いる。
+     */
+    protected static void synthesizeRange(double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset, int half,
+            double[] scalingFilter, double[] waveletFilter, double[] recomposed, int recomposedOffset, int from, int to) {
+        int interior = Math.min(to, Math.max(from, synthesisInteriorStart(half, scalingFilter.length)));
+        for (int b = from; b < interior; b++) {
+            double even = 0.0D;
+            double odd = 0.0D;
+            for (int m = 0; m < scalingFilter.length / 2; m++) {
+                int n = Math.floorMod(b - m, half);
+                double scalingValue = scaling[scalingOffset + n];
+                double waveletValue = wavelet[waveletOffset + n];
+                even = even + scalingFilter[m * 2] * scalingValue + waveletFilter[m * 2] * waveletValue;
+                odd = odd + scalingFilter[m * 2 + 1] * scalingValue + waveletFilter[m * 2 + 1] * waveletValue;
+            }
+            recomposed[recomposedOffset + b * 2] = even;
+            recomposed[recomposedOffset + b * 2 + 1] = odd;
+        }
+        for (int b = interior; b < to; b++) {
+            double even = 0.0D;
+            double odd = 0.0D;
+            for (int m = 0; m < scalingFilter.length / 2; m++) {
+                double scalingValue = scaling[scalingOffset + b - m];
+                double waveletValue = wavelet[waveletOffset + b - m];
+                even = even + scalingFilter[m * 2] * scalingValue + waveletFilter[m * 2] * waveletValue;
+                odd = odd + scalingFilter[m * 2 + 1] * scalingValue + waveletFilter[m * 2 + 1] * waveletValue;
+            }
+            recomposed[recomposedOffset + b * 2] = even;
+            recomposed[recomposedOffset + b * 2 + 1] = odd;
+        }
+    }
+
+    /**
+     * 長さ length の信号を、端の外側を mode で延長して分析する。{@link BoundaryMode#PERIODIC} では {@link #analyze} と同じである。
+     * それ以外では、延長した標本を参照する係数もすべて書き込む（各 {@link BoundaryMode#coefficientLength(int, int)} 個）。
+     * 係数 i は {@code Σ h[k] x[2i - (L - 2) + k]}（L はフィルターの長さ）で、信号の内側だけを参照する係数は
+     * 剰余も分岐もないループで、端の係数だけを {@link BoundaryMode#valueAt(double[], int, int, int)} で計算する。
+     *
+     * @param source 信号を格納した配列（変更されない）
+     * @param sourceOffset 信号の先頭位置
+     * @param length 信号の長さ（1 以上）
+     * @param scalingFilter スケーリング（低域）フィルター h
+     * @param waveletFilter ウェーブレット（高域）フィルター g
+     * @param mode 境界の延長の方法
+     * @param scaling スケーリング係数の出力先
+     * @param scalingOffset スケーリング係数の先頭位置
+     * @param wavelet ウェーブレット係数の出力先
+     * @param waveletOffset ウェーブレット係数の先頭位置
+     */
+    public void analyzeExtended(double[] source, int sourceOffset, int length, double[] scalingFilter, double[] waveletFilter, BoundaryMode mode,
+            double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset) {
+        if (mode == BoundaryMode.PERIODIC) {
+            this.analyze(source, sourceOffset, length, scalingFilter, waveletFilter, scaling, scalingOffset, wavelet, waveletOffset);
+            return;
+        }
+        int taps = scalingFilter.length;
+        int count = mode.coefficientLength(length, taps);
+        int first = Math.min(count, taps / 2 - 1);
+        int last = Math.max(first, Math.min(count, length / 2));
+        analyzeEdge(source, sourceOffset, length, scalingFilter, waveletFilter, mode, scaling, scalingOffset, wavelet, waveletOffset, 0, first);
+        for (int b = first; b < last; b++) {
+            int base = sourceOffset + 2 * b - taps + 2;
+            double scalingValue = 0.0D;
+            double waveletValue = 0.0D;
+            for (int k = 0; k < taps; k++) {
+                double value = source[base + k];
+                scalingValue += scalingFilter[k] * value;
+                waveletValue += waveletFilter[k] * value;
+            }
+            scaling[scalingOffset + b] = scalingValue;
+            wavelet[waveletOffset + b] = waveletValue;
+        }
+        analyzeEdge(source, sourceOffset, length, scalingFilter, waveletFilter, mode, scaling, scalingOffset, wavelet, waveletOffset, last, count);
+    }
+
+    /**
+     * {@link #analyzeExtended} の係数 b = from .. to-1 を、延長した標本を取り出しながら計算する（端の係数に用いる）。
+     */
+    private static void analyzeEdge(double[] source, int sourceOffset, int length, double[] scalingFilter, double[] waveletFilter, BoundaryMode mode,
+            double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset, int from, int to) {
+        int taps = scalingFilter.length;
+        for (int b = from; b < to; b++) {
+            double scalingValue = 0.0D;
+            double waveletValue = 0.0D;
+            for (int k = 0; k < taps; k++) {
+                double value = mode.valueAt(source, sourceOffset, length, 2 * b - taps + 2 + k);
+                scalingValue += scalingFilter[k] * value;
+                waveletValue += waveletFilter[k] * value;
+            }
+            scaling[scalingOffset + b] = scalingValue;
+            wavelet[waveletOffset + b] = waveletValue;
+        }
+    }
+
+    /**
+     * {@link #analyzeExtended} の係数（各 count 個）から長さ length の信号を合成して書き込む。
+     * 係数は端の外側の分まで揃っているので、どの出力標本も係数列を折り返さずに {@code Σ h[2m + p] s[c - m + L/2 - 1]} で計算できる。
+     * {@link BoundaryMode#PERIODIC} の係数には用いず、{@link #synthesize} を用いること。
+     *
+     * @param scaling スケーリング係数を格納した配列（変更されない）
+     * @param scalingOffset スケーリング係数の先頭位置
+     * @param wavelet ウェーブレット係数を格納した配列（変更されない）
+     * @param waveletOffset ウェーブレット係数の先頭位置
+     * @param count 各係数列の長さ
+     * @param scalingFilter 合成のスケーリング（低域）フィルター
+     * @param waveletFilter 合成のウェーブレット（高域）フィルター
+     * @param recomposed 合成した信号の出力先
+     * @param recomposedOffset 合成した信号の先頭位置
+     * @param length 合成する信号の長さ
+     */
+    public void synthesizeExtended(double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset, int count,
+            double[] scalingFilter, double[] waveletFilter, double[] recomposed, int recomposedOffset, int length) {
+        int taps = scalingFilter.length / 2;
+        if (length == 0) {
+            return;
+        }
+        if (count < (length + 1) / 2 + taps - 1) {
+            throw new IllegalArgumentException("too few coefficients for the signal length.");
+        }
+        for (int c = 0; c < (length + 1) / 2; c++) {
+            int base = c + taps - 1;
+            double even = 0.0D;
+            double odd = 0.0D;
+            for (int m = 0; m < taps; m++) {
+                double scalingValue = scaling[scalingOffset + base - m];
+                double waveletValue = wavelet[waveletOffset + base - m];
+                even = even + scalingFilter[m * 2] * scalingValue + waveletFilter[m * 2] * waveletValue;
+                odd = odd + scalingFilter[m * 2 + 1] * scalingValue + waveletFilter[m * 2 + 1] * waveletValue;
+            }
+            recomposed[recomposedOffset + c * 2] = even;
+            if (c * 2 + 1 < length) {
+                recomposed[recomposedOffset + c * 2 + 1] = odd;
+            }
+        }
+    }
+
+    /**
+     * 長さ length の信号を、フィルターのタップの間隔を dilation 標本に広げて（à trous）間引かずに周期境界で分析し、
+     * スケーリング係数とウェーブレット係数（各 length 個）を書き込む。
+     * {@code s[n] = Σ h[k] x[(n + k * dilation) mod length]} であり、dilation が 1 のとき偶数番目の出力は {@link #analyze} の出力と一致する。
+     * 広げたフィルター（間に 0 を挟んだ配列）は作らない。出力先は信号と重ならないこと。
+     *
+     * @param source 信号を格納した配列（変更されない）
+     * @param sourceOffset 信号の先頭位置
+     * @param length 信号の長さ（1 以上）
+     * @param scalingFilter スケーリング（低域）フィルター h
+     * @param waveletFilter ウェーブレット（高域）フィルター g
+     * @param dilation タップの間隔（第 j 段では 2^(j-1)）
+     * @param scaling スケーリング係数の出力先
+     * @param scalingOffset スケーリング係数の先頭位置
+     * @param wavelet ウェーブレット係数の出力先
+     * @param waveletOffset ウェーブレット係数の先頭位置
+     */
+    public void analyzeDilated(double[] source, int sourceOffset, int length, double[] scalingFilter, double[] waveletFilter, int dilation,
+            double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset) {
+        analyzeDilatedRange(source, sourceOffset, length, scalingFilter, waveletFilter, dilation, scaling, scalingOffset, wavelet, waveletOffset, 0, length);
+    }
+
+    /**
+     * {@link #analyzeDilated} の出力 n = from .. to-1 についてだけ計算する。
+     * 折り返さずに済む内側の出力（{@code n + (L - 1) * dilation < length}）は剰余のないループで、残りだけを剰余で折り返して計算する。
+     */
+    protected static void analyzeDilatedRange(double[] source, int sourceOffset, int length, double[] scalingFilter, double[] waveletFilter, int dilation,
+            double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset, int from, int to) {
+        int taps = scalingFilter.length;
+        int step = dilation % length; // 周期境界なので間隔は長さで割った余りと同じ
+        int interior = Math.max(from, Math.min(to, length - (taps - 1) * step));
+        for (int n = from; n < interior; n++) {
+            int base = sourceOffset + n;
+            double scalingValue = 0.0D;
+            double waveletValue = 0.0D;
+            for (int k = 0; k < taps; k++) {
+                double value = source[base + k * step];
+                scalingValue += scalingFilter[k] * value;
+                waveletValue += waveletFilter[k] * value;
+            }
+            scaling[scalingOffset + n] = scalingValue;
+            wavelet[waveletOffset + n] = waveletValue;
+        }
+        for (int n = interior; n < to; n++) {
+            double scalingValue = 0.0D;
+            double waveletValue = 0.0D;
+            for (int k = 0; k < taps; k++) {
+                double value = source[sourceOffset + (n + k * step) % length];
+                scalingValue += scalingFilter[k] * value;
+                waveletValue += waveletFilter[k] * value;
+            }
+            scaling[scalingOffset + n] = scalingValue;
+            wavelet[waveletOffset + n] = waveletValue;
+        }
+    }
+
+    /**
+     * {@link #analyzeDilated} の係数（各 length 個）から、長さ length の信号を合成して書き込む。
+     * {@code x[n] = (Σ h~[k] s[(n - k * dilation) mod length] + g~[k] w[(n - k * dilation) mod length]) / 2} であり、
+     * 間引いた変換の偶数と奇数の位相の2通りの再構成の平均にあたる。出力先は係数と重ならないこと。
+     *
+     * @param scaling スケーリング係数を格納した配列（変更されない）
+     * @param scalingOffset スケーリング係数の先頭位置
+     * @param wavelet ウェーブレット係数を格納した配列（変更されない）
+     * @param waveletOffset ウェーブレット係数の先頭位置
+     * @param length 信号の長さ（1 以上）
+     * @param scalingFilter 合成のスケーリング（低域）フィルター
+     * @param waveletFilter 合成のウェーブレット（高域）フィルター
+     * @param dilation タップの間隔
+     * @param recomposed 合成した信号の出力先
+     * @param recomposedOffset 合成した信号の先頭位置
+     */
+    public void synthesizeDilated(double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset, int length,
+            double[] scalingFilter, double[] waveletFilter, int dilation, double[] recomposed, int recomposedOffset) {
+        synthesizeDilatedRange(scaling, scalingOffset, wavelet, waveletOffset, length, scalingFilter, waveletFilter, dilation, recomposed, recomposedOffset, 0, length);
+    }
+
+    /**
+     * {@link #synthesizeDilated} の出力 n = from .. to-1 についてだけ計算する。
+     * 先頭の {@code (L - 1) * dilation} 個だけが係数列を折り返す。
+     */
+    protected static void synthesizeDilatedRange(double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset, int length,
+            double[] scalingFilter, double[] waveletFilter, int dilation, double[] recomposed, int recomposedOffset, int from, int to) {
+        int taps = scalingFilter.length;
+        int step = dilation % length;
+        int edge = Math.max(from, Math.min(to, (taps - 1) * step));
+        for (int n = from; n < edge; n++) {
+            double value = 0.0D;
+            for (int k = 0; k < taps; k++) {
+                int index = Math.floorMod(n - k * step, length);
+                value = value + scalingFilter[k] * scaling[scalingOffset + index] + waveletFilter[k] * wavelet[waveletOffset + index];
+            }
+            recomposed[recomposedOffset + n] = value * 0.5D;
+        }
+        for (int n = edge; n < to; n++) {
+            double value = 0.0D;
+            for (int k = 0; k < taps; k++) {
+                int index = n - k * step;
+                value = value + scalingFilter[k] * scaling[scalingOffset + index] + waveletFilter[k] * wavelet[waveletOffset + index];
+            }
+            recomposed[recomposedOffset + n] = value * 0.5D;
+        }
+    }
+
+    /**
+     * インキュベータモジュールが読み込まれていれば Vector API の演算器を生成し、そうでなければスカラーの演算器を応答する。
+     * 演算器のクラスはモジュールがある場合にだけ読み込むので、モジュールがない環境でもリンクエラーにならない。
+     */
+    private static ConvolutionKernel loadVector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return SCALAR;
+        }
+        try {
+            return (ConvolutionKernel) Class.forName("wavelet.VectorConvolutionKernel").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError anException) {
+            return SCALAR;
+        }
+    }
+
+    /**
+     * スカラーの演算器である。
+     */
+    private static final class Scalar extends ConvolutionKernel {
+
+        @Override
+        public void analyze(double[] source, int sourceOffset, int length, double[] scalingFilter, double[] waveletFilter,
+                double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset) {
+            analyzeRange(source, sourceOffset, length, scalingFilter, waveletFilter, scaling, scalingOffset, wavelet, waveletOffset, 0, length / 2);
+        }
+
+        @Override
+        public void synthesize(double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset, int half,
+                double[] scalingFilter, double[] waveletFilter, double[] recomposed, int recomposedOffset) {
+            synthesizeRange(scaling, scalingOffset, wavelet, waveletOffset, half, scalingFilter, waveletFilter, recomposed, recomposedOffset, 0, half);
+        }
+    }
+}
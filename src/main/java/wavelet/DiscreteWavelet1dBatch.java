@@ -0,0 +1,284 @@
+package wavelet;
+
+/**
+ * 同じ長さの多数の1次元信号を、1つのフィルターバンクと作業領域を共有してまとめて変換するクラス。
+ * 信号ごとに {@link DiscreteWavelet1dTransformation} を生成して {@link #initialize()} と配列の確保を繰り返す代わりに、
+ * 呼び出し側が用意した出力先に直接係数を書き込む。
+ *
+ * <p>
+ * 信号は {@code double[][]}（1行が1信号）か、連続に並べた1本の配列（信号 i は {@code offset + i × length} から）で与える。
+ * 係数は各信号につき {@link #coefficientLength()} 個で、平坦な出力では信号 i の係数が {@code offset + i × coefficientLength()} から並ぶ。
+ * 結果は {@link DiscreteWavelet1dTransformation} で1つずつ変換した結果と完全に一致する（奇数の長さは最後の標本を複写して偶数にし、
+ * 再構成は元の長さに切り詰める。{@link BoundaryMode#PERIODIC} 以外ではそのままの長さで延長して分解する）。</p>
+ *
+ * <p>
+ * フォーク／ジョインプール（{@link #forkJoinPool(java.util.concurrent.ForkJoinPool)}）を設定すると、信号の範囲を分けて並列に変換し、
+ * タスクごとに作業配列を割り当てる。逐次の場合はこのオブジェクトが保持する1つの作業配列を使い回す。</p>
+ *
+ * @see DiscreteWavelet1dTransformation
+ */
+public class DiscreteWavelet1dBatch extends DiscreteWaveletTransformation {
+
+    protected int length;
+
+    protected BoundaryMode boundaryMode;
+
+    protected double[][] scalingCoefficients; // applyTo で変換した結果
+
+    protected double[][] waveletCoefficients;
+
+    private double[] workCoefficients; // 逐次に変換する場合に使い回す作業配列
+
+    /**
+     * 長さ length の信号をまとめて変換する。
+     *
+     * @param length 各信号の長さ（1 以上）
+     */
+    public DiscreteWavelet1dBatch(int length) {
+        this.initialize();
+        if (length < 1) {
+            throw new IllegalArgumentException("length must be positive.");
+        }
+        this.length = length;
+    }
+
+    @Override
+    protected void initialize() {
+        super.initialize();
+        this.length = 0;
+        this.boundaryMode = BoundaryMode.PERIODIC;
+        this.scalingCoefficients = null;
+        this.waveletCoefficients = null;
+        this.workCoefficients = null;
+    }
+
+    public int length() {
+        return this.length;
+    }
+
+    public BoundaryMode boundaryMode() {
+        return this.boundaryMode;
+    }
+
+    public void boundaryMode(BoundaryMode aBoundaryMode) {
+        if (aBoundaryMode == null) {
+            throw new IllegalArgumentException("boundary mode must not be null.");
+        }
+        this.boundaryMode = aBoundaryMode;
+    }
+
+    /**
+     * 各信号のスケーリング係数（ウェーブレット係数も同数）の個数を応答する。
+     *
+     * @return 係数の個数
+     */
+    public int coefficientLength() {
+        if (this.boundaryMode == BoundaryMode.PERIODIC) {
+            return DiscreteWavelet2dTransformation.evenLength(this.length) / 2;
+        }
+        return this.boundaryMode.coefficientLength(this.length, this.daubechiesScalingSequence.length);
+    }
+
+    public double[][] scalingCoefficients() {
+        return this.scalingCoefficients;
+    }
+
+    public double[][] waveletCoefficients() {
+        return this.waveletCoefficients;
+    }
+
+    /**
+     * 各行の信号を分解し、係数を出力先の各行に書き込む。
+     *
+     * @param signals 信号（各行の長さは {@link #length()}）
+     * @param scaling スケーリング係数の出力先（各行の長さは {@link #coefficientLength()} 以上）
+     * @param wavelet ウェーブレット係数の出力先（各行の長さは {@link #coefficientLength()} 以上）
+     */
+    public void decompose(double[][] signals, double[][] scaling, double[][] wavelet) {
+        int count = signals.length;
+        int half = this.coefficientLength();
+        this.checkRows(signals, count, this.length);
+        this.checkRows(scaling, count, half);
+        this.checkRows(wavelet, count, half);
+        this.forEachSignal(count, (from, to, work) -> {
+            for (int index = from; index < to; index++) {
+                this.decomposeSignal(signals[index], 0, scaling[index], 0, wavelet[index], 0, work);
+            }
+        });
+    }
+
+    /**
+     * 連続に並べた count 本の信号を分解し、係数を出力先に連続に書き込む。
+     *
+     * @param signals 信号を格納した配列（変更されない）
+     * @param signalOffset 最初の信号の先頭位置
+     * @param count 信号の数
+     * @param scaling スケーリング係数の出力先
+     * @param scalingOffset 最初の信号のスケーリング係数の先頭位置
+     * @param wavelet ウェーブレット係数の出力先
+     * @param waveletOffset 最初の信号のウェーブレット係数の先頭位置
+     */
+    public void decompose(double[] signals, int signalOffset, int count, double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset) {
+        int half = this.coefficientLength();
+        this.checkRange(signals, signalOffset, count, this.length);
+        this.checkRange(scaling, scalingOffset, count, half);
+        this.checkRange(wavelet, waveletOffset, count, half);
+        this.forEachSignal(count, (from, to, work) -> {
+            for (int index = from; index < to; index++) {
+                this.decomposeSignal(signals, signalOffset + index * this.length, scaling, scalingOffset + index * half, wavelet, waveletOffset + index * half, work);
+            }
+        });
+    }
+
+    /**
+     * 各行の係数から信号を再構成し、出力先の各行に書き込む。
+     *
+     * @param scaling スケーリング係数（各行の長さは {@link #coefficientLength()} 以上）
+     * @param wavelet ウェーブレット係数（各行の長さは {@link #coefficientLength()} 以上）
+     * @param signals 再構成した信号の出力先（各行の長さは {@link #length()} 以上）
+     */
+    public void recompose(double[][] scaling, double[][] wavelet, double[][] signals) {
+        int count = signals.length;
+        int half = this.coefficientLength();
+        this.checkRows(scaling, count, half);
+        this.checkRows(wavelet, count, half);
+        this.checkRows(signals, count, this.length);
+        this.forEachSignal(count, (from, to, work) -> {
+            for (int index = from; index < to; index++) {
+                this.recomposeSignal(scaling[index], 0, wavelet[index], 0, signals[index], 0, work);
+            }
+        });
+    }
+
+    /**
+     * 連続に並べた count 本分の係数から信号を再構成し、出力先に連続に書き込む。
+     *
+     * @param scaling スケーリング係数を格納した配列（変更されない）
+     * @param scalingOffset 最初の信号のスケーリング係数の先頭位置
+     * @param wavelet ウェーブレット係数を格納した配列（変更されない）
+     * @param waveletOffset 最初の信号のウェーブレット係数の先頭位置
+     * @param count 信号の数
+     * @param signals 再構成した信号の出力先
+     * @param signalOffset 最初の信号の先頭位置
+     */
+    public void recompose(double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset, int count, double[] signals, int signalOffset) {
+        int half = this.coefficientLength();
+        this.checkRange(scaling, scalingOffset, count, half);
+        this.checkRange(wavelet, waveletOffset, count, half);
+        this.checkRange(signals, signalOffset, count, this.length);
+        this.forEachSignal(count, (from, to, work) -> {
+            for (int index = from; index < to; index++) {
+                this.recomposeSignal(scaling, scalingOffset + index * half, wavelet, waveletOffset + index * half, signals, signalOffset + index * this.length, work);
+            }
+        });
+    }
+
+    /**
+     * 各行の信号を分解し、結果を {@link #scalingCoefficients()} と {@link #waveletCoefficients()} で参照できるようにする。
+     *
+     * @param anObject 信号（{@code double[][]}）
+     * @return このオブジェクト
+     */
+    @Override
+    public WaveletTransformation applyTo(Object anObject) {
+        if (!(anObject instanceof double[][])) {
+            throw new IllegalArgumentException("anObject must be a double[][].");
+        }
+        double[][] signals = (double[][]) anObject;
+        int half = this.coefficientLength();
+        double[][] scaling = new double[signals.length][half];
+        double[][] wavelet = new double[signals.length][half];
+        this.decompose(signals, scaling, wavelet);
+        this.scalingCoefficients = scaling;
+        this.waveletCoefficients = wavelet;
+        return this;
+    }
+
+    @Override
+    public WaveletTransformation transform(WaveletTransformation aWaveletTransformation) {
+        if (!(aWaveletTransformation instanceof DiscreteWavelet1dBatch)) {
+            throw new IllegalArgumentException("waveletTransformation must be a DiscreteWavelet1dBatch.");
+        }
+        DiscreteWavelet1dBatch aBatch = (DiscreteWavelet1dBatch) aWaveletTransformation;
+        DiscreteWavelet1dBatch result = new DiscreteWavelet1dBatch(aBatch.length());
+        result.engine(this.engine);
+        result.forkJoinPool(this.forkJoinPool);
+        result.filterBank(this.filterBank);
+        result.boundaryMode(this.boundaryMode);
+        return result;
+    }
+
+    /**
+     * 1つの信号を分解する。周期境界では、奇数の長さの信号と、リフティングで計算する場合だけ作業配列に写してから分解する。
+     */
+    private void decomposeSignal(double[] source, int sourceOffset, double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset, double[] work) {
+        if (this.boundaryMode != BoundaryMode.PERIODIC) {
+            this.convolutionKernel().analyzeExtended(source, sourceOffset, this.length, this.daubechiesScalingSequence, this.daubechiesWaveletSequence, this.boundaryMode, scaling, scalingOffset, wavelet, waveletOffset);
+            return;
+        }
+        int even = DiscreteWavelet2dTransformation.evenLength(this.length);
+        double[] input = source;
+        int inputOffset = sourceOffset;
+        if (even != this.length) {
+            System.arraycopy(source, sourceOffset, work, 0, this.length);
+            work[this.length] = source[sourceOffset + this.length - 1];
+            input = work;
+            inputOffset = 0;
+        }
+        if (this.isLifting()) {
+            this.liftingScheme.forward(input, inputOffset, even, scaling, scalingOffset, wavelet, waveletOffset);
+            return;
+        }
+        this.convolutionKernel().analyze(input, inputOffset, even, this.daubechiesScalingSequence, this.daubechiesWaveletSequence, scaling, scalingOffset, wavelet, waveletOffset);
+    }
+
+    /**
+     * 1つの信号を再構成する。周期境界で奇数の長さの場合は作業配列に再構成してから元の長さ分を写す。
+     */
+    private void recomposeSignal(double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset, double[] recomposed, int recomposedOffset, double[] work) {
+        if (this.boundaryMode != BoundaryMode.PERIODIC) {
+            this.convolutionKernel().synthesizeExtended(scaling, scalingOffset, wavelet, waveletOffset, this.coefficientLength(), this.synthesisScalingSequence, this.synthesisWaveletSequence, recomposed, recomposedOffset, this.length);
+            return;
+        }
+        int half = this.coefficientLength();
+        boolean padded = half * 2 != this.length;
+        double[] output = padded ? work : recomposed;
+        int outputOffset = padded ? 0 : recomposedOffset;
+        if (this.isLifting()) {
+            this.liftingScheme.inverse(scaling, scalingOffset, wavelet, waveletOffset, half, output, outputOffset);
+        } else {
+            this.convolutionKernel().synthesize(scaling, scalingOffset, wavelet, waveletOffset, half, this.synthesisScalingSequence, this.synthesisWaveletSequence, output, outputOffset);
+        }
+        if (padded) {
+            System.arraycopy(work, 0, recomposed, recomposedOffset, this.length);
+        }
+    }
+
+    /**
+     * count 本の信号に処理を適用する（プールが設定されていて十分に多ければ信号の範囲を分けて並列に）。
+     */
+    private void forEachSignal(int count, ChunkAction action) {
+        int workLength = this.length + 1;
+        if (this.workCoefficients == null || this.workCoefficients.length < workLength) {
+            this.workCoefficients = new double[workLength];
+        }
+        this.forEachChunk(count, this.length * this.daubechiesScalingSequence.length, workLength, this.workCoefficients, action);
+    }
+
+    private void checkRows(double[][] rows, int count, int minimumLength) {
+        if (rows.length != count) {
+            throw new IllegalArgumentException("number of rows must match the number of signals.");
+        }
+        for (double[] row : rows) {
+            if (row.length < minimumLength) {
+                throw new IllegalArgumentException("row is too short.");
+            }
+        }
+    }
+
+    private void checkRange(double[] values, int offset, int count, int stride) {
+        if (offset < 0 || count < 0 || offset + (long) count * stride > values.length) {
+            throw new IllegalArgumentException("buffer is too short.");
+        }
+    }
+}
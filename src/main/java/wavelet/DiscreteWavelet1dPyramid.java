@@ -0,0 +1,214 @@
+package wavelet;
+
+import java.util.Arrays;
+
+/**
+ * 1次元離散ウェーブレット変換の多段分解（Mallat のピラミッド）を実装するクラス。
+ * すべての帯域を、あらかじめ確保した1本の配列に標準の詰め込み配置で格納する。
+ *
+ * <p>
+ * 長さ n、段数 J の信号に対する配置は次のとおりである。
+ * <pre>
+ * [ s_J | w_J | w_(J-1) | ... | w_1 ]
+ * </pre>
+ * 第 j 段のウェーブレット係数 w_j は位置 n / 2^j から長さ n / 2^j を占め、
+ * 最上段のスケーリング係数 s_J は先頭の n / 2^J を占める。
+ * 段ごとに配列を作り直さないため、何段分解しても係数と作業領域の合計は O(n) に収まる。</p>
+ *
+ * <p>
+ * 再構成は任意の段まで行える。{@link #recomposedCoefficients(int)} に段 k を渡すと、
+ * 第 k 段の近似（長さ n / 2^k）を応答し、k = 0 で元の信号になる。</p>
+ *
+ * @see DiscreteWavelet1dTransformation
+ * @see DiscreteWavelet2dPyramid
+ */
+public class DiscreteWavelet1dPyramid extends DiscreteWaveletTransformation {
+
+    protected double[] sourceCoefficients;
+
+    protected double[] coefficients;
+
+    protected int levels;
+
+    private double[] workCoefficients; // 各段の分解・再構成で使い回す作業配列
+
+    public DiscreteWavelet1dPyramid(double[] paramArrayOfdouble, int paramInt) {
+        this.initialize();
+        this.levels(paramInt);
+        this.sourceCoefficients(paramArrayOfdouble);
+    }
+
+    @Override
+    protected void initialize() {
+        super.initialize();
+        this.sourceCoefficients = null;
+        this.coefficients = null;
+        this.levels = 1;
+        this.workCoefficients = null;
+    }
+
+    /**
+     * 長さ length の信号を何段まで分解できるかを応答する。
+     *
+     * @param length 信号の長さ
+     * @return 分解できる最大の段数
+     */
+    public static int maximumLevels(int length) {
+        int count = 0;
+        while (length > 1 && length % 2 == 0) {
+            length /= 2;
+            count++;
+        }
+        return count;
+    }
+
+    public int levels() {
+        return this.levels;
+    }
+
+    public void levels(int paramInt) {
+        if (paramInt < 0) {
+            throw new IllegalArgumentException("levels must not be negative.");
+        }
+        this.levels = paramInt;
+        if (this.sourceCoefficients != null) {
+            this.checkLength(this.sourceCoefficients.length);
+            this.coefficients = null;
+        }
+    }
+
+    public double[] sourceCoefficients() {
+        return this.sourceCoefficients;
+    }
+
+    public void sourceCoefficients(double[] paramArrayOfdouble) {
+        this.checkLength(paramArrayOfdouble.length);
+        this.sourceCoefficients = paramArrayOfdouble;
+        this.coefficients = null;
+    }
+
+    /**
+     * 詰め込み配置の係数配列を応答する。配列はこのオブジェクトと共有されており、
+     * 要素を書き換えると以降の再構成に反映される。
+     *
+     * @return 詰め込み配置の係数配列
+     */
+    public double[] coefficients() {
+        if (this.coefficients == null) {
+            computeCoefficients();
+        }
+        return this.coefficients;
+    }
+
+    /**
+     * 詰め込み配置の係数配列を設定する。元の信号は破棄され、以降は与えた係数から再構成する。
+     *
+     * @param paramArrayOfdouble 詰め込み配置の係数配列
+     */
+    public void coefficients(double[] paramArrayOfdouble) {
+        this.checkLength(paramArrayOfdouble.length);
+        this.sourceCoefficients = null;
+        this.coefficients = paramArrayOfdouble;
+    }
+
+    /**
+     * 第 level 段の帯域が詰め込み配列の中で始まる位置（＝その帯域の長さ）を応答する。
+     *
+     * @param level 段（1 .. levels）
+     * @return 第 level 段のウェーブレット係数の先頭位置
+     */
+    public int waveletOffset(int level) {
+        this.checkLevel(level, 1);
+        return this.coefficients().length >> level;
+    }
+
+    public double[] scalingCoefficients() {
+        double[] arrayOfDouble = this.coefficients();
+        return Arrays.copyOf(arrayOfDouble, arrayOfDouble.length >> this.levels);
+    }
+
+    public double[] waveletCoefficients(int level) {
+        int offset = this.waveletOffset(level);
+        return Arrays.copyOfRange(this.coefficients(), offset, offset * 2);
+    }
+
+    public double[] recomposedCoefficients() {
+        return this.recomposedCoefficients(0);
+    }
+
+    /**
+     * 第 level 段の近似まで再構成した信号を応答する。詰め込み配列は変更しない。
+     *
+     * @param level 再構成する段（0 .. levels、0 で元の信号）
+     * @return 長さ n / 2^level の再構成した信号
+     */
+    public double[] recomposedCoefficients(int level) {
+        this.checkLevel(level, 0);
+        double[] arrayOfDouble = this.coefficients();
+        int i = arrayOfDouble.length;
+        double[] recomposed = Arrays.copyOf(arrayOfDouble, i >> level);
+        double[] work = this.workCoefficients(i);
+        for (int j = this.levels; j > level; j--) {
+            this.recompose(recomposed, 0, i >> (j - 1), 1, work);
+        }
+        return recomposed;
+    }
+
+    public WaveletTransformation applyTo(Object paramObject) {
+        if (!(paramObject instanceof double[])) {
+            throw new IllegalArgumentException("anObject must be a double[].");
+        }
+        sourceCoefficients((double[]) paramObject);
+        coefficients();
+        return this;
+    }
+
+    public WaveletTransformation transform(WaveletTransformation paramWaveletTransformation) {
+        if (!(paramWaveletTransformation instanceof DiscreteWavelet1dPyramid)) {
+            throw new IllegalArgumentException("waveletTransformation must be a DiscreteWavelet1dPyramid.");
+        }
+        DiscreteWavelet1dPyramid discreteWavelet1dPyramid = (DiscreteWavelet1dPyramid) paramWaveletTransformation;
+        double[] arrayOfDouble = discreteWavelet1dPyramid.sourceCoefficients();
+        if (arrayOfDouble == null) {
+            arrayOfDouble = discreteWavelet1dPyramid.recomposedCoefficients();
+        }
+        DiscreteWavelet1dPyramid result = new DiscreteWavelet1dPyramid(arrayOfDouble, this.levels);
+        result.engine(this.engine);
+        result.filterBank(this.filterBank);
+        return result;
+    }
+
+    /**
+     * 元の信号を詰め込み配列に写し、近似成分の範囲を半分ずつにしながらその場で分解する。
+     */
+    protected void computeCoefficients() {
+        if (this.sourceCoefficients == null) {
+            return;
+        }
+        int i = this.sourceCoefficients.length;
+        this.coefficients = Arrays.copyOf(this.sourceCoefficients, i);
+        double[] work = this.workCoefficients(i);
+        for (int j = 0; j < this.levels; j++) {
+            this.decompose(this.coefficients, 0, i >> j, 1, work);
+        }
+    }
+
+    private double[] workCoefficients(int length) {
+        if (this.workCoefficients == null || this.workCoefficients.length < length) {
+            this.workCoefficients = new double[length];
+        }
+        return this.workCoefficients;
+    }
+
+    private void checkLength(int length) {
+        if (length == 0 || length % (1 << this.levels) != 0) {
+            throw new IllegalArgumentException("length must be a multiple of 2^levels.");
+        }
+    }
+
+    private void checkLevel(int level, int minimum) {
+        if (level < minimum || level > this.levels) {
+            throw new IllegalArgumentException("level is out of range.");
+        }
+    }
+}
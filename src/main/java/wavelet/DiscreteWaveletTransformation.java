@@ -1,5 +1,10 @@
 package wavelet;
 
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * 離散ウェーブレット変換（DWT）の**抽象基底クラス**です。
  * このクラスは、1次元または2次元の離散ウェーブレット変換を行うための共通の構造と、
@@ -24,6 +29,66 @@ public abstract class DiscreteWaveletTransformation extends WaveletTransformatio
    */
   protected double[] daubechiesWaveletSequence;
   
+  /**
+   * 合成（再構成）に用いるスケーリングフィルターの係数シーケンスを保持します。
+   * 直交ウェーブレットでは {@link #daubechiesScalingSequence} と同じ配列です。
+   */
+  protected double[] synthesisScalingSequence;
+  
+  /**
+   * 合成（再構成）に用いるウェーブレットフィルターの係数シーケンスを保持します。
+   * 直交ウェーブレットでは {@link #daubechiesWaveletSequence} と同じ配列です。
+   */
+  protected double[] synthesisWaveletSequence;
+  
+  /**
+   * 現在のフィルターバンクを保持します。各係数シーケンスはこのフィルターバンクの共有の配列を参照します。
+   */
+  protected FilterBank filterBank;
+  
+  /**
+   * 現在のフィルターに対応するリフティングスキームを保持します。
+   * {@link WaveletEngine#LIFTING} で計算する際に用いられます。
+   */
+  protected LiftingScheme liftingScheme;
+  
+  /**
+   * 係数の計算に用いる演算方式を保持します。既定では従来の畳み込み（{@link WaveletEngine#CONVOLUTION}）です。
+   */
+  protected WaveletEngine engine = WaveletEngine.CONVOLUTION;
+  
+  /**
+   * 列方向の処理でまとめて扱う列の束の大きさ（バイト数）の目安です。L2キャッシュに収まるように選んでいます。
+   */
+  private static final int TILE_CACHE_BYTES = 256 * 1024;
+  
+  /**
+   * 1本のキャッシュラインに収まる double の個数です。列の束の幅はこの倍数に揃えます。
+   */
+  private static final int CACHE_LINE_DOUBLES = 8;
+  
+  /**
+   * 列方向の処理でまとめて扱う列数を保持します。0 のときは行数からキャッシュに収まる列数を自動で選びます。
+   */
+  protected int columnTileWidth = 0;
+  
+  /**
+   * 並列に計算する際に1つのタスクへ割り当てる要素数の目安です。これより小さい行列は並列にせず逐次に計算します。
+   */
+  private static final int PARALLEL_THRESHOLD = 1 << 15;
+  
+  /**
+   * {@link #parallelism(int)} で用いる、並列度ごとに1つだけ作って共有するプールです。
+   * ワーカーはデーモンスレッドで、仕事がなければ一定時間で終了するので、閉じる必要はありません。
+   */
+  private static final ConcurrentHashMap<Integer, ForkJoinPool> SHARED_POOLS = new ConcurrentHashMap<>();
+  
+  /**
+   * 行方向・列方向の処理を並列に計算する際に用いるフォーク／ジョインプールを保持します。
+   * null のときは呼び出したスレッドだけで逐次に計算します（既定）。
+   */
+  protected ForkJoinPool forkJoinPool = null;
+  
   /**
    * この変換オブジェクトの内部状態を初期化します。
    * デフォルトのDaubechiesウェーブレットの次数（N=2、つまり4タップフィルター）を用いてフィルター係数を設定します。
@@ -37,25 +102,673 @@ public abstract class DiscreteWaveletTransformation extends WaveletTransformatio
    *
    * <p>サポートされる次数は以下の通りです。
    * <ul>
+   * <li>{@code paramInt == 1}: 2タップフィルター係数（Haar）</li>
    * <li>{@code paramInt == 2}: 4タップフィルター係数（デフォルト）</li>
    * <li>{@code paramInt == 3}: 6タップフィルター係数</li>
    * <li>{@code paramInt == 4}: 8タップフィルター係数</li>
    * </ul>
-   * 指定された次数に応じて、{@link #daubechiesScalingSequence} と {@link #daubechiesWaveletSequence} を設定します。
-   * ウェーブレット係数はスケーリング係数から導出されます。</p>
+   * 指定された次数に応じたフィルターバンク（{@link FilterBank#daubechies(int)}）を {@link #filterBank(FilterBank)} で設定します。
+   * フィルター係数は {@link FilterBank} が一度だけ計算して共有しているものを参照し、インスタンスごとには作りません。</p>
    *
    * @param paramInt 初期化するDaubechiesウェーブレットの次数（通常、Nです）
    */
   protected void initialize(int paramInt) {
     super.initialize(); // 親クラスの初期化メソッドを呼び出します
-    this.daubechiesScalingSequence = new double[] { 0.4829629131445341D, 0.8365163037378077D, 0.2241438680420134D, -0.1294095225512603D };
+    FilterBank aFilterBank = FilterBank.daubechies(4);
+    if (paramInt == 1)
+      aFilterBank = FilterBank.haar(); 
     if (paramInt == 3)
-      this.daubechiesScalingSequence = new double[] { 0.3326705529500825D, 0.8068915093110924D, 0.4598775021184914D, -0.1350110200102546D, -0.0854412738820267D, 0.0352262918857095D }; 
+      aFilterBank = FilterBank.daubechies(6); 
     if (paramInt == 4)
-      this.daubechiesScalingSequence = new double[] { 0.2303778133088964D, 0.7148465705529155D, 0.6308807679298599D, -0.0279837694168599D, -0.1870348117190931D, 0.0308413818355607D, 0.0328830116668852D, -0.010597401785069D }; 
-    int i = this.daubechiesScalingSequence.length;
-    this.daubechiesWaveletSequence = new double[i];
-    for (Integer b = 0; b < i; b++)
-      this.daubechiesWaveletSequence[b] = Math.pow(-1.0D, b) * this.daubechiesScalingSequence[i - 1 - b]; 
+      aFilterBank = FilterBank.daubechies(8); 
+    filterBank(aFilterBank);
+  }
+  
+  /**
+   * 現在のフィルターバンクを応答します。
+   *
+   * @return フィルターバンク
+   */
+  public FilterBank filterBank() {
+    return this.filterBank;
+  }
+  
+  /**
+   * 分解・再構成に用いるフィルターバンクを設定します。係数を計算する前に設定してください。
+   * {@link #daubechiesScalingSequence} などの係数シーケンスと {@link #liftingScheme} は、フィルターバンクの共有の配列を参照します。
+   * 短いフィルター（Haar や D4）ほど1標本あたりの積和が少なく、処理量が重要な場合に向きます。
+   *
+   * @param aFilterBank フィルターバンク
+   */
+  public void filterBank(FilterBank aFilterBank) {
+    if (aFilterBank == null)
+      throw new IllegalArgumentException("filter bank must not be null.");
+    this.filterBank = aFilterBank;
+    this.daubechiesScalingSequence = aFilterBank.scalingSequence();
+    this.daubechiesWaveletSequence = aFilterBank.waveletSequence();
+    this.synthesisScalingSequence = aFilterBank.synthesisScalingSequence();
+    this.synthesisWaveletSequence = aFilterBank.synthesisWaveletSequence();
+    this.liftingScheme = aFilterBank.liftingScheme();
+  }
+  
+  /**
+   * 係数の計算に用いる演算方式を応答します。
+   *
+   * @return 演算方式
+   */
+  public WaveletEngine engine() {
+    return this.engine;
+  }
+  
+  /**
+   * 係数の計算に用いる演算方式を設定します。
+   * どの方式でも結果は丸め誤差の範囲で一致し、計算量と作業領域だけが異なります。
+   *
+   * @param anEngine 演算方式
+   */
+  public void engine(WaveletEngine anEngine) {
+    this.engine = anEngine;
+  }
+  
+  /**
+   * リフティングスキームで計算すべきかどうかを応答します。
+   * {@link WaveletEngine#LIFTING} が指定されていても、フィルターに対応するリフティングスキームがない場合は
+   * 畳み込みで計算します。
+   *
+   * @return リフティングスキームで計算する場合は true
+   */
+  protected boolean isLifting() {
+    return this.engine == WaveletEngine.LIFTING && this.liftingScheme != null;
+  }
+  
+  /**
+   * 畳み込みで計算する際の演算器を応答します。{@link WaveletEngine#VECTOR} の場合は Vector API の演算器
+   * （利用できない環境ではスカラーの演算器）、それ以外はスカラーの演算器です。
+   *
+   * @return 畳み込みの演算器
+   */
+  protected ConvolutionKernel convolutionKernel() {
+    return this.engine == WaveletEngine.VECTOR ? ConvolutionKernel.vector() : ConvolutionKernel.scalar();
+  }
+  
+  /**
+   * 列方向の処理でまとめて扱う列数を応答します。0 は自動で選ぶことを表します。
+   *
+   * @return 列の束の幅
+   */
+  public int columnTileWidth() {
+    return this.columnTileWidth;
+  }
+  
+  /**
+   * 列方向の処理でまとめて扱う列数を設定します。0 を指定すると行数からキャッシュに収まる列数を自動で選びます。
+   * どの幅でも結果は変わらず、メモリの参照の局所性だけが変わります。
+   *
+   * @param width 列の束の幅（0 以上）
+   */
+  public void columnTileWidth(int width) {
+    if (width < 0)
+      throw new IllegalArgumentException("tile width must not be negative.");
+    this.columnTileWidth = width;
+  }
+  
+  /**
+   * 行方向・列方向の処理に用いるフォーク／ジョインプールを応答します。
+   *
+   * @return フォーク／ジョインプール（逐次に計算する場合は null）
+   */
+  public ForkJoinPool forkJoinPool() {
+    return this.forkJoinPool;
+  }
+  
+  /**
+   * 行方向・列方向の処理に用いるフォーク／ジョインプールを設定します。null を指定すると逐次に計算します。
+   * 複数の変換で同じプールを共有できます。
+   *
+   * @param aForkJoinPool フォーク／ジョインプール
+   */
+  public void forkJoinPool(ForkJoinPool aForkJoinPool) {
+    this.forkJoinPool = aForkJoinPool;
+  }
+  
+  /**
+   * 並列度を応答します。逐次に計算する場合は 1 です。
+   *
+   * @return 並列度
+   */
+  public int parallelism() {
+    return this.forkJoinPool == null ? 1 : this.forkJoinPool.getParallelism();
+  }
+  
+  /**
+   * 並列度を設定します。1 で逐次に計算し、共通プールと同じ並列度なら共通プールを、それ以外はその並列度の共有のプールを用います。
+   * 共有のプールは並列度ごとに1つだけ作り、すべての変換で使い回すので、何度呼び出してもスレッドは増えません。
+   * 呼び出し側で寿命を管理したい場合は {@link #forkJoinPool(ForkJoinPool)} で自前のプールを渡してください。
+   * 各行・各列は互いに独立に、逐次の場合と同じ順序の演算で計算されるため、並列度によらず結果は完全に一致します。
+   *
+   * @param parallelism 並列度（1 以上）
+   */
+  public void parallelism(int parallelism) {
+    if (parallelism < 1)
+      throw new IllegalArgumentException("parallelism must be positive.");
+    if (parallelism == 1) {
+      this.forkJoinPool = null;
+    } else if (parallelism == ForkJoinPool.getCommonPoolParallelism()) {
+      this.forkJoinPool = ForkJoinPool.commonPool();
+    } else {
+      this.forkJoinPool = SHARED_POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
+    }
+  }
+  
+  /**
+   * 行数 length・列数 columns の行列を列方向に処理するときの、列の束の幅を応答します。
+   * 自動の場合は、束（length × 幅）が {@link #TILE_CACHE_BYTES} に収まる最大のキャッシュラインの倍数とし、
+   * 各行から読む区間が少なくとも1本のキャッシュラインを埋めるようにします。
+   *
+   * @param length 行数（列方向の信号の長さ）
+   * @param columns 列数
+   * @return 列の束の幅（1 以上 columns 以下）
+   */
+  protected int tileWidth(int length, int columns) {
+    int width = this.columnTileWidth;
+    if (width == 0) {
+      width = TILE_CACHE_BYTES / (Math.max(1, length) * Double.BYTES) / CACHE_LINE_DOUBLES * CACHE_LINE_DOUBLES;
+      width = Math.max(CACHE_LINE_DOUBLES, width);
+    }
+    return Math.max(1, Math.min(width, columns));
+  }
+  
+  /**
+   * rows × columns の行列を行方向・列方向に処理するのに必要な作業配列の長さを応答します。
+   *
+   * @param rows 行数
+   * @param columns 列数
+   * @return 作業配列の長さ
+   */
+  protected int workLength(int rows, int columns) {
+    return Math.max(columns, rows * tileWidth(rows, columns));
+  }
+
+  /**
+   * 配列の一部を1段階だけ分解し、前半にスケーリング係数、後半にウェーブレット係数を詰めて書き戻します（Mallat の配置）。
+   * {@code data[offset + k * stride]}（k = 0 .. length-1）を信号とみなすため、2次元配列の列方向もそのまま扱えます。
+   * 多段分解ではこのメソッドを近似成分の範囲に繰り返し適用します。
+   *
+   * @param data 変換対象の配列（結果で上書きされます）
+   * @param offset 信号の先頭位置
+   * @param length 信号の長さ（偶数）
+   * @param stride 隣り合う標本の間隔
+   * @param work 作業配列（長さ length 以上、呼び出し間で使い回せます）
+   */
+  protected void decompose(double[] data, int offset, int length, int stride, double[] work) {
+    if (this.isLifting()) {
+      this.liftingScheme.decompose(data, offset, length, stride, work);
+      return;
+    }
+    int half = length / 2;
+    for (int index = 0; index < length; index++)
+      work[index] = data[offset + index * stride];
+    if (stride == 1) {
+      convolutionKernel().analyze(work, 0, length, this.daubechiesScalingSequence, this.daubechiesWaveletSequence, data, offset, data, offset + half);
+      return;
+    }
+    int interior = ConvolutionKernel.analysisInteriorBound(length, this.daubechiesScalingSequence.length);
+    for (int b = 0; b < interior; b++) {
+      double scaling = 0.0D;
+      double wavelet = 0.0D;
+      for (int k = 0; k < this.daubechiesScalingSequence.length; k++) {
+        double d = work[k + 2 * b];
+        scaling += this.daubechiesScalingSequence[k] * d;
+        wavelet += this.daubechiesWaveletSequence[k] * d;
+      }
+      data[offset + b * stride] = scaling;
+      data[offset + (half + b) * stride] = wavelet;
+    }
+    for (int b = interior; b < half; b++) {
+      double scaling = 0.0D;
+      double wavelet = 0.0D;
+      for (int k = 0; k < this.daubechiesScalingSequence.length; k++) {
+        double d = work[(k + 2 * b) % length];
+        scaling += this.daubechiesScalingSequence[k] * d;
+        wavelet += this.daubechiesWaveletSequence[k] * d;
+      }
+      data[offset + b * stride] = scaling;
+      data[offset + (half + b) * stride] = wavelet;
+    }
+  }
+
+  /**
+   * 行列の各行（2つ目の添字の方向）を1段階だけ分解します。
+   *
+   * @param aCoefficientMatrix 変換対象の行列（結果で上書きされます）
+   * @param work 作業配列（長さ列数以上）
+   */
+  protected void decomposeRows(CoefficientMatrix aCoefficientMatrix, double[] work) {
+    int columns = aCoefficientMatrix.columnSize();
+    forEachChunk(aCoefficientMatrix.rowSize(), columns, columns, work, (from, to, buffer) -> {
+      for (int row = from; row < to; row++)
+        decompose(aCoefficientMatrix.values(), aCoefficientMatrix.indexOf(row, 0), columns, 1, buffer);
+    });
+  }
+
+  /**
+   * 行列の各列（1つ目の添字の方向）を1段階だけ分解します。転置した行列は作りません。
+   * 列を {@link #tileWidth(int, int)} 本ずつの束に分け、束ごとに作業配列へ行単位で連続に写してから、
+   * 束の中の全列に対して同じフィルターを一度に適用します。
+   *
+   * @param aCoefficientMatrix 変換対象の行列（結果で上書きされます）
+   * @param work 作業配列（長さ {@link #workLength(int, int)} 以上が望ましく、短い場合は束の幅を狭めます）
+   */
+  protected void decomposeColumns(CoefficientMatrix aCoefficientMatrix, double[] work) {
+    int length = aCoefficientMatrix.rowSize();
+    int columns = aCoefficientMatrix.columnSize();
+    int width = Math.max(1, Math.min(tileWidth(length, columns), work.length / Math.max(1, length)));
+    forEachChunk((columns + width - 1) / width, length * width, length * width, work, (from, to, buffer) -> {
+      for (int column = from * width; column < Math.min(to * width, columns); column += width)
+        decomposeTile(aCoefficientMatrix.values(), aCoefficientMatrix.indexOf(0, column), length, Math.min(width, columns - column), aCoefficientMatrix.rowStride(), buffer);
+    });
+  }
+  
+  /**
+   * 隣り合う width 本の列の束を1段階だけ分解します。
+   * 各列を {@link #decompose(double[], int, int, int, double[])} で分解した結果と完全に一致します。
+   *
+   * @param data 変換対象の配列（結果で上書きされます）
+   * @param offset 束の左上の位置
+   * @param length 各列の長さ（偶数）
+   * @param width 束の列数
+   * @param stride 隣り合う行の先頭の間隔
+   * @param work 作業配列（長さ length × width 以上）
+   */
+  protected void decomposeTile(double[] data, int offset, int length, int width, int stride, double[] work) {
+    if (this.isLifting()) {
+      this.liftingScheme.decomposeTile(data, offset, length, width, stride, work);
+      return;
+    }
+    int half = length / 2;
+    int interior = ConvolutionKernel.analysisInteriorBound(length, this.daubechiesScalingSequence.length);
+    for (int index = 0; index < length; index++)
+      System.arraycopy(data, offset + index * stride, work, index * width, width);
+    for (int b = 0; b < half; b++) {
+      int scaling = offset + b * stride;
+      int wavelet = offset + (half + b) * stride;
+      Arrays.fill(data, scaling, scaling + width, 0.0D);
+      Arrays.fill(data, wavelet, wavelet + width, 0.0D);
+      for (int k = 0; k < this.daubechiesScalingSequence.length; k++) {
+        double h = this.daubechiesScalingSequence[k];
+        double g = this.daubechiesWaveletSequence[k];
+        int source = (b < interior ? k + 2 * b : (k + 2 * b) % length) * width;
+        for (int j = 0; j < width; j++) {
+          double d = work[source + j];
+          data[scaling + j] += h * d;
+          data[wavelet + j] += g * d;
+        }
+      }
+    }
+  }
+
+  /**
+   * 行列の各行（2つ目の添字の方向）を1段階だけ再構成します。
+   *
+   * @param aCoefficientMatrix 係数を格納した行列（結果で上書きされます）
+   * @param work 作業配列（長さ列数以上）
+   */
+  protected void recomposeRows(CoefficientMatrix aCoefficientMatrix, double[] work) {
+    int columns = aCoefficientMatrix.columnSize();
+    forEachChunk(aCoefficientMatrix.rowSize(), columns, columns, work, (from, to, buffer) -> {
+      for (int row = from; row < to; row++)
+        recompose(aCoefficientMatrix.values(), aCoefficientMatrix.indexOf(row, 0), columns, 1, buffer);
+    });
+  }
+
+  /**
+   * 行列の各列（1つ目の添字の方向）を、{@link #tileWidth(int, int)} 本ずつの束に分けて1段階だけ再構成します。
+   *
+   * @param aCoefficientMatrix 係数を格納した行列（結果で上書きされます）
+   * @param work 作業配列（長さ {@link #workLength(int, int)} 以上が望ましく、短い場合は束の幅を狭めます）
+   */
+  protected void recomposeColumns(CoefficientMatrix aCoefficientMatrix, double[] work) {
+    int length = aCoefficientMatrix.rowSize();
+    int columns = aCoefficientMatrix.columnSize();
+    int width = Math.max(1, Math.min(tileWidth(length, columns), work.length / Math.max(1, length)));
+    forEachChunk((columns + width - 1) / width, length * width, length * width, work, (from, to, buffer) -> {
+      for (int column = from * width; column < Math.min(to * width, columns); column += width)
+        recomposeTile(aCoefficientMatrix.values(), aCoefficientMatrix.indexOf(0, column), length, Math.min(width, columns - column), aCoefficientMatrix.rowStride(), buffer);
+    });
+  }
+  
+  /**
+   * 単精度の行列の各行を1段階だけ分解します。
+   * 行ごとに倍精度の作業配列へ写して {@link #decompose(double[], int, int, int, double[])} で計算し、結果を単精度に丸めて書き戻します。
+   * 演算の精度は倍精度の場合と同じで、丸め誤差は書き戻すときの1回（相対誤差 2^-24 以下）だけです。
+   *
+   * @param aFloatCoefficientMatrix 変換対象の行列（結果で上書きされます）
+   */
+  protected void decomposeRows(FloatCoefficientMatrix aFloatCoefficientMatrix) {
+    transformRows(aFloatCoefficientMatrix, false);
+  }
+  
+  /**
+   * 単精度の行列の各列を、列の束ごとに倍精度の作業配列へ写して1段階だけ分解します。
+   *
+   * @param aFloatCoefficientMatrix 変換対象の行列（結果で上書きされます）
+   */
+  protected void decomposeColumns(FloatCoefficientMatrix aFloatCoefficientMatrix) {
+    transformColumns(aFloatCoefficientMatrix, false);
+  }
+  
+  /**
+   * 単精度の行列の各行を、倍精度の作業配列の上で1段階だけ再構成します。
+   *
+   * @param aFloatCoefficientMatrix 係数を格納した行列（結果で上書きされます）
+   */
+  protected void recomposeRows(FloatCoefficientMatrix aFloatCoefficientMatrix) {
+    transformRows(aFloatCoefficientMatrix, true);
+  }
+  
+  /**
+   * 単精度の行列の各列を、列の束ごとに倍精度の作業配列へ写して1段階だけ再構成します。
+   *
+   * @param aFloatCoefficientMatrix 係数を格納した行列（結果で上書きされます）
+   */
+  protected void recomposeColumns(FloatCoefficientMatrix aFloatCoefficientMatrix) {
+    transformColumns(aFloatCoefficientMatrix, true);
+  }
+  
+  /**
+   * 単精度の行列の各行を分解または再構成します。
+   * 作業配列の後半に行を写し、前半を {@link #decompose(double[], int, int, int, double[])} などの作業領域として使います。
+   */
+  private void transformRows(FloatCoefficientMatrix aFloatCoefficientMatrix, boolean inverse) {
+    int columns = aFloatCoefficientMatrix.columnSize();
+    float[] values = aFloatCoefficientMatrix.values();
+    forEachChunk(aFloatCoefficientMatrix.rowSize(), columns, columns * 2, new double[columns * 2], (from, to, buffer) -> {
+      for (int row = from; row < to; row++) {
+        int index = aFloatCoefficientMatrix.indexOf(row, 0);
+        for (int column = 0; column < columns; column++)
+          buffer[columns + column] = values[index + column];
+        if (inverse) {
+          recompose(buffer, columns, columns, 1, buffer);
+        } else {
+          decompose(buffer, columns, columns, 1, buffer);
+        }
+        for (int column = 0; column < columns; column++)
+          values[index + column] = (float)buffer[columns + column];
+      }
+    });
+  }
+  
+  /**
+   * 単精度の行列の各列を、列の束ごとに分解または再構成します。
+   * 作業配列の後半に束（行数 × 束の幅）を写し、前半を {@link #decomposeTile(double[], int, int, int, int, double[])} などの作業領域として使います。
+   */
+  private void transformColumns(FloatCoefficientMatrix aFloatCoefficientMatrix, boolean inverse) {
+    int length = aFloatCoefficientMatrix.rowSize();
+    int columns = aFloatCoefficientMatrix.columnSize();
+    int width = tileWidth(length, columns);
+    int area = length * width;
+    float[] values = aFloatCoefficientMatrix.values();
+    forEachChunk((columns + width - 1) / width, area, area * 2, new double[area * 2], (from, to, buffer) -> {
+      for (int column = from * width; column < Math.min(to * width, columns); column += width) {
+        int tile = Math.min(width, columns - column);
+        for (int row = 0; row < length; row++) {
+          int index = aFloatCoefficientMatrix.indexOf(row, column);
+          for (int j = 0; j < tile; j++)
+            buffer[area + row * tile + j] = values[index + j];
+        }
+        if (inverse) {
+          recomposeTile(buffer, area, length, tile, tile, buffer);
+        } else {
+          decomposeTile(buffer, area, length, tile, tile, buffer);
+        }
+        for (int row = 0; row < length; row++) {
+          int index = aFloatCoefficientMatrix.indexOf(row, column);
+          for (int j = 0; j < tile; j++)
+            values[index + j] = (float)buffer[area + row * tile + j];
+        }
+      }
+    });
+  }
+  
+  /**
+   * count 個の独立な処理単位（行または列の束）に処理を適用します。
+   * フォーク／ジョインプールが設定されていて十分に大きい場合は、処理単位の範囲を二分しながらタスクに分けて並列に実行し、
+   * 各タスクには専用の作業配列を割り当てます。それ以外の場合は呼び出したスレッドで与えられた作業配列を使って実行します。
+   *
+   * @param count 処理単位の個数
+   * @param cost 1つの処理単位が扱う要素数
+   * @param workLength 1つのタスクが必要とする作業配列の長さ
+   * @param work 逐次に実行する場合の作業配列
+   * @param action 処理単位の範囲に適用する処理
+   */
+  protected void forEachChunk(int count, int cost, int workLength, double[] work, ChunkAction action) {
+    ForkJoinPool pool = this.forkJoinPool;
+    if (pool == null || count < 2 || (long)count * cost < PARALLEL_THRESHOLD * 2L) {
+      action.run(0, count, work);
+      return;
+    }
+    pool.invoke(new ChunkTask(action, 0, count, Math.max(1, PARALLEL_THRESHOLD / Math.max(1, cost)), workLength));
+  }
+  
+  /**
+   * 処理単位の範囲 [from, to) に適用する処理を表します。
+   */
+  protected interface ChunkAction {
+    void run(int from, int to, double[] work);
+  }
+  
+  /**
+   * 行列の要素を行と列の添字で読む関数を表します（倍精度・単精度の行列に共通に用います）。
+   */
+  @FunctionalInterface
+  protected interface CoefficientReader {
+    double at(int row, int column);
+  }
+  
+  /**
+   * 処理単位の範囲を、grain 個以下になるまで二分して並列に実行するタスクです。
+   */
+  private static final class ChunkTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    
+    private final transient ChunkAction action;
+    
+    private final int from;
+    
+    private final int to;
+    
+    private final int grain;
+    
+    private final int workLength;
+    
+    private ChunkTask(ChunkAction action, int from, int to, int grain, int workLength) {
+      this.action = action;
+      this.from = from;
+      this.to = to;
+      this.grain = grain;
+      this.workLength = workLength;
+    }
+    
+    @Override
+    protected void compute() {
+      if (this.to - this.from <= this.grain) {
+        this.action.run(this.from, this.to, new double[this.workLength]);
+        return;
+      }
+      int middle = (this.from + this.to) >>> 1;
+      invokeAll(new ChunkTask(this.action, this.from, middle, this.grain, this.workLength), new ChunkTask(this.action, middle, this.to, this.grain, this.workLength));
+    }
+  }
+  
+  /**
+   * 隣り合う width 本の列の束を1段階だけ再構成します。
+   * 各列を {@link #recompose(double[], int, int, int, double[])} で再構成した結果と完全に一致します。
+   *
+   * @param data 係数を格納した配列（結果で上書きされます）
+   * @param offset 束の左上の位置
+   * @param length 各列の長さ（偶数）
+   * @param width 束の列数
+   * @param stride 隣り合う行の先頭の間隔
+   * @param work 作業配列（長さ length × width 以上）
+   */
+  protected void recomposeTile(double[] data, int offset, int length, int width, int stride, double[] work) {
+    if (this.isLifting()) {
+      this.liftingScheme.recomposeTile(data, offset, length, width, stride, work);
+      return;
+    }
+    int half = length / 2;
+    int interior = ConvolutionKernel.synthesisInteriorStart(half, this.synthesisScalingSequence.length);
+    for (int index = 0; index < length; index++)
+      System.arraycopy(data, offset + index * stride, work, index * width, width);
+    for (int b = 0; b < half; b++) {
+      int even = offset + b * 2 * stride;
+      int odd = even + stride;
+      Arrays.fill(data, even, even + width, 0.0D);
+      Arrays.fill(data, odd, odd + width, 0.0D);
+      for (int m = 0; m < this.synthesisScalingSequence.length / 2; m++) {
+        int n = b < interior ? Math.floorMod(b - m, half) : b - m;
+        int scaling = n * width;
+        int wavelet = (half + n) * width;
+        double h0 = this.synthesisScalingSequence[m * 2];
+        double h1 = this.synthesisScalingSequence[m * 2 + 1];
+        double g0 = this.synthesisWaveletSequence[m * 2];
+        double g1 = this.synthesisWaveletSequence[m * 2 + 1];
+        for (int j = 0; j < width; j++) {
+          double s = work[scaling + j];
+          double w = work[wavelet + j];
+          data[even + j] = data[even + j] + h0 * s + g0 * w;
+          data[odd + j] = data[odd + j] + h1 * s + g1 * w;
+        }
+      }
+    }
+  }
+
+  /**
+   * 1段階分解した係数を詰めた行列（rows × columns、{@link DiscreteWavelet2dTransformation} の配置）から、
+   * 出力の行の組 rowFrom .. rowFrom+rowCount-1（行 2b と 2b+1）と列の組 columnFrom .. columnFrom+columnCount-1 の範囲だけを再構成します。
+   * 合成は周期境界なので、組の添字は帯域の大きさで折り返します。
+   * 範囲の出力は、各帯域の添字で {@code b - taps + 1 .. b}（taps は合成フィルターの長さの半分）の係数だけで決まるので、
+   * 読む係数は (rowCount + taps - 1) × (columnCount + taps - 1) の4帯域分で済み、計算量は行列の大きさによりません。
+   * 列方向、行方向の順に合成するのは {@link #recomposeColumns(CoefficientMatrix, double[])}・{@link #recomposeRows(CoefficientMatrix, double[])} と同じです。
+   *
+   * @param packed 詰めた行列の要素を読む関数
+   * @param rows 詰めた行列の行数（偶数）
+   * @param columns 詰めた行列の列数（偶数）
+   * @param rowFrom 出力の最初の行の組
+   * @param rowCount 出力の行の組の数（rows / 2 以下）
+   * @param columnFrom 出力の最初の列の組
+   * @param columnCount 出力の列の組の数（columns / 2 以下）
+   * @return 再構成した範囲（(rowCount × 2) × (columnCount × 2)、行優先）
+   */
+  protected double[] recomposeWindow(CoefficientReader packed, int rows, int columns, int rowFrom, int rowCount, int columnFrom, int columnCount) {
+    double[] h = this.synthesisScalingSequence;
+    double[] g = this.synthesisWaveletSequence;
+    int taps = h.length / 2;
+    int halfRows = rows / 2;
+    int halfColumns = columns / 2;
+    int width = columnCount + taps - 1;
+    int outputWidth = columnCount * 2;
+    double[] even = new double[width * 2]; // 列方向に合成した偶数行（前半が低域、後半が高域の列）
+    double[] odd = new double[width * 2];
+    double[] window = new double[rowCount * 2 * outputWidth];
+    for (int i = 0; i < rowCount; i++) {
+      int b = rowFrom + i;
+      for (int t = 0; t < width; t++) {
+        int n = Math.floorMod(columnFrom - taps + 1 + t, halfColumns);
+        for (int part = 0; part < 2; part++) {
+          int column = n + part * halfColumns;
+          double evenValue = 0.0D;
+          double oddValue = 0.0D;
+          for (int m = 0; m < taps; m++) {
+            int row = Math.floorMod(b - m, halfRows);
+            double s = packed.at(row, column);
+            double w = packed.at(halfRows + row, column);
+            evenValue = evenValue + h[m * 2] * s + g[m * 2] * w;
+            oddValue = oddValue + h[m * 2 + 1] * s + g[m * 2 + 1] * w;
+          }
+          even[part * width + t] = evenValue;
+          odd[part * width + t] = oddValue;
+        }
+      }
+      for (int parity = 0; parity < 2; parity++) {
+        double[] line = parity == 0 ? even : odd;
+        int base = (i * 2 + parity) * outputWidth;
+        for (int j = 0; j < columnCount; j++) {
+          double evenValue = 0.0D;
+          double oddValue = 0.0D;
+          for (int m = 0; m < taps; m++) {
+            int t = j + taps - 1 - m;
+            double s = line[t];
+            double w = line[width + t];
+            evenValue = evenValue + h[m * 2] * s + g[m * 2] * w;
+            oddValue = oddValue + h[m * 2 + 1] * s + g[m * 2 + 1] * w;
+          }
+          window[base + j * 2] = evenValue;
+          window[base + j * 2 + 1] = oddValue;
+        }
+      }
+    }
+    return window;
+  }
+
+  /**
+   * 帯域の添字で count 個の連続した係数を変更したとき、再構成の出力が変わりうる標本の組の数を応答します。
+   * 係数 n は出力の組 n .. n+taps-1 に寄与するので、帯域の大きさ half を上限として count + taps - 1 個です。
+   *
+   * @param count 変更した係数の個数
+   * @param half 帯域の大きさ
+   * @return 出力の標本の組の数
+   */
+  protected int affectedPairCount(int count, int half) {
+    return Math.min(half, count + this.synthesisScalingSequence.length / 2 - 1);
+  }
+
+  /**
+   * {@link #decompose(double[], int, int, int, double[])} の配置の係数列から、1段階だけ信号を再構成してその場に書き戻します。
+   *
+   * @param data 係数を格納した配列（再構成した信号で上書きされます）
+   * @param offset 係数列の先頭位置
+   * @param length 係数列の長さ（偶数）
+   * @param stride 隣り合う係数の間隔
+   * @param work 作業配列（長さ length 以上、呼び出し間で使い回せます）
+   */
+  protected void recompose(double[] data, int offset, int length, int stride, double[] work) {
+    if (this.isLifting()) {
+      this.liftingScheme.recompose(data, offset, length, stride, work);
+      return;
+    }
+    int half = length / 2;
+    for (int index = 0; index < length; index++)
+      work[index] = data[offset + index * stride];
+    if (stride == 1) {
+      convolutionKernel().synthesize(work, 0, work, half, half, this.synthesisScalingSequence, this.synthesisWaveletSequence, data, offset);
+      return;
+    }
+    int interior = ConvolutionKernel.synthesisInteriorStart(half, this.synthesisScalingSequence.length);
+    for (int b = 0; b < interior; b++) {
+      double even = 0.0D;
+      double odd = 0.0D;
+      for (int m = 0; m < this.synthesisScalingSequence.length / 2; m++) {
+        int n = Math.floorMod(b - m, half);
+        double scaling = work[n];
+        double wavelet = work[half + n];
+        even = even + this.synthesisScalingSequence[m * 2] * scaling + this.synthesisWaveletSequence[m * 2] * wavelet;
+        odd = odd + this.synthesisScalingSequence[m * 2 + 1] * scaling + this.synthesisWaveletSequence[m * 2 + 1] * wavelet;
+      }
+      data[offset + b * 2 * stride] = even;
+      data[offset + (b * 2 + 1) * stride] = odd;
+    }
+    for (int b = interior; b < half; b++) {
+      double even = 0.0D;
+      double odd = 0.0D;
+      for (int m = 0; m < this.synthesisScalingSequence.length / 2; m++) {
+        double scaling = work[b - m];
+        double wavelet = work[half + b - m];
+        even = even + this.synthesisScalingSequence[m * 2] * scaling + this.synthesisWaveletSequence[m * 2] * wavelet;
+        odd = odd + this.synthesisScalingSequence[m * 2 + 1] * scaling + this.synthesisWaveletSequence[m * 2 + 1] * wavelet;
+      }
+      data[offset + b * 2 * stride] = even;
+      data[offset + (b * 2 + 1) * stride] = odd;
+    }
   }
 }
\ No newline at end of file
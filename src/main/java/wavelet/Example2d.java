@@ -7,11 +7,14 @@ import java.awt.GridBagLayout;
 import java.awt.Point;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 import utility.ColorUtility;
 import utility.ImageUtility;
 import utility.Condition;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
@@ -155,14 +158,17 @@ public class Example2d {
     // 元画像の係数を束縛
     double[][] coefficientsOfSampledata = sourceDataMatrix;
 
-    // 離散ウェーブレット変換を実行
-    DiscreteWavelet2dTransformation discreteWavelet2dTransformation = new DiscreteWavelet2dTransformation(coefficientsOfSampledata);
+    // 2段の離散ウェーブレット変換を実行（全帯域を1つの配列に詰めて保持する）
+    DiscreteWavelet2dPyramid discreteWavelet2dPyramid = new DiscreteWavelet2dPyramid(coefficientsOfSampledata, 2);
 
-    // 各種係数を束縛
-    double[][] coefficientsOfScaling1 = discreteWavelet2dTransformation.scalingCoefficients();
-    double[][] coefficientsOfHorizontalWavelet1 = discreteWavelet2dTransformation.horizontalWaveletCoefficients();
-    double[][] coefficientsOfVerticalWavelet1 = discreteWavelet2dTransformation.verticalWaveletCoefficients();
-    double[][] coefficientsOfDiagonalWavelet1 = discreteWavelet2dTransformation.diagonalWaveletCoefficients();
+    // 分解した係数の書き出し（再計算せずに開き直せるように）
+    write(discreteWavelet2dPyramid);
+
+    // 一段目の各種係数を束縛（一段目のスケーリング係数は二段目の係数から再構成する）
+    double[][] coefficientsOfScaling1 = discreteWavelet2dPyramid.recomposedCoefficients(1);
+    double[][] coefficientsOfHorizontalWavelet1 = discreteWavelet2dPyramid.horizontalWaveletCoefficients(1);
+    double[][] coefficientsOfVerticalWavelet1 = discreteWavelet2dPyramid.verticalWaveletCoefficients(1);
+    double[][] coefficientsOfDiagonalWavelet1 = discreteWavelet2dPyramid.diagonalWaveletCoefficients(1);
 
     // 各係数をもとに画像を生成
     BufferedImage imageOfSampledata1 = Wavelet2dModel.generateImage(coefficientsOfSampledata, scaleFactor, rgbFlag);
@@ -184,14 +190,11 @@ public class Example2d {
     // 元画像の書き出し
     write(compositesImage1);
 
-    // もう一度スケーリング係数に対して離散ウェーブレット変換を実行
-    discreteWavelet2dTransformation = new DiscreteWavelet2dTransformation(coefficientsOfScaling1);
-
-    // もう一度スケーリング係数、水平・垂直・対角方向のウェーブレット係数を束縛
-    double[][] coefficientsOfScaling2 = discreteWavelet2dTransformation.scalingCoefficients();
-    double[][] coefficientsOfHorizontalWavelet2 = discreteWavelet2dTransformation.horizontalWaveletCoefficients();
-    double[][] coefficientsOfVerticalWavelet2 = discreteWavelet2dTransformation.verticalWaveletCoefficients();
-    double[][] coefficientsOfDiagonalWavelet2 = discreteWavelet2dTransformation.diagonalWaveletCoefficients();
+    // 二段目のスケーリング係数、水平・垂直・対角方向のウェーブレット係数を束縛
+    double[][] coefficientsOfScaling2 = discreteWavelet2dPyramid.scalingCoefficients();
+    double[][] coefficientsOfHorizontalWavelet2 = discreteWavelet2dPyramid.horizontalWaveletCoefficients(2);
+    double[][] coefficientsOfVerticalWavelet2 = discreteWavelet2dPyramid.verticalWaveletCoefficients(2);
+    double[][] coefficientsOfDiagonalWavelet2 = discreteWavelet2dPyramid.diagonalWaveletCoefficients(2);
 
     // 二回目の各係数をもとに画像を生成し、束縛
     BufferedImage imageOfScaling2 = Wavelet2dModel.generateImage(coefficientsOfScaling2, scaleFactor, rgbFlag);
@@ -217,14 +220,8 @@ public class Example2d {
     // 画像の書き出し
     write(compositesImage2);
 
-    // 二回目の水平・垂直・対角のウェーブレット係数を束縛
-    double[][][] waveletCoefficientsInAllDirections2 = { coefficientsOfHorizontalWavelet2, coefficientsOfVerticalWavelet2, coefficientsOfDiagonalWavelet2 };
-
-    // 二回目のスケーリング係数、水平・垂直・対角方向のウェーブレット係数を用いて逆ウェーブレット変換を実行
-    discreteWavelet2dTransformation = new DiscreteWavelet2dTransformation(coefficientsOfScaling2, waveletCoefficientsInAllDirections2);
-
-    // 逆ウェーブレット変換を実行して得られた（元画像に相当する）係数を束縛
-    double[][] coefficientsOfDisWavelet2 = discreteWavelet2dTransformation.recomposedCoefficients();
+    // 二段目の係数から一段目の近似まで逆ウェーブレット変換を実行し、得られた係数を束縛
+    double[][] coefficientsOfDisWavelet2 = discreteWavelet2dPyramid.recomposedCoefficients(1);
 
     // 元画像に相当する係数をもとに画像を生成し、束縛
     BufferedImage compositesDisImage1 = Wavelet2dModel.generateImage(coefficientsOfDisWavelet2, scaleFactor, rgbFlag);
@@ -232,14 +229,8 @@ public class Example2d {
     // 画像の書き出し
     write(compositesDisImage1);
 
-    // 一回目の水平・垂直・対角方向のウェーブレット係数を束縛
-    double[][][] waveletCoefficientsInAllDirections1 = { coefficientsOfHorizontalWavelet1, coefficientsOfVerticalWavelet1, coefficientsOfDiagonalWavelet1 };
-
-    // 元画像に相当する係数と水平・垂直・対角方向のウェーブレット係数をもとに逆ウェーブレット変換を実行
-    discreteWavelet2dTransformation = new DiscreteWavelet2dTransformation(coefficientsOfDisWavelet2, waveletCoefficientsInAllDirections1);
-
-    // 逆ウェーブレット変換を実行して得られた（元画像に相当する）係数を束縛
-    double[][] coefficientsOfDisWavelet1 = discreteWavelet2dTransformation.recomposedCoefficients();
+    // 元画像まで逆ウェーブレット変換を実行して得られた（元画像に相当する）係数を束縛
+    double[][] coefficientsOfDisWavelet1 = discreteWavelet2dPyramid.recomposedCoefficients();
 
     // 逆ウェーブレット変換を実行して得られた（元画像に相当する）係数をもとに画像を生成
     BufferedImage compositesDisImage2 = Wavelet2dModel.generateImage(coefficientsOfDisWavelet1, scaleFactor, rgbFlag);
@@ -387,4 +378,24 @@ public class Example2d {
     // 画像ファイルを書き出す
     ImageUtility.writeImage(anImage, filePath.toString());
   }
+
+  /**
+  * 分解した係数をファイルに保存（{@link WaveletArchive} の形式、次に書き出す画像と同じ番号）
+  * @param aPyramid 書き出すピラミッド
+  */
+  protected static void write(DiscreteWavelet2dPyramid aPyramid) {
+    // 保存先のディレクトリをパスオブジェクトに束縛
+    Path path = Paths.get("ResultImages");
+
+    // ファイル名の作成（次に書き出す画像と同じ番号）
+    Path filePath = path.resolve("Wavelet" + String.format("%03d", fileNo) + ".wvlt");
+
+    // 係数のファイルを書き出す
+    try {
+      Files.createDirectories(path);
+      WaveletArchive.write(filePath, aPyramid);
+    } catch (IOException | UncheckedIOException anException) {
+      anException.printStackTrace();
+    }
+  }
 }
@@ -0,0 +1,592 @@
+package wavelet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 2分割フィルターバンク（分析・合成のスケーリングフィルターとウェーブレットフィルターの組）である。
+ * フィルターの規約は {@link ConvolutionKernel} と同じで、分析は {@code s[b] = Σ h[k] x[(k + 2b) mod n]}、
+ * 合成は {@code x[2b + p] = Σ h~[2m + p] s[(b - m) mod n/2] + g~[2m + p] w[(b - m) mod n/2]} である。
+ *
+ * <p>
+ * 直交ウェーブレット（Haar、Daubechies 4〜20タップ、Symlet、Coiflet）では合成フィルターは分析フィルターと同じで、
+ * ウェーブレットフィルターはスケーリングフィルターから {@code g[k] = (-1)^k h[L-1-k]} で導出する。
+ * 双直交ウェーブレット（CDF 9/7、CDF 5/3）では、分析と合成のスケーリングフィルター h・h~ から
+ * {@code g[n] = (-1)^n h~[1-n]}・{@code g~[n] = (-1)^n h[1-n]}（中心を 0 とする添字）で導出し、
+ * 4本とも同じ偶数の長さに0で埋めて揃える。</p>
+ *
+ * <p>
+ * 各フィルターバンクはクラスの初期化時に一度だけ計算して登録し、以降はすべての変換で共有する。
+ * インスタンスは不変であり、複数のスレッドから同時に利用できる。
+ * Daubechies 10タップ以上・Symlet・Coiflet の係数は、スペクトル分解（Coiflet は定義の方程式）で求めた値を
+ * 直交性と消失モーメントの条件を倍精度の丸め誤差まで満たすよう Newton 法で仕上げたものである。</p>
+ *
+ * @see DiscreteWaveletTransformation#filterBank(FilterBank)
+ */
+public final class FilterBank extends Object {
+
+    /**
+     * Haar（2タップ）のスケーリングフィルターである。
+     */
+    private static final double[] HAAR = {0.7071067811865476D, 0.7071067811865476D};
+
+    /**
+     * Daubechies 4タップ（消失モーメント 2）のスケーリングフィルターである。
+     */
+    private static final double[] DAUBECHIES4 = {0.4829629131445341D, 0.8365163037378077D, 0.2241438680420134D, -0.1294095225512603D};
+
+    /**
+     * Daubechies 6タップ（消失モーメント 3）のスケーリングフィルターである。
+     */
+    private static final double[] DAUBECHIES6 = {
+            0.3326705529500825D, 0.8068915093110924D, 0.4598775021184914D, -0.1350110200102546D,
+            -0.0854412738820267D, 0.0352262918857095D
+    };
+
+    /**
+     * Daubechies 8タップ（消失モーメント 4）のスケーリングフィルターである。
+     */
+    private static final double[] DAUBECHIES8 = {
+            0.2303778133088964D, 0.7148465705529155D, 0.6308807679298599D, -0.0279837694168599D,
+            -0.1870348117190931D, 0.0308413818355607D, 0.0328830116668852D, -0.010597401785069D
+    };
+
+    /**
+     * Daubechies 10タップ（消失モーメント 5）のスケーリングフィルターである。
+     */
+    private static final double[] DAUBECHIES10 = {
+            0.16010239797419296D, 0.6038292697971898D, 0.7243085284377729D, 0.1384281459013206D,
+            -0.24229488706638203D, -0.032244869584638326D, 0.0775714938400457D, -0.00624149021279829D,
+            -0.012580751999081988D, 0.003335725285473769D
+    };
+
+    /**
+     * Daubechies 12タップ（消失モーメント 6）のスケーリングフィルターである。
+     */
+    private static final double[] DAUBECHIES12 = {
+            0.11154074335010963D, 0.4946238903984534D, 0.7511339080210954D, 0.3152503517091972D,
+            -0.22626469396544D, -0.12976686756726166D, 0.09750160558732306D, 0.027522865530305616D,
+            -0.03158203931748601D, 0.0005538422011615278D, 0.00477725751094549D, -0.001077301085308476D
+    };
+
+    /**
+     * Daubechies 14タップ（消失モーメント 7）のスケーリングフィルターである。
+     */
+    private static final double[] DAUBECHIES14 = {
+            0.07785205408500906D, 0.39653931948191695D, 0.729132090846235D, 0.46978228740519357D,
+            -0.14390600392856465D, -0.22403618499387515D, 0.07130921926683008D, 0.08061260915108318D,
+            -0.03802993693501436D, -0.01657454163066694D, 0.01255099855609985D, 0.0004295779729213728D,
+            -0.0018016407040474939D, 0.0003537137999745206D
+    };
+
+    /**
+     * Daubechies 16タップ（消失モーメント 8）のスケーリングフィルターである。
+     */
+    private static final double[] DAUBECHIES16 = {
+            0.05441584224310385D, 0.3128715909142989D, 0.6756307362972885D, 0.5853546836542081D,
+            -0.01582910525634648D, -0.2840155429615478D, 0.00047248457391113835D, 0.1287474266204799D,
+            -0.017369301001806906D, -0.04408825393079571D, 0.013981027917398452D, 0.008746094047405983D,
+            -0.004870352993451673D, -0.0003917403733769541D, 0.0006754494064505822D, -0.00011747678412477181D
+    };
+
+    /**
+     * Daubechies 18タップ（消失モーメント 9）のスケーリングフィルターである。
+     */
+    private static final double[] DAUBECHIES18 = {
+            0.0380779473638786D, 0.2438346746125915D, 0.6048231236901128D, 0.6572880780512996D,
+            0.13319738582500437D, -0.2932737832791751D, -0.0968407832229745D, 0.1485407493381063D,
+            0.030725681479332443D, -0.06763282906132977D, 0.0002509471148318075D, 0.022361662123678894D,
+            -0.004723204757751442D, -0.004281503682463348D, 0.0018476468830561934D, 0.00023038576352320248D,
+            -0.0002519631889427114D, 3.9347320316271874e-05D
+    };
+
+    /**
+     * Daubechies 20タップ（消失モーメント 10）のスケーリングフィルターである。
+     */
+    private static final double[] DAUBECHIES20 = {
+            0.026670057900556206D, 0.18817680007769483D, 0.5272011889317308D, 0.6884590394536028D,
+            0.281172343660568D, -0.2498464243273205D, -0.1959462743773704D, 0.12736934033579725D,
+            0.09305736460356642D, -0.0713941471663982D, -0.029457536821871386D, 0.03321267405933981D,
+            0.0036065535669544636D, -0.010733175483329364D, 0.001395351747052964D, 0.001992405295184742D,
+            -0.0006858566949596285D, -0.00011646685512926439D, 9.358867032005613e-05D, -1.3264202894519427e-05D
+    };
+
+    /**
+     * Symlet 次数 4（8タップ）のスケーリングフィルターである。
+     */
+    private static final double[] SYMLET4 = {
+            0.032223100604051466D, -0.012603967262031297D, -0.09921954357663355D, 0.29785779560530606D,
+            0.8037387518051321D, 0.497618667632775D, -0.02963552764600248D, -0.07576571478950221D
+    };
+
+    /**
+     * Symlet 次数 5（10タップ）のスケーリングフィルターである。
+     */
+    private static final double[] SYMLET5 = {
+            0.02733306834499877D, 0.029519490925706257D, -0.039134249302313844D, 0.19939753397685567D,
+            0.7234076904040408D, 0.6339789634567919D, 0.01660210576451077D, -0.1753280899080562D,
+            -0.021101834024689035D, 0.01953888273524983D
+    };
+
+    /**
+     * Symlet 次数 6（12タップ）のスケーリングフィルターである。
+     */
+    private static final double[] SYMLET6 = {
+            0.015404109327044826D, 0.00349071208422216D, -0.11799011114852002D, -0.04831174258569804D,
+            0.49105594192797386D, 0.787641141028651D, 0.33792942172816576D, -0.07263752278637656D,
+            -0.02106029251237084D, 0.044724901770781374D, 0.001767711864254006D, -0.007800708325032379D
+    };
+
+    /**
+     * Symlet 次数 7（14タップ）のスケーリングフィルターである。
+     */
+    private static final double[] SYMLET7 = {
+            0.0026818145682601467D, -0.0010473848886797372D, -0.012636303403240567D, 0.030515513165877875D,
+            0.06789269350122056D, -0.04955283493704283D, 0.017441255086835625D, 0.5361019170905691D,
+            0.7677643170048829D, 0.28862963175064804D, -0.14004724044293362D, -0.10780823770328973D,
+            0.004010244871522392D, 0.010268176708464817D
+    };
+
+    /**
+     * Symlet 次数 8（16タップ）のスケーリングフィルターである。
+     */
+    private static final double[] SYMLET8 = {
+            0.0018899503327676898D, -0.0003029205147241335D, -0.014952258337062211D, 0.0038087520138944983D,
+            0.049137179673730304D, -0.027219029917103524D, -0.05194583810788179D, 0.3644418948361791D,
+            0.7771857516996281D, 0.4813596512590532D, -0.06127335906781114D, -0.1432942383512726D,
+            0.00760748732497662D, 0.031695087811525996D, -0.000542132331800011D, -0.0033824159510050015D
+    };
+
+    /**
+     * Symlet 次数 9（18タップ）のスケーリングフィルターである。
+     */
+    private static final double[] SYMLET9 = {
+            0.0010694900329086114D, -0.00047315449868004224D, -0.010264064027633123D, 0.008859267493400252D,
+            0.06207778930288575D, -0.018233770779395458D, -0.1915508312972844D, 0.035272488035270735D,
+            0.6173384491409338D, 0.7178970827644123D, 0.2387609146073054D, -0.054568958430833196D,
+            0.00058346274612499D, 0.030224878858275208D, -0.011528210207679168D, -0.01327196778181714D,
+            0.0006197808889855052D, 0.0014009155259146553D
+    };
+
+    /**
+     * Symlet 次数 10（20タップ）のスケーリングフィルターである。
+     */
+    private static final double[] SYMLET10 = {
+            0.0007701598091144593D, 9.563267072285308e-05D, -0.008641299277022141D, -0.0014653825813046068D,
+            0.04592723923109146D, 0.011609893903711303D, -0.15949427888491055D, -0.07088053578323152D,
+            0.471690666938443D, 0.769510037021098D, 0.3838267610670762D, -0.03553674047381965D,
+            -0.0319900568824281D, 0.04999497207737513D, 0.005764912033581141D, -0.020354939812311085D,
+            -0.0008043589320164486D, 0.004593173585311787D, 5.703608361849519e-05D, -0.00045932942100465146D
+    };
+
+    /**
+     * Coiflet 次数 1（6タップ）のスケーリングフィルターである。
+     */
+    private static final double[] COIFLET1 = {
+            -0.01565572813579199D, -0.07273261951252644D, 0.3848648468648577D, 0.8525720202116004D,
+            0.33789766245748176D, -0.07273261951252645D
+    };
+
+    /**
+     * Coiflet 次数 2（12タップ）のスケーリングフィルターである。
+     */
+    private static final double[] COIFLET2 = {
+            -0.0007205494455203471D, -0.0018232088709110336D, 0.005611434819368839D, 0.02368017194684777D,
+            -0.0594344186464311D, -0.07648859907828075D, 0.41700518442323903D, 0.8127236354494134D,
+            0.3861100668227628D, -0.0673725547237256D, -0.04146493678687176D, 0.016387336463203638D
+    };
+
+    /**
+     * Coiflet 次数 3（18タップ）のスケーリングフィルターである。
+     */
+    private static final double[] COIFLET3 = {
+            -3.459977319726546e-05D, -7.098330250638026e-05D, 0.00046621695982039085D, 0.0011175187708304753D,
+            -0.0025745176881365774D, -0.009007976136729845D, 0.015880544863667967D, 0.034555027573296385D,
+            -0.0823019271062958D, -0.07179982161915426D, 0.42848347637736434D, 0.7937772226260882D,
+            0.4051769024091225D, -0.06112339000297417D, -0.06577191128147114D, 0.023452696142078042D,
+            0.007782596425673045D, -0.0037935128643809754D
+    };
+
+    /**
+     * Coiflet 次数 4（24タップ）のスケーリングフィルターである。
+     */
+    private static final double[] COIFLET4 = {
+            -1.7849909144904292e-06D, -3.259647940008374e-06D, 3.122986159910108e-05D, 6.233885431267765e-05D,
+            -0.00025997433712192776D, -0.0005890202246320645D, 0.0012665610789241416D, 0.0037514346971392466D,
+            -0.005658283800120241D, -0.01521172818767819D, 0.025082253337908436D, 0.03933442260556346D,
+            -0.09622042453586312D, -0.06662747236680726D, 0.4343860331142377D, 0.7822389344243019D,
+            0.4153084270007817D, -0.056077319603601995D, -0.08126671024924512D, 0.026682304669627482D,
+            0.016068947131590103D, -0.007346167936275887D, -0.001629492425228711D, 0.000892313902538118D
+    };
+
+    /**
+     * Coiflet 次数 5（30タップ）のスケーリングフィルターである。
+     */
+    private static final double[] COIFLET5 = {
+            -9.604009915274138e-08D, -1.6237994927911816e-07D, 2.0612203725379045e-06D, 3.700727654324053e-06D,
+            -2.127022145829415e-05D, -4.121986151750711e-05D, 0.000140356327242845D, 0.0003018579391646311D,
+            -0.0006375589228859907D, -0.0016616272915888103D, 0.002431575426124945D, 0.006761520181300052D,
+            -0.00915950726986037D, -0.01975839152463205D, 0.03267479927756226D, 0.04128753038955494D,
+            -0.10556315096158486D, -0.062037751551759064D, 0.4379823062288583D, 0.7742936229275649D,
+            0.42157126710021686D, -0.05204667036581132D, -0.09192158827640848D, 0.028169744358767422D,
+            0.023408322201686718D, -0.010131584887034577D, -0.004159312646277782D, 0.002178294388022671D,
+            0.0003585777430580289D, -0.00021208186318866842D
+    };
+
+    /**
+     * CDF 9/7 の分析スケーリングフィルター（9タップ、中心は添字 4）である。
+     */
+    private static final double[] CDF97_ANALYSIS = {
+            0.037828455506995456D, -0.02384946501937999D, -0.11062440441842335D, 0.3774028556126538D,
+            0.8526986790094033D, 0.3774028556126538D, -0.11062440441842335D, -0.02384946501937999D,
+            0.037828455506995456D
+    };
+
+    /**
+     * CDF 9/7 の合成スケーリングフィルター（7タップ、中心は添字 3）である。
+     */
+    private static final double[] CDF97_SYNTHESIS = {
+            -0.06453888262893843D, -0.04068941760955842D, 0.4180922732222122D, 0.7884856164056644D,
+            0.4180922732222122D, -0.04068941760955842D, -0.06453888262893843D
+    };
+
+    /**
+     * CDF 5/3（LeGall 5/3）の分析スケーリングフィルター（5タップ、中心は添字 2）である。
+     */
+    private static final double[] CDF53_ANALYSIS = {
+            -0.1767766952966369D, 0.3535533905932738D, 1.0606601717798214D, 0.3535533905932738D, -0.1767766952966369D
+    };
+
+    /**
+     * CDF 5/3 の合成スケーリングフィルター（3タップ、中心は添字 1）である。
+     */
+    private static final double[] CDF53_SYNTHESIS = {0.35355339059327373D, 0.7071067811865475D, 0.35355339059327373D};
+
+    /**
+     * 名前（小文字）からフィルターバンクを引く登録簿である。登録した順に列挙できる。
+     */
+    private static final Map<String, FilterBank> REGISTRY = new LinkedHashMap<>();
+
+    static {
+        register(new FilterBank("Haar", HAAR, LiftingScheme.haar()));
+        register(new FilterBank("D4", DAUBECHIES4, LiftingScheme.daubechies(2)));
+        register(new FilterBank("D6", DAUBECHIES6, LiftingScheme.daubechies(3)));
+        register(new FilterBank("D8", DAUBECHIES8, LiftingScheme.daubechies(4)));
+        register(new FilterBank("D10", DAUBECHIES10));
+        register(new FilterBank("D12", DAUBECHIES12));
+        register(new FilterBank("D14", DAUBECHIES14));
+        register(new FilterBank("D16", DAUBECHIES16));
+        register(new FilterBank("D18", DAUBECHIES18));
+        register(new FilterBank("D20", DAUBECHIES20));
+        // 次数 2・3 の Symlet は Daubechies 4・6タップと同じフィルターである
+        register(new FilterBank("Sym2", DAUBECHIES4, LiftingScheme.daubechies(2)));
+        register(new FilterBank("Sym3", DAUBECHIES6, LiftingScheme.daubechies(3)));
+        register(new FilterBank("Sym4", SYMLET4));
+        register(new FilterBank("Sym5", SYMLET5));
+        register(new FilterBank("Sym6", SYMLET6));
+        register(new FilterBank("Sym7", SYMLET7));
+        register(new FilterBank("Sym8", SYMLET8));
+        register(new FilterBank("Sym9", SYMLET9));
+        register(new FilterBank("Sym10", SYMLET10));
+        register(new FilterBank("Coif1", COIFLET1));
+        register(new FilterBank("Coif2", COIFLET2));
+        register(new FilterBank("Coif3", COIFLET3));
+        register(new FilterBank("Coif4", COIFLET4));
+        register(new FilterBank("Coif5", COIFLET5));
+        register(new FilterBank("CDF9/7", CDF97_ANALYSIS, CDF97_SYNTHESIS));
+        register(new FilterBank("CDF5/3", CDF53_ANALYSIS, CDF53_SYNTHESIS));
+    }
+
+    private final String name;
+
+    /**
+     * 分析のスケーリング（低域）フィルター h である。
+     */
+    private final double[] scalingSequence;
+
+    /**
+     * 分析のウェーブレット（高域）フィルター g である。
+     */
+    private final double[] waveletSequence;
+
+    /**
+     * 合成のスケーリングフィルター h~ である。直交の場合は {@link #scalingSequence} と同じ配列である。
+     */
+    private final double[] synthesisScalingSequence;
+
+    /**
+     * 合成のウェーブレットフィルター g~ である。直交の場合は {@link #waveletSequence} と同じ配列である。
+     */
+    private final double[] synthesisWaveletSequence;
+
+    /**
+     * 同じフィルターのリフティングスキーム（ない場合は null）である。
+     */
+    private final LiftingScheme liftingScheme;
+
+    /**
+     * リフティングスキームを持たない直交フィルターバンクを、スケーリングフィルターから生成する。
+     *
+     * @param name 名前
+     * @param scalingSequence スケーリングフィルター（偶数の長さ）
+     */
+    private FilterBank(String name, double[] scalingSequence) {
+        this(name, scalingSequence, (LiftingScheme) null);
+    }
+
+    /**
+     * 直交フィルターバンクを、スケーリングフィルターから生成する。
+     *
+     * @param name 名前
+     * @param scalingSequence スケーリングフィルター（偶数の長さ）
+     * @param liftingScheme 同じフィルターのリフティングスキーム（ない場合は null）
+     */
+    private FilterBank(String name, double[] scalingSequence, LiftingScheme liftingScheme) {
+        int length = scalingSequence.length;
+        double[] waveletSequence = new double[length];
+        for (int k = 0; k < length; k++) {
+            waveletSequence[k] = (k % 2 == 0 ? 1.0D : -1.0D) * scalingSequence[length - 1 - k];
+        }
+        this.name = name;
+        this.scalingSequence = scalingSequence;
+        this.waveletSequence = waveletSequence;
+        this.synthesisScalingSequence = scalingSequence;
+        this.synthesisWaveletSequence = waveletSequence;
+        this.liftingScheme = liftingScheme;
+    }
+
+    /**
+     * 双直交フィルターバンクを、左右対称な分析・合成のスケーリングフィルターから生成する。
+     *
+     * @param name 名前
+     * @param analysis 分析のスケーリングフィルター（奇数の長さで、中央が中心）
+     * @param synthesis 合成のスケーリングフィルター（奇数の長さで、中央が中心）
+     */
+    private FilterBank(String name, double[] analysis, double[] synthesis) {
+        // 中心を 0 とした添字で、h・h~ は [-r, r]、g・g~ は [1-r, 1+r] に収まる（r は半幅の大きい方）
+        int radius = Math.max(analysis.length, synthesis.length) / 2;
+        int first = -radius;
+        int length = radius * 2 + 2;
+        double[] scalingSequence = new double[length];
+        double[] waveletSequence = new double[length];
+        double[] synthesisScalingSequence = new double[length];
+        double[] synthesisWaveletSequence = new double[length];
+        for (int index = 0; index < length; index++) {
+            int n = index + first;
+            double sign = Math.floorMod(n, 2) == 0 ? 1.0D : -1.0D;
+            scalingSequence[index] = tap(analysis, n);
+            synthesisScalingSequence[index] = tap(synthesis, n);
+            waveletSequence[index] = sign * tap(synthesis, 1 - n);
+            synthesisWaveletSequence[index] = sign * tap(analysis, 1 - n);
+        }
+        this.name = name;
+        this.scalingSequence = scalingSequence;
+        this.waveletSequence = waveletSequence;
+        this.synthesisScalingSequence = synthesisScalingSequence;
+        this.synthesisWaveletSequence = synthesisWaveletSequence;
+        this.liftingScheme = null;
+    }
+
+    /**
+     * Haarウェーブレットのフィルターバンクを応答する。
+     *
+     * @return Haarのフィルターバンク
+     */
+    public static FilterBank haar() {
+        return REGISTRY.get("haar");
+    }
+
+    /**
+     * Daubechiesウェーブレットのフィルターバンクを、タップ数で応答する。
+     *
+     * @param taps タップ数（2 で Haar、4 から 20 までの偶数）
+     * @return Daubechiesのフィルターバンク
+     */
+    public static FilterBank daubechies(int taps) {
+        if (taps == 2) {
+            return haar();
+        }
+        if (taps < 4 || taps > 20 || taps % 2 != 0) {
+            throw new IllegalArgumentException("taps must be an even number from 2 to 20.");
+        }
+        return REGISTRY.get("d" + taps);
+    }
+
+    /**
+     * Symletのフィルターバンクを、次数（消失モーメントの数、タップ数の半分）で応答する。
+     *
+     * @param order 次数（2 から 10 まで）
+     * @return Symletのフィルターバンク
+     */
+    public static FilterBank symlet(int order) {
+        if (order < 2 || order > 10) {
+            throw new IllegalArgumentException("order must be from 2 to 10.");
+        }
+        return REGISTRY.get("sym" + order);
+    }
+
+    /**
+     * Coifletのフィルターバンクを、次数（タップ数の 1/6）で応答する。
+     *
+     * @param order 次数（1 から 5 まで）
+     * @return Coifletのフィルターバンク
+     */
+    public static FilterBank coiflet(int order) {
+        if (order < 1 || order > 5) {
+            throw new IllegalArgumentException("order must be from 1 to 5.");
+        }
+        return REGISTRY.get("coif" + order);
+    }
+
+    /**
+     * CDF 9/7 双直交ウェーブレット（JPEG 2000 の非可逆変換）のフィルターバンクを応答する。
+     *
+     * @return CDF 9/7 のフィルターバンク
+     */
+    public static FilterBank cdf97() {
+        return REGISTRY.get("cdf9/7");
+    }
+
+    /**
+     * CDF 5/3 双直交ウェーブレット（LeGall 5/3）のフィルターバンクを応答する。
+     *
+     * @return CDF 5/3 のフィルターバンク
+     */
+    public static FilterBank cdf53() {
+        return REGISTRY.get("cdf5/3");
+    }
+
+    /**
+     * 名前（大文字・小文字は区別しない）からフィルターバンクを応答する。
+     *
+     * @param name 名前（{@link #names()} のいずれか）
+     * @return フィルターバンク
+     */
+    public static FilterBank named(String name) {
+        FilterBank aFilterBank = name == null ? null : REGISTRY.get(name.toLowerCase(Locale.ROOT));
+        if (aFilterBank == null) {
+            throw new IllegalArgumentException("unknown filter bank: " + name);
+        }
+        return aFilterBank;
+    }
+
+    /**
+     * 登録されているフィルターバンクの名前を、登録した順に応答する。
+     *
+     * @return 名前の変更できないリスト
+     */
+    public static List<String> names() {
+        List<String> aList = new ArrayList<>();
+        for (FilterBank aFilterBank : REGISTRY.values()) {
+            aList.add(aFilterBank.name);
+        }
+        return Collections.unmodifiableList(aList);
+    }
+
+    public String name() {
+        return this.name;
+    }
+
+    /**
+     * フィルターの長さ（タップ数）を応答する。双直交の場合は0で埋めて揃えた長さである。
+     *
+     * @return フィルターの長さ
+     */
+    public int length() {
+        return this.scalingSequence.length;
+    }
+
+    /**
+     * 直交フィルターバンク（合成フィルターが分析フィルターと同じもの）かどうかを応答する。
+     *
+     * @return 直交の場合は true
+     */
+    public boolean isOrthogonal() {
+        return this.synthesisScalingSequence == this.scalingSequence;
+    }
+
+    /**
+     * 同じフィルターのリフティングスキームを応答する。
+     *
+     * @return リフティングスキーム（ない場合は null）
+     */
+    public LiftingScheme liftingScheme() {
+        return this.liftingScheme;
+    }
+
+    /**
+     * 分析のスケーリングフィルターの複製を応答する。
+     *
+     * @return スケーリングフィルター h
+     */
+    public double[] scalingFilter() {
+        return this.scalingSequence.clone();
+    }
+
+    /**
+     * 分析のウェーブレットフィルターの複製を応答する。
+     *
+     * @return ウェーブレットフィルター g
+     */
+    public double[] waveletFilter() {
+        return this.waveletSequence.clone();
+    }
+
+    /**
+     * 合成のスケーリングフィルターの複製を応答する。
+     *
+     * @return 合成のスケーリングフィルター h~
+     */
+    public double[] synthesisScalingFilter() {
+        return this.synthesisScalingSequence.clone();
+    }
+
+    /**
+     * 合成のウェーブレットフィルターの複製を応答する。
+     *
+     * @return 合成のウェーブレットフィルター g~
+     */
+    public double[] synthesisWaveletFilter() {
+        return this.synthesisWaveletSequence.clone();
+    }
+
+    /**
+     * 分析のスケーリングフィルターを、複製せずに共有の配列のまま応答する（変換の内部で用い、変更しないこと）。
+     */
+    double[] scalingSequence() {
+        return this.scalingSequence;
+    }
+
+    double[] waveletSequence() {
+        return this.waveletSequence;
+    }
+
+    double[] synthesisScalingSequence() {
+        return this.synthesisScalingSequence;
+    }
+
+    double[] synthesisWaveletSequence() {
+        return this.synthesisWaveletSequence;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+
+    private static void register(FilterBank aFilterBank) {
+        REGISTRY.put(aFilterBank.name.toLowerCase(Locale.ROOT), aFilterBank);
+    }
+
+    /**
+     * 中心を 0 とする添字 n のタップを応答する（範囲外は 0）。
+     */
+    private static double tap(double[] filter, int n) {
+        int index = n + filter.length / 2;
+        return index < 0 || index >= filter.length ? 0.0D : filter[index];
+    }
+}
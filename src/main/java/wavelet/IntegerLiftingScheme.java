@@ -0,0 +1,233 @@
+package wavelet;
+
+/**
+ * 整数から整数への可逆な CDF 5/3 変換（JPEG 2000 の可逆変換、LeGall 5/3）をリフティングで計算する演算器である。
+ * 予測・更新の各ステップを整数の加減算と算術シフト（切り捨て）だけで行うため、逆変換で元の整数列に完全に戻る。
+ *
+ * <p>
+ * 長さ n の信号 x に対して、順変換は
+ * <pre>
+ * d[i] = x[2i+1] - ((x[2i] + x[2i+2]) &gt;&gt; 1)
+ * s[i] = x[2i] + ((d[i-1] + d[i] + 2) &gt;&gt; 2)
+ * </pre>
+ * であり、端は対称に延長する（{@code x[n] = x[n-2]}、{@code d[-1] = d[0]}）。
+ * 偶数・奇数のどちらの長さも扱え、変換後は前半の {@code (n + 1) / 2} 個に低域 s、後半に高域 d を詰める。
+ * 端の標本だけを別に扱い、内側のループには条件分岐を置かない。</p>
+ *
+ * <p>
+ * 2次元の列方向の処理は、リフティングの各ステップを行の単位で適用する（内側のループは行の中を連続にたどる）ので、
+ * 転置も列の複写も要らない。クラスは状態を持たず、複数のスレッドから同時に利用できる。</p>
+ *
+ * @see IntegerWavelet2dPyramid
+ * @see FilterBank#cdf53()
+ */
+public final class IntegerLiftingScheme extends Object {
+
+    private IntegerLiftingScheme() {
+        super();
+    }
+
+    /**
+     * 長さ length の信号を分解したときの低域の長さを応答する。
+     *
+     * @param length 信号の長さ
+     * @return 低域の長さ（{@code (length + 1) / 2}）
+     */
+    public static int lowLength(int length) {
+        return (length + 1) / 2;
+    }
+
+    /**
+     * 配列の一部（連続する length 個）を1段階だけ分解し、前半に低域、後半に高域を詰めて書き戻す。
+     *
+     * @param data 変換対象の配列（結果で上書きされる）
+     * @param offset 信号の先頭位置
+     * @param length 信号の長さ（1 以下なら何もしない）
+     * @param work 作業配列（長さ length / 2 以上）
+     */
+    public static void forward(int[] data, int offset, int length, int[] work) {
+        if (length < 2) {
+            return;
+        }
+        int last = offset + length - 1;
+        int index = offset + 1;
+        for (; index < last; index += 2) {
+            data[index] -= (data[index - 1] + data[index + 1]) >> 1;
+        }
+        if (index == last) {
+            data[index] -= data[index - 1];
+        }
+        data[offset] += (data[offset + 1] + data[offset + 1] + 2) >> 2;
+        index = offset + 2;
+        for (; index < last; index += 2) {
+            data[index] += (data[index - 1] + data[index + 1] + 2) >> 2;
+        }
+        if (index == last) {
+            data[index] += (data[index - 1] + data[index - 1] + 2) >> 2;
+        }
+        deinterleave(data, offset, length, work);
+    }
+
+    /**
+     * {@link #forward(int[], int, int, int[])} の配置の係数列から、1段階だけ信号を再構成してその場に書き戻す。
+     *
+     * @param data 係数を格納した配列（再構成した信号で上書きされる）
+     * @param offset 係数列の先頭位置
+     * @param length 係数列の長さ（1 以下なら何もしない）
+     * @param work 作業配列（長さ length / 2 以上）
+     */
+    public static void inverse(int[] data, int offset, int length, int[] work) {
+        if (length < 2) {
+            return;
+        }
+        interleave(data, offset, length, work);
+        int last = offset + length - 1;
+        data[offset] -= (data[offset + 1] + data[offset + 1] + 2) >> 2;
+        int index = offset + 2;
+        for (; index < last; index += 2) {
+            data[index] -= (data[index - 1] + data[index + 1] + 2) >> 2;
+        }
+        if (index == last) {
+            data[index] -= (data[index - 1] + data[index - 1] + 2) >> 2;
+        }
+        index = offset + 1;
+        for (; index < last; index += 2) {
+            data[index] += (data[index - 1] + data[index + 1]) >> 1;
+        }
+        if (index == last) {
+            data[index] += data[index - 1];
+        }
+    }
+
+    /**
+     * 行優先の平面の rows × columns の領域を、列方向（行をまたぐ方向）に1段階だけ分解する。
+     * 前半の {@code (rows + 1) / 2} 行に低域、後半の行に高域を詰める。
+     *
+     * @param data 変換対象の配列（結果で上書きされる）
+     * @param offset 領域の左上の位置
+     * @param rows 行数（1 以下なら何もしない）
+     * @param columns 列数
+     * @param stride 隣り合う行の先頭の間隔
+     * @param work 作業配列（長さ rows / 2 × columns 以上）
+     */
+    public static void forwardColumns(int[] data, int offset, int rows, int columns, int stride, int[] work) {
+        if (rows < 2) {
+            return;
+        }
+        int row = 1;
+        for (; row < rows - 1; row += 2) {
+            predict(data, offset + row * stride, offset + (row - 1) * stride, offset + (row + 1) * stride, columns, -1);
+        }
+        if (row == rows - 1) {
+            predict(data, offset + row * stride, offset + (row - 1) * stride, offset + (row - 1) * stride, columns, -1);
+        }
+        update(data, offset, offset + stride, offset + stride, columns, 1);
+        row = 2;
+        for (; row < rows - 1; row += 2) {
+            update(data, offset + row * stride, offset + (row - 1) * stride, offset + (row + 1) * stride, columns, 1);
+        }
+        if (row == rows - 1) {
+            update(data, offset + row * stride, offset + (row - 1) * stride, offset + (row - 1) * stride, columns, 1);
+        }
+        int high = rows / 2;
+        for (int index = 0; index < high; index++) {
+            System.arraycopy(data, offset + (index * 2 + 1) * stride, work, index * columns, columns);
+        }
+        for (int index = 1; index < lowLength(rows); index++) {
+            System.arraycopy(data, offset + index * 2 * stride, data, offset + index * stride, columns);
+        }
+        for (int index = 0; index < high; index++) {
+            System.arraycopy(work, index * columns, data, offset + (lowLength(rows) + index) * stride, columns);
+        }
+    }
+
+    /**
+     * {@link #forwardColumns(int[], int, int, int, int, int[])} の配置の係数から、列方向に1段階だけ再構成する。
+     *
+     * @param data 係数を格納した配列（結果で上書きされる）
+     * @param offset 領域の左上の位置
+     * @param rows 行数（1 以下なら何もしない）
+     * @param columns 列数
+     * @param stride 隣り合う行の先頭の間隔
+     * @param work 作業配列（長さ rows / 2 × columns 以上）
+     */
+    public static void inverseColumns(int[] data, int offset, int rows, int columns, int stride, int[] work) {
+        if (rows < 2) {
+            return;
+        }
+        int high = rows / 2;
+        int low = lowLength(rows);
+        for (int index = 0; index < high; index++) {
+            System.arraycopy(data, offset + (low + index) * stride, work, index * columns, columns);
+        }
+        for (int index = low - 1; index > 0; index--) {
+            System.arraycopy(data, offset + index * stride, data, offset + index * 2 * stride, columns);
+        }
+        for (int index = 0; index < high; index++) {
+            System.arraycopy(work, index * columns, data, offset + (index * 2 + 1) * stride, columns);
+        }
+        update(data, offset, offset + stride, offset + stride, columns, -1);
+        int row = 2;
+        for (; row < rows - 1; row += 2) {
+            update(data, offset + row * stride, offset + (row - 1) * stride, offset + (row + 1) * stride, columns, -1);
+        }
+        if (row == rows - 1) {
+            update(data, offset + row * stride, offset + (row - 1) * stride, offset + (row - 1) * stride, columns, -1);
+        }
+        row = 1;
+        for (; row < rows - 1; row += 2) {
+            predict(data, offset + row * stride, offset + (row - 1) * stride, offset + (row + 1) * stride, columns, 1);
+        }
+        if (row == rows - 1) {
+            predict(data, offset + row * stride, offset + (row - 1) * stride, offset + (row - 1) * stride, columns, 1);
+        }
+    }
+
+    /**
+     * 予測ステップを1行分まとめて適用する（sign が -1 で順変換、1 で逆変換）。
+     */
+    private static void predict(int[] data, int target, int left, int right, int columns, int sign) {
+        for (int column = 0; column < columns; column++) {
+            data[target + column] += sign * ((data[left + column] + data[right + column]) >> 1);
+        }
+    }
+
+    /**
+     * 更新ステップを1行分まとめて適用する（sign が 1 で順変換、-1 で逆変換）。
+     */
+    private static void update(int[] data, int target, int left, int right, int columns, int sign) {
+        for (int column = 0; column < columns; column++) {
+            data[target + column] += sign * ((data[left + column] + data[right + column] + 2) >> 2);
+        }
+    }
+
+    /**
+     * 偶数番目を前半に、奇数番目を後半に並べ替える。
+     */
+    private static void deinterleave(int[] data, int offset, int length, int[] work) {
+        int high = length / 2;
+        for (int index = 0; index < high; index++) {
+            work[index] = data[offset + index * 2 + 1];
+        }
+        int low = lowLength(length);
+        for (int index = 1; index < low; index++) {
+            data[offset + index] = data[offset + index * 2];
+        }
+        System.arraycopy(work, 0, data, offset + low, high);
+    }
+
+    /**
+     * 前半の低域を偶数番目に、後半の高域を奇数番目に並べ戻す。
+     */
+    private static void interleave(int[] data, int offset, int length, int[] work) {
+        int high = length / 2;
+        int low = lowLength(length);
+        System.arraycopy(data, offset + low, work, 0, high);
+        for (int index = low - 1; index > 0; index--) {
+            data[offset + index * 2] = data[offset + index];
+        }
+        for (int index = 0; index < high; index++) {
+            data[offset + index * 2 + 1] = work[index];
+        }
+    }
+}
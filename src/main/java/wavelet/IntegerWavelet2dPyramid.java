@@ -0,0 +1,232 @@
+package wavelet;
+
+import java.util.Arrays;
+
+/**
+ * 整数の平面に対する可逆な2次元の多段分解（CDF 5/3、{@link IntegerLiftingScheme}）を実装するクラス。
+ * 平面は {@code BufferedImage} から取り出した1チャンネルを行優先（{@code plane[y * width + x]}）に並べた
+ * {@code int[]} であり（{@link utility.ImageUtility#convertImageToRGBPlanes(java.awt.image.BufferedImage)}）、
+ * 倍精度の行列を経由せずに整数の加減算とシフトだけで変換する。
+ *
+ * <p>
+ * 第 j 段では、近似成分の範囲（{@code ceil(width / 2^(j-1))} × {@code ceil(height / 2^(j-1))}）を行方向、列方向の順に分解し、
+ * 左上に近似、右に垂直、下に水平、右下に対角の係数を置く（{@link DiscreteWavelet2dPyramid} と同じ配置）。
+ * 大きさは2の冪乗でなくてよく、奇数の長さでは低域が1つ多くなる。
+ * 再構成は元の平面と完全に一致し、係数は1標本あたり4バイトで保持する。</p>
+ *
+ * @see IntegerLiftingScheme
+ * @see DiscreteWavelet2dPyramid
+ */
+public class IntegerWavelet2dPyramid extends WaveletTransformation {
+
+    protected int[] sourcePlane;
+
+    protected int[] coefficients;
+
+    protected int width;
+
+    protected int height;
+
+    protected int levels;
+
+    private int[] workPlane; // 各段の分解・再構成で使い回す作業配列
+
+    /**
+     * 平面を levels 段まで分解する変換を生成する。
+     *
+     * @param plane 行優先の平面（変換の間に変更されない）
+     * @param width 幅
+     * @param height 高さ
+     * @param levels 分解する段数
+     */
+    public IntegerWavelet2dPyramid(int[] plane, int width, int height, int levels) {
+        this.initialize();
+        this.levels(levels);
+        this.sourcePlane(plane, width, height);
+    }
+
+    @Override
+    protected void initialize() {
+        super.initialize();
+        this.sourcePlane = null;
+        this.coefficients = null;
+        this.width = 0;
+        this.height = 0;
+        this.levels = 1;
+        this.workPlane = null;
+    }
+
+    /**
+     * 長さ length の辺を level 段分解したときの、近似成分の範囲の長さを応答する（{@code ceil(length / 2^level)}）。
+     *
+     * @param length 元の幅または高さ
+     * @param level 段
+     * @return 近似成分の範囲の長さ
+     */
+    public static int scaledLength(int length, int level) {
+        return (int) ((length + (1L << level) - 1L) >> level);
+    }
+
+    public int levels() {
+        return this.levels;
+    }
+
+    public void levels(int levels) {
+        if (levels < 0 || levels > 30) {
+            throw new IllegalArgumentException("levels must be between 0 and 30.");
+        }
+        this.levels = levels;
+        if (this.sourcePlane != null) {
+            this.coefficients = null;
+        }
+    }
+
+    public int width() {
+        return this.width;
+    }
+
+    public int height() {
+        return this.height;
+    }
+
+    public int[] sourcePlane() {
+        return this.sourcePlane;
+    }
+
+    /**
+     * 元の平面を設定し、計算済みの係数を破棄する。
+     *
+     * @param plane 行優先の平面（変換の間に変更されない）
+     * @param width 幅
+     * @param height 高さ
+     */
+    public void sourcePlane(int[] plane, int width, int height) {
+        this.checkSize(plane, width, height);
+        this.sourcePlane = plane;
+        this.width = width;
+        this.height = height;
+        this.coefficients = null;
+    }
+
+    /**
+     * 詰め込み配置の係数の平面（行優先）を応答する。配列はこのオブジェクトと共有されており、
+     * 要素を書き換えると以降の再構成に反映される。
+     *
+     * @return 詰め込み配置の係数の平面
+     */
+    public int[] coefficients() {
+        if (this.coefficients == null) {
+            this.computeCoefficients();
+        }
+        return this.coefficients;
+    }
+
+    /**
+     * 詰め込み配置の係数の平面を設定する。元の平面は破棄され、以降は与えた係数から再構成する。
+     *
+     * @param plane 詰め込み配置の係数の平面
+     * @param width 幅
+     * @param height 高さ
+     */
+    public void coefficients(int[] plane, int width, int height) {
+        this.checkSize(plane, width, height);
+        this.sourcePlane = null;
+        this.coefficients = plane;
+        this.width = width;
+        this.height = height;
+    }
+
+    public int[] recomposedPlane() {
+        return this.recomposedPlane(0);
+    }
+
+    /**
+     * 第 level 段の近似まで再構成した平面を応答する。係数の平面は変更しない。
+     *
+     * @param level 再構成する段（0 .. levels、0 で元の平面）
+     * @return {@code ceil(width / 2^level)} × {@code ceil(height / 2^level)} の再構成した平面（行優先）
+     */
+    public int[] recomposedPlane(int level) {
+        if (level < 0 || level > this.levels) {
+            throw new IllegalArgumentException("level is out of range.");
+        }
+        int[] packed = this.coefficients();
+        int[] recomposed = packed.clone();
+        int[] work = this.workPlane();
+        for (int k = this.levels; k > level; k--) {
+            int columns = scaledLength(this.width, k - 1);
+            int rows = scaledLength(this.height, k - 1);
+            IntegerLiftingScheme.inverseColumns(recomposed, 0, rows, columns, this.width, work);
+            for (int row = 0; row < rows; row++) {
+                IntegerLiftingScheme.inverse(recomposed, row * this.width, columns, work);
+            }
+        }
+        int columns = scaledLength(this.width, level);
+        int rows = scaledLength(this.height, level);
+        if (columns == this.width) {
+            return rows == this.height ? recomposed : Arrays.copyOf(recomposed, rows * columns);
+        }
+        int[] plane = new int[rows * columns];
+        for (int row = 0; row < rows; row++) {
+            System.arraycopy(recomposed, row * this.width, plane, row * columns, columns);
+        }
+        return plane;
+    }
+
+    @Override
+    public WaveletTransformation applyTo(Object anObject) {
+        if (!(anObject instanceof int[])) {
+            throw new IllegalArgumentException("anObject must be an int[].");
+        }
+        this.sourcePlane((int[]) anObject, this.width, this.height);
+        this.coefficients();
+        return this;
+    }
+
+    @Override
+    public WaveletTransformation transform(WaveletTransformation aWaveletTransformation) {
+        if (!(aWaveletTransformation instanceof IntegerWavelet2dPyramid)) {
+            throw new IllegalArgumentException("waveletTransformation must be an IntegerWavelet2dPyramid.");
+        }
+        IntegerWavelet2dPyramid aPyramid = (IntegerWavelet2dPyramid) aWaveletTransformation;
+        int[] plane = aPyramid.sourcePlane();
+        if (plane == null) {
+            plane = aPyramid.recomposedPlane();
+        }
+        return new IntegerWavelet2dPyramid(plane, aPyramid.width(), aPyramid.height(), this.levels);
+    }
+
+    /**
+     * 元の平面を複写し、近似成分の範囲を縦横半分（切り上げ）ずつにしながらその場で分解する。
+     */
+    protected void computeCoefficients() {
+        if (this.sourcePlane == null) {
+            return;
+        }
+        int[] plane = this.sourcePlane.clone();
+        int[] work = this.workPlane();
+        for (int k = 0; k < this.levels; k++) {
+            int columns = scaledLength(this.width, k);
+            int rows = scaledLength(this.height, k);
+            for (int row = 0; row < rows; row++) {
+                IntegerLiftingScheme.forward(plane, row * this.width, columns, work);
+            }
+            IntegerLiftingScheme.forwardColumns(plane, 0, rows, columns, this.width, work);
+        }
+        this.coefficients = plane;
+    }
+
+    private int[] workPlane() {
+        int length = Math.max(this.width, (this.height / 2) * this.width);
+        if (this.workPlane == null || this.workPlane.length < length) {
+            this.workPlane = new int[length];
+        }
+        return this.workPlane;
+    }
+
+    private void checkSize(int[] plane, int width, int height) {
+        if (width <= 0 || height <= 0 || plane.length != width * height) {
+            throw new IllegalArgumentException("plane length must be width * height.");
+        }
+    }
+}
@@ -0,0 +1,531 @@
+package wavelet;
+
+/**
+ * リフティングスキームによる1次元離散ウェーブレット変換の演算器である。
+ * Haar および Daubechies（4・6・8タップ）フィルターの多相行列を、予測（predict）ステップと
+ * 更新（update）ステップの積に分解したものを保持し、順変換・逆変換をその場（in-place）で実行する。
+ *
+ * <p>
+ * 各ステップの係数は {@link DiscreteWaveletTransformation#initialize(int)} のフィルターと同じ規約
+ * （周期境界、{@code s[b] = Σ h[k] x[(k + 2b) mod n]}、{@code g[k] = (-1)^k h[L-1-k]}）で
+ * 導出しており、畳み込みによる計算と丸め誤差の範囲で一致する。
+ * 偶数番目の系列がスケーリング係数に、奇数番目の系列がウェーブレット係数になる。</p>
+ *
+ * <p>
+ * インスタンスは不変であり、複数のスレッドから同時に利用できる。</p>
+ *
+ * @see WaveletEngine#LIFTING
+ * @see DiscreteWavelet1dTransformation
+ */
+public final class LiftingScheme extends Object {
+
+    /**
+     * Haar（2タップ）のリフティング分解である。
+     */
+    private static final LiftingScheme HAAR = new LiftingScheme(0.7071067811865476D, -1.4142135623730951D,
+            new Step(false, 0, 0, 1.0D),
+            new Step(true, 0, 0, -0.5D));
+
+    /**
+     * Daubechies 4タップのリフティング分解である。
+     */
+    private static final LiftingScheme DAUBECHIES4 = new LiftingScheme(1.9318516525781373D, -0.5176380902050415D,
+            new Step(true, 0, 0, -1.7320508075688785D),
+            new Step(false, 0, 0, 0.4330127018922191D, -0.0669872981077806D),
+            new Step(true, 1, 0, 1.0000000000000004D));
+
+    /**
+     * Daubechies 6タップのリフティング分解である。
+     */
+    private static final LiftingScheme DAUBECHIES6 = new LiftingScheme(0.43187999151728207D, -2.3154580430707044D,
+            new Step(false, 0, 0, 2.4254972439119586D),
+            new Step(true, 0, -1, 0.07933945618515709D, -0.3523876576748555D),
+            new Step(false, 0, 1, -2.895347454145103D, 0.5614149091535064D),
+            new Step(true, 2, 0, -0.019750529242292952D));
+
+    /**
+     * Daubechies 8タップのリフティング分解である。
+     */
+    private static final LiftingScheme DAUBECHIES8 = new LiftingScheme(2.2779381115220905D, -0.4389934893059132D,
+            new Step(true, 0, 0, -3.102931485830335D),
+            new Step(false, 0, 0, 0.3534491876177731D, 0.11602641034420509D),
+            new Step(true, 0, 0, -1.1327374041401572D, 0.1810902771462919D),
+            new Step(false, 0, 0, -0.06610055269004966D, -0.22141421015852866D),
+            new Step(true, 3, 0, 0.23869459776013247D, -1.3483235209718456D, 4.516421955411162D));
+
+    /**
+     * ステップの対象系列自身の位置のずれの上限である。ずれの分だけ退避する要素を局所変数に持つので、配列を確保せずに済む。
+     */
+    private static final int MAXIMUM_SHIFT = 3;
+
+    /**
+     * 予測・更新ステップの列（順変換で適用する順）である。
+     */
+    private final Step[] steps;
+
+    /**
+     * 最後に偶数系列（スケーリング係数）へ掛ける正規化係数である。
+     */
+    private final double scalingNormalization;
+
+    /**
+     * 最後に奇数系列（ウェーブレット係数）へ掛ける正規化係数である。
+     */
+    private final double waveletNormalization;
+
+    /**
+     * 正規化係数とステップ列からリフティングスキームを生成する。
+     *
+     * @param scalingNormalization 偶数系列の正規化係数
+     * @param waveletNormalization 奇数系列の正規化係数
+     * @param steps 順変換で適用するステップ列
+     */
+    private LiftingScheme(double scalingNormalization, double waveletNormalization, Step... steps) {
+        this.scalingNormalization = scalingNormalization;
+        this.waveletNormalization = waveletNormalization;
+        this.steps = steps;
+    }
+
+    /**
+     * Haarウェーブレットのリフティングスキームを応答する。
+     *
+     * @return Haarのリフティングスキーム
+     */
+    public static LiftingScheme haar() {
+        return HAAR;
+    }
+
+    /**
+     * {@link DiscreteWaveletTransformation#initialize(int)} と同じ次数指定で、
+     * 対応するリフティングスキームを応答する。
+     * 1: Haar、2: 4タップ、3: 6タップ、4: 8タップであり、それ以外は 4タップ（デフォルト）とする。
+     *
+     * @param order Daubechiesウェーブレットの次数
+     * @return 対応するリフティングスキーム
+     */
+    public static LiftingScheme daubechies(int order) {
+        if (order == 1) {
+            return HAAR;
+        }
+        if (order == 3) {
+            return DAUBECHIES6;
+        }
+        if (order == 4) {
+            return DAUBECHIES8;
+        }
+        return DAUBECHIES4;
+    }
+
+    /**
+     * 配列の一部をその場で順変換する。
+     * {@code data[offset + k * stride]}（k = 0 .. length-1）を信号とみなし、変換後は
+     * 偶数番目（k = 2b）にスケーリング係数、奇数番目（k = 2b+1）にウェーブレット係数が格納される。
+     * 作業用の配列は確保しない。
+     *
+     * @param data 変換対象の配列（結果で上書きされる）
+     * @param offset 信号の先頭位置
+     * @param length 信号の長さ（偶数）
+     * @param stride 隣り合う標本の間隔
+     */
+    public void forward(double[] data, int offset, int length, int stride) {
+        checkLength(length);
+        this.forward(data, offset, data, offset + stride, stride * 2, length / 2);
+    }
+
+    /**
+     * 配列の一部をその場で逆変換する。
+     * {@link #forward(double[], int, int, int)} と同じ配置（偶数番目がスケーリング係数、
+     * 奇数番目がウェーブレット係数）の係数列から信号を再構成する。
+     *
+     * @param data 係数を格納した配列（再構成した信号で上書きされる）
+     * @param offset 係数列の先頭位置
+     * @param length 係数列の長さ（偶数）
+     * @param stride 隣り合う係数の間隔
+     */
+    public void inverse(double[] data, int offset, int length, int stride) {
+        checkLength(length);
+        this.inverse(data, offset, data, offset + stride, stride * 2, length / 2);
+    }
+
+    /**
+     * 信号を順変換し、スケーリング係数とウェーブレット係数を別々の配列に書き込む。
+     * 偶数番目・奇数番目の標本を出力配列へ振り分けてから、出力配列の上でリフティングを行う。
+     *
+     * @param source 元の信号（変更されない）
+     * @param scaling スケーリング係数の出力先（長さ source.length / 2 以上）
+     * @param wavelet ウェーブレット係数の出力先（長さ source.length / 2 以上）
+     */
+    public void forward(double[] source, double[] scaling, double[] wavelet) {
+        this.forward(source, 0, source.length, scaling, 0, wavelet, 0);
+    }
+
+    /**
+     * 配列の一部の信号を順変換し、スケーリング係数とウェーブレット係数を別々の配列の指定した位置に書き込む。
+     *
+     * @param source 元の信号を格納した配列（変更されない）
+     * @param sourceOffset 信号の先頭位置
+     * @param length 信号の長さ（偶数）
+     * @param scaling スケーリング係数の出力先
+     * @param scalingOffset スケーリング係数の先頭位置
+     * @param wavelet ウェーブレット係数の出力先
+     * @param waveletOffset ウェーブレット係数の先頭位置
+     */
+    public void forward(double[] source, int sourceOffset, int length, double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset) {
+        checkLength(length);
+        int half = length / 2;
+        for (int index = 0; index < half; index++) {
+            scaling[scalingOffset + index] = source[sourceOffset + index * 2];
+            wavelet[waveletOffset + index] = source[sourceOffset + index * 2 + 1];
+        }
+        this.forward(scaling, scalingOffset, wavelet, waveletOffset, 1, half);
+    }
+
+    /**
+     * スケーリング係数とウェーブレット係数から信号を再構成し、出力配列に書き込む。
+     *
+     * @param scaling スケーリング係数（変更されない）
+     * @param wavelet ウェーブレット係数（変更されない）
+     * @param recomposed 再構成した信号の出力先（長さ scaling.length * 2 以上）
+     */
+    public void inverse(double[] scaling, double[] wavelet, double[] recomposed) {
+        this.inverse(scaling, 0, wavelet, 0, scaling.length, recomposed, 0);
+    }
+
+    /**
+     * 配列の一部のスケーリング係数とウェーブレット係数から信号を再構成し、出力配列の指定した位置に書き込む。
+     *
+     * @param scaling スケーリング係数を格納した配列（変更されない）
+     * @param scalingOffset スケーリング係数の先頭位置
+     * @param wavelet ウェーブレット係数を格納した配列（変更されない）
+     * @param waveletOffset ウェーブレット係数の先頭位置
+     * @param half 各係数列の長さ
+     * @param recomposed 再構成した信号の出力先（長さ half * 2 の範囲を上書きする）
+     * @param recomposedOffset 再構成した信号の先頭位置
+     */
+    public void inverse(double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset, int half, double[] recomposed, int recomposedOffset) {
+        for (int index = 0; index < half; index++) {
+            recomposed[recomposedOffset + index * 2] = scaling[scalingOffset + index];
+            recomposed[recomposedOffset + index * 2 + 1] = wavelet[waveletOffset + index];
+        }
+        this.inverse(recomposed, recomposedOffset, recomposed, recomposedOffset + 1, 2, half);
+    }
+
+    /**
+     * 配列の一部を順変換し、前半にスケーリング係数、後半にウェーブレット係数を詰めて書き戻す（Mallat の配置）。
+     * 偶数番目・奇数番目の標本を作業配列の前半・後半へ振り分け、作業配列の上で連続にリフティングしてから書き戻す。
+     *
+     * @param data 変換対象の配列（結果で上書きされる）
+     * @param offset 信号の先頭位置
+     * @param length 信号の長さ（偶数）
+     * @param stride 隣り合う標本の間隔
+     * @param work 作業配列（長さ length 以上）
+     */
+    public void decompose(double[] data, int offset, int length, int stride, double[] work) {
+        checkLength(length);
+        int half = length / 2;
+        for (int index = 0; index < half; index++) {
+            work[index] = data[offset + index * 2 * stride];
+            work[half + index] = data[offset + (index * 2 + 1) * stride];
+        }
+        this.forward(work, 0, work, half, 1, half);
+        for (int index = 0; index < length; index++) {
+            data[offset + index * stride] = work[index];
+        }
+    }
+
+    /**
+     * {@link #decompose(double[], int, int, int, double[])} の配置（前半がスケーリング係数、
+     * 後半がウェーブレット係数）の係数列から信号を再構成し、その場に書き戻す。
+     *
+     * @param data 係数を格納した配列（再構成した信号で上書きされる）
+     * @param offset 係数列の先頭位置
+     * @param length 係数列の長さ（偶数）
+     * @param stride 隣り合う係数の間隔
+     * @param work 作業配列（長さ length 以上）
+     */
+    public void recompose(double[] data, int offset, int length, int stride, double[] work) {
+        checkLength(length);
+        int half = length / 2;
+        for (int index = 0; index < length; index++) {
+            work[index] = data[offset + index * stride];
+        }
+        this.inverse(work, 0, work, half, 1, half);
+        for (int index = 0; index < half; index++) {
+            data[offset + index * 2 * stride] = work[index];
+            data[offset + (index * 2 + 1) * stride] = work[half + index];
+        }
+    }
+
+    /**
+     * 隣り合う width 本の列の束を、列ごとに {@link #decompose(double[], int, int, int, double[])} の配置で順変換する。
+     * 偶数行・奇数行を作業配列の前半・後半へ行単位で連続に写し、作業配列の上で各列をリフティングしてから書き戻す。
+     * 作業配列は束全体（length × width）を保持するので、束がキャッシュに収まるよう幅を選べば列をたどる参照もキャッシュ内で済む。
+     *
+     * @param data 変換対象の配列（結果で上書きされる）
+     * @param offset 束の左上の位置
+     * @param length 各列の長さ（偶数）
+     * @param width 束の列数
+     * @param stride 隣り合う行の先頭の間隔
+     * @param work 作業配列（長さ length × width 以上）
+     */
+    public void decomposeTile(double[] data, int offset, int length, int width, int stride, double[] work) {
+        checkLength(length);
+        int half = length / 2;
+        for (int index = 0; index < half; index++) {
+            System.arraycopy(data, offset + index * 2 * stride, work, index * width, width);
+            System.arraycopy(data, offset + (index * 2 + 1) * stride, work, (half + index) * width, width);
+        }
+        for (int column = 0; column < width; column++) {
+            this.forward(work, column, work, half * width + column, width, half);
+        }
+        for (int index = 0; index < length; index++) {
+            System.arraycopy(work, index * width, data, offset + index * stride, width);
+        }
+    }
+
+    /**
+     * {@link #decomposeTile(double[], int, int, int, int, double[])} の配置の列の束から、列ごとに信号を再構成してその場に書き戻す。
+     *
+     * @param data 係数を格納した配列（再構成した信号で上書きされる）
+     * @param offset 束の左上の位置
+     * @param length 各列の長さ（偶数）
+     * @param width 束の列数
+     * @param stride 隣り合う行の先頭の間隔
+     * @param work 作業配列（長さ length × width 以上）
+     */
+    public void recomposeTile(double[] data, int offset, int length, int width, int stride, double[] work) {
+        checkLength(length);
+        int half = length / 2;
+        for (int index = 0; index < length; index++) {
+            System.arraycopy(data, offset + index * stride, work, index * width, width);
+        }
+        for (int column = 0; column < width; column++) {
+            this.inverse(work, column, work, half * width + column, width, half);
+        }
+        for (int index = 0; index < half; index++) {
+            System.arraycopy(work, index * width, data, offset + index * 2 * stride, width);
+            System.arraycopy(work, (half + index) * width, data, offset + (index * 2 + 1) * stride, width);
+        }
+    }
+
+    /**
+     * 偶数系列と奇数系列に対して、予測・更新ステップと正規化を順に適用する。
+     *
+     * @param even 偶数系列を格納した配列
+     * @param evenBase 偶数系列の先頭位置
+     * @param odd 奇数系列を格納した配列
+     * @param oddBase 奇数系列の先頭位置
+     * @param pitch 各系列内で隣り合う要素の間隔
+     * @param half 各系列の長さ
+     */
+    private void forward(double[] even, int evenBase, double[] odd, int oddBase, int pitch, int half) {
+        if (half == 0) {
+            return;
+        }
+        for (Step step : this.steps) {
+            if (step.predict) {
+                step.forward(odd, oddBase, even, evenBase, pitch, half);
+            } else {
+                step.forward(even, evenBase, odd, oddBase, pitch, half);
+            }
+        }
+        scale(even, evenBase, pitch, half, this.scalingNormalization);
+        scale(odd, oddBase, pitch, half, this.waveletNormalization);
+    }
+
+    /**
+     * 正規化を打ち消してから、予測・更新ステップを逆順に取り消す。
+     *
+     * @param even 偶数系列を格納した配列
+     * @param evenBase 偶数系列の先頭位置
+     * @param odd 奇数系列を格納した配列
+     * @param oddBase 奇数系列の先頭位置
+     * @param pitch 各系列内で隣り合う要素の間隔
+     * @param half 各系列の長さ
+     */
+    private void inverse(double[] even, int evenBase, double[] odd, int oddBase, int pitch, int half) {
+        if (half == 0) {
+            return;
+        }
+        scale(even, evenBase, pitch, half, 1.0D / this.scalingNormalization);
+        scale(odd, oddBase, pitch, half, 1.0D / this.waveletNormalization);
+        for (int index = this.steps.length - 1; index >= 0; index--) {
+            Step step = this.steps[index];
+            if (step.predict) {
+                step.inverse(odd, oddBase, even, evenBase, pitch, half);
+            } else {
+                step.inverse(even, evenBase, odd, oddBase, pitch, half);
+            }
+        }
+    }
+
+    /**
+     * 系列の全要素に定数を掛ける。
+     */
+    private static void scale(double[] data, int base, int pitch, int half, double factor) {
+        for (int index = 0, position = base; index < half; index++, position += pitch) {
+            data[position] *= factor;
+        }
+    }
+
+    /**
+     * 信号長が偶数であることを確認する。
+     *
+     * @param length 信号の長さ
+     * @throws IllegalArgumentException 長さが奇数の場合
+     */
+    private static void checkLength(int length) {
+        if (length % 2 != 0) {
+            throw new IllegalArgumentException("length must be even.");
+        }
+    }
+
+    /**
+     * リフティングの1ステップを表す。
+     * 対象系列 t と相手系列 o について、順変換では
+     * {@code t[n] = t[n + shift] + Σ coefficients[k] * o[n + first + k]}（添字は系列長で周期的）を計算する。
+     * 予測ステップでは対象が奇数系列、更新ステップでは偶数系列である。
+     *
+     * <p>
+     * 周期的な折り返しが必要になるのは系列の両端の数要素だけなので、
+     * 剰余演算を行わない内側のループと、端だけを扱うループに分けて計算する。</p>
+     */
+    private static final class Step extends Object {
+
+        /**
+         * 予測ステップ（奇数系列を更新する）なら true、更新ステップ（偶数系列を更新する）なら false である。
+         */
+        private final boolean predict;
+
+        /**
+         * 対象系列自身を参照する位置のずれである。多相行列の行列式に含まれる遅延を吸収するために用いる。
+         */
+        private final int shift;
+
+        /**
+         * coefficients[0] が参照する相手系列の相対位置である。
+         */
+        private final int first;
+
+        /**
+         * 相手系列に掛ける係数である。
+         */
+        private final double[] coefficients;
+
+        /**
+         * ステップを生成する。
+         *
+         * @param predict 予測ステップなら true
+         * @param shift 対象系列自身の位置のずれ
+         * @param first 係数の先頭が参照する相手系列の相対位置
+         * @param coefficients 相手系列に掛ける係数
+         */
+        private Step(boolean predict, int shift, int first, double... coefficients) {
+            if (shift < 0 || shift > MAXIMUM_SHIFT) {
+                throw new IllegalArgumentException("shift must be between 0 and " + MAXIMUM_SHIFT + ".");
+            }
+            this.predict = predict;
+            this.shift = shift;
+            this.first = first;
+            this.coefficients = coefficients;
+        }
+
+        /**
+         * 順変換のステップをその場で適用する。
+         * 位置のずれがある場合は、昇順に書き換えたときに上書き済みとなる先頭の数要素（{@link #MAXIMUM_SHIFT} 個以下）だけを
+         * 局所変数に退避しておくので、段ごと・呼び出しごとに配列を確保しない。
+         */
+        private void forward(double[] target, int targetBase, double[] other, int otherBase, int pitch, int half) {
+            int delay = Math.floorMod(this.shift, half);
+            double saved0 = delay > 0 ? target[targetBase] : 0.0D;
+            double saved1 = delay > 1 ? target[targetBase + pitch] : 0.0D;
+            double saved2 = delay > 2 ? target[targetBase + 2 * pitch] : 0.0D;
+            int interiorStart = Math.min(half, Math.max(0, -this.first));
+            int interiorEnd = Math.max(interiorStart, Math.min(half - delay, half - this.first - this.coefficients.length + 1));
+            for (int index = 0; index < interiorStart; index++) {
+                target[targetBase + index * pitch] = this.selfForward(target, targetBase, pitch, half, delay, index, saved0, saved1, saved2) + this.wrappedSum(other, otherBase, pitch, half, index);
+            }
+            for (int index = interiorStart; index < interiorEnd; index++) {
+                double value = target[targetBase + (index + delay) * pitch];
+                int position = otherBase + (index + this.first) * pitch;
+                for (double coefficient : this.coefficients) {
+                    value += coefficient * other[position];
+                    position += pitch;
+                }
+                target[targetBase + index * pitch] = value;
+            }
+            for (int index = interiorEnd; index < half; index++) {
+                target[targetBase + index * pitch] = this.selfForward(target, targetBase, pitch, half, delay, index, saved0, saved1, saved2) + this.wrappedSum(other, otherBase, pitch, half, index);
+            }
+        }
+
+        /**
+         * 逆変換のステップをその場で適用する。
+         * 順変換の {@code t[n]} を {@code t[n + shift]} へ書き戻すため降順に処理し、
+         * 上書き済みとなる末尾の数要素だけを局所変数に退避しておく。
+         */
+        private void inverse(double[] target, int targetBase, double[] other, int otherBase, int pitch, int half) {
+            int delay = Math.floorMod(this.shift, half);
+            double saved0 = delay > 0 ? target[targetBase + (half - delay) * pitch] : 0.0D;
+            double saved1 = delay > 1 ? target[targetBase + (half - delay + 1) * pitch] : 0.0D;
+            double saved2 = delay > 2 ? target[targetBase + (half - delay + 2) * pitch] : 0.0D;
+            int interiorStart = Math.min(half, Math.max(delay, delay - this.first));
+            int interiorEnd = Math.max(interiorStart, Math.min(half, half + delay - this.first - this.coefficients.length + 1));
+            for (int index = half - 1; index >= interiorEnd; index--) {
+                target[targetBase + index * pitch] = this.selfInverse(target, targetBase, pitch, delay, index, saved0, saved1, saved2) - this.wrappedSum(other, otherBase, pitch, half, index - delay);
+            }
+            for (int index = interiorEnd - 1; index >= interiorStart; index--) {
+                double value = target[targetBase + (index - delay) * pitch];
+                int position = otherBase + (index - delay + this.first) * pitch;
+                for (double coefficient : this.coefficients) {
+                    value -= coefficient * other[position];
+                    position += pitch;
+                }
+                target[targetBase + index * pitch] = value;
+            }
+            for (int index = interiorStart - 1; index >= 0; index--) {
+                target[targetBase + index * pitch] = this.selfInverse(target, targetBase, pitch, delay, index, saved0, saved1, saved2) - this.wrappedSum(other, otherBase, pitch, half, index - delay);
+            }
+        }
+
+        /**
+         * 順変換で、対象系列の {@code t[index + delay]}（未更新の値）を応答する。
+         */
+        private double selfForward(double[] target, int targetBase, int pitch, int half, int delay, int index, double saved0, double saved1, double saved2) {
+            int position = index + delay;
+            if (position < half) {
+                return target[targetBase + position * pitch];
+            }
+            return saved(position - half, saved0, saved1, saved2);
+        }
+
+        /**
+         * 逆変換で、対象系列の {@code t[index - delay]}（順変換後の値）を応答する。
+         */
+        private double selfInverse(double[] target, int targetBase, int pitch, int delay, int index, double saved0, double saved1, double saved2) {
+            int position = index - delay;
+            if (position >= 0) {
+                return target[targetBase + position * pitch];
+            }
+            return saved(position + delay, saved0, saved1, saved2);
+        }
+
+        /**
+         * 退避した index 番目の要素を応答する。
+         */
+        private static double saved(int index, double saved0, double saved1, double saved2) {
+            return index == 0 ? saved0 : index == 1 ? saved1 : saved2;
+        }
+
+        /**
+         * 相手系列との積和を、添字を周期的に折り返しながら計算する（系列の端でのみ用いる）。
+         */
+        private double wrappedSum(double[] other, int otherBase, int pitch, int half, int index) {
+            double sum = 0.0D;
+            for (int k = 0; k < this.coefficients.length; k++) {
+                sum += this.coefficients[k] * other[otherBase + Math.floorMod(index + this.first + k, half) * pitch];
+            }
+            return sum;
+        }
+    }
+}
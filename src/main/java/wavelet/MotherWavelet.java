@@ -0,0 +1,126 @@
+package wavelet;
+
+/**
+ * 連続ウェーブレット変換（{@link ContinuosWaveletTransformation}）のマザーウェーブレットを表す列挙型である。
+ * それぞれ周波数領域の表現 ψ̂0 を持ち、変換は信号のフーリエ変換と、スケールを掛けた角周波数での ψ̂0 の積を逆変換して求める。
+ *
+ * <p>
+ * 正規化は Torrence と Compo（1998）に従い、各スケールのウェーブレットのエネルギーが 1 になるように
+ * {@code Ψ̂(sω) = √(2πs / Δt) ψ̂0(sω)} とする。ψ̂0 はいずれも実数なので、複素共役をとる必要はない。</p>
+ *
+ * @see ContinuosWaveletTransformation
+ */
+public enum MotherWavelet {
+    /**
+     * Morlet ウェーブレット（ω0 = 6）である。解析的（負の周波数で 0）で、係数は複素数になる。
+     */
+    MORLET,
+
+    /**
+     * Mexican hat ウェーブレット（ガウス関数の2階微分、DOG m = 2）である。実数のウェーブレットで、係数も実数になる。
+     */
+    MEXICAN_HAT,
+
+    /**
+     * Paul ウェーブレット（m = 4）である。解析的で、係数は複素数になる。
+     */
+    PAUL;
+
+    /**
+     * Morlet ウェーブレットの中心角周波数である。
+     */
+    private static final double MORLET_FREQUENCY = 6.0;
+
+    /**
+     * Paul ウェーブレットの次数 m = 4 に対する正規化係数 {@code 2^m / √(m (2m - 1)!)} である。
+     */
+    private static final double PAUL_NORMALIZATION = 16.0 / Math.sqrt(4.0 * 5040.0);
+
+    /**
+     * Mexican hat ウェーブレットの正規化係数 {@code 1 / √Γ(m + 1/2)}（m = 2）である。
+     */
+    private static final double MEXICAN_HAT_NORMALIZATION = 1.0 / Math.sqrt(0.75 * Math.sqrt(Math.PI));
+
+    /**
+     * スケールを掛けた角周波数 sω における ψ̂0 の値を応答する。
+     *
+     * @param scaledFrequency スケールを掛けた角周波数 sω
+     * @return ψ̂0(sω)
+     */
+    public double fourierTransform(double scaledFrequency) {
+        switch (this) {
+            case MORLET:
+                if (scaledFrequency <= 0.0) {
+                    return 0.0;
+                }
+                double offset = scaledFrequency - MORLET_FREQUENCY;
+                return Math.exp(-offset * offset / 2.0) / Math.pow(Math.PI, 0.25);
+            case PAUL:
+                if (scaledFrequency <= 0.0) {
+                    return 0.0;
+                }
+                double square = scaledFrequency * scaledFrequency;
+                return PAUL_NORMALIZATION * square * square * Math.exp(-scaledFrequency);
+            default:
+                double energy = scaledFrequency * scaledFrequency;
+                return MEXICAN_HAT_NORMALIZATION * energy * Math.exp(-energy / 2.0);
+        }
+    }
+
+    /**
+     * スケールに対するフーリエ周期の比 λ / s を応答する。
+     *
+     * @return フーリエ周期とスケールの比
+     */
+    public double fourierFactor() {
+        switch (this) {
+            case MORLET:
+                return 4.0 * Math.PI / (MORLET_FREQUENCY + Math.sqrt(2.0 + MORLET_FREQUENCY * MORLET_FREQUENCY));
+            case PAUL:
+                return 4.0 * Math.PI / 9.0;
+            default:
+                return 2.0 * Math.PI / Math.sqrt(2.5);
+        }
+    }
+
+    /**
+     * 係数が複素数になる（解析的な）ウェーブレットかどうかを応答する。
+     *
+     * @return 複素数のウェーブレットなら true
+     */
+    public boolean isComplex() {
+        return this != MEXICAN_HAT;
+    }
+
+    /**
+     * 長さ length の離散フーリエ変換の各周波数での、スケール scale のウェーブレットの正規化したスペクトルを応答する。
+     * 添字 k は角周波数 {@code 2πk / (length Δt)}（k が length / 2 を超える分は負の周波数）に対応する。
+     *
+     * @param length 離散フーリエ変換の長さ
+     * @param scale スケール（時間の単位）
+     * @param samplingInterval 標本化の間隔 Δt
+     * @return 長さ length のスペクトル
+     */
+    public double[] spectrum(int length, double scale, double samplingInterval) {
+        double[] values = new double[length];
+        this.spectrum(length, scale, samplingInterval, values);
+        return values;
+    }
+
+    /**
+     * {@link #spectrum(int, double, double)} と同じスペクトルを、与えた配列の先頭 length 個に書き込む。配列を使い回して確保を避けたいときに用いる。
+     *
+     * @param length 離散フーリエ変換の長さ
+     * @param scale スケール（時間の単位）
+     * @param samplingInterval 標本化の間隔 Δt
+     * @param values 書き込む配列（長さ length 以上）
+     */
+    public void spectrum(int length, double scale, double samplingInterval, double[] values) {
+        double normalization = Math.sqrt(2.0 * Math.PI * scale / samplingInterval);
+        double step = 2.0 * Math.PI / (length * samplingInterval);
+        for (int k = 0; k < length; k++) {
+            double frequency = (k <= length / 2 ? k : k - length) * step;
+            values[k] = normalization * this.fourierTransform(scale * frequency);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package wavelet;
+
+/**
+ * ウェーブレットパケットの最良基底探索（Coifman–Wickerhauser）で、節点の係数の「情報コスト」を測る関数を表す列挙型である。
+ * {@link WaveletPacket1dTransformation#costFunction(PacketCost)} などに渡して選ぶ。
+ *
+ * <p>
+ * どのコストも係数ごとの値の和（加法的）なので、子の節点のコストの和と親の節点のコストを比べるだけで、
+ * 部分木ごとに独立に最良基底を決められる。0 の係数はコストに寄与しない。</p>
+ *
+ * @see WaveletPacket1dTransformation
+ * @see WaveletPacket2dTransformation
+ */
+public enum PacketCost {
+    /**
+     * Shannon エントロピー {@code -Σ x² log x²} である。エネルギーが少数の係数に集まるほど小さい。
+     */
+    SHANNON,
+
+    /**
+     * 対数エネルギー {@code Σ log x²} である。
+     */
+    LOG_ENERGY,
+
+    /**
+     * 絶対値の和 {@code Σ |x|}（ℓ1 ノルム）である。
+     */
+    L1;
+
+    /**
+     * 配列の区間 [offset, offset + length) の係数のコストを応答する。
+     *
+     * @param values 係数を格納した配列
+     * @param offset 区間の先頭位置
+     * @param length 区間の長さ
+     * @return コスト
+     */
+    public double cost(double[] values, int offset, int length) {
+        double sum = 0.0;
+        for (int index = offset; index < offset + length; index++) {
+            double value = values[index];
+            if (value == 0.0) {
+                continue;
+            }
+            double energy = value * value;
+            switch (this) {
+                case SHANNON:
+                    sum -= energy * Math.log(energy);
+                    break;
+                case LOG_ENERGY:
+                    sum += Math.log(energy);
+                    break;
+                default:
+                    sum += Math.abs(value);
+                    break;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * 行列（ビューでもよい）のすべての係数のコストを応答する。行ごとのコストの和である。
+     *
+     * @param aCoefficientMatrix 係数の行列
+     * @return コスト
+     */
+    public double cost(CoefficientMatrix aCoefficientMatrix) {
+        double sum = 0.0;
+        for (int row = 0; row < aCoefficientMatrix.rowSize(); row++) {
+            sum += this.cost(aCoefficientMatrix.values(), aCoefficientMatrix.indexOf(row, 0), aCoefficientMatrix.columnSize());
+        }
+        return sum;
+    }
+}
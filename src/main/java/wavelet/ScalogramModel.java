@@ -0,0 +1,383 @@
+package wavelet;
+
+import java.awt.Component;
+import java.awt.Cursor;
+import java.awt.Dimension;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import javax.swing.JFrame;
+import javax.swing.JMenuItem;
+import javax.swing.JPanel;
+import javax.swing.JPopupMenu;
+
+/**
+ * 連続ウェーブレット変換のスケーログラム（時間 × スケールの係数の大きさ）を表示するモデルクラス。
+ * {@link Wavelet1dModel} と同じく、信号と変換結果の画像をペインモデルで表示し、ポップアップメニューの操作に応答する。
+ *
+ * <p>
+ * 変換は {@link ContinuosWaveletTransformation#forEachScale} で計算用のプール（{@link #computeExecutor()}）上に
+ * スケールごとに並列に行い、各スケールの係数はその場で画像の幅の区間ごとの最大の大きさ {@code |W|} に縮約する。
+ * 変換はモデルが1つだけ持ち続けて使い回すので、同じ長さの信号を設定し直すときはキャッシュしたスペクトルを再利用する。</p>
+ *
+ * <p>
+ * 全スケールの係数は保持しない。信号を延長した2の冪の長さを N とすると、メモリは結果の スケール数 × 画像の幅 の {@code float} に加えて、
+ * 順変換した信号の 2N 個の {@code double}、プールのワーカーごとに一度だけ確保して使い回す作業配列 3N 個の {@code double}、
+ * 上限つきのスペクトルのキャッシュ（{@link ContinuosWaveletTransformation#DEFAULT_SPECTRUM_CACHE_BYTES}、既定で 64 MiB）である。
+ * 100万標本（N = 2<sup>20</sup>）なら信号に 16 MiB、ワーカーごとに 24 MiB を使う。
+ * 計算はスケールごとに長さ N の逆変換を1回行うので、時間はスケール数 × N log N に比例する。
+ * 1コア（JDK 17）で測ると、100万標本 × 128 スケールの {@link #computeMagnitudes} は約 5.3 秒（1スケールあたり約 41 ms）かかる。
+ * 対話的に使えるよう 1 秒を十分に下回るという目標は満たしていない。プールのコア数に比例して速くなっても 8 コアで約 0.7 秒であり、
+ * 多コアでの時間は測っていない。</p>
+ *
+ * <p>
+ * 画像は {@link BufferedImage} の {@code int[]} のラスターに、色の参照表（{@link #colorTable()}）で変換した画素を直接書き込んで作る。
+ * 上の行が小さいスケール（短い周期）である。</p>
+ *
+ * @see ContinuosWaveletTransformation
+ * @see Wavelet1dModel
+ */
+public class ScalogramModel extends WaveletModel {
+
+	/**
+	 * 画像の幅の上限（画素）である。信号がこれより長ければ、区間ごとの最大値に縮約する。
+	 */
+	public static final int MAXIMUM_IMAGE_WIDTH = 1024;
+
+	/**
+	 * 信号の画像の高さ（画素）である。
+	 */
+	private static final int SIGNAL_IMAGE_HEIGHT = 200;
+
+	/**
+	 * 大きさを色に変換する参照表（256色）である。
+	 */
+	private static final int[] COLOR_TABLE = colorTable();
+
+	/**
+	 * 元の信号を保持する。
+	 */
+	protected double[] sourceCoefficients;
+
+	/**
+	 * スケールごと・画像の列ごとの係数の大きさの最大値を保持する。
+	 */
+	protected float[][] magnitudes;
+
+	/**
+	 * 変換に用いるマザーウェーブレットを保持する。
+	 */
+	protected MotherWavelet motherWavelet = MotherWavelet.MORLET;
+
+	/**
+	 * 変換に用いるスケールを保持する（null なら信号の長さに応じた既定のスケール）。
+	 */
+	protected double[] scales = null;
+
+	/**
+	 * スケーログラムの計算に使い回す変換を保持する。
+	 */
+	protected ContinuosWaveletTransformation transformation = null;
+
+	/**
+	 * 元の信号を表示するためのペインモデルである。
+	 */
+	protected WaveletPaneModel sourceCoefficientsPaneModel = null;
+
+	/**
+	 * スケーログラムを表示するためのペインモデルである。
+	 */
+	protected WaveletPaneModel scalogramPaneModel = null;
+
+	/**
+	 * サンプルの信号でスケーログラムを作る。
+	 */
+	public ScalogramModel() {
+		doSampleCoefficients();
+	}
+
+	/**
+	 * アクションイベントを処理する。サンプルの信号の設定と、マザーウェーブレットの切り替えに応答する。
+	 */
+	public void actionPerformed(ActionEvent anActionEvent) {
+		String string = anActionEvent.getActionCommand();
+		if ("sample coefficients".equals(string)) {
+			doSampleCoefficients();
+			return;
+		}
+		for (MotherWavelet aMotherWavelet : MotherWavelet.values()) {
+			if (commandName(aMotherWavelet).equals(string)) {
+				motherWavelet(aMotherWavelet);
+				return;
+			}
+		}
+	}
+
+	public MotherWavelet motherWavelet() {
+		return this.motherWavelet;
+	}
+
+	/**
+	 * マザーウェーブレットを設定し、スケーログラムを作り直す。
+	 * @param aMotherWavelet マザーウェーブレット
+	 */
+	public void motherWavelet(MotherWavelet aMotherWavelet) {
+		if (aMotherWavelet == null) {
+			throw new IllegalArgumentException("mother wavelet must not be null.");
+		}
+		this.motherWavelet = aMotherWavelet;
+		setSourceData(this.sourceCoefficients);
+	}
+
+	public double[] scales() {
+		return this.scales;
+	}
+
+	/**
+	 * 変換に用いるスケールを設定する。次にソースデータを設定したときから有効になる。
+	 * @param scales スケールの配列（null なら既定のスケール）
+	 */
+	public void scales(double[] scales) {
+		this.scales = scales == null ? null : scales.clone();
+	}
+
+	/**
+	 * サンプルの信号（周期が 8 から 256 標本まで連続に伸びるチャープに、短い周期の正弦波の区間を足したもの）を返す。
+	 * @return 長さ 4096 の信号
+	 */
+	public static double[] dataSampleCoefficients() {
+		int length = 4096;
+		double[] arrayOfDouble = new double[length];
+		double phase = 0.0D;
+		for (int index = 0; index < length; index++) {
+			double period = 8.0D * Math.pow(32.0D, (double) index / length);
+			phase += 2.0D * Math.PI / period;
+			arrayOfDouble[index] = Math.sin(phase);
+			if (index >= length / 2 && index < length * 3 / 4) {
+				arrayOfDouble[index] += 0.5D * Math.sin(2.0D * Math.PI * index / 4.0D);
+			}
+		}
+		return arrayOfDouble;
+	}
+
+	/**
+	 * サンプルの信号を生成し、現在のソースデータとして設定する。
+	 */
+	public void doSampleCoefficients() {
+		setSourceData(dataSampleCoefficients());
+	}
+
+	/**
+	 * 大きさ 0 から 1 を黒、紫、赤、橙、淡い黄の順に割り当てる256色の参照表を応答する。
+	 * @return RGB の参照表
+	 */
+	public static int[] colorTable() {
+		int[][] stops = {{0, 0, 0}, {80, 18, 123}, {200, 55, 80}, {250, 150, 30}, {252, 253, 191}};
+		int[] table = new int[256];
+		for (int index = 0; index < table.length; index++) {
+			double position = index / 255.0D * (stops.length - 1);
+			int stop = Math.min((int) position, stops.length - 2);
+			double weight = position - stop;
+			int rgb = 0;
+			for (int channel = 0; channel < 3; channel++) {
+				int value = (int) Math.round(stops[stop][channel] * (1.0D - weight) + stops[stop + 1][channel] * weight);
+				rgb = (rgb << 8) | value;
+			}
+			table[index] = rgb;
+		}
+		return table;
+	}
+
+	/**
+	 * 信号を連続ウェーブレット変換し、スケールごと・画像の列ごとの係数の大きさの最大値を応答する。
+	 * 列 c は信号の区間 {@code [c × n / width, (c + 1) × n / width)} に対応する。
+	 * @param aTransformation 信号を設定した変換（プールを設定するとスケールごとに並列に計算する）
+	 * @param width 画像の幅
+	 * @return {@code [スケール][列]} の大きさ
+	 */
+	public static float[][] computeMagnitudes(ContinuosWaveletTransformation aTransformation, int width) {
+		int length = aTransformation.sourceCoefficients().length;
+		if (width < 1 || width > length) {
+			throw new IllegalArgumentException("width must be between 1 and the signal length.");
+		}
+		float[][] values = new float[aTransformation.scales().length][width];
+		aTransformation.forEachScale((j, real, imaginary) -> {
+			float[] row = values[j];
+			for (int column = 0; column < width; column++) {
+				int from = (int) ((long) column * length / width);
+				int to = (int) ((long) (column + 1) * length / width);
+				double maximum = 0.0D;
+				for (int index = from; index < to; index++) {
+					maximum = Math.max(maximum, real[index] * real[index] + imaginary[index] * imaginary[index]);
+				}
+				row[column] = (float) Math.sqrt(maximum);
+			}
+		});
+		return values;
+	}
+
+	/**
+	 * 係数の大きさを全体の最大値で正規化し、参照表の色でラスターに直接書き込んだ画像を生成する。
+	 * @param magnitudes {@code [スケール][列]} の大きさ（行が画像の行になる）
+	 * @param colorTable RGB の参照表
+	 * @return 生成された画像
+	 */
+	public static BufferedImage generateImage(float[][] magnitudes, int[] colorTable) {
+		int height = magnitudes.length;
+		int width = magnitudes[0].length;
+		float maximum = 0.0F;
+		for (float[] row : magnitudes) {
+			for (float value : row) {
+				maximum = Math.max(maximum, value);
+			}
+		}
+		double factor = maximum > 0.0F ? (colorTable.length - 1) / (double) maximum : 0.0D;
+		BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		int[] raster = ((DataBufferInt) bufferedImage.getRaster().getDataBuffer()).getData();
+		for (int row = 0; row < height; row++) {
+			float[] values = magnitudes[row];
+			int offset = row * width;
+			for (int column = 0; column < width; column++) {
+				raster[offset + column] = colorTable[(int) (values[column] * factor)];
+			}
+		}
+		return bufferedImage;
+	}
+
+	/**
+	 * 信号を、列ごとの最小値から最大値までの縦線で描いた画像を生成する。画素はラスターに直接書き込む。
+	 * @param valueCollection 信号
+	 * @param width 画像の幅（信号の長さ以下）
+	 * @return 生成された画像
+	 */
+	public static BufferedImage generateSignalImage(double[] valueCollection, int width) {
+		int length = valueCollection.length;
+		int height = SIGNAL_IMAGE_HEIGHT;
+		double range = 0.0D;
+		for (double value : valueCollection) {
+			range = Math.max(range, Math.abs(value));
+		}
+		double factor = range > 0.0D ? (height / 2 - 1) / range : 0.0D;
+		BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		int[] raster = ((DataBufferInt) bufferedImage.getRaster().getDataBuffer()).getData();
+		Arrays.fill(raster, 0xFFFFFF);
+		Arrays.fill(raster, height / 2 * width, height / 2 * width + width, 0x808080);
+		for (int column = 0; column < width; column++) {
+			int from = (int) ((long) column * length / width);
+			int to = (int) ((long) (column + 1) * length / width);
+			double minimum = Double.POSITIVE_INFINITY;
+			double maximum = Double.NEGATIVE_INFINITY;
+			for (int index = from; index < to; index++) {
+				minimum = Math.min(minimum, valueCollection[index]);
+				maximum = Math.max(maximum, valueCollection[index]);
+			}
+			int top = (int) Math.round(height / 2 - maximum * factor);
+			int bottom = (int) Math.round(height / 2 - minimum * factor);
+			for (int row = top; row <= bottom; row++) {
+				raster[row * width + column] = 0x000000;
+			}
+		}
+		return bufferedImage;
+	}
+
+	/**
+	 * アプリケーションのメインウィンドウを開き、信号とスケーログラムのペインを上下に配置する。
+	 */
+	public void open() {
+		GridBagLayout gridBagLayout = new GridBagLayout();
+		JPanel jPanel = new JPanel(gridBagLayout);
+		GridBagConstraints gridBagConstraints = new GridBagConstraints();
+		gridBagConstraints.fill = GridBagConstraints.BOTH;
+		gridBagConstraints.gridwidth = 1;
+		gridBagConstraints.gridheight = 1;
+		gridBagConstraints.gridx = 0;
+		gridBagConstraints.weightx = 1.0D;
+
+		WaveletPaneView waveletPaneViewSource = new WaveletPaneView(this.sourceCoefficientsPaneModel);
+		gridBagConstraints.gridy = 0;
+		gridBagConstraints.weighty = 0.3D;
+		gridBagLayout.setConstraints(waveletPaneViewSource, gridBagConstraints);
+		jPanel.add(waveletPaneViewSource);
+
+		WaveletPaneView waveletPaneViewScalogram = new WaveletPaneView(this.scalogramPaneModel);
+		gridBagConstraints.gridy = 1;
+		gridBagConstraints.weighty = 0.7D;
+		gridBagLayout.setConstraints(waveletPaneViewScalogram, gridBagConstraints);
+		jPanel.add(waveletPaneViewScalogram);
+
+		JFrame jFrame = new JFrame("Wavelet Scalogram (CWT)");
+		jFrame.getContentPane().add(jPanel);
+		jFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		jFrame.pack();
+		Integer i = jFrame.getInsets().top;
+		jFrame.setMinimumSize(new Dimension(400, 300 + i));
+		jFrame.setResizable(true);
+		jFrame.setSize(1000, 600 + i);
+		jFrame.setLocationRelativeTo(null);
+		jFrame.setVisible(true);
+		jFrame.toFront();
+	}
+
+	/**
+	 * ソースデータを設定し、スケーログラムを計算して、関連するペインモデルを更新する。
+	 * @param sourceDataArray 変換の元となる{@code double}型のデータ配列
+	 */
+	public void setSourceData(double[] sourceDataArray) {
+		this.sourceCoefficients = sourceDataArray;
+
+		if (this.transformation == null) {
+			this.transformation = new ContinuosWaveletTransformation(this.sourceCoefficients, this.scales);
+			this.transformation.forkJoinPool(computeExecutor()); // スケールごとの逆変換をプール上で並列に行う
+		} else { // 変換を使い回し、同じ長さ・スケールのスペクトルのキャッシュを保つ
+			this.transformation.scales(this.scales);
+			this.transformation.sourceCoefficients(this.sourceCoefficients);
+		}
+		this.transformation.motherWavelet(this.motherWavelet);
+		int width = Math.min(this.sourceCoefficients.length, MAXIMUM_IMAGE_WIDTH);
+		this.magnitudes = computeMagnitudes(this.transformation, width);
+
+		BufferedImage bufferedImage1 = generateSignalImage(this.sourceCoefficients, width);
+		BufferedImage bufferedImage2 = generateImage(this.magnitudes, COLOR_TABLE);
+
+		if (this.sourceCoefficientsPaneModel == null)
+			this.sourceCoefficientsPaneModel = new WaveletPaneModel(null, "Source Coefficients");
+		this.sourceCoefficientsPaneModel.picture(bufferedImage1);
+		if (this.scalogramPaneModel == null)
+			this.scalogramPaneModel = new WaveletPaneModel(null, "Scalogram", this);
+		this.scalogramPaneModel.picture(bufferedImage2);
+
+		this.sourceCoefficientsPaneModel.changed();
+		this.scalogramPaneModel.changed();
+	}
+
+	/**
+	 * ポップアップメニューを表示する。サンプルの信号と、マザーウェーブレットの切り替えを選べる。
+	 */
+	public void showPopupMenu(MouseEvent aMouseEvent, WaveletPaneController aController) {
+		Component eventComponent = aMouseEvent.getComponent();
+		eventComponent.setCursor(Cursor.getDefaultCursor());
+
+		JPopupMenu popupMenu = new JPopupMenu();
+		JMenuItem sampleMenuItem = new JMenuItem("sample coefficients");
+		sampleMenuItem.addActionListener(aController);
+		popupMenu.add(sampleMenuItem);
+		popupMenu.addSeparator();
+		for (MotherWavelet aMotherWavelet : MotherWavelet.values()) {
+			JMenuItem menuItem = new JMenuItem(commandName(aMotherWavelet));
+			menuItem.addActionListener(aController);
+			popupMenu.add(menuItem);
+		}
+		popupMenu.show(eventComponent, aMouseEvent.getX(), aMouseEvent.getY());
+	}
+
+	/**
+	 * マザーウェーブレットを選ぶメニューのコマンド名（"morlet" など）を応答する。
+	 */
+	private static String commandName(MotherWavelet aMotherWavelet) {
+		return aMotherWavelet.name().toLowerCase().replace('_', ' ');
+	}
+}
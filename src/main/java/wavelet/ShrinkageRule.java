@@ -0,0 +1,112 @@
+package wavelet;
+
+import java.util.Arrays;
+
+/**
+ * ウェーブレット縮退（wavelet shrinkage）による雑音除去で、帯域ごとの閾値の選び方を表す列挙型である。
+ * {@link WaveletDenoiser#shrinkageRule(ShrinkageRule)} に渡して選ぶ。
+ *
+ * <p>
+ * どの規則も、加法的な白色ガウス雑音の標準偏差 σ（{@link WaveletDenoiser#noiseLevel(CoefficientMatrix)} で最も細かい対角の帯域から推定する）と
+ * 帯域の係数から閾値を決める。閾値より絶対値の小さい係数は雑音とみなして 0 にする。</p>
+ *
+ * @see WaveletDenoiser
+ */
+public enum ShrinkageRule {
+    /**
+     * Donoho–Johnstone の普遍閾値 {@code σ √(2 ln N)}（N は画像の画素数）をすべての帯域に使う（VisuShrink）。
+     * 雑音をほぼ確実に取り除くが、細部も削りやすい。
+     */
+    VISU_SHRINK,
+
+    /**
+     * 帯域ごとに Stein の不偏リスク推定量（SURE）を最小にする閾値を選ぶ（SureShrink）。
+     * 係数がまばらな帯域では推定が不安定なので、{@code (Σx² - n) / n ≤ (log₂ n)^(3/2) / √n}（x は σ で割った係数）のときは帯域の普遍閾値 {@code σ √(2 ln n)} を使う。
+     */
+    SURE_SHRINK,
+
+    /**
+     * 帯域の係数を一般化ガウス分布とみなしたベイズ推定による閾値 {@code σ² / σx}（{@code σx² = max(Σd² / n - σ², 0)}）を帯域ごとに使う（BayesShrink）。
+     * σx が 0 の帯域は雑音だけとみなし、すべての係数を取り除く。
+     */
+    BAYES_SHRINK;
+
+    /**
+     * 帯域の係数の閾値を応答する。
+     *
+     * @param aSubband 帯域の係数の行列（ビューでもよい、変更されない）
+     * @param sigma 雑音の標準偏差
+     * @param sampleCount 画像の画素数（{@link #VISU_SHRINK} で用いる）
+     * @return 閾値（0 以上）
+     */
+    public double threshold(CoefficientMatrix aSubband, double sigma, long sampleCount) {
+        int n = aSubband.rowSize() * aSubband.columnSize();
+        if (sigma <= 0.0 || n == 0) {
+            return 0.0;
+        }
+        switch (this) {
+            case VISU_SHRINK:
+                return sigma * Math.sqrt(2.0 * Math.log(sampleCount));
+            case SURE_SHRINK:
+                return sigma * sureThreshold(squares(aSubband, sigma));
+            default:
+                double energy = 0.0;
+                double maximum = 0.0;
+                for (int row = 0; row < aSubband.rowSize(); row++) {
+                    for (int column = 0; column < aSubband.columnSize(); column++) {
+                        double value = aSubband.at(row, column);
+                        energy += value * value;
+                        maximum = Math.max(maximum, Math.abs(value));
+                    }
+                }
+                double signalVariance = energy / n - sigma * sigma;
+                return signalVariance > 0.0 ? sigma * sigma / Math.sqrt(signalVariance) : maximum;
+        }
+    }
+
+    /**
+     * σ で割った係数の2乗を昇順に並べて応答する。
+     */
+    private static double[] squares(CoefficientMatrix aSubband, double sigma) {
+        double[] squares = new double[aSubband.rowSize() * aSubband.columnSize()];
+        int index = 0;
+        for (int row = 0; row < aSubband.rowSize(); row++) {
+            for (int column = 0; column < aSubband.columnSize(); column++) {
+                double value = aSubband.at(row, column) / sigma;
+                squares[index++] = value * value;
+            }
+        }
+        Arrays.sort(squares);
+        return squares;
+    }
+
+    /**
+     * 標準偏差 1 に正規化した係数の2乗（昇順）から、SURE を最小にする閾値を応答する（上限は普遍閾値）。
+     * 閾値 t を k 番目に小さい係数の絶対値にとると、軟閾値処理のリスクの推定量は
+     * {@code n - 2(k + 1) + Σ_(i≤k) x_i² + (n - k - 1) t²} である。
+     */
+    private static double sureThreshold(double[] squares) {
+        int n = squares.length;
+        double universal = Math.sqrt(2.0 * Math.log(n));
+        double energy = 0.0;
+        for (double square : squares) {
+            energy += square;
+        }
+        double sparsity = Math.pow(Math.log(n) / Math.log(2.0), 1.5) / Math.sqrt(n);
+        if ((energy - n) / n <= sparsity) {
+            return universal;
+        }
+        double best = Double.POSITIVE_INFINITY;
+        double threshold = 0.0;
+        double cumulative = 0.0;
+        for (int k = 0; k < n; k++) {
+            cumulative += squares[k];
+            double risk = n - 2.0 * (k + 1) + cumulative + (n - k - 1) * squares[k];
+            if (risk < best) {
+                best = risk;
+                threshold = Math.sqrt(squares[k]);
+            }
+        }
+        return Math.min(threshold, universal);
+    }
+}
@@ -0,0 +1,631 @@
+package wavelet;
+
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * 2次元離散ウェーブレット変換の多段分解（{@link DiscreteWavelet2dPyramid} の詰め込み配置）を、ウェーブレット係数の 0 でない要素だけで保持するクラス。
+ * 画像のウェーブレット係数の大半は 0 に近いので、閾値処理した係数を疎に持てば多数の画像を少ないメモリで保持できる。
+ *
+ * <p>
+ * 各段の水平・垂直・対角の帯域を blockSize × blockSize のブロックに分け、ブロックの順（行優先）に、
+ * ブロック内の位置（{@code 行 × blockSize + 列}）と値の組を並べて格納する。ブロックごとの開始位置を持つので、
+ * 空のブロックは位置を比べるだけで判定できる。最上段のスケーリング係数は閾値処理せず、密な配列で保持する。</p>
+ *
+ * <p>
+ * 閾値処理（{@link #hardThreshold(double)}、{@link #softThreshold(double)}、{@link #keepLargest(int)}）はウェーブレット係数だけに適用し、
+ * 0 になった要素は格納から取り除く。周期境界の合成は線形なので、再構成（{@link #recomposedCoefficients(int)}）は各段で
+ * 近似の寄与とウェーブレット係数の寄与を分けて足し合わせる。近似の寄与は、スケーリングの合成フィルターだけで列方向、行方向の順に密に合成する
+ * （密な合成の 4 分の 1 の列と半分のタップで済み、積和はおよそ 8 分の 3 になる）。
+ * ウェーブレット係数の寄与は、3帯域のいずれかが空でないブロックの位置ごとに、そのブロックの 0 でない係数だけから
+ * (blockSize + タップ数 - 1) × 2 四方の窓を合成して出力に足すので、空のブロックの範囲は計算しない。
+ * ウェーブレット係数の側の計算量は空でないブロックの数に比例する。リフティングスキームで計算する場合は、帯域を書き戻して密に合成する。</p>
+ *
+ * @see DiscreteWavelet2dPyramid
+ */
+public class SparseWavelet2dPyramid extends DiscreteWaveletTransformation {
+
+    /**
+     * ブロックの一辺の既定値である。
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 16;
+
+    /**
+     * 1つの帯域の 0 でない係数をブロックごとに格納する。
+     */
+    private static final class Band {
+
+        final int rows;
+
+        final int columns;
+
+        final int blockRows;
+
+        final int blockColumns;
+
+        int[] blockStarts; // ブロック b の要素は blockStarts[b] .. blockStarts[b + 1] - 1
+
+        int[] positions; // ブロック内の位置（行 × blockSize + 列）
+
+        double[] values;
+
+        Band(int rows, int columns, int blockSize) {
+            this.rows = rows;
+            this.columns = columns;
+            this.blockRows = (rows + blockSize - 1) / blockSize;
+            this.blockColumns = (columns + blockSize - 1) / blockSize;
+        }
+
+        int count() {
+            return this.values.length;
+        }
+    }
+
+    protected int rows;
+
+    protected int columns;
+
+    protected int levels;
+
+    protected int blockSize;
+
+    protected double[] scalingCoefficients; // 最上段のスケーリング係数（行優先）
+
+    private Band[][] bands; // [段 - 1][水平, 垂直, 対角]
+
+    /**
+     * 分解済みのピラミッドの係数から、0 でない係数だけを格納した疎なピラミッドを生成する。
+     * フィルターバンク、演算器、列の束の幅とフォーク／ジョインプールはピラミッドの設定を引き継ぐ。
+     *
+     * @param aPyramid 分解済みのピラミッド（変更されない）
+     * @param blockSize ブロックの一辺（1 以上）
+     */
+    public SparseWavelet2dPyramid(DiscreteWavelet2dPyramid aPyramid, int blockSize) {
+        this.initialize();
+        this.filterBank(aPyramid.filterBank());
+        this.engine(aPyramid.engine());
+        this.columnTileWidth(aPyramid.columnTileWidth());
+        this.forkJoinPool(aPyramid.forkJoinPool());
+        this.coefficients(aPyramid.coefficients(), aPyramid.rows(), aPyramid.columns(), aPyramid.levels(), blockSize);
+    }
+
+    /**
+     * 詰め込み配置の係数配列（行優先、rows × columns）から、0 でない係数だけを格納した疎なピラミッドを生成する。
+     *
+     * @param packed 詰め込み配置の係数配列（変更されない）
+     * @param rows 行数
+     * @param columns 列数
+     * @param levels 段数
+     * @param blockSize ブロックの一辺（1 以上）
+     */
+    public SparseWavelet2dPyramid(double[] packed, int rows, int columns, int levels, int blockSize) {
+        this.initialize();
+        this.coefficients(packed, rows, columns, levels, blockSize);
+    }
+
+    @Override
+    protected void initialize() {
+        super.initialize();
+        this.rows = 0;
+        this.columns = 0;
+        this.levels = 0;
+        this.blockSize = DEFAULT_BLOCK_SIZE;
+        this.scalingCoefficients = null;
+        this.bands = null;
+    }
+
+    public int rows() {
+        return this.rows;
+    }
+
+    public int columns() {
+        return this.columns;
+    }
+
+    public int levels() {
+        return this.levels;
+    }
+
+    public int blockSize() {
+        return this.blockSize;
+    }
+
+    /**
+     * 詰め込み配置の係数配列を、0 でない係数だけを格納する形に置き換える。
+     *
+     * @param packed 詰め込み配置の係数配列（変更されない）
+     * @param rowSize 行数
+     * @param columnSize 列数
+     * @param levelCount 段数
+     * @param size ブロックの一辺（1 以上）
+     */
+    public void coefficients(double[] packed, int rowSize, int columnSize, int levelCount, int size) {
+        int unit = 1 << levelCount;
+        if (levelCount < 0 || levelCount > 30 || rowSize == 0 || columnSize == 0 || rowSize % unit != 0 || columnSize % unit != 0) {
+            throw new IllegalArgumentException("rows and columns must be multiples of 2^levels.");
+        }
+        if (packed.length != rowSize * columnSize) {
+            throw new IllegalArgumentException("coefficients length must be rows * columns.");
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("block size must be positive.");
+        }
+        this.rows = rowSize;
+        this.columns = columnSize;
+        this.levels = levelCount;
+        this.blockSize = size;
+        int scalingRows = rowSize >> levelCount;
+        int scalingColumns = columnSize >> levelCount;
+        this.scalingCoefficients = new double[scalingRows * scalingColumns];
+        for (int row = 0; row < scalingRows; row++) {
+            System.arraycopy(packed, row * columnSize, this.scalingCoefficients, row * scalingColumns, scalingColumns);
+        }
+        this.bands = new Band[levelCount][3];
+        for (int level = 1; level <= levelCount; level++) {
+            int h = rowSize >> level;
+            int w = columnSize >> level;
+            int[][] offsets = {{h, 0}, {0, w}, {h, w}};
+            for (int band = 0; band < 3; band++) {
+                this.bands[level - 1][band] = this.pack(packed, offsets[band][0], offsets[band][1], h, w);
+            }
+        }
+    }
+
+    /**
+     * 詰め込み配置の係数配列（行優先、rows × columns）を新たに作って応答する。
+     *
+     * @return 詰め込み配置の係数配列
+     */
+    public double[] coefficients() {
+        double[] packed = new double[this.rows * this.columns];
+        int scalingRows = this.rows >> this.levels;
+        int scalingColumns = this.columns >> this.levels;
+        for (int row = 0; row < scalingRows; row++) {
+            System.arraycopy(this.scalingCoefficients, row * scalingColumns, packed, row * this.columns, scalingColumns);
+        }
+        for (int level = 1; level <= this.levels; level++) {
+            this.scatter(level, packed, 0, this.columns);
+        }
+        return packed;
+    }
+
+    public double[][] scalingCoefficients() {
+        int scalingColumns = this.columns >> this.levels;
+        return new CoefficientMatrix(this.scalingCoefficients.clone(), 0, this.rows >> this.levels, scalingColumns, scalingColumns).toArray();
+    }
+
+    /**
+     * 第 level 段のウェーブレット係数を密な行列に戻して応答する（{@link DiscreteWavelet2dPyramid#waveletCoefficients(int)} と同じ順）。
+     *
+     * @param level 段（1 .. levels）
+     * @return {水平, 垂直, 対角} のウェーブレット係数
+     */
+    public double[][][] waveletCoefficients(int level) {
+        if (level < 1 || level > this.levels) {
+            throw new IllegalArgumentException("level is out of range.");
+        }
+        double[][][] result = new double[3][][];
+        for (int band = 0; band < 3; band++) {
+            Band aBand = this.bands[level - 1][band];
+            double[] dense = new double[aBand.rows * aBand.columns];
+            this.scatter(aBand, dense, 0, 0, aBand.columns);
+            result[band] = new CoefficientMatrix(dense, 0, aBand.rows, aBand.columns, aBand.columns).toArray();
+        }
+        return result;
+    }
+
+    /**
+     * 格納している 0 でないウェーブレット係数の個数を応答する。
+     *
+     * @return 0 でないウェーブレット係数の個数
+     */
+    public int nonZeroCount() {
+        int count = 0;
+        for (Band[] levelBands : this.bands) {
+            for (Band aBand : levelBands) {
+                count += aBand.count();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * ウェーブレット係数の帯域のブロックの総数を応答する。
+     *
+     * @return ブロックの総数
+     */
+    public int blockCount() {
+        int count = 0;
+        for (Band[] levelBands : this.bands) {
+            for (Band aBand : levelBands) {
+                count += aBand.blockRows * aBand.blockColumns;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 0 でない係数を1つ以上含むブロックの数を応答する。
+     *
+     * @return 空でないブロックの数
+     */
+    public int nonEmptyBlockCount() {
+        int count = 0;
+        for (Band[] levelBands : this.bands) {
+            for (Band aBand : levelBands) {
+                for (int block = 0; block < aBand.blockRows * aBand.blockColumns; block++) {
+                    if (aBand.blockStarts[block] < aBand.blockStarts[block + 1]) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 絶対値が threshold 以下のウェーブレット係数を 0 にして取り除く（硬閾値処理）。
+     *
+     * @param threshold 閾値（0 以上）
+     */
+    public void hardThreshold(double threshold) {
+        this.checkThreshold(threshold);
+        this.shrink(value -> Math.abs(value) > threshold ? value : 0.0D);
+    }
+
+    /**
+     * ウェーブレット係数の絶対値を threshold だけ 0 に近づけ、0 を越える係数は取り除く（軟閾値処理）。
+     *
+     * @param threshold 閾値（0 以上）
+     */
+    public void softThreshold(double threshold) {
+        this.checkThreshold(threshold);
+        this.shrink(value -> Math.abs(value) > threshold ? Math.signum(value) * (Math.abs(value) - threshold) : 0.0D);
+    }
+
+    /**
+     * 絶対値の大きい順に count 個のウェーブレット係数だけを残し、ほかを取り除く。
+     * 絶対値が等しい係数は、段の小さい順、帯域の順、ブロックの順に先にあるものを残す。
+     *
+     * @param count 残す係数の個数（0 以上）
+     */
+    public void keepLargest(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative.");
+        }
+        int total = this.nonZeroCount();
+        if (count >= total) {
+            return;
+        }
+        double[] magnitudes = new double[total];
+        int index = 0;
+        for (Band[] levelBands : this.bands) {
+            for (Band aBand : levelBands) {
+                for (double value : aBand.values) {
+                    magnitudes[index++] = Math.abs(value);
+                }
+            }
+        }
+        Arrays.sort(magnitudes);
+        double threshold = count == 0 ? Double.POSITIVE_INFINITY : magnitudes[total - count];
+        int larger = 0;
+        for (int k = total - count; k < total; k++) {
+            if (magnitudes[k] > threshold) {
+                larger++;
+            }
+        }
+        int[] ties = {count - larger}; // 閾値に等しい係数のうち残せる個数
+        this.shrink(value -> {
+            double magnitude = Math.abs(value);
+            if (magnitude > threshold) {
+                return value;
+            }
+            if (magnitude == threshold && ties[0] > 0) {
+                ties[0]--;
+                return value;
+            }
+            return 0.0D;
+        });
+    }
+
+    public double[][] recomposedCoefficients() {
+        return this.recomposedCoefficients(0);
+    }
+
+    /**
+     * 第 level 段の近似まで再構成した行列を応答する。各段では、近似の寄与を密に、ウェーブレット係数の寄与を空でないブロックの範囲だけ合成する。
+     *
+     * @param level 再構成する段（0 .. levels、0 で元の行列）
+     * @return (rows / 2^level) × (columns / 2^level) の再構成した行列
+     */
+    public double[][] recomposedCoefficients(int level) {
+        if (level < 0 || level > this.levels) {
+            throw new IllegalArgumentException("level is out of range.");
+        }
+        CoefficientMatrix recomposed = new CoefficientMatrix(this.rows >> level, this.columns >> level);
+        int scalingRows = this.rows >> this.levels;
+        int scalingColumns = this.columns >> this.levels;
+        for (int row = 0; row < scalingRows; row++) {
+            System.arraycopy(this.scalingCoefficients, row * scalingColumns, recomposed.values(), recomposed.indexOf(row, 0), scalingColumns);
+        }
+        double[] work = new double[this.workLength(this.rows, this.columns)];
+        if (this.isLifting()) { // リフティングの段は帯域ごとに分けられないので、密に合成する
+            for (int k = this.levels; k > level; k--) {
+                CoefficientMatrix region = recomposed.subMatrix(0, 0, this.rows >> (k - 1), this.columns >> (k - 1));
+                this.scatter(k, recomposed.values(), 0, recomposed.rowStride()); // 帯域の範囲はまだ 0 なので、空でないブロックだけ書き込む
+                this.recomposeColumns(region, work);
+                this.recomposeRows(region, work);
+            }
+            return recomposed.toArray();
+        }
+        double[] approximation = level < this.levels ? new double[(this.rows >> (level + 1)) * (this.columns >> (level + 1))] : null;
+        for (int k = this.levels; k > level; k--) {
+            CoefficientMatrix region = recomposed.subMatrix(0, 0, this.rows >> (k - 1), this.columns >> (k - 1));
+            this.recomposeApproximation(region, approximation, work);
+            this.addDetails(region, k);
+        }
+        return recomposed.toArray();
+    }
+
+    @Override
+    public WaveletTransformation applyTo(Object anObject) {
+        if (!(anObject instanceof double[][])) {
+            throw new IllegalArgumentException("anObject must be a double[][].");
+        }
+        DiscreteWavelet2dPyramid aPyramid = new DiscreteWavelet2dPyramid((double[][]) anObject, this.levels);
+        aPyramid.engine(this.engine);
+        aPyramid.columnTileWidth(this.columnTileWidth);
+        aPyramid.forkJoinPool(this.forkJoinPool);
+        aPyramid.filterBank(this.filterBank);
+        this.coefficients(aPyramid.coefficients(), aPyramid.rows(), aPyramid.columns(), this.levels, this.blockSize);
+        return this;
+    }
+
+    @Override
+    public WaveletTransformation transform(WaveletTransformation aWaveletTransformation) {
+        if (!(aWaveletTransformation instanceof SparseWavelet2dPyramid)) {
+            throw new IllegalArgumentException("waveletTransformation must be a SparseWavelet2dPyramid.");
+        }
+        SparseWavelet2dPyramid aSparse = (SparseWavelet2dPyramid) aWaveletTransformation;
+        DiscreteWavelet2dPyramid aPyramid = new DiscreteWavelet2dPyramid(aSparse.recomposedCoefficients(), this.levels);
+        aPyramid.engine(this.engine);
+        aPyramid.columnTileWidth(this.columnTileWidth);
+        aPyramid.forkJoinPool(this.forkJoinPool);
+        aPyramid.filterBank(this.filterBank);
+        return new SparseWavelet2dPyramid(aPyramid, this.blockSize);
+    }
+
+    /**
+     * 詰め込み配列の (rowOffset, columnOffset) から h × w の帯域の 0 でない係数をブロックの順に集める。
+     */
+    private Band pack(double[] packed, int rowOffset, int columnOffset, int h, int w) {
+        Band aBand = new Band(h, w, this.blockSize);
+        int blocks = aBand.blockRows * aBand.blockColumns;
+        int count = 0;
+        for (int row = 0; row < h; row++) {
+            int base = (rowOffset + row) * this.columns + columnOffset;
+            for (int column = 0; column < w; column++) {
+                if (packed[base + column] != 0.0D) {
+                    count++;
+                }
+            }
+        }
+        aBand.blockStarts = new int[blocks + 1];
+        aBand.positions = new int[count];
+        aBand.values = new double[count];
+        int index = 0;
+        for (int block = 0; block < blocks; block++) {
+            aBand.blockStarts[block] = index;
+            int top = block / aBand.blockColumns * this.blockSize;
+            int left = block % aBand.blockColumns * this.blockSize;
+            for (int row = top; row < Math.min(top + this.blockSize, h); row++) {
+                int base = (rowOffset + row) * this.columns + columnOffset;
+                for (int column = left; column < Math.min(left + this.blockSize, w); column++) {
+                    double value = packed[base + column];
+                    if (value != 0.0D) {
+                        aBand.positions[index] = (row - top) * this.blockSize + (column - left);
+                        aBand.values[index] = value;
+                        index++;
+                    }
+                }
+            }
+        }
+        aBand.blockStarts[blocks] = index;
+        return aBand;
+    }
+
+    /**
+     * 第 level 段の3帯域の 0 でない係数を、行の間隔 stride の詰め込み配置の配列に書き込む。
+     */
+    private void scatter(int level, double[] packed, int offset, int stride) {
+        int h = this.rows >> level;
+        int w = this.columns >> level;
+        Band[] levelBands = this.bands[level - 1];
+        this.scatter(levelBands[0], packed, offset + h * stride, 0, stride);
+        this.scatter(levelBands[1], packed, offset, w, stride);
+        this.scatter(levelBands[2], packed, offset + h * stride, w, stride);
+    }
+
+    private void scatter(Band aBand, double[] packed, int offset, int columnOffset, int stride) {
+        for (int block = 0; block < aBand.blockRows * aBand.blockColumns; block++) {
+            int top = block / aBand.blockColumns * this.blockSize;
+            int left = block % aBand.blockColumns * this.blockSize + columnOffset;
+            for (int index = aBand.blockStarts[block]; index < aBand.blockStarts[block + 1]; index++) {
+                int position = aBand.positions[index];
+                packed[offset + (top + position / this.blockSize) * stride + left + position % this.blockSize] = aBand.values[index];
+            }
+        }
+    }
+
+    /**
+     * すべての帯域の係数を関数で書き換え、0 になった係数を取り除いて詰め直す。
+     */
+    private void shrink(DoubleUnaryOperator aShrinkage) {
+        for (Band[] levelBands : this.bands) {
+            for (Band aBand : levelBands) {
+                int blocks = aBand.blockRows * aBand.blockColumns;
+                int index = 0;
+                int read = 0;
+                for (int block = 0; block < blocks; block++) {
+                    int end = aBand.blockStarts[block + 1];
+                    aBand.blockStarts[block] = index;
+                    for (; read < end; read++) {
+                        double value = aShrinkage.applyAsDouble(aBand.values[read]);
+                        if (value != 0.0D) {
+                            aBand.positions[index] = aBand.positions[read];
+                            aBand.values[index] = value;
+                            index++;
+                        }
+                    }
+                }
+                aBand.blockStarts[blocks] = index;
+                aBand.positions = Arrays.copyOf(aBand.positions, index);
+                aBand.values = Arrays.copyOf(aBand.values, index);
+            }
+        }
+    }
+
+    /**
+     * 範囲の左上の近似（rowSize / 2 × columnSize / 2）だけから、スケーリングの合成フィルターで範囲全体を密に合成して書き込む。
+     * 列方向の合成は左半分の列だけに、行方向の合成は近似の側の入力だけに行う。
+     */
+    private void recomposeApproximation(CoefficientMatrix region, double[] approximation, double[] work) {
+        double[] h = this.synthesisScalingSequence;
+        int taps = h.length / 2;
+        int halfRows = region.rowSize() / 2;
+        int halfColumns = region.columnSize() / 2;
+        double[] values = region.values();
+        for (int row = 0; row < halfRows; row++) {
+            System.arraycopy(values, region.indexOf(row, 0), approximation, row * halfColumns, halfColumns);
+        }
+        int rowInterior = ConvolutionKernel.synthesisInteriorStart(halfRows, h.length);
+        this.forEachChunk(halfRows, halfColumns * h.length, 0, work, (from, to, buffer) -> { // 出力の行 2b, 2b+1 の左半分
+            for (int b = from; b < to; b++) {
+                for (int parity = 0; parity < 2; parity++) {
+                    int base = region.indexOf(b * 2 + parity, 0);
+                    Arrays.fill(values, base, base + halfColumns, 0.0D);
+                    for (int m = 0; m < taps; m++) {
+                        int n = b < rowInterior ? Math.floorMod(b - m, halfRows) : b - m;
+                        double coefficient = h[m * 2 + parity];
+                        int source = n * halfColumns;
+                        for (int column = 0; column < halfColumns; column++) {
+                            values[base + column] = values[base + column] + coefficient * approximation[source + column];
+                        }
+                    }
+                }
+            }
+        });
+        int columnInterior = ConvolutionKernel.synthesisInteriorStart(halfColumns, h.length);
+        this.forEachChunk(halfRows * 2, halfColumns * h.length, halfColumns, work, (from, to, buffer) -> {
+            for (int row = from; row < to; row++) {
+                int base = region.indexOf(row, 0);
+                System.arraycopy(values, base, buffer, 0, halfColumns);
+                for (int b = 0; b < halfColumns; b++) {
+                    double even = 0.0D;
+                    double odd = 0.0D;
+                    for (int m = 0; m < taps; m++) {
+                        double s = buffer[b < columnInterior ? Math.floorMod(b - m, halfColumns) : b - m];
+                        even = even + h[m * 2] * s;
+                        odd = odd + h[m * 2 + 1] * s;
+                    }
+                    values[base + b * 2] = even;
+                    values[base + b * 2 + 1] = odd;
+                }
+            }
+        });
+    }
+
+    /**
+     * 第 level 段の3帯域の 0 でない係数の寄与を、ブロックの位置ごとに合成して範囲に足す。
+     * ブロックの係数 (i, j) は出力の行の組 i .. i+taps-1 と列の組 j .. j+taps-1 にだけ寄与するので、
+     * ブロックごとに 2 × (blockSize + taps - 1) 四方の窓を合成し、周期境界で折り返して足す。
+     */
+    private void addDetails(CoefficientMatrix region, int level) {
+        double[] h = this.synthesisScalingSequence;
+        double[] g = this.synthesisWaveletSequence;
+        int taps = h.length / 2;
+        Band[] levelBands = this.bands[level - 1];
+        int halfRows = levelBands[0].rows;
+        int halfColumns = levelBands[0].columns;
+        int size = this.blockSize;
+        int windowLength = (size + taps - 1) * 2;
+        double[] left = new double[windowLength * size]; // 列方向に合成した左半分（水平の帯域）の窓
+        double[] right = new double[windowLength * size]; // 列方向に合成した右半分（垂直と対角の帯域）の窓
+        double[] window = new double[windowLength * windowLength];
+        double[] values = region.values();
+        for (int block = 0; block < levelBands[0].blockRows * levelBands[0].blockColumns; block++) {
+            if (this.isEmpty(levelBands, block)) {
+                continue;
+            }
+            int top = block / levelBands[0].blockColumns * size;
+            int leftColumn = block % levelBands[0].blockColumns * size;
+            int windowRows = (Math.min(size, halfRows - top) + taps - 1) * 2;
+            int blockColumns = Math.min(size, halfColumns - leftColumn);
+            int windowColumns = (blockColumns + taps - 1) * 2;
+            Arrays.fill(left, 0, windowRows * size, 0.0D);
+            Arrays.fill(right, 0, windowRows * size, 0.0D);
+            this.synthesizeColumns(levelBands[0], block, g, left);
+            this.synthesizeColumns(levelBands[1], block, h, right);
+            this.synthesizeColumns(levelBands[2], block, g, right);
+            Arrays.fill(window, 0, windowRows * windowColumns, 0.0D);
+            for (int t = 0; t < windowRows; t++) {
+                int base = t * windowColumns;
+                for (int j = 0; j < blockColumns; j++) {
+                    double s = left[t * size + j];
+                    double w = right[t * size + j];
+                    if (s == 0.0D && w == 0.0D) {
+                        continue;
+                    }
+                    for (int m = 0; m < taps; m++) {
+                        int column = base + (j + m) * 2;
+                        window[column] = window[column] + h[m * 2] * s + g[m * 2] * w;
+                        window[column + 1] = window[column + 1] + h[m * 2 + 1] * s + g[m * 2 + 1] * w;
+                    }
+                }
+            }
+            for (int t = 0; t < windowRows; t++) {
+                int base = region.indexOf((top * 2 + t) % (halfRows * 2), 0);
+                for (int u = 0; u < windowColumns; u++) {
+                    int column = (leftColumn * 2 + u) % (halfColumns * 2);
+                    values[base + column] = values[base + column] + window[t * windowColumns + u];
+                }
+            }
+        }
+    }
+
+    /**
+     * 帯域のブロックの 0 でない係数を、合成フィルター filter で列方向に合成して窓（行の間隔 blockSize）に足す。
+     */
+    private void synthesizeColumns(Band aBand, int block, double[] filter, double[] window) {
+        int taps = filter.length / 2;
+        for (int index = aBand.blockStarts[block]; index < aBand.blockStarts[block + 1]; index++) {
+            int position = aBand.positions[index];
+            int i = position / this.blockSize;
+            int j = position % this.blockSize;
+            double value = aBand.values[index];
+            for (int m = 0; m < taps; m++) {
+                int even = ((i + m) * 2) * this.blockSize + j;
+                window[even] = window[even] + filter[m * 2] * value;
+                window[even + this.blockSize] = window[even + this.blockSize] + filter[m * 2 + 1] * value;
+            }
+        }
+    }
+
+    /**
+     * 3帯域の同じ位置のブロックがすべて空かどうかを応答する。
+     */
+    private boolean isEmpty(Band[] levelBands, int block) {
+        for (Band aBand : levelBands) {
+            if (aBand.blockStarts[block] < aBand.blockStarts[block + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkThreshold(double threshold) {
+        if (!(threshold >= 0.0D)) {
+            throw new IllegalArgumentException("threshold must not be negative.");
+        }
+    }
+}
@@ -0,0 +1,741 @@
+package wavelet;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import utility.ImageUtility;
+
+/**
+ * 整数の平面（{@link ImageUtility#convertImageToRGBPlanes(BufferedImage)} の赤・緑・青など）を、
+ * SPIHT（Set Partitioning In Hierarchical Trees、Said–Pearlman）でビットプレーンごとに符号化する、漸進的なウェーブレット画像符号である。
+ * 生成したバイト列はどの長さで切り詰めても復号でき、長いほど元の平面に近づき、全体を復号すると元の平面と完全に一致する。
+ *
+ * <p>
+ * 平面は tileSize × tileSize（2の冪乗）のタイルに分け、右端と下端のタイルは端の画素を繰り返して埋める。
+ * 各タイルを {@link IntegerWavelet2dPyramid}（可逆な CDF 5/3）で levels 段まで分解し、係数を空間方向の木
+ * （最上段の近似の係数 (x, y) の子は最上段の3帯域の (x, y)、それ以外の (x, y) の子は (2x, 2y) からの 2 × 2）でまとめて、
+ * 上位のビットプレーンから順に、有意になった係数の位置と符号（ソーティングパス）と、既に有意な係数の下位のビット（リファインメントパス）を出力する。
+ * タイルとチャネルは互いに独立なので、フォーク／ジョインプールを設定すると並列に符号化・復号する。結果は並列度によらず同じである。</p>
+ *
+ * <p>
+ * バイト列の形式は次のとおりである（整数はビッグエンディアン）。
+ * <ol>
+ * <li>ヘッダー（{@value #HEADER_LENGTH} バイト）：識別子 {@code "SPHT"}、版（1 バイト）、幅と高さ（各 4 バイト）、チャネル数（1 バイト）、
+ * タイルの一辺（2 バイト）、段数（1 バイト）、ビットプレーンの数（1 バイト、最大の係数の絶対値のビット長）。</li>
+ * <li>本体：ビットプレーンの上位から順に、タイル（行優先）ごと、チャネルごとの、そのビットプレーンの2つのパスのビット列を、
+ * 長さ（符号なし LEB128 の可変長整数）に続けて並べる。タイルの最大のビットプレーンより上では長さ 0 とする。</li>
+ * </ol>
+ * ビットプレーンを単位にタイルを巡回して並べるので、切り詰めてもすべてのタイルが同じ程度の画質で復号される。
+ * 復号では、最後まで読めなかった係数を不確かさの区間の中央の値で復元する。</p>
+ *
+ * @see IntegerWavelet2dPyramid
+ */
+public class SpihtCodec {
+
+    /**
+     * ヘッダーの長さ（バイト）である。
+     */
+    public static final int HEADER_LENGTH = 18;
+
+    private static final int MAGIC = 0x53504854; // "SPHT"
+
+    private static final int VERSION = 1;
+
+    protected int tileSize = 64;
+
+    protected int levels = 5;
+
+    protected ForkJoinPool forkJoinPool = null;
+
+    /**
+     * バイト列のヘッダーの内容である。
+     */
+    public static final class Header {
+
+        private final int width;
+
+        private final int height;
+
+        private final int channels;
+
+        private final int tileSize;
+
+        private final int levels;
+
+        private final int planes;
+
+        Header(int width, int height, int channels, int tileSize, int levels, int planes) {
+            this.width = width;
+            this.height = height;
+            this.channels = channels;
+            this.tileSize = tileSize;
+            this.levels = levels;
+            this.planes = planes;
+        }
+
+        public int width() {
+            return this.width;
+        }
+
+        public int height() {
+            return this.height;
+        }
+
+        public int channels() {
+            return this.channels;
+        }
+
+        public int tileSize() {
+            return this.tileSize;
+        }
+
+        public int levels() {
+            return this.levels;
+        }
+
+        /**
+         * ビットプレーンの数（係数の絶対値の最大値のビット長、すべて 0 なら 0）を応答する。
+         *
+         * @return ビットプレーンの数
+         */
+        public int planes() {
+            return this.planes;
+        }
+
+        int tileColumns() {
+            return (this.width + this.tileSize - 1) / this.tileSize;
+        }
+
+        int tileRows() {
+            return (this.height + this.tileSize - 1) / this.tileSize;
+        }
+    }
+
+    public int tileSize() {
+        return this.tileSize;
+    }
+
+    /**
+     * タイルの一辺を設定する。大きいほど圧縮の効率はよいが、並列に処理できる単位は少なくなる。
+     *
+     * @param tileSize タイルの一辺（2 以上 32768 以下の2の冪乗）
+     */
+    public void tileSize(int tileSize) {
+        if (tileSize < 2 || tileSize > 32768 || Integer.bitCount(tileSize) != 1) {
+            throw new IllegalArgumentException("tile size must be a power of two between 2 and 32768.");
+        }
+        this.tileSize = tileSize;
+    }
+
+    public int levels() {
+        return this.levels;
+    }
+
+    /**
+     * 各タイルを分解する段数を設定する。タイルの一辺が 2^levels 未満の場合は、符号化のときに分解できる段数までにとどめる。
+     *
+     * @param levels 段数（1 以上）
+     */
+    public void levels(int levels) {
+        if (levels < 1 || levels > 15) {
+            throw new IllegalArgumentException("levels must be between 1 and 15.");
+        }
+        this.levels = levels;
+    }
+
+    public ForkJoinPool forkJoinPool() {
+        return this.forkJoinPool;
+    }
+
+    /**
+     * タイルとチャネルごとの符号化・復号に用いるフォーク／ジョインプールを設定する。null なら逐次に計算する。
+     *
+     * @param aForkJoinPool フォーク／ジョインプール
+     */
+    public void forkJoinPool(ForkJoinPool aForkJoinPool) {
+        this.forkJoinPool = aForkJoinPool;
+    }
+
+    /**
+     * 画像の赤・緑・青の平面を符号化する。
+     *
+     * @param anImage 画像
+     * @return 符号化したバイト列
+     */
+    public byte[] encode(BufferedImage anImage) {
+        return this.encode(ImageUtility.convertImageToRGBPlanes(anImage), anImage.getWidth(), anImage.getHeight());
+    }
+
+    /**
+     * 行優先（{@code plane[y * width + x]}）の整数の平面を符号化する。係数の絶対値は 2^30 未満でなければならない。
+     *
+     * @param planes チャネルごとの平面（1 .. 255 チャネル、変更されない）
+     * @param width 幅
+     * @param height 高さ
+     * @return 符号化したバイト列
+     */
+    public byte[] encode(int[][] planes, int width, int height) {
+        if (planes.length < 1 || planes.length > 255) {
+            throw new IllegalArgumentException("channels must be between 1 and 255.");
+        }
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("width and height must be positive.");
+        }
+        for (int[] plane : planes) {
+            if (plane == null || plane.length != width * height) {
+                throw new IllegalArgumentException("plane length must be width * height.");
+            }
+        }
+        int levelCount = Math.min(this.levels, Integer.numberOfTrailingZeros(this.tileSize));
+        Header header = new Header(width, height, planes.length, this.tileSize, levelCount, 0);
+        int tiles = header.tileRows() * header.tileColumns();
+        byte[][][] chunks = new byte[tiles * planes.length][][]; // [タイル × チャネル][ビットプレーン]
+        List<Runnable> tasks = new ArrayList<>();
+        for (int tile = 0; tile < tiles; tile++) {
+            for (int channel = 0; channel < planes.length; channel++) {
+                int tileIndex = tile;
+                int[] plane = planes[channel];
+                int index = tile * planes.length + channel;
+                tasks.add(() -> chunks[index] = encodeTile(tilePlane(plane, header, tileIndex), header));
+            }
+        }
+        this.invokeAll(tasks);
+
+        int planeCount = 0;
+        for (byte[][] tileChunks : chunks) {
+            planeCount = Math.max(planeCount, tileChunks.length);
+        }
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        writeInt(stream, MAGIC);
+        stream.write(VERSION);
+        writeInt(stream, width);
+        writeInt(stream, height);
+        stream.write(planes.length);
+        stream.write(this.tileSize >> 8);
+        stream.write(this.tileSize);
+        stream.write(levelCount);
+        stream.write(planeCount);
+        for (int plane = planeCount - 1; plane >= 0; plane--) {
+            for (byte[][] tileChunks : chunks) {
+                byte[] chunk = plane < tileChunks.length ? tileChunks[plane] : new byte[0];
+                for (int length = chunk.length; ; length >>>= 7) { // 符号なし LEB128
+                    if (length < 0x80) {
+                        stream.write(length);
+                        break;
+                    }
+                    stream.write((length & 0x7F) | 0x80);
+                }
+                stream.write(chunk, 0, chunk.length);
+            }
+        }
+        return stream.toByteArray();
+    }
+
+    /**
+     * バイト列のヘッダーを読んで応答する。
+     *
+     * @param stream 符号化したバイト列（ヘッダーだけでもよい）
+     * @return ヘッダー
+     */
+    public static Header header(byte[] stream) {
+        if (stream.length < HEADER_LENGTH || readInt(stream, 0) != MAGIC) {
+            throw new IllegalArgumentException("stream is not a SPIHT stream.");
+        }
+        if (stream[4] != VERSION) {
+            throw new IllegalArgumentException("unsupported stream version: " + stream[4]);
+        }
+        int tileSize = (stream[14] & 0xFF) << 8 | (stream[15] & 0xFF);
+        Header header = new Header(readInt(stream, 5), readInt(stream, 9), stream[13] & 0xFF, tileSize, stream[16] & 0xFF, stream[17] & 0xFF);
+        if (header.width() < 1 || header.height() < 1 || header.channels() < 1 || Integer.bitCount(tileSize) != 1
+                || header.levels() < 1 || (tileSize >> header.levels()) < 1) {
+            throw new IllegalArgumentException("stream header is corrupt.");
+        }
+        return header;
+    }
+
+    /**
+     * バイト列を復号して、チャネルごとの平面を応答する。バイト列は途中で切り詰めたものでもよい。
+     *
+     * @param stream 符号化したバイト列
+     * @return チャネルごとの行優先の平面
+     */
+    public int[][] decode(byte[] stream) {
+        return this.decode(stream, stream.length);
+    }
+
+    /**
+     * バイト列の先頭の byteBudget バイトだけを読んで復号する。
+     *
+     * @param stream 符号化したバイト列
+     * @param byteBudget 読むバイト数（ヘッダーの長さ以上）
+     * @return チャネルごとの行優先の平面
+     */
+    public int[][] decode(byte[] stream, int byteBudget) {
+        Header header = header(stream);
+        int limit = Math.min(byteBudget, stream.length);
+        if (limit < HEADER_LENGTH) {
+            throw new IllegalArgumentException("byte budget must cover the header.");
+        }
+        int channels = header.channels();
+        int tiles = header.tileRows() * header.tileColumns();
+        int[][][] chunkOffsets = new int[tiles * channels][header.planes()][]; // {先頭位置, 読める長さ, 長さ}
+        int position = HEADER_LENGTH;
+        scan:
+        for (int plane = header.planes() - 1; plane >= 0; plane--) {
+            for (int index = 0; index < tiles * channels; index++) {
+                int length = 0;
+                for (int shift = 0; ; shift += 7) {
+                    if (position >= limit) {
+                        break scan;
+                    }
+                    int value = stream[position++] & 0xFF;
+                    length |= (value & 0x7F) << shift;
+                    if (value < 0x80) {
+                        break;
+                    }
+                }
+                chunkOffsets[index][plane] = new int[] {position, Math.min(length, limit - position), length};
+                position += length;
+                if (position >= limit) {
+                    break scan;
+                }
+            }
+        }
+
+        int[][] planes = new int[channels][header.width() * header.height()];
+        List<Runnable> tasks = new ArrayList<>();
+        for (int tile = 0; tile < tiles; tile++) {
+            for (int channel = 0; channel < channels; channel++) {
+                int tileIndex = tile;
+                int[] plane = planes[channel];
+                int[][] offsets = chunkOffsets[tile * channels + channel];
+                tasks.add(() -> storeTile(decodeTile(stream, offsets, header), plane, header, tileIndex));
+            }
+        }
+        this.invokeAll(tasks);
+        return planes;
+    }
+
+    /**
+     * 赤・緑・青の3チャネルのバイト列を復号して画像にする。値は 0 .. 255 に丸める。
+     *
+     * @param stream 符号化したバイト列（途中で切り詰めたものでもよい）
+     * @return 画像
+     */
+    public BufferedImage decodeImage(byte[] stream) {
+        Header header = header(stream);
+        if (header.channels() != 3) {
+            throw new IllegalArgumentException("stream must have three channels.");
+        }
+        return ImageUtility.convertRGBPlanesToImage(this.decode(stream), header.width(), header.height());
+    }
+
+    /**
+     * 平面から tile 番目のタイルを取り出し、右端と下端を超える画素は端の画素を繰り返して埋める。
+     */
+    private static int[] tilePlane(int[] plane, Header header, int tile) {
+        int size = header.tileSize();
+        int left = tile % header.tileColumns() * size;
+        int top = tile / header.tileColumns() * size;
+        int[] tilePlane = new int[size * size];
+        for (int y = 0; y < size; y++) {
+            int row = Math.min(top + y, header.height() - 1) * header.width();
+            for (int x = 0; x < size; x++) {
+                tilePlane[y * size + x] = plane[row + Math.min(left + x, header.width() - 1)];
+            }
+        }
+        return tilePlane;
+    }
+
+    /**
+     * 復号したタイルのうち、平面の内側の画素だけを平面に書き込む。
+     */
+    private static void storeTile(int[] tilePlane, int[] plane, Header header, int tile) {
+        int size = header.tileSize();
+        int left = tile % header.tileColumns() * size;
+        int top = tile / header.tileColumns() * size;
+        int columns = Math.min(size, header.width() - left);
+        for (int y = 0; y < Math.min(size, header.height() - top); y++) {
+            System.arraycopy(tilePlane, y * size, plane, (top + y) * header.width() + left, columns);
+        }
+    }
+
+    /**
+     * タイルを分解し、最大のビットプレーンから 0 まで、ビットプレーンごとのビット列（添字がビットプレーン）を応答する。
+     */
+    private static byte[][] encodeTile(int[] tilePlane, Header header) {
+        int[] coefficients = new IntegerWavelet2dPyramid(tilePlane, header.tileSize(), header.tileSize(), header.levels()).coefficients();
+        Trees trees = new Trees(header.tileSize(), header.levels());
+        int count = coefficients.length;
+        int[] magnitudes = new int[count];
+        int maximum = 0;
+        for (int index = 0; index < count; index++) {
+            magnitudes[index] = Math.abs(coefficients[index]);
+            maximum = Math.max(maximum, magnitudes[index]);
+        }
+        if (maximum >= 1 << 30) {
+            throw new IllegalArgumentException("coefficients must be less than 2^30 in magnitude.");
+        }
+        int[] descendants = new int[count]; // 子孫の絶対値の最大値
+        int[] grandDescendants = new int[count]; // 孫以降の子孫の絶対値の最大値
+        int[] children = new int[4];
+        for (int index = count - 1; index >= 0; index--) { // 子は親より後ろにあるので、後ろから求める
+            int childCount = trees.offspring(index, children);
+            for (int k = 0; k < childCount; k++) {
+                int child = children[k];
+                descendants[index] = Math.max(descendants[index], Math.max(magnitudes[child], descendants[child]));
+                grandDescendants[index] = Math.max(grandDescendants[index], descendants[child]);
+            }
+        }
+
+        int planes = 32 - Integer.numberOfLeadingZeros(maximum);
+        byte[][] chunks = new byte[planes][];
+        IntList insignificantPixels = trees.roots();
+        IntList insignificantSets = trees.roots(); // 符号は種別（0 以上は A、負は B で -index - 1）
+        IntList significantPixels = new IntList();
+        for (int plane = planes - 1; plane >= 0; plane--) {
+            int bit = 1 << plane;
+            BitWriter writer = new BitWriter();
+            int refined = significantPixels.size();
+            int kept = 0;
+            for (int k = 0; k < insignificantPixels.size(); k++) {
+                int index = insignificantPixels.get(k);
+                boolean significant = magnitudes[index] >= bit;
+                writer.write(significant);
+                if (significant) {
+                    writer.write(coefficients[index] < 0);
+                    significantPixels.add(index);
+                } else {
+                    insignificantPixels.set(kept++, index);
+                }
+            }
+            insignificantPixels.truncate(kept);
+            IntList keptSets = new IntList();
+            for (int k = 0; k < insignificantSets.size(); k++) {
+                int entry = insignificantSets.get(k);
+                int index = entry >= 0 ? entry : -entry - 1;
+                boolean significant = (entry >= 0 ? descendants[index] : grandDescendants[index]) >= bit;
+                writer.write(significant);
+                if (!significant) {
+                    keptSets.add(entry);
+                    continue;
+                }
+                int childCount = trees.offspring(index, children);
+                if (entry >= 0) {
+                    for (int c = 0; c < childCount; c++) {
+                        int child = children[c];
+                        boolean childSignificant = magnitudes[child] >= bit;
+                        writer.write(childSignificant);
+                        if (childSignificant) {
+                            writer.write(coefficients[child] < 0);
+                            significantPixels.add(child);
+                        } else {
+                            insignificantPixels.add(child);
+                        }
+                    }
+                    if (trees.hasGrandchildren(index)) {
+                        insignificantSets.add(-index - 1);
+                    }
+                } else {
+                    for (int c = 0; c < childCount; c++) {
+                        insignificantSets.add(children[c]);
+                    }
+                }
+            }
+            insignificantSets = keptSets;
+            for (int k = 0; k < refined; k++) {
+                writer.write((magnitudes[significantPixels.get(k)] & bit) != 0);
+            }
+            chunks[plane] = writer.toByteArray();
+        }
+        return chunks;
+    }
+
+    /**
+     * タイルのビットプレーンごとのビット列を読めるところまで復号し、再構成したタイルを応答する。
+     * 最後まで読めなかった係数は、絶対値を不確かさの区間の中央の値とする。
+     */
+    private static int[] decodeTile(byte[] stream, int[][] offsets, Header header) {
+        Trees trees = new Trees(header.tileSize(), header.levels());
+        int count = header.tileSize() * header.tileSize();
+        int[] magnitudes = new int[count];
+        int[] knownPlanes = new int[count]; // 絶対値のビットが分かっている最下位のビットプレーン
+        boolean[] negatives = new boolean[count];
+        int[] children = new int[4];
+        int top = offsets.length - 1;
+        while (top >= 0 && (offsets[top] == null || offsets[top][2] == 0)) { // タイルの最大のビットプレーンまでは長さ 0
+            top--;
+        }
+        IntList insignificantPixels = trees.roots();
+        IntList insignificantSets = trees.roots();
+        IntList significantPixels = new IntList();
+        planes:
+        for (int plane = top; plane >= 0; plane--) {
+            if (offsets[plane] == null) {
+                break;
+            }
+            int bit = 1 << plane;
+            BitReader reader = new BitReader(stream, offsets[plane][0], offsets[plane][1]);
+            int refined = significantPixels.size();
+            int kept = 0;
+            for (int k = 0; k < insignificantPixels.size(); k++) {
+                int index = insignificantPixels.get(k);
+                int significant = reader.read();
+                int negative = significant == 1 ? reader.read() : 0;
+                if (significant < 0 || negative < 0) {
+                    break planes;
+                }
+                if (significant == 1) {
+                    magnitudes[index] = bit;
+                    knownPlanes[index] = plane;
+                    negatives[index] = negative == 1;
+                    significantPixels.add(index);
+                } else {
+                    insignificantPixels.set(kept++, index);
+                }
+            }
+            insignificantPixels.truncate(kept);
+            IntList keptSets = new IntList();
+            for (int k = 0; k < insignificantSets.size(); k++) {
+                int entry = insignificantSets.get(k);
+                int index = entry >= 0 ? entry : -entry - 1;
+                int significant = reader.read();
+                if (significant < 0) {
+                    break planes;
+                }
+                if (significant == 0) {
+                    keptSets.add(entry);
+                    continue;
+                }
+                int childCount = trees.offspring(index, children);
+                if (entry >= 0) {
+                    for (int c = 0; c < childCount; c++) {
+                        int child = children[c];
+                        int childSignificant = reader.read();
+                        int negative = childSignificant == 1 ? reader.read() : 0;
+                        if (childSignificant < 0 || negative < 0) {
+                            break planes;
+                        }
+                        if (childSignificant == 1) {
+                            magnitudes[child] = bit;
+                            knownPlanes[child] = plane;
+                            negatives[child] = negative == 1;
+                            significantPixels.add(child);
+                        } else {
+                            insignificantPixels.add(child);
+                        }
+                    }
+                    if (trees.hasGrandchildren(index)) {
+                        insignificantSets.add(-index - 1);
+                    }
+                } else {
+                    for (int c = 0; c < childCount; c++) {
+                        insignificantSets.add(children[c]);
+                    }
+                }
+            }
+            insignificantSets = keptSets;
+            for (int k = 0; k < refined; k++) {
+                int index = significantPixels.get(k);
+                int refinement = reader.read();
+                if (refinement < 0) {
+                    break planes;
+                }
+                magnitudes[index] |= refinement == 1 ? bit : 0;
+                knownPlanes[index] = plane;
+            }
+        }
+
+        int[] coefficients = new int[count];
+        for (int k = 0; k < significantPixels.size(); k++) {
+            int index = significantPixels.get(k);
+            int magnitude = magnitudes[index] + (knownPlanes[index] > 0 ? 1 << (knownPlanes[index] - 1) : 0);
+            coefficients[index] = negatives[index] ? -magnitude : magnitude;
+        }
+        IntegerWavelet2dPyramid aPyramid = new IntegerWavelet2dPyramid(new int[count], header.tileSize(), header.tileSize(), header.levels());
+        aPyramid.coefficients(coefficients, header.tileSize(), header.tileSize());
+        return aPyramid.recomposedPlane();
+    }
+
+    /**
+     * 互いに独立な処理を、プールが設定されていれば並列に、なければ順に実行し、すべて終わるまで待つ。
+     */
+    private void invokeAll(List<Runnable> tasks) {
+        if (this.forkJoinPool == null || tasks.size() < 2) {
+            tasks.forEach(Runnable::run);
+            return;
+        }
+        List<ForkJoinTask<?>> submitted = new ArrayList<>();
+        for (Runnable task : tasks) {
+            submitted.add(this.forkJoinPool.submit(task));
+        }
+        submitted.forEach(ForkJoinTask::join);
+    }
+
+    private static void writeInt(ByteArrayOutputStream stream, int value) {
+        stream.write(value >>> 24);
+        stream.write(value >>> 16);
+        stream.write(value >>> 8);
+        stream.write(value);
+    }
+
+    private static int readInt(byte[] stream, int offset) {
+        return (stream[offset] & 0xFF) << 24 | (stream[offset + 1] & 0xFF) << 16 | (stream[offset + 2] & 0xFF) << 8 | (stream[offset + 3] & 0xFF);
+    }
+
+    /**
+     * タイルの係数（行優先、一辺 size）の空間方向の木の親子関係である。
+     */
+    private static final class Trees {
+
+        private final int size;
+
+        private final int scaling; // 最上段の近似の一辺
+
+        Trees(int size, int levels) {
+            this.size = size;
+            this.scaling = size >> levels;
+        }
+
+        /**
+         * 木の根（最上段の近似の係数）を行優先に並べて応答する。
+         */
+        IntList roots() {
+            IntList roots = new IntList();
+            for (int y = 0; y < this.scaling; y++) {
+                for (int x = 0; x < this.scaling; x++) {
+                    roots.add(y * this.size + x);
+                }
+            }
+            return roots;
+        }
+
+        /**
+         * 係数 index の子を children に書き込み、子の数を応答する。
+         */
+        int offspring(int index, int[] children) {
+            int x = index % this.size;
+            int y = index / this.size;
+            if (x < this.scaling && y < this.scaling) {
+                children[0] = index + this.scaling;
+                children[1] = index + this.scaling * this.size;
+                children[2] = children[1] + this.scaling;
+                return 3;
+            }
+            if (x >= this.size / 2 || y >= this.size / 2) {
+                return 0;
+            }
+            children[0] = 2 * y * this.size + 2 * x;
+            children[1] = children[0] + 1;
+            children[2] = children[0] + this.size;
+            children[3] = children[2] + 1;
+            return 4;
+        }
+
+        /**
+         * 係数 index の子に子があるかどうかを応答する（同じ親の子はすべて同じ段にある）。
+         */
+        boolean hasGrandchildren(int index) {
+            int[] children = new int[4];
+            return this.offspring(index, children) > 0 && this.offspring(children[0], children) > 0;
+        }
+    }
+
+    /**
+     * 伸長する int の配列である。
+     */
+    private static final class IntList {
+
+        private int[] values = new int[16];
+
+        private int size = 0;
+
+        int size() {
+            return this.size;
+        }
+
+        int get(int index) {
+            return this.values[index];
+        }
+
+        void set(int index, int value) {
+            this.values[index] = value;
+        }
+
+        void add(int value) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.values[this.size++] = value;
+        }
+
+        void truncate(int size) {
+            this.size = size;
+        }
+    }
+
+    /**
+     * ビットを上位から詰めてバイト列にする。
+     */
+    private static final class BitWriter {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private int current = 0;
+
+        private int count = 0;
+
+        void write(boolean bit) {
+            this.current = this.current << 1 | (bit ? 1 : 0);
+            if (++this.count == 8) {
+                this.bytes.write(this.current);
+                this.current = 0;
+                this.count = 0;
+            }
+        }
+
+        byte[] toByteArray() {
+            if (this.count > 0) {
+                this.bytes.write(this.current << (8 - this.count));
+                this.current = 0;
+                this.count = 0;
+            }
+            return this.bytes.toByteArray();
+        }
+    }
+
+    /**
+     * バイト列の区間からビットを上位から読む。区間の終わりを超えると -1 を応答する。
+     */
+    private static final class BitReader {
+
+        private final byte[] bytes;
+
+        private final int end;
+
+        private int position;
+
+        private int bit = 8;
+
+        BitReader(byte[] bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.position = offset - 1;
+            this.end = offset + length;
+        }
+
+        int read() {
+            if (this.bit == 8) {
+                if (this.position + 1 >= this.end) {
+                    return -1;
+                }
+                this.position++;
+                this.bit = 0;
+            }
+            return (this.bytes[this.position] >> (7 - this.bit++)) & 1;
+        }
+    }
+}
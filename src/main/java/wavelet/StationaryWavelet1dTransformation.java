@@ -0,0 +1,200 @@
+package wavelet;
+
+/**
+ * 1次元の定常ウェーブレット変換（間引かない変換、à trous アルゴリズム）を実装するクラス。
+ * 各段の係数を間引かずに元の信号と同じ長さで保持するので、信号をずらすと係数も同じだけずれる（シフト不変）。
+ *
+ * <p>
+ * 第 j 段は第 j-1 段の近似 a に対して、フィルターのタップの間隔を {@code 2^(j-1)} 標本に広げて周期境界で分析する
+ * （{@code a_j[n] = Σ h[k] a_(j-1)[n + k 2^(j-1)]}、{@link ConvolutionKernel#analyzeDilated}）。
+ * 広げたフィルターの配列は作らない。再構成は各段で {@link ConvolutionKernel#synthesizeDilated} を逆にたどり、元の信号に完全に戻る。
+ * 信号の長さに制約はない。</p>
+ *
+ * <p>
+ * 係数は長さ n の配列を {@code levels + 1} 本（各段のウェーブレット係数と最上段のスケーリング係数）保持する。
+ * フォーク／ジョインプール（{@link #forkJoinPool(java.util.concurrent.ForkJoinPool)}）を設定すると、各段の出力の範囲を分けて並列に計算する。
+ * 出力はそれぞれ逐次の場合と同じ順序の演算で計算されるので、並列度によらず結果は完全に一致する。</p>
+ *
+ * @see StationaryWavelet2dTransformation
+ * @see DiscreteWavelet1dPyramid
+ */
+public class StationaryWavelet1dTransformation extends DiscreteWaveletTransformation {
+
+    protected double[] sourceCoefficients;
+
+    protected double[] scalingCoefficients;
+
+    protected double[][] waveletCoefficients; // [段 - 1][位置]
+
+    protected double[] recomposedCoefficients;
+
+    protected int levels;
+
+    public StationaryWavelet1dTransformation(double[] paramArrayOfdouble, int levels) {
+        this.initialize();
+        this.levels(levels);
+        this.sourceCoefficients(paramArrayOfdouble);
+    }
+
+    @Override
+    protected void initialize() {
+        super.initialize();
+        this.sourceCoefficients = null;
+        this.scalingCoefficients = null;
+        this.waveletCoefficients = null;
+        this.recomposedCoefficients = null;
+        this.levels = 1;
+    }
+
+    public int levels() {
+        return this.levels;
+    }
+
+    public void levels(int levels) {
+        if (levels < 0 || levels > 30) {
+            throw new IllegalArgumentException("levels must be between 0 and 30.");
+        }
+        this.levels = levels;
+        this.scalingCoefficients = null;
+        this.waveletCoefficients = null;
+        this.recomposedCoefficients = null;
+    }
+
+    public double[] sourceCoefficients() {
+        return this.sourceCoefficients;
+    }
+
+    public void sourceCoefficients(double[] paramArrayOfdouble) {
+        if (paramArrayOfdouble.length == 0) {
+            throw new IllegalArgumentException("signal must not be empty.");
+        }
+        this.sourceCoefficients = paramArrayOfdouble;
+        this.scalingCoefficients = null;
+        this.waveletCoefficients = null;
+        this.recomposedCoefficients = null;
+    }
+
+    @Override
+    public void filterBank(FilterBank aFilterBank) {
+        super.filterBank(aFilterBank);
+        if (this.sourceCoefficients != null) {
+            this.scalingCoefficients = null;
+            this.waveletCoefficients = null;
+            this.recomposedCoefficients = null;
+        }
+    }
+
+    /**
+     * 最上段のスケーリング係数（長さは元の信号と同じ）を応答する。
+     *
+     * @return スケーリング係数
+     */
+    public double[] scalingCoefficients() {
+        if (this.scalingCoefficients == null) {
+            this.computeCoefficients();
+        }
+        return this.scalingCoefficients;
+    }
+
+    /**
+     * 第 level 段のウェーブレット係数（長さは元の信号と同じ）を応答する。配列はこのオブジェクトと共有されており、
+     * 要素を書き換えると以降の再構成に反映される。
+     *
+     * @param level 段（1 .. levels）
+     * @return ウェーブレット係数
+     */
+    public double[] waveletCoefficients(int level) {
+        if (level < 1 || level > this.levels) {
+            throw new IllegalArgumentException("level is out of range.");
+        }
+        if (this.waveletCoefficients == null) {
+            this.computeCoefficients();
+        }
+        this.recomposedCoefficients = null;
+        return this.waveletCoefficients[level - 1];
+    }
+
+    public double[] recomposedCoefficients() {
+        if (this.recomposedCoefficients == null) {
+            this.computeRecomposedCoefficients();
+        }
+        return this.recomposedCoefficients;
+    }
+
+    @Override
+    public WaveletTransformation applyTo(Object anObject) {
+        if (!(anObject instanceof double[])) {
+            throw new IllegalArgumentException("anObject must be a double[].");
+        }
+        this.sourceCoefficients((double[]) anObject);
+        this.scalingCoefficients();
+        return this;
+    }
+
+    @Override
+    public WaveletTransformation transform(WaveletTransformation aWaveletTransformation) {
+        if (!(aWaveletTransformation instanceof StationaryWavelet1dTransformation)) {
+            throw new IllegalArgumentException("waveletTransformation must be a StationaryWavelet1dTransformation.");
+        }
+        StationaryWavelet1dTransformation aTransformation = (StationaryWavelet1dTransformation) aWaveletTransformation;
+        double[] arrayOfDouble = aTransformation.sourceCoefficients();
+        if (arrayOfDouble == null) {
+            arrayOfDouble = aTransformation.recomposedCoefficients();
+        }
+        StationaryWavelet1dTransformation result = new StationaryWavelet1dTransformation(arrayOfDouble, this.levels);
+        result.forkJoinPool(this.forkJoinPool);
+        result.filterBank(this.filterBank);
+        return result;
+    }
+
+    /**
+     * 近似を段ごとに分析し、ウェーブレット係数を各段の配列に、最後の近似をスケーリング係数に書き込む。
+     */
+    protected void computeCoefficients() {
+        if (this.sourceCoefficients == null) {
+            return;
+        }
+        int length = this.sourceCoefficients.length;
+        double[][] wavelets = new double[this.levels][length];
+        double[] approximation = this.sourceCoefficients;
+        for (int level = 0; level < this.levels; level++) {
+            double[] source = approximation;
+            double[] scaling = new double[length];
+            double[] wavelet = wavelets[level];
+            int dilation = 1 << level;
+            this.forEachOutput(length, (from, to, work) -> ConvolutionKernel.analyzeDilatedRange(source, 0, length,
+                    this.daubechiesScalingSequence, this.daubechiesWaveletSequence, dilation, scaling, 0, wavelet, 0, from, to));
+            approximation = scaling;
+        }
+        this.scalingCoefficients = approximation == this.sourceCoefficients ? approximation.clone() : approximation;
+        this.waveletCoefficients = wavelets;
+    }
+
+    /**
+     * 最上段から順に、近似とウェーブレット係数から1つ下の段の近似を合成する。
+     */
+    protected void computeRecomposedCoefficients() {
+        double[] approximation = this.scalingCoefficients();
+        if (approximation == null) {
+            return;
+        }
+        int length = approximation.length;
+        for (int level = this.levels - 1; level >= 0; level--) {
+            double[] scaling = approximation;
+            double[] wavelet = this.waveletCoefficients[level];
+            double[] recomposed = new double[length];
+            int dilation = 1 << level;
+            this.forEachOutput(length, (from, to, work) -> ConvolutionKernel.synthesizeDilatedRange(scaling, 0, wavelet, 0, length,
+                    this.synthesisScalingSequence, this.synthesisWaveletSequence, dilation, recomposed, 0, from, to));
+            approximation = recomposed;
+        }
+        this.recomposedCoefficients = approximation == this.scalingCoefficients ? approximation.clone() : approximation;
+    }
+
+    /**
+     * 長さ length の出力の範囲に処理を適用する（プールが設定されていて十分に長ければ範囲を分けて並列に）。
+     */
+    private void forEachOutput(int length, ChunkAction action) {
+        this.forEachChunk(length, this.daubechiesScalingSequence.length, 0, null, action);
+    }
+}
@@ -0,0 +1,388 @@
+package wavelet;
+
+import java.util.Arrays;
+
+/**
+ * 2次元の定常ウェーブレット変換（間引かない変換、à trous アルゴリズム）を実装するクラス。
+ * 各段で近似を行方向、列方向の順に {@code 2^(j-1)} 標本の間隔に広げたフィルターで分析し、
+ * 元の行列と同じ大きさの近似・水平・垂直・対角の4帯域を得る。帯域の呼び方は {@link DiscreteWavelet2dTransformation} と同じで、
+ * 水平は行方向に低域・列方向に高域、垂直は行方向に高域・列方向に低域を通した帯域である。
+ *
+ * <p>
+ * 係数は行数 × 列数の平面を {@code 3 × levels + 1} 枚保持するので、段数に比例してメモリが増える。
+ * {@link #singlePrecision(boolean)} で単精度の保持を選ぶと、帯域の平面を単精度に丸めて保持し、メモリを半分にする
+ * （演算は倍精度で行い、各段の近似も倍精度のまま次の段に渡す）。</p>
+ *
+ * <p>
+ * 行方向の処理は {@link ConvolutionKernel#analyzeDilated} を各行に適用する。列方向の処理は、出力の各行に対して
+ * 入力の行をフィルターのタップごとに丸ごと積和するので、列を取り出したり転置したりせず、内側のループは行の中を連続にたどる。
+ * フォーク／ジョインプール（{@link #forkJoinPool(java.util.concurrent.ForkJoinPool)}）を設定すると、どちらの処理も行の範囲を分けて並列に計算し、
+ * 並列度によらず結果は完全に一致する。</p>
+ *
+ * @see StationaryWavelet1dTransformation
+ * @see DiscreteWavelet2dTransformation
+ */
+public class StationaryWavelet2dTransformation extends DiscreteWaveletTransformation {
+
+    /**
+     * 元の行列である。
+     */
+    protected CoefficientMatrix sourceMatrix;
+
+    protected int levels;
+
+    protected boolean singlePrecision;
+
+    /**
+     * 倍精度で保持する帯域の平面（行優先、{@code [帯域][行 * 列数 + 列]}）である。帯域 0 が最上段のスケーリング係数、
+     * 第 j 段の水平・垂直・対角は帯域 {@code 3(j-1)+1}・{@code 3(j-1)+2}・{@code 3(j-1)+3} である。
+     */
+    protected double[][] bands;
+
+    /**
+     * 単精度で保持する帯域の平面（並びは {@link #bands} と同じ）である。
+     */
+    protected float[][] floatBands;
+
+    protected CoefficientMatrix recomposedMatrix;
+
+    public StationaryWavelet2dTransformation(double[][] aMatrix, int levels) {
+        this(CoefficientMatrix.fromArray(aMatrix), levels);
+    }
+
+    public StationaryWavelet2dTransformation(CoefficientMatrix aCoefficientMatrix, int levels) {
+        this.initialize();
+        this.levels(levels);
+        this.sourceMatrix(aCoefficientMatrix);
+    }
+
+    @Override
+    protected void initialize() {
+        super.initialize();
+        this.sourceMatrix = null;
+        this.levels = 1;
+        this.singlePrecision = false;
+        this.bands = null;
+        this.floatBands = null;
+        this.recomposedMatrix = null;
+    }
+
+    public int levels() {
+        return this.levels;
+    }
+
+    public void levels(int levels) {
+        if (levels < 0 || levels > 30) {
+            throw new IllegalArgumentException("levels must be between 0 and 30.");
+        }
+        this.levels = levels;
+        this.flushCoefficients();
+    }
+
+    public CoefficientMatrix sourceMatrix() {
+        return this.sourceMatrix;
+    }
+
+    /**
+     * 元の行列を設定し、計算済みの係数を破棄する。
+     *
+     * @param aCoefficientMatrix 元の行列（変換の間に変更されない）
+     */
+    public void sourceMatrix(CoefficientMatrix aCoefficientMatrix) {
+        if (aCoefficientMatrix.rowSize() == 0 || aCoefficientMatrix.columnSize() == 0) {
+            throw new IllegalArgumentException("matrix must not be empty.");
+        }
+        this.sourceMatrix = aCoefficientMatrix;
+        this.flushCoefficients();
+    }
+
+    public int rowSize() {
+        return this.sourceMatrix.rowSize();
+    }
+
+    public int columnSize() {
+        return this.sourceMatrix.columnSize();
+    }
+
+    public boolean singlePrecision() {
+        return this.singlePrecision;
+    }
+
+    /**
+     * 帯域の平面を単精度で保持するかどうかを設定し、計算済みの係数を破棄する。
+     *
+     * @param aBoolean 単精度で保持する場合は true
+     */
+    public void singlePrecision(boolean aBoolean) {
+        this.singlePrecision = aBoolean;
+        this.flushCoefficients();
+    }
+
+    @Override
+    public void filterBank(FilterBank aFilterBank) {
+        super.filterBank(aFilterBank);
+        this.flushCoefficients();
+    }
+
+    /**
+     * 係数の平面が占めるバイト数を応答する。
+     *
+     * @return 係数の平面の合計のバイト数
+     */
+    public long coefficientBytes() {
+        long area = (long) this.rowSize() * this.columnSize();
+        return (3L * this.levels + 1L) * area * (this.singlePrecision ? Float.BYTES : Double.BYTES);
+    }
+
+    /**
+     * 最上段のスケーリング係数（元の行列と同じ大きさ、{@code [行][列]}）を複写して応答する。
+     *
+     * @return スケーリング係数
+     */
+    public double[][] scalingCoefficients() {
+        return this.band(0);
+    }
+
+    public double[][] horizontalWaveletCoefficients(int level) {
+        return this.band(this.bandIndex(level, 0));
+    }
+
+    public double[][] verticalWaveletCoefficients(int level) {
+        return this.band(this.bandIndex(level, 1));
+    }
+
+    public double[][] diagonalWaveletCoefficients(int level) {
+        return this.band(this.bandIndex(level, 2));
+    }
+
+    public CoefficientMatrix recomposedMatrix() {
+        if (this.recomposedMatrix == null) {
+            this.computeRecomposedMatrix();
+        }
+        return this.recomposedMatrix;
+    }
+
+    public double[][] recomposedCoefficients() {
+        return this.recomposedMatrix().toArray();
+    }
+
+    @Override
+    public WaveletTransformation applyTo(Object anObject) {
+        if (anObject instanceof double[][]) {
+            this.sourceMatrix(CoefficientMatrix.fromArray((double[][]) anObject));
+        } else if (anObject instanceof CoefficientMatrix) {
+            this.sourceMatrix((CoefficientMatrix) anObject);
+        } else {
+            throw new IllegalArgumentException("anObject must be a double[][] or a CoefficientMatrix.");
+        }
+        this.computeCoefficients();
+        return this;
+    }
+
+    @Override
+    public WaveletTransformation transform(WaveletTransformation aWaveletTransformation) {
+        if (!(aWaveletTransformation instanceof StationaryWavelet2dTransformation)) {
+            throw new IllegalArgumentException("waveletTransformation must be a StationaryWavelet2dTransformation.");
+        }
+        StationaryWavelet2dTransformation aTransformation = (StationaryWavelet2dTransformation) aWaveletTransformation;
+        StationaryWavelet2dTransformation result = new StationaryWavelet2dTransformation(aTransformation.sourceMatrix(), this.levels);
+        result.singlePrecision(this.singlePrecision);
+        result.forkJoinPool(this.forkJoinPool);
+        result.filterBank(this.filterBank);
+        return result;
+    }
+
+    /**
+     * 近似を段ごとに行方向・列方向に分析し、各帯域の平面に書き込む。
+     */
+    protected void computeCoefficients() {
+        int rows = this.rowSize();
+        int columns = this.columnSize();
+        int area = rows * columns;
+        int taps = this.daubechiesScalingSequence.length;
+        double[] scalingFilter = this.daubechiesScalingSequence;
+        double[] waveletFilter = this.daubechiesWaveletSequence;
+        this.allocateBands(area);
+        double[] approximation = new double[area];
+        new CoefficientMatrix(approximation, 0, rows, columns, columns).copyFrom(this.sourceMatrix);
+        double[] next = new double[area];
+        double[] low = new double[area];
+        double[] high = new double[area];
+        for (int level = 1; level <= this.levels; level++) {
+            double[] source = approximation;
+            double[] target = next;
+            int dilation = 1 << (level - 1);
+            int step = dilation % rows;
+            int horizontal = this.bandIndex(level, 0);
+            this.forEachChunk(rows, columns * taps, 0, null, (from, to, work) -> {
+                for (int row = from; row < to; row++) {
+                    ConvolutionKernel.analyzeDilatedRange(source, row * columns, columns, scalingFilter, waveletFilter, dilation, low, row * columns, high, row * columns, 0, columns);
+                }
+            });
+            this.forEachChunk(rows, columns * taps * 2, columns * 4, new double[columns * 4], (from, to, work) -> {
+                for (int row = from; row < to; row++) {
+                    Arrays.fill(work, 0, columns * 4, 0.0D);
+                    for (int k = 0; k < taps; k++) {
+                        int base = ((row + k * step) % rows) * columns;
+                        double h = scalingFilter[k];
+                        double g = waveletFilter[k];
+                        for (int column = 0; column < columns; column++) {
+                            double lowValue = low[base + column];
+                            double highValue = high[base + column];
+                            work[column] += h * lowValue;
+                            work[columns + column] += g * lowValue;
+                            work[columns * 2 + column] += h * highValue;
+                            work[columns * 3 + column] += g * highValue;
+                        }
+                    }
+                    System.arraycopy(work, 0, target, row * columns, columns);
+                    for (int kind = 0; kind < 3; kind++) {
+                        this.store(horizontal + kind, row * columns, work, columns * (kind + 1), columns);
+                    }
+                }
+            });
+            approximation = target;
+            next = source;
+        }
+        this.store(0, 0, approximation, 0, area);
+    }
+
+    /**
+     * 最上段から順に、列方向・行方向の合成で1つ下の段の近似を求める。
+     */
+    protected void computeRecomposedMatrix() {
+        if (this.bands == null && this.floatBands == null) {
+            this.computeCoefficients();
+        }
+        int rows = this.rowSize();
+        int columns = this.columnSize();
+        int area = rows * columns;
+        double[] scalingFilter = this.synthesisScalingSequence;
+        double[] waveletFilter = this.synthesisWaveletSequence;
+        int taps = scalingFilter.length;
+        double[] approximation = new double[area];
+        this.load(0, 0, approximation, 0, area);
+        double[] next = new double[area];
+        double[] low = new double[area];
+        double[] high = new double[area];
+        for (int level = this.levels; level >= 1; level--) {
+            double[] source = approximation;
+            double[] target = next;
+            int dilation = 1 << (level - 1);
+            int step = dilation % rows;
+            int horizontal = this.bandIndex(level, 0);
+            this.forEachChunk(rows, columns * taps * 2, columns * 2, new double[columns * 2], (from, to, work) -> {
+                for (int row = from; row < to; row++) {
+                    Arrays.fill(work, 0, columns * 2, 0.0D);
+                    for (int k = 0; k < taps; k++) {
+                        int base = Math.floorMod(row - k * step, rows) * columns;
+                        double h = scalingFilter[k];
+                        double g = waveletFilter[k];
+                        for (int column = 0; column < columns; column++) {
+                            work[column] += h * source[base + column];
+                        }
+                        this.accumulate(work, 0, g, horizontal, base, columns);
+                        this.accumulate(work, columns, h, horizontal + 1, base, columns);
+                        this.accumulate(work, columns, g, horizontal + 2, base, columns);
+                    }
+                    for (int column = 0; column < columns; column++) {
+                        low[row * columns + column] = work[column] * 0.5D;
+                        high[row * columns + column] = work[columns + column] * 0.5D;
+                    }
+                }
+            });
+            this.forEachChunk(rows, columns * taps, 0, null, (from, to, work) -> {
+                for (int row = from; row < to; row++) {
+                    ConvolutionKernel.synthesizeDilatedRange(low, row * columns, high, row * columns, columns, scalingFilter, waveletFilter, dilation, target, row * columns, 0, columns);
+                }
+            });
+            approximation = target;
+            next = source;
+        }
+        this.recomposedMatrix = new CoefficientMatrix(approximation, 0, rows, columns, columns);
+    }
+
+    /**
+     * 第 level 段の帯域 kind（0 が水平、1 が垂直、2 が対角）の番号を応答する。
+     */
+    private int bandIndex(int level, int kind) {
+        if (level < 1 || level > this.levels) {
+            throw new IllegalArgumentException("level is out of range.");
+        }
+        return (level - 1) * 3 + 1 + kind;
+    }
+
+    private double[][] band(int index) {
+        if (this.bands == null && this.floatBands == null) {
+            this.computeCoefficients();
+        }
+        int columns = this.columnSize();
+        double[][] aMatrix = new double[this.rowSize()][columns];
+        for (int row = 0; row < aMatrix.length; row++) {
+            this.load(index, row * columns, aMatrix[row], 0, columns);
+        }
+        return aMatrix;
+    }
+
+    private void allocateBands(int area) {
+        int count = this.levels * 3 + 1;
+        if (this.singlePrecision) {
+            this.bands = null;
+            this.floatBands = new float[count][area];
+        } else {
+            this.floatBands = null;
+            this.bands = new double[count][area];
+        }
+    }
+
+    private void flushCoefficients() {
+        this.bands = null;
+        this.floatBands = null;
+        this.recomposedMatrix = null;
+    }
+
+    /**
+     * 帯域 index の offset 以降に length 個の値を書き込む（単精度で保持する場合は丸める）。
+     */
+    private void store(int index, int offset, double[] values, int valuesOffset, int length) {
+        if (this.floatBands != null) {
+            float[] band = this.floatBands[index];
+            for (int i = 0; i < length; i++) {
+                band[offset + i] = (float) values[valuesOffset + i];
+            }
+        } else {
+            System.arraycopy(values, valuesOffset, this.bands[index], offset, length);
+        }
+    }
+
+    /**
+     * 帯域 index の offset 以降の length 個の値を倍精度で取り出す。
+     */
+    private void load(int index, int offset, double[] values, int valuesOffset, int length) {
+        if (this.floatBands != null) {
+            float[] band = this.floatBands[index];
+            for (int i = 0; i < length; i++) {
+                values[valuesOffset + i] = band[offset + i];
+            }
+        } else {
+            System.arraycopy(this.bands[index], offset, values, valuesOffset, length);
+        }
+    }
+
+    /**
+     * {@code target[targetOffset + i] += coefficient * 帯域 index[offset + i]}（i = 0 .. length-1）を計算する。
+     */
+    private void accumulate(double[] target, int targetOffset, double coefficient, int index, int offset, int length) {
+        if (this.floatBands != null) {
+            float[] band = this.floatBands[index];
+            for (int i = 0; i < length; i++) {
+                target[targetOffset + i] += coefficient * band[offset + i];
+            }
+        } else {
+            double[] band = this.bands[index];
+            for (int i = 0; i < length; i++) {
+                target[targetOffset + i] += coefficient * band[offset + i];
+            }
+        }
+    }
+}
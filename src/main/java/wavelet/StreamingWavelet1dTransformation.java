@@ -0,0 +1,238 @@
+package wavelet;
+
+import java.util.Arrays;
+
+/**
+ * 長さの決まっていない1次元の信号を、任意の大きさの標本の塊ごとに受け取って多段に分解するストリーミングの離散ウェーブレット変換である。
+ * 信号全体を配列に持たず、各段ではフィルターの長さ分の標本（と塊の端数）だけを次の塊まで保持するので、
+ * 何ギガバイトの記録でも一定のメモリで、塊ごとの遅れだけで係数を得られる。
+ *
+ * <p>
+ * 信号の先頭より前は 0 とみなし（{@link BoundaryMode#ZERO}）、第 j 段の係数 i は
+ * {@code s[i] = Σ h[k] x[2i - L + 2 + k]}（L はフィルターの長さ）である。係数 i は標本 {@code x[2i + 1]} が届いた時点で確定するので、
+ * {@link #push(double[], int, int)} のたびに確定した分だけを {@link CoefficientConsumer} に渡す。
+ * 第 j 段のスケーリング係数はそのまま第 j+1 段の入力になる。{@link #finish()} で末尾を 0 で延長して残りの係数を出し切ると、
+ * 各段の係数は信号全体を {@link DiscreteWavelet1dTransformation} の {@link BoundaryMode#ZERO} で分解した結果と一致し、
+ * {@link ConvolutionKernel#synthesizeExtended} で元の信号に完全に戻る。</p>
+ *
+ * <p>
+ * 畳み込みは、保持している標本と届いた塊をつないだ作業配列に対して {@link ConvolutionKernel#analyze} で計算する
+ * （{@link WaveletEngine#VECTOR} なら Vector API の演算器）。インスタンスはスレッドセーフではない。</p>
+ *
+ * @see DiscreteWavelet1dTransformation
+ * @see BoundaryMode#ZERO
+ */
+public class StreamingWavelet1dTransformation extends DiscreteWaveletTransformation {
+
+    /**
+     * 確定した係数を受け取る関数である。
+     */
+    @FunctionalInterface
+    public interface CoefficientConsumer {
+
+        /**
+         * 第 level 段で新たに確定した count 個の係数を受け取る。配列は呼び出しの間だけ有効で、
+         * 以降の塊の処理で使い回されるので、残す場合は複写すること。配列を書き換えてはならない。
+         *
+         * @param level 段（1 から始まる）
+         * @param scaling スケーリング係数（先頭の count 個が有効）
+         * @param wavelet ウェーブレット係数（先頭の count 個が有効）
+         * @param count 係数の個数
+         */
+        void accept(int level, double[] scaling, double[] wavelet, int count);
+    }
+
+    protected int levels;
+
+    protected CoefficientConsumer consumer;
+
+    private double[][] histories; // 段ごとに、まだ係数にしていない標本を先頭に詰めて保持する
+
+    private int[] historyLengths;
+
+    private long[] sampleCounts; // 段ごとに受け取った標本の数（末尾の延長の 0 は含まない）
+
+    private double[][] scalingBuffers; // 段ごとの出力の作業配列
+
+    private double[][] waveletBuffers;
+
+    private boolean finished;
+
+    /**
+     * levels 段まで分解するストリーミングの変換を生成する。
+     *
+     * @param levels 分解する段数（1 以上）
+     * @param aConsumer 確定した係数を受け取る関数
+     */
+    public StreamingWavelet1dTransformation(int levels, CoefficientConsumer aConsumer) {
+        this.initialize();
+        if (levels < 1) {
+            throw new IllegalArgumentException("levels must be positive.");
+        }
+        if (aConsumer == null) {
+            throw new IllegalArgumentException("consumer must not be null.");
+        }
+        this.levels = levels;
+        this.consumer = aConsumer;
+        this.reset();
+    }
+
+    @Override
+    protected void initialize() {
+        super.initialize();
+        this.levels = 1;
+        this.consumer = null;
+        this.histories = null;
+        this.historyLengths = null;
+        this.sampleCounts = null;
+        this.scalingBuffers = null;
+        this.waveletBuffers = null;
+        this.finished = false;
+    }
+
+    public int levels() {
+        return this.levels;
+    }
+
+    public CoefficientConsumer consumer() {
+        return this.consumer;
+    }
+
+    /**
+     * フィルターバンクを設定する。保持する標本の数がフィルターの長さで決まるので、標本を受け取り始めた後は変更できない。
+     *
+     * @param aFilterBank フィルターバンク
+     */
+    @Override
+    public void filterBank(FilterBank aFilterBank) {
+        if (this.sampleCounts != null && this.sampleCounts[0] > 0) {
+            throw new IllegalArgumentException("filter bank cannot be changed after samples have been pushed.");
+        }
+        super.filterBank(aFilterBank);
+        if (this.sampleCounts != null) {
+            this.reset();
+        }
+    }
+
+    /**
+     * これまでに受け取った標本の数を応答する。
+     *
+     * @return 標本の数
+     */
+    public long sampleCount() {
+        return this.sampleCounts[0];
+    }
+
+    public boolean isFinished() {
+        return this.finished;
+    }
+
+    /**
+     * 保持している標本を捨てて、新しい信号を受け取れる状態に戻す。
+     */
+    public void reset() {
+        int history = this.daubechiesScalingSequence.length - 2;
+        this.histories = new double[this.levels][history * 2 + 2];
+        this.historyLengths = new int[this.levels];
+        Arrays.fill(this.historyLengths, history); // 先頭より前の 0 の標本
+        this.sampleCounts = new long[this.levels];
+        this.scalingBuffers = new double[this.levels][0];
+        this.waveletBuffers = new double[this.levels][0];
+        this.finished = false;
+    }
+
+    public void push(double[] samples) {
+        this.push(samples, 0, samples.length);
+    }
+
+    /**
+     * 標本の塊を受け取り、確定した係数を各段の順に {@link CoefficientConsumer} に渡す。
+     *
+     * @param samples 標本を格納した配列（変更されない）
+     * @param offset 塊の先頭位置
+     * @param length 塊の長さ（0 でもよい）
+     */
+    public void push(double[] samples, int offset, int length) {
+        if (this.finished) {
+            throw new IllegalArgumentException("stream has already been finished.");
+        }
+        if (offset < 0 || length < 0 || offset + length > samples.length) {
+            throw new IllegalArgumentException("block is out of range.");
+        }
+        this.sampleCounts[0] += length;
+        this.feed(0, samples, offset, length);
+    }
+
+    /**
+     * 信号の末尾を 0 で延長して、各段に残っている係数をすべて出し切る。以降は {@link #reset()} するまで標本を受け取れない。
+     * 各段の係数の総数は、その段の入力の長さ n に対して {@link BoundaryMode#coefficientLength(int, int)} と同じ {@code (n + L - 1) / 2} になる。
+     */
+    public void finish() {
+        if (this.finished) {
+            return;
+        }
+        double[] zeros = new double[this.daubechiesScalingSequence.length - 1];
+        for (int level = 0; level < this.levels; level++) {
+            if (this.sampleCounts[level] > 0) { // 何も受け取っていない段は係数を出さない
+                this.feed(level, zeros, 0, zeros.length);
+            }
+        }
+        this.finished = true;
+    }
+
+    @Override
+    public WaveletTransformation applyTo(Object anObject) {
+        if (!(anObject instanceof double[])) {
+            throw new IllegalArgumentException("anObject must be a double[].");
+        }
+        this.push((double[]) anObject);
+        return this;
+    }
+
+    @Override
+    public WaveletTransformation transform(WaveletTransformation aWaveletTransformation) {
+        if (!(aWaveletTransformation instanceof StreamingWavelet1dTransformation)) {
+            throw new IllegalArgumentException("waveletTransformation must be a StreamingWavelet1dTransformation.");
+        }
+        StreamingWavelet1dTransformation aStream = (StreamingWavelet1dTransformation) aWaveletTransformation;
+        StreamingWavelet1dTransformation result = new StreamingWavelet1dTransformation(this.levels, aStream.consumer());
+        result.engine(this.engine);
+        result.filterBank(this.filterBank);
+        return result;
+    }
+
+    /**
+     * 第 level 段（0 から始まる）に標本を足し、確定した係数を渡して次の段に送る。
+     * 保持している標本と塊をつないだ長さ n の作業配列では、係数 c は {@code history[2c] .. history[2c + L - 1]} だけを参照するので、
+     * 周期境界の分析の内側の出力（先頭の {@code (n - L) / 2 + 1} 個）がそのまま確定した係数になる。
+     */
+    private void feed(int level, double[] samples, int offset, int length) {
+        int taps = this.daubechiesScalingSequence.length;
+        int buffered = this.historyLengths[level] + length;
+        double[] history = this.histories[level];
+        if (history.length < buffered) {
+            history = Arrays.copyOf(history, Math.max(buffered, history.length * 2));
+            this.histories[level] = history;
+        }
+        System.arraycopy(samples, offset, history, this.historyLengths[level], length);
+        if (buffered < taps) {
+            this.historyLengths[level] = buffered;
+            return;
+        }
+        int count = (buffered - taps) / 2 + 1;
+        if (this.scalingBuffers[level].length < buffered / 2) {
+            this.scalingBuffers[level] = new double[buffered / 2];
+            this.waveletBuffers[level] = new double[buffered / 2];
+        }
+        double[] scaling = this.scalingBuffers[level];
+        double[] wavelet = this.waveletBuffers[level];
+        this.convolutionKernel().analyze(history, 0, buffered, this.daubechiesScalingSequence, this.daubechiesWaveletSequence, scaling, 0, wavelet, 0);
+        this.historyLengths[level] = buffered - count * 2;
+        System.arraycopy(history, count * 2, history, 0, this.historyLengths[level]);
+        this.consumer.accept(level + 1, scaling, wavelet, count);
+        if (level + 1 < this.levels) {
+            this.sampleCounts[level + 1] += count;
+            this.feed(level + 1, scaling, 0, count);
+        }
+    }
+}
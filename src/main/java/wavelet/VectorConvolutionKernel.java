@@ -0,0 +1,98 @@
+package wavelet;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API（{@code jdk.incubator.vector}）で連続する出力標本をまとめて計算する畳み込みの演算器である。
+ * {@link ConvolutionKernel#vector()} が、インキュベータモジュールが読み込まれている場合にだけ反射で生成する。
+ *
+ * <p>
+ * 分析では、信号を偶数番目・奇数番目の系列（周期的に延長したもの）に分けておくと、
+ * タップ k が参照する標本 {@code x[k + 2b]} が出力標本 b について連続に並ぶので、1回のロードで SIMD の幅だけの出力を計算できる。
+ * 合成でも係数列を周期的に前へ延長しておき、{@code s[b - m]} を連続にロードする。
+ * 積和の順序はスカラーの演算器（{@link ConvolutionKernel#analyzeRange}・{@link ConvolutionKernel#synthesizeRange}）と同じにしており、
+ * 融合積和演算も用いないので結果は完全に一致する。SIMD の幅に満たない端数はスカラーで計算する。</p>
+ */
+final class VectorConvolutionKernel extends ConvolutionKernel {
+
+    /**
+     * 実行環境で最も効率のよい幅の double のベクトル種である。
+     */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * 合成した偶数番目・奇数番目の標本を1つおきに書き込むための添字表 {0, 2, 4, ...} である。
+     */
+    private static final int[] INTERLEAVE = interleave(SPECIES.length());
+
+    VectorConvolutionKernel() {
+        super();
+    }
+
+    @Override
+    public void analyze(double[] source, int sourceOffset, int length, double[] scalingFilter, double[] waveletFilter,
+            double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset) {
+        int half = length / 2;
+        int bound = SPECIES.loopBound(half);
+        if (bound > 0) {
+            int extent = half + (scalingFilter.length + 1) / 2;
+            double[] even = new double[extent];
+            double[] odd = new double[extent];
+            for (int index = 0; index < extent; index++) {
+                even[index] = source[sourceOffset + (index * 2) % length];
+                odd[index] = source[sourceOffset + (index * 2 + 1) % length];
+            }
+            for (int b = 0; b < bound; b += SPECIES.length()) {
+                DoubleVector scalingVector = DoubleVector.zero(SPECIES);
+                DoubleVector waveletVector = DoubleVector.zero(SPECIES);
+                for (int k = 0; k < scalingFilter.length; k++) {
+                    DoubleVector value = DoubleVector.fromArray(SPECIES, (k & 1) == 0 ? even : odd, b + (k >> 1));
+                    scalingVector = scalingVector.add(value.mul(scalingFilter[k]));
+                    waveletVector = waveletVector.add(value.mul(waveletFilter[k]));
+                }
+                scalingVector.intoArray(scaling, scalingOffset + b);
+                waveletVector.intoArray(wavelet, waveletOffset + b);
+            }
+        }
+        analyzeRange(source, sourceOffset, length, scalingFilter, waveletFilter, scaling, scalingOffset, wavelet, waveletOffset, bound, half);
+    }
+
+    @Override
+    public void synthesize(double[] scaling, int scalingOffset, double[] wavelet, int waveletOffset, int half,
+            double[] scalingFilter, double[] waveletFilter, double[] recomposed, int recomposedOffset) {
+        int bound = SPECIES.loopBound(half);
+        if (bound > 0) {
+            int taps = scalingFilter.length / 2;
+            int lead = taps - 1;
+            double[] scalingExtended = new double[half + lead];
+            double[] waveletExtended = new double[half + lead];
+            for (int index = 0; index < half + lead; index++) {
+                int n = Math.floorMod(index - lead, half);
+                scalingExtended[index] = scaling[scalingOffset + n];
+                waveletExtended[index] = wavelet[waveletOffset + n];
+            }
+            for (int b = 0; b < bound; b += SPECIES.length()) {
+                DoubleVector even = DoubleVector.zero(SPECIES);
+                DoubleVector odd = DoubleVector.zero(SPECIES);
+                for (int m = 0; m < taps; m++) {
+                    DoubleVector scalingVector = DoubleVector.fromArray(SPECIES, scalingExtended, b - m + lead);
+                    DoubleVector waveletVector = DoubleVector.fromArray(SPECIES, waveletExtended, b - m + lead);
+                    even = even.add(scalingVector.mul(scalingFilter[m * 2])).add(waveletVector.mul(waveletFilter[m * 2]));
+                    odd = odd.add(scalingVector.mul(scalingFilter[m * 2 + 1])).add(waveletVector.mul(waveletFilter[m * 2 + 1]));
+                }
+                even.intoArray(recomposed, recomposedOffset + b * 2, INTERLEAVE, 0);
+                odd.intoArray(recomposed, recomposedOffset + b * 2 + 1, INTERLEAVE, 0);
+            }
+        }
+        synthesizeRange(scaling, scalingOffset, wavelet, waveletOffset, half, scalingFilter, waveletFilter, recomposed, recomposedOffset, bound, half);
+    }
+
+    private static int[] interleave(int lanes) {
+        int[] indexes = new int[lanes];
+        for (int index = 0; index < lanes; index++) {
+            indexes[index] = index * 2;
+        }
+        return indexes;
+    }
+}
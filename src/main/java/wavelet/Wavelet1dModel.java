@@ -52,6 +52,11 @@ public class Wavelet1dModel extends WaveletModel {
         * スケーリング係数と（操作後の）ウェーブレット係数から再構成された信号の係数を保持する
         */
 	protected double[] recomposedCoefficients; // 再構成された信号の係数
+        /**
+        * スケーリング係数とインタラクティブなウェーブレット係数を共有する再構成用の変換。
+        * 係数を1つ操作したときに、その係数が寄与する範囲だけを再構成し直すために保持する。
+        */
+	protected DiscreteWavelet1dTransformation interactiveTransformation = null; // 再構成用の変換
 
 	// 各係数データを表示するためのペインモデル
         /**
@@ -133,7 +138,30 @@ public class Wavelet1dModel extends WaveletModel {
 		} else {
 		this.interactiveWaveletCoefficients[coefficientIndex] = this.waveletCoefficients[coefficientIndex];	// 押されていなければ元の値に戻す
 		} 
-		computeRecomposedCoefficients();	// 再構成された係数を計算し、更新
+		recomposeInteractiveRegion(coefficientIndex);	// 変わった係数が寄与する範囲だけ再構成し、更新
+	}
+
+    /**
+     * 操作した1つの係数が寄与する範囲（フィルターの台の分）だけ再構成された係数をその場で計算し直し、
+     * 対話操作用の係数画像と再構成画像もその範囲の列だけ描き直す。
+     * 再構成用の変換や画像がまだない場合は {@link #computeRecomposedCoefficients()} で全体を作り直す。
+     *
+     * @param coefficientIndex 操作した係数の位置
+     */
+	protected void recomposeInteractiveRegion(int coefficientIndex) {
+		BufferedImage interactiveImage = this.interactiveWaveletCoefficientsPaneModel == null ? null : this.interactiveWaveletCoefficientsPaneModel.picture();
+		BufferedImage recomposedImage = this.recomposedCoefficientsPaneModel == null ? null : this.recomposedCoefficientsPaneModel.picture();
+		if (this.interactiveTransformation == null || interactiveImage == null || recomposedImage == null) {
+		computeRecomposedCoefficients();
+		return;
+		}
+		int[] region = this.interactiveTransformation.recomposeRegion(coefficientIndex, coefficientIndex + 1);	// 再構成し直した範囲
+		this.recomposedCoefficients = this.interactiveTransformation.recomposedCoefficients();
+
+		patchImage(interactiveImage, this.interactiveWaveletCoefficients, coefficientIndex, coefficientIndex + 1);
+		this.interactiveWaveletCoefficientsPaneModel.changed();
+		patchImage(recomposedImage, this.recomposedCoefficients, region[0], region[1]);
+		this.recomposedCoefficientsPaneModel.changed();
 	}
 
     /**
@@ -143,7 +171,9 @@ public class Wavelet1dModel extends WaveletModel {
 	public void computeRecomposedCoefficients() {
         // インタラクティブな係数から1次元ウェーブレット変換を再構成
 		DiscreteWavelet1dTransformation discreteWavelet1dTransformation = new DiscreteWavelet1dTransformation(this.scalingCoefficients, this.interactiveWaveletCoefficients);
+		discreteWavelet1dTransformation.filterBank(this.filterBank);
 		this.recomposedCoefficients = discreteWavelet1dTransformation.recomposedCoefficients();
+		this.interactiveTransformation = discreteWavelet1dTransformation;
 
         // インタラクティブウェーブレット係数の画像を生成し、ペインモデルを更新
 		BufferedImage bufferedImage1 = generateImage(this.interactiveWaveletCoefficients);
@@ -222,7 +252,24 @@ public class Wavelet1dModel extends WaveletModel {
         Integer imageWidth = (Integer) Math.round(dataLength * scaleFactor.x); // 画像の幅を計算
         Integer imageHeight = (Integer) Math.round((float) (rangeValue * scaleFactor.y)); // 画像の高さを計算
         BufferedImage bufferedImage = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB); // RGBタイプの画像を生成
-        Graphics2D graphics2D = bufferedImage.createGraphics(); // Graphics2Dオブジェクトを取得
+        patchImage(bufferedImage, valueCollection, 0, dataLength); // 全ての列を描画
+
+        return bufferedImage; // 生成された画像を返す
+	}
+
+        /**
+        * {@link #generateImage(double[])} で生成した画像のうち、データの from .. to-1 番目の列だけを描き直す。
+        * 列の外には描画しないので、画像全体を作り直した場合と同じ画素になる。
+        * @param anImage 書き換える画像
+        * @param valueCollection 画像生成に使用する型のデータ配列
+        * @param from 描き直す最初のデータの位置
+        * @param to 描き直す最後のデータの次の位置
+        */
+	public static void patchImage(BufferedImage anImage, double[] valueCollection, int from, int to) {
+        Integer imageWidth = anImage.getWidth(); // 画像の幅
+        Integer imageHeight = anImage.getHeight(); // 画像の高さ
+        Graphics2D graphics2D = anImage.createGraphics(); // Graphics2Dオブジェクトを取得
+        graphics2D.clipRect(from * scaleFactor.x, 0, (to - from) * scaleFactor.x, imageHeight); // 描き直す列の外には描画しない
 
         graphics2D.setColor(Color.white); // 白で背景を塗りつぶす
         graphics2D.fillRect(0, 0, imageWidth, imageHeight);
@@ -230,8 +277,8 @@ public class Wavelet1dModel extends WaveletModel {
         graphics2D.setStroke(new BasicStroke(1.0F)); // ストロークの太さを設定
         graphics2D.drawLine(0, imageHeight / 2, imageWidth, imageHeight / 2); // 中央に基準線を描画
 
-        // 各データポイントを画像に描画（forループをIntStreamで書き換え）
-        IntStream.range(0, dataLength)
+        // 各データポイントを画像に描画（点は隣の列にはみ出しうるので、両隣のデータも描く）
+        IntStream.range(Math.max(from - 1, 0), Math.min(to + 1, valueCollection.length))
                 .forEach(dataIndex -> {
                     double dataValue = valueCollection[dataIndex]; // 現在のデータ値
                     Integer plotX = (Integer) Math.round((float) (dataIndex * scaleFactor.x + scaleFactor.x / 2.0D)); // X座標を計算
@@ -241,8 +288,7 @@ public class Wavelet1dModel extends WaveletModel {
                     graphics2D.setColor(Color.black); // 黒で描画色を設定
                     graphics2D.fill(rectangle); // 四角形を塗りつぶす
                 });
-
-        return bufferedImage; // 生成された画像を返す
+        graphics2D.dispose();
 	}
 
     /**
@@ -351,6 +397,7 @@ public class Wavelet1dModel extends WaveletModel {
 
         // 1次元ウェーブレット変換を実行
         DiscreteWavelet1dTransformation discreteWavelet1dTransformation1 = new DiscreteWavelet1dTransformation(this.sourceCoefficients);
+        discreteWavelet1dTransformation1.filterBank(this.filterBank);
         this.scalingCoefficients = discreteWavelet1dTransformation1.scalingCoefficients(); // スケーリング係数を取得
         this.waveletCoefficients = discreteWavelet1dTransformation1.waveletCoefficients(); // ウェーブレット係数を取得
 
@@ -360,7 +407,9 @@ public class Wavelet1dModel extends WaveletModel {
 
         // 再構成された係数を計算
         DiscreteWavelet1dTransformation discreteWavelet1dTransformation2 = new DiscreteWavelet1dTransformation(this.scalingCoefficients, this.interactiveWaveletCoefficients);
+        discreteWavelet1dTransformation2.filterBank(this.filterBank);
         this.recomposedCoefficients = discreteWavelet1dTransformation2.recomposedCoefficients();
+        this.interactiveTransformation = discreteWavelet1dTransformation2;
 
         // 各係数から画像を生成
         BufferedImage bufferedImage1 = generateImage(this.sourceCoefficients);
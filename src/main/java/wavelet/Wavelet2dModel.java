@@ -14,7 +14,10 @@ import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
 import java.awt.image.ImageObserver;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JMenuItem;
@@ -32,7 +35,7 @@ import utility.Interval;
  */
 public final class Wavelet2dModel extends WaveletModel {
 
-    // 読み込み時の最大画像長辺ピクセル数 (2のべき乗にリサイズ後も大きくならない)
+    // 読み込み時の最大画像長辺ピクセル数 (これを超える画像だけ縮小し、それ以外は元の大きさのまま変換する)
     private static final int MAX_IMAGE_DIMENSION = 1024;
 
     // 各種の係数配列における絶対値の最大値を保持するフィールド。
@@ -54,6 +57,13 @@ public final class Wavelet2dModel extends WaveletModel {
     protected double[][][] interactiveDiagonalWaveletCoefficientsArray; // 対話操作用の対角ウェーブレット係数
     protected double[][][] recomposedCoefficientsArray; // 再構成された係数
 
+    // 対話操作用の再構成に使い回す変換オブジェクト（チャネルごと）。
+    // スケーリング係数と対話操作用ウェーブレット係数を4帯域に詰めた行列を保持し、転置や行ごとの配列を作らずに再構成する。
+    protected DiscreteWavelet2dTransformation[] interactiveTransformationArray;
+
+    // "denoise" の操作で用いる雑音除去（縮退の規則や段数は denoiser() で変更できる）。
+    protected WaveletDenoiser denoiser = new WaveletDenoiser();
+
     // 各種係数データを表示するためのモデルオブジェクト。
     // それぞれのパネルに表示される画像データを管理する。
     protected WaveletPaneModel sourceCoefficientsPaneModel = null; // 元の係数表示用モデル
@@ -68,6 +78,15 @@ public final class Wavelet2dModel extends WaveletModel {
         doSampleCoefficients();
     }
 
+    /**
+     * "denoise" の操作で用いる雑音除去を応答する。縮退の規則（{@link ShrinkageRule}）や段数を変更できる。
+     *
+     * @return 雑音除去
+     */
+    public WaveletDenoiser denoiser() {
+        return this.denoiser;
+    }
+
     /**
      * アクションイベントを処理する。 メニュー項目からのコマンドに応じて、異なる画像データの設定や係数操作を実行する。
      *
@@ -100,6 +119,9 @@ public final class Wavelet2dModel extends WaveletModel {
                 .addCase(() -> "clear coefficients".equals(commandString), () -> { // "clear coefficients"の場合のケース
                     doClearCoefficients();
                 })
+                .addCase(() -> "denoise".equals(commandString), () -> { // "denoise"の場合のケース
+                    doDenoise();
+                })
                 .evaluate(); // 作成したSwitch文を評価し、対応するアクションを実行する
     }
 
@@ -111,6 +133,8 @@ public final class Wavelet2dModel extends WaveletModel {
      * @param isAltDown Altキーが押されているかどうか（trueの場合、係数をクリア）
      */
     public void computeFromPoint(Point aPoint, boolean isAltDown) {
+        int[][] regions = new int[this.sourceCoefficientsArray.length][]; // チャネルごとに再構成し直した範囲
+        int[] block = new int[4]; // 操作した係数の範囲（帯域の添字で {行の始め, 行の終わりの次, 列の始め, 列の終わりの次}）
         new Interval<>(0, (channelIndex) -> channelIndex < this.sourceCoefficientsArray.length, (channelIndex) -> channelIndex + 1).forEach(channelIndex -> { //
             double[][] sourceData = this.sourceCoefficientsArray[channelIndex];
             Condition.ifTrue(() -> sourceData != null, () -> { // データが存在する場合のみ処理
@@ -161,9 +185,130 @@ public final class Wavelet2dModel extends WaveletModel {
                         });
                     });
                 });
+
+                // 操作した範囲の係数が寄与する部分だけを再構成し直す（再構成は線形なので、範囲の外は変わらない）
+                block[0] = Math.max(0, mousePointX + startOffset);
+                block[1] = Math.min(coefficientWidth - 1, mousePointX + endOffset) + 1;
+                block[2] = Math.max(0, mousePointY + startOffset);
+                block[3] = Math.min(coefficientHeight - 1, mousePointY + endOffset) + 1;
+                regions[channelIndex] = recomposeInteractiveRegion(channelIndex, block[0], block[1], block[2], block[3]);
             });
         });
-        computeRecomposedCoefficients(); // 係数変更後、再構成画像を更新
+        repaintInteractiveRegion(block, regions); // 係数変更後、変わった範囲だけ画像を更新
+    }
+
+    /**
+     * 指定されたチャネルの対話操作用ウェーブレット係数のうち、帯域の添字で rowFrom .. rowTo-1 行、columnFrom .. columnTo-1 列の範囲を
+     * 対話操作用の行列の各帯域に書き込み、その係数が寄与する部分（フィルターの台の分だけ広げた範囲）だけを再構成し直す。
+     * 計算量は画像の大きさによらず、操作した範囲の大きさだけで決まる。
+     *
+     * @param channelIndex チャネルのインデックス
+     * @param rowFrom 操作した最初の行（帯域の添字、係数配列の1つ目の添字）
+     * @param rowTo 操作した最後の行の次
+     * @param columnFrom 操作した最初の列（帯域の添字、係数配列の2つ目の添字）
+     * @param columnTo 操作した最後の列の次
+     * @return 再構成し直した範囲（再構成された係数の添字で {行の始め, 行の終わりの次, 列の始め, 列の終わりの次}）
+     */
+    private int[] recomposeInteractiveRegion(int channelIndex, int rowFrom, int rowTo, int columnFrom, int columnTo) {
+        double[][] recomposedCoefficients = this.recomposedCoefficientsArray[channelIndex];
+        DiscreteWavelet2dTransformation interactiveTransformation = this.interactiveTransformationArray[channelIndex];
+        CoefficientMatrix interactiveMatrix = interactiveTransformation.coefficientMatrix();
+        double[] values = interactiveMatrix.values();
+        CoefficientMatrix horizontalMatrix = interactiveMatrix.horizontal();
+        CoefficientMatrix verticalMatrix = interactiveMatrix.vertical();
+        CoefficientMatrix diagonalMatrix = interactiveMatrix.diagonal();
+        for (int rowIndex = rowFrom; rowIndex < rowTo; rowIndex++) {
+            for (int columnIndex = columnFrom; columnIndex < columnTo; columnIndex++) {
+                values[horizontalMatrix.indexOf(rowIndex, columnIndex)] = this.interactiveHorizontalWaveletCoefficientsArray[channelIndex][rowIndex][columnIndex];
+                values[verticalMatrix.indexOf(rowIndex, columnIndex)] = this.interactiveVerticalWaveletCoefficientsArray[channelIndex][rowIndex][columnIndex];
+                values[diagonalMatrix.indexOf(rowIndex, columnIndex)] = this.interactiveDiagonalWaveletCoefficientsArray[channelIndex][rowIndex][columnIndex];
+            }
+        }
+        int[] region = interactiveTransformation.recomposeRegion(rowFrom, rowTo, columnFrom, columnTo);
+        CoefficientMatrix recomposedMatrix = interactiveTransformation.recomposedMatrix();
+        for (int rowIndex = region[0]; rowIndex < region[1]; rowIndex++) {
+            for (int columnIndex = region[2]; columnIndex < region[3]; columnIndex++) {
+                recomposedCoefficients[rowIndex][columnIndex] = recomposedMatrix.at(rowIndex, columnIndex);
+            }
+        }
+        return region;
+    }
+
+    /**
+     * 操作した係数の範囲と再構成し直した範囲だけ、対話操作用の係数画像と再構成画像の画素を書き換えて再描画する。
+     * 正規化に使う再構成された係数の絶対値の最大値は保持している値のまま使うので、ドラッグ中に画像全体の明るさが変わらない。
+     * 書き換えた範囲の値が保持している最大値を超えた場合や、画像がまだない場合は {@link #computeRecomposedCoefficients()} で全体を作り直す。
+     *
+     * @param block 操作した係数の範囲（帯域の添字で {行の始め, 行の終わりの次, 列の始め, 列の終わりの次}）
+     * @param regions チャネルごとに再構成し直した範囲（データのないチャネルは null）
+     */
+    private void repaintInteractiveRegion(int[] block, int[][] regions) {
+        BufferedImage interactiveImage = this.interactiveScalingAndWaveletCoefficientsPaneModel == null ? null : this.interactiveScalingAndWaveletCoefficientsPaneModel.picture();
+        BufferedImage recomposedImage = this.recomposedCoefficientsPaneModel == null ? null : this.recomposedCoefficientsPaneModel.picture();
+        double recomposedMaximum = this.maximumAbsoluteRecomposedCoefficient;
+        int[] region = null; // 全チャネルの再構成し直した範囲を囲む範囲
+        for (int channelIndex = 0; channelIndex < regions.length; channelIndex++) {
+            int[] channelRegion = regions[channelIndex];
+            if (channelRegion == null) {
+                continue;
+            }
+            region = region == null ? channelRegion.clone() : new int[] {Math.min(region[0], channelRegion[0]), Math.max(region[1], channelRegion[1]), Math.min(region[2], channelRegion[2]), Math.max(region[3], channelRegion[3])};
+            double[][] recomposedCoefficients = this.recomposedCoefficientsArray[channelIndex];
+            for (int rowIndex = channelRegion[0]; rowIndex < channelRegion[1]; rowIndex++) {
+                for (int columnIndex = channelRegion[2]; columnIndex < channelRegion[3]; columnIndex++) {
+                    if (Math.abs(recomposedCoefficients[rowIndex][columnIndex]) > recomposedMaximum) {
+                        recomposedMaximum = Double.NaN; // 正規化の範囲を超えたので全体を作り直す
+                    }
+                }
+            }
+        }
+        if (region == null) {
+            return;
+        }
+        if (interactiveImage == null || recomposedImage == null || this.maximumAbsoluteRecomposedCoefficient == Double.MIN_VALUE || Double.isNaN(recomposedMaximum)) {
+            computeRecomposedCoefficients();
+            return;
+        }
+
+        int scalingWidth = this.scalingCoefficientsArray[0].length; // 結合画像でのウェーブレット係数の画像の位置
+        int scalingHeight = (this.scalingCoefficientsArray[0][0]).length;
+        double waveletMaximum = maximumAbsoluteWaveletCoefficient();
+        patchImage(interactiveImage, this.interactiveHorizontalWaveletCoefficientsArray, waveletMaximum, block, scalingWidth, 0);
+        patchImage(interactiveImage, this.interactiveVerticalWaveletCoefficientsArray, waveletMaximum, block, 0, scalingHeight);
+        patchImage(interactiveImage, this.interactiveDiagonalWaveletCoefficientsArray, waveletMaximum, block, scalingWidth, scalingHeight);
+        patchImage(recomposedImage, this.recomposedCoefficientsArray, recomposedMaximum, region, 0, 0);
+
+        this.interactiveScalingAndWaveletCoefficientsPaneModel.changed();
+        this.recomposedCoefficientsPaneModel.changed();
+    }
+
+    /**
+     * 画像のうち、係数行列の範囲に対応する画素だけを {@link #generateImage(double[][][], double)} と同じ求め方の色で書き換える。
+     *
+     * @param anImage 書き換える画像
+     * @param valueMatrixArray 輝度またはRGBチャネルの係数行列配列
+     * @param maxValue 係数の絶対値の最大値（正規化用）
+     * @param region 係数行列の範囲（{1つ目の添字の始め, 終わりの次, 2つ目の添字の始め, 終わりの次}）
+     * @param xOffset 画像での範囲の左端のずれ
+     * @param yOffset 画像での範囲の上端のずれ
+     */
+    private static void patchImage(BufferedImage anImage, double[][][] valueMatrixArray, double maxValue, int[] region, int xOffset, int yOffset) {
+        boolean isGray = valueMatrixArray[1] == null || valueMatrixArray[2] == null || valueMatrixArray[3] == null;
+        for (int colIndex = region[0]; colIndex < region[1]; colIndex++) {
+            for (int rowIndex = region[2]; rowIndex < region[3]; rowIndex++) {
+                Color pixelColor;
+                if (isGray) {
+                    int grayValue = Math.round((float) (Math.abs(valueMatrixArray[0][colIndex][rowIndex]) / maxValue * 255.0D));
+                    pixelColor = new Color(grayValue, grayValue, grayValue);
+                } else {
+                    int redValue = Math.round((float) (Math.abs(valueMatrixArray[1][colIndex][rowIndex]) / maxValue * 255.0D));
+                    int greenValue = Math.round((float) (Math.abs(valueMatrixArray[2][colIndex][rowIndex]) / maxValue * 255.0D));
+                    int blueValue = Math.round((float) (Math.abs(valueMatrixArray[3][colIndex][rowIndex]) / maxValue * 255.0D));
+                    pixelColor = new Color(redValue, greenValue, blueValue);
+                }
+                anImage.setRGB(xOffset + colIndex, yOffset + rowIndex, pixelColor.getRGB());
+            }
+        }
     }
 
     /**
@@ -177,12 +322,8 @@ public final class Wavelet2dModel extends WaveletModel {
         new Interval<>(0, (channelIndex) -> channelIndex < this.sourceCoefficientsArray.length, (channelIndex) -> channelIndex + 1).forEach(channelIndex -> {
             double[][] sourceData = this.sourceCoefficientsArray[channelIndex];
             Condition.ifTrue(() -> sourceData != null, () -> { // データが存在する場合のみ処理
-                double[][] scalingCoefficients = this.scalingCoefficientsArray[channelIndex]; // スケーリング係数
-                // インタラクティブなウェーブレット係数をまとめる
-                double[][][] interactiveWaveletCoefficients = {this.interactiveHorizontalWaveletCoefficientsArray[channelIndex], this.interactiveVerticalWaveletCoefficientsArray[channelIndex], this.interactiveDiagonalWaveletCoefficientsArray[channelIndex]};
-                // 離散ウェーブレット2D変換オブジェクトを生成し、逆変換（再構成）を実行
-                DiscreteWavelet2dTransformation discreteWavelet2dTransformation = new DiscreteWavelet2dTransformation(scalingCoefficients, interactiveWaveletCoefficients);
-                double[][] recomposedResult = discreteWavelet2dTransformation.recomposedCoefficients(); // 再構成された係数
+                // インタラクティブなウェーブレット係数から逆変換（再構成）を実行
+                double[][] recomposedResult = recomposeInteractiveCoefficients(channelIndex); // 再構成された係数
                 this.recomposedCoefficientsArray[channelIndex] = recomposedResult; // 結果を保存
             });
         });
@@ -263,7 +404,7 @@ public final class Wavelet2dModel extends WaveletModel {
             File file = chooser.getSelectedFile();
             inputImage = ImageUtility.readImage(file.getAbsolutePath());
         }
-        // 画像が読み込まれたら、幅・高さを2のべき乗にリサイズ
+        // 画像が読み込まれたら、大きすぎる場合だけ縮小する（変換は奇数の幅・高さもそのまま扱える）
         if (inputImage != null) {
             int w = inputImage.getWidth();
             int h = inputImage.getHeight();
@@ -278,21 +419,6 @@ public final class Wavelet2dModel extends WaveletModel {
                 gTmp.drawImage(inputImage, 0, 0, rw, rh, null);
                 gTmp.dispose();
                 inputImage = tmp; // 更新
-                w = rw;
-                h = rh;
-            }
-            // 縦横比を保ったまま、長辺を2のべき乗サイズに拡大/縮小
-            int maxDim = Math.max(w, h);
-            int p2 = nextPowerOfTwo(maxDim);
-            int tw = (int) Math.round((double) w * p2 / maxDim);
-            int th = (int) Math.round((double) h * p2 / maxDim);
-            if (tw != w || th != h) {
-                BufferedImage resized = new BufferedImage(tw, th, inputImage.getType());
-                Graphics2D g2 = resized.createGraphics();
-                g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-                g2.drawImage(inputImage, 0, 0, tw, th, null);
-                g2.dispose();
-                inputImage = resized;
             }
         }
         return lrgbMatrixes(inputImage); // RGBをLuminanceとRGB行列に変換
@@ -364,6 +490,16 @@ public final class Wavelet2dModel extends WaveletModel {
         computeRecomposedCoefficients(); // 係数変更後、再構成画像を更新
     }
 
+    /**
+     * 元の係数の各チャネルの雑音を {@link WaveletDenoiser} で除去し、その結果をソースデータとして設定し直す。
+     * 雑音の除去は多段に分解して行い、チャネルと帯域ごとの処理は共有の計算用プールで並行に実行する。
+     */
+    public void doDenoise() {
+        this.denoiser.filterBank(this.filterBank);
+        this.denoiser.forkJoinPool(computeExecutor());
+        setSourceData(this.denoiser.denoise(this.sourceCoefficientsArray));
+    }
+
     /**
      * 地球の画像データをソースデータとして設定する。
      */
@@ -812,42 +948,17 @@ public final class Wavelet2dModel extends WaveletModel {
         this.interactiveVerticalWaveletCoefficientsArray = new double[this.sourceCoefficientsArray.length][][];
         this.interactiveDiagonalWaveletCoefficientsArray = new double[this.sourceCoefficientsArray.length][][];
         this.recomposedCoefficientsArray = new double[this.sourceCoefficientsArray.length][][];
+        this.interactiveTransformationArray = new DiscreteWavelet2dTransformation[this.sourceCoefficientsArray.length];
 
-        // 各チャネルに対してウェーブレット変換を実行
+        // 各チャネルのウェーブレット変換を共有の計算用プールで並行に実行し、すべて終わるまで待つ
+        List<ForkJoinTask<?>> channelTasks = new ArrayList<>();
         for (Integer channelIndex = 0; channelIndex < this.sourceCoefficientsArray.length; channelIndex++) {
-            double[][] currentSourceData = this.sourceCoefficientsArray[channelIndex];
-            if (currentSourceData != null) { // データが存在する場合のみ処理
-                // 離散ウェーブレット2D変換を実行
-                DiscreteWavelet2dTransformation discreteWavelet2dTransformation = new DiscreteWavelet2dTransformation(currentSourceData);
-                double[][] scalingResult = discreteWavelet2dTransformation.scalingCoefficients(); // スケーリング係数
-                double[][] horizontalResult = discreteWavelet2dTransformation.horizontalWaveletCoefficients(); // 水平ウェーブレット係数
-                double[][] verticalResult = discreteWavelet2dTransformation.verticalWaveletCoefficients(); // 垂直ウェーブレット係数
-                double[][] diagonalResult = discreteWavelet2dTransformation.diagonalWaveletCoefficients(); // 対角ウェーブレット係数
-
-                // インタラクティブ係数配列を初期化（最初は全て0でクリア）
-                double[][] interactiveHorizontal = new double[horizontalResult.length][(horizontalResult[0]).length];
-                double[][] interactiveVertical = new double[verticalResult.length][(verticalResult[0]).length];
-                double[][] interactiveDiagonal = new double[diagonalResult.length][(diagonalResult[0]).length];
-                fill(interactiveHorizontal, 0.0D);
-                fill(interactiveVertical, 0.0D);
-                fill(interactiveDiagonal, 0.0D);
-
-                // 計算結果を各配列に格納
-                this.scalingCoefficientsArray[channelIndex] = scalingResult;
-                this.horizontalWaveletCoefficientsArray[channelIndex] = horizontalResult;
-                this.verticalWaveletCoefficientsArray[channelIndex] = verticalResult;
-                this.diagonalWaveletCoefficientsArray[channelIndex] = diagonalResult;
-                this.interactiveHorizontalWaveletCoefficientsArray[channelIndex] = interactiveHorizontal;
-                this.interactiveVerticalWaveletCoefficientsArray[channelIndex] = interactiveVertical;
-                this.interactiveDiagonalWaveletCoefficientsArray[channelIndex] = interactiveDiagonal;
-
-                // インタラクティブ係数とスケーリング係数から再構成を実行
-                double[][][] interactiveCoefficientsCombined = {interactiveHorizontal, interactiveVertical, interactiveDiagonal};
-                discreteWavelet2dTransformation = new DiscreteWavelet2dTransformation(scalingResult, interactiveCoefficientsCombined);
-                double[][] recomposedFromInteractive = discreteWavelet2dTransformation.recomposedCoefficients();
-                this.recomposedCoefficientsArray[channelIndex] = recomposedFromInteractive;
+            if (this.sourceCoefficientsArray[channelIndex] != null) { // データが存在する場合のみ処理
+                int index = channelIndex;
+                channelTasks.add(computeExecutor().submit(() -> transformChannel(index)));
             }
         }
+        channelTasks.forEach(ForkJoinTask::join);
 
         // 各絶対値最大値をリセットし、再計算させる
         this.maximumAbsoluteSourceCoefficient = Double.MIN_VALUE;
@@ -855,18 +966,33 @@ public final class Wavelet2dModel extends WaveletModel {
         this.maximumAbsoluteWaveletCoefficient = Double.MIN_VALUE;
         this.maximumAbsoluteRecomposedCoefficient = Double.MIN_VALUE;
 
-        // 各係数配列から表示用の画像を生成
-        BufferedImage sourceImage = generateImage(this.sourceCoefficientsArray, maximumAbsoluteSourceCoefficient()); // 元データ画像
-        BufferedImage scalingImage = generateImage(this.scalingCoefficientsArray, maximumAbsoluteScalingCoefficient()); // スケーリング係数画像
-        BufferedImage horizontalImage = generateImage(this.horizontalWaveletCoefficientsArray, maximumAbsoluteWaveletCoefficient()); // 水平ウェーブレット係数画像
-        BufferedImage verticalImage = generateImage(this.verticalWaveletCoefficientsArray, maximumAbsoluteWaveletCoefficient()); // 垂直ウェーブレット係数画像
-        BufferedImage diagonalImage = generateImage(this.diagonalWaveletCoefficientsArray, maximumAbsoluteWaveletCoefficient()); // 対角ウェーブレット係数画像
-        BufferedImage interactiveHorizontalImage = generateImage(this.interactiveHorizontalWaveletCoefficientsArray, maximumAbsoluteWaveletCoefficient()); // 対話操作用水平係数画像
-        BufferedImage interactiveVerticalImage = generateImage(this.interactiveVerticalWaveletCoefficientsArray, maximumAbsoluteWaveletCoefficient()); // 対話操作用垂直係数画像
-        BufferedImage interactiveDiagonalImage = generateImage(this.interactiveDiagonalWaveletCoefficientsArray, maximumAbsoluteWaveletCoefficient()); // 対話操作用対角係数画像
+        // 絶対値の最大値は初回の問い合わせで計算・保持されるので、画像の生成を並行に始める前に求めておく
+        double sourceMaximum = maximumAbsoluteSourceCoefficient();
+        double scalingMaximum = maximumAbsoluteScalingCoefficient();
+        double waveletMaximum = maximumAbsoluteWaveletCoefficient();
+        double recomposedMaximum = maximumAbsoluteRecomposedCoefficient();
+
+        // 各係数配列から表示用の画像を共有の計算用プールで並行に生成
+        ForkJoinTask<BufferedImage> sourceTask = computeExecutor().submit(() -> generateImage(this.sourceCoefficientsArray, sourceMaximum));
+        ForkJoinTask<BufferedImage> scalingTask = computeExecutor().submit(() -> generateImage(this.scalingCoefficientsArray, scalingMaximum));
+        ForkJoinTask<BufferedImage> horizontalTask = computeExecutor().submit(() -> generateImage(this.horizontalWaveletCoefficientsArray, waveletMaximum));
+        ForkJoinTask<BufferedImage> verticalTask = computeExecutor().submit(() -> generateImage(this.verticalWaveletCoefficientsArray, waveletMaximum));
+        ForkJoinTask<BufferedImage> diagonalTask = computeExecutor().submit(() -> generateImage(this.diagonalWaveletCoefficientsArray, waveletMaximum));
+        ForkJoinTask<BufferedImage> interactiveHorizontalTask = computeExecutor().submit(() -> generateImage(this.interactiveHorizontalWaveletCoefficientsArray, waveletMaximum));
+        ForkJoinTask<BufferedImage> interactiveVerticalTask = computeExecutor().submit(() -> generateImage(this.interactiveVerticalWaveletCoefficientsArray, waveletMaximum));
+        ForkJoinTask<BufferedImage> interactiveDiagonalTask = computeExecutor().submit(() -> generateImage(this.interactiveDiagonalWaveletCoefficientsArray, waveletMaximum));
+        ForkJoinTask<BufferedImage> recomposedTask = computeExecutor().submit(() -> generateImage(this.recomposedCoefficientsArray, recomposedMaximum));
+        BufferedImage sourceImage = sourceTask.join(); // 元データ画像
+        BufferedImage scalingImage = scalingTask.join(); // スケーリング係数画像
+        BufferedImage horizontalImage = horizontalTask.join(); // 水平ウェーブレット係数画像
+        BufferedImage verticalImage = verticalTask.join(); // 垂直ウェーブレット係数画像
+        BufferedImage diagonalImage = diagonalTask.join(); // 対角ウェーブレット係数画像
+        BufferedImage interactiveHorizontalImage = interactiveHorizontalTask.join(); // 対話操作用水平係数画像
+        BufferedImage interactiveVerticalImage = interactiveVerticalTask.join(); // 対話操作用垂直係数画像
+        BufferedImage interactiveDiagonalImage = interactiveDiagonalTask.join(); // 対話操作用対角係数画像
+        BufferedImage recomposedImage = recomposedTask.join(); // 再構成された係数画像
         BufferedImage combinedAllWaveletsImage = generateImage(scalingImage, horizontalImage, verticalImage, diagonalImage); // 全ウェーブレット係数を結合した画像
         BufferedImage combinedInteractiveWaveletsImage = generateImage(scalingImage, interactiveHorizontalImage, interactiveVerticalImage, interactiveDiagonalImage); // 対話操作用ウェーブレット係数を結合した画像
-        BufferedImage recomposedImage = generateImage(this.recomposedCoefficientsArray, maximumAbsoluteRecomposedCoefficient()); // 再構成された係数画像
 
         // 各表示モデルの画像を更新 (モデルが未初期化の場合は初期化)
         if (this.sourceCoefficientsPaneModel == null) {
@@ -896,6 +1022,80 @@ public final class Wavelet2dModel extends WaveletModel {
         this.recomposedCoefficientsPaneModel.changed();
     }
 
+    /**
+     * 指定されたチャネルのウェーブレット変換と、対話操作用の係数からの再構成を実行し、結果を各係数配列に格納する。
+     * チャネルごとに異なる要素だけを書き換えるので、複数のチャネルを並行に実行できる。
+     *
+     * @param channelIndex チャネルのインデックス
+     */
+    private void transformChannel(int channelIndex) {
+        double[][] currentSourceData = this.sourceCoefficientsArray[channelIndex];
+        // 離散ウェーブレット2D変換を実行
+        DiscreteWavelet2dTransformation discreteWavelet2dTransformation = new DiscreteWavelet2dTransformation(currentSourceData);
+        discreteWavelet2dTransformation.forkJoinPool(computeExecutor()); // 大きな画像では行・列の処理もプール上で並列に行う
+        discreteWavelet2dTransformation.filterBank(this.filterBank);
+        double[][] scalingResult = discreteWavelet2dTransformation.scalingCoefficients(); // スケーリング係数
+        double[][] horizontalResult = discreteWavelet2dTransformation.horizontalWaveletCoefficients(); // 水平ウェーブレット係数
+        double[][] verticalResult = discreteWavelet2dTransformation.verticalWaveletCoefficients(); // 垂直ウェーブレット係数
+        double[][] diagonalResult = discreteWavelet2dTransformation.diagonalWaveletCoefficients(); // 対角ウェーブレット係数
+
+        // インタラクティブ係数配列を初期化（最初は全て0でクリア）
+        double[][] interactiveHorizontal = new double[horizontalResult.length][(horizontalResult[0]).length];
+        double[][] interactiveVertical = new double[verticalResult.length][(verticalResult[0]).length];
+        double[][] interactiveDiagonal = new double[diagonalResult.length][(diagonalResult[0]).length];
+        fill(interactiveHorizontal, 0.0D);
+        fill(interactiveVertical, 0.0D);
+        fill(interactiveDiagonal, 0.0D);
+
+        // 計算結果を各配列に格納
+        this.scalingCoefficientsArray[channelIndex] = scalingResult;
+        this.horizontalWaveletCoefficientsArray[channelIndex] = horizontalResult;
+        this.verticalWaveletCoefficientsArray[channelIndex] = verticalResult;
+        this.diagonalWaveletCoefficientsArray[channelIndex] = diagonalResult;
+        this.interactiveHorizontalWaveletCoefficientsArray[channelIndex] = interactiveHorizontal;
+        this.interactiveVerticalWaveletCoefficientsArray[channelIndex] = interactiveVertical;
+        this.interactiveDiagonalWaveletCoefficientsArray[channelIndex] = interactiveDiagonal;
+
+        // 各帯域は取り出し済みなので、変換結果の行列のウェーブレット係数の帯域を0にして対話操作用の行列とする
+        CoefficientMatrix interactiveMatrix = discreteWavelet2dTransformation.coefficientMatrix();
+        interactiveMatrix.horizontal().fill(0.0D);
+        interactiveMatrix.vertical().fill(0.0D);
+        interactiveMatrix.diagonal().fill(0.0D);
+        discreteWavelet2dTransformation.coefficientMatrix(interactiveMatrix);
+        this.interactiveTransformationArray[channelIndex] = discreteWavelet2dTransformation;
+
+        // インタラクティブ係数とスケーリング係数から再構成を実行
+        double[][] recomposedFromInteractive = discreteWavelet2dTransformation.recomposedCoefficients();
+        this.recomposedCoefficientsArray[channelIndex] = recomposedFromInteractive;
+    }
+
+    /**
+     * 指定されたチャネルの対話操作用ウェーブレット係数を、対話操作用の行列の各帯域に書き込んでから再構成する。
+     * 行列のスケーリング係数の帯域は変換時のまま使い回す。
+     *
+     * @param channelIndex チャネルのインデックス
+     * @return 再構成された係数
+     */
+    private double[][] recomposeInteractiveCoefficients(int channelIndex) {
+        DiscreteWavelet2dTransformation interactiveTransformation = this.interactiveTransformationArray[channelIndex];
+        CoefficientMatrix interactiveMatrix = interactiveTransformation.coefficientMatrix();
+        copyInto(interactiveMatrix.horizontal(), this.interactiveHorizontalWaveletCoefficientsArray[channelIndex]);
+        copyInto(interactiveMatrix.vertical(), this.interactiveVerticalWaveletCoefficientsArray[channelIndex]);
+        copyInto(interactiveMatrix.diagonal(), this.interactiveDiagonalWaveletCoefficientsArray[channelIndex]);
+        interactiveTransformation.coefficientMatrix(interactiveMatrix); // 前回の再構成結果を破棄する
+        return interactiveTransformation.recomposedCoefficients();
+    }
+
+    /**
+     * 2次元配列の内容を、行列（帯域のビュー）の左上に複写する。
+     *
+     * @param aCoefficientMatrix 複写先の行列
+     * @param aMatrix 複写元の2次元配列
+     */
+    private static void copyInto(CoefficientMatrix aCoefficientMatrix, double[][] aMatrix) {
+        aCoefficientMatrix.subMatrix(0, 0, aMatrix.length, (aMatrix[0]).length).copyFrom(aMatrix);
+    }
+
     /**
      * 右クリックイベント時にポップアップメニューを表示する。 サンプルデータや係数の表示/クリアなどのオプションを提供する。
      *
@@ -939,17 +1139,12 @@ public final class Wavelet2dModel extends WaveletModel {
         menuItem.addActionListener(aController);
         popupMenu.add(menuItem);
 
-        popupMenu.show(eventComponent, mouseX, mouseY); // 指定された位置にポップアップメニューを表示
-    }
+        popupMenu.addSeparator(); // 区切り線を追加
 
-    /**
-     * 与えられた値以上の最小の2のべき乗を返す
-     */
-    private static int nextPowerOfTwo(int value) {
-        int n = 1;
-        while (n < value) {
-            n <<= 1;
-        }
-        return n;
+        menuItem = new JMenuItem("denoise");
+        menuItem.addActionListener(aController);
+        popupMenu.add(menuItem);
+
+        popupMenu.show(eventComponent, mouseX, mouseY); // 指定された位置にポップアップメニューを表示
     }
 }
@@ -0,0 +1,290 @@
+package wavelet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 多段の2次元離散ウェーブレット変換（{@link DiscreteWavelet2dPyramid}）の詰め込み配置の係数を、
+ * チャネル（{@link Wavelet2dModel} の輝度・赤・緑・青など）ごとに保存する、版付きのリトルエンディアンのファイル形式である。
+ * 読み込みは {@link FileChannel#map(FileChannel.MapMode, long, long)} でチャネルごとの係数の領域を読み取り専用に写像するだけなので、
+ * 大きな分解を開き直しても再計算せず、必要な部分だけがページインされる。
+ *
+ * <p>
+ * ファイルの形式は次のとおりである（整数と実数はすべてリトルエンディアン）。
+ * <ol>
+ * <li>ヘッダー（{@value #HEADER_LENGTH} バイト）：識別子 {@code "WVLT"}、版（2 バイト）、ヘッダーの長さ（2 バイト）、
+ * 行数・列数・段数・チャネル数（各 4 バイト）、フィルターバンクの名前（{@link FilterBank#named(String)} に渡せる ASCII、0 で埋めた 32 バイト）、予約（8 バイト）。</li>
+ * <li>チャネルごとの係数の先頭位置（各 8 バイト、ファイルの先頭からのバイト数）。データのないチャネルは 0 とする。</li>
+ * <li>チャネルごとの係数（行数 × 列数の double を行優先に並べたもの）。先頭位置は 8 バイト境界に揃える。</li>
+ * </ol></p>
+ *
+ * @see DiscreteWavelet2dPyramid#coefficients(double[], int, int)
+ */
+public class WaveletArchive {
+
+    /**
+     * 固定長のヘッダーの長さ（バイト）である。チャネルごとの先頭位置はこの後に続く。
+     */
+    public static final int HEADER_LENGTH = 64;
+
+    private static final int MAGIC = 0x544C5657; // "WVLT"（リトルエンディアン）
+
+    private static final int VERSION = 1;
+
+    private static final int FILTER_NAME_LENGTH = 32;
+
+    private final int rows;
+
+    private final int columns;
+
+    private final int levels;
+
+    private final FilterBank filterBank;
+
+    private final DoubleBuffer[] channels;
+
+    private WaveletArchive(int rows, int columns, int levels, FilterBank aFilterBank, DoubleBuffer[] channels) {
+        this.rows = rows;
+        this.columns = columns;
+        this.levels = levels;
+        this.filterBank = aFilterBank;
+        this.channels = channels;
+    }
+
+    /**
+     * チャネルごとのピラミッドの係数をファイルに書き出す。係数がまだ計算されていなければ分解してから書き出す。
+     * すべてのピラミッドは同じ大きさ・段数・フィルターバンクでなければならない。
+     *
+     * @param aPath 書き出すファイル（既にあれば上書きする）
+     * @param pyramids チャネルごとのピラミッド（要素は null でもよいが、少なくとも1つは null でないこと）
+     */
+    public static void write(Path aPath, DiscreteWavelet2dPyramid... pyramids) {
+        DiscreteWavelet2dPyramid first = null;
+        for (DiscreteWavelet2dPyramid aPyramid : pyramids) {
+            if (aPyramid == null) {
+                continue;
+            }
+            if (first == null) {
+                first = aPyramid;
+            } else if (aPyramid.rows() != first.rows() || aPyramid.columns() != first.columns() || aPyramid.levels() != first.levels()
+                    || !aPyramid.filterBank().name().equals(first.filterBank().name())) {
+                throw new IllegalArgumentException("pyramids must share size, levels and filter bank.");
+            }
+        }
+        if (first == null) {
+            throw new IllegalArgumentException("at least one pyramid must be given.");
+        }
+        byte[] name = first.filterBank().name().getBytes(StandardCharsets.US_ASCII);
+        if (name.length > FILTER_NAME_LENGTH) {
+            throw new IllegalArgumentException("filter bank name is too long: " + first.filterBank().name());
+        }
+
+        long planeLength = (long) first.rows() * first.columns() * Double.BYTES;
+        ByteBuffer header = ByteBuffer.allocate(align(HEADER_LENGTH + pyramids.length * Long.BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC);
+        header.putShort((short) VERSION);
+        header.putShort((short) HEADER_LENGTH);
+        header.putInt(first.rows());
+        header.putInt(first.columns());
+        header.putInt(first.levels());
+        header.putInt(pyramids.length);
+        header.put(name);
+        header.position(HEADER_LENGTH);
+        long offset = header.capacity();
+        for (DiscreteWavelet2dPyramid aPyramid : pyramids) {
+            header.putLong(aPyramid == null ? 0L : offset);
+            offset += aPyramid == null ? 0L : planeLength;
+        }
+        header.rewind();
+
+        try (FileChannel aChannel = FileChannel.open(aPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(aChannel, header);
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            DoubleBuffer doubles = buffer.asDoubleBuffer();
+            for (DiscreteWavelet2dPyramid aPyramid : pyramids) {
+                if (aPyramid == null) {
+                    continue;
+                }
+                double[] coefficients = aPyramid.coefficients();
+                for (int index = 0; index < coefficients.length; index += doubles.capacity()) {
+                    int count = Math.min(doubles.capacity(), coefficients.length - index);
+                    doubles.clear();
+                    doubles.put(coefficients, index, count);
+                    buffer.clear();
+                    buffer.limit(count * Double.BYTES);
+                    writeFully(aChannel, buffer);
+                }
+            }
+        } catch (IOException anException) {
+            throw new UncheckedIOException(anException);
+        }
+    }
+
+    /**
+     * ファイルを開き、ヘッダーを読んで、チャネルごとの係数の領域を読み取り専用に写像する。
+     * 写像はファイルを閉じた後も有効で、係数は参照したときに読み込まれる。
+     *
+     * @param aPath {@link #write(Path, DiscreteWavelet2dPyramid...)} で書き出したファイル
+     * @return 写像したファイル
+     */
+    public static WaveletArchive open(Path aPath) {
+        try (FileChannel aChannel = FileChannel.open(aPath, StandardOpenOption.READ)) {
+            long size = aChannel.size();
+            if (size < HEADER_LENGTH) {
+                throw new IllegalArgumentException("file is not a wavelet archive: " + aPath);
+            }
+            ByteBuffer header = aChannel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IllegalArgumentException("file is not a wavelet archive: " + aPath);
+            }
+            int version = header.getShort() & 0xFFFF;
+            int headerLength = header.getShort() & 0xFFFF;
+            if (version != VERSION || headerLength < HEADER_LENGTH) {
+                throw new IllegalArgumentException("unsupported wavelet archive version: " + version);
+            }
+            int rows = header.getInt();
+            int columns = header.getInt();
+            int levels = header.getInt();
+            int channelCount = header.getInt();
+            byte[] name = new byte[FILTER_NAME_LENGTH];
+            header.get(name);
+            int nameLength = 0;
+            while (nameLength < FILTER_NAME_LENGTH && name[nameLength] != 0) {
+                nameLength++;
+            }
+            FilterBank aFilterBank = FilterBank.named(new String(name, 0, nameLength, StandardCharsets.US_ASCII));
+            long planeLength = (long) rows * columns * Double.BYTES;
+            if (rows < 1 || columns < 1 || levels < 0 || channelCount < 1 || planeLength > Integer.MAX_VALUE
+                    || headerLength + (long) channelCount * Long.BYTES > size) {
+                throw new IllegalArgumentException("wavelet archive header is corrupt: " + aPath);
+            }
+
+            ByteBuffer offsets = aChannel.map(FileChannel.MapMode.READ_ONLY, headerLength, (long) channelCount * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            DoubleBuffer[] channels = new DoubleBuffer[channelCount];
+            for (int channel = 0; channel < channelCount; channel++) {
+                long offset = offsets.getLong();
+                if (offset == 0L) {
+                    continue;
+                }
+                if (offset < headerLength || offset % Double.BYTES != 0 || offset + planeLength > size) {
+                    throw new IllegalArgumentException("wavelet archive offsets are corrupt: " + aPath);
+                }
+                channels[channel] = aChannel.map(FileChannel.MapMode.READ_ONLY, offset, planeLength).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+            }
+            WaveletArchive anArchive = new WaveletArchive(rows, columns, levels, aFilterBank, channels);
+            anArchive.newPyramid(); // 大きさと段数の組み合わせを確かめる
+            return anArchive;
+        } catch (IOException anException) {
+            throw new UncheckedIOException(anException);
+        }
+    }
+
+    public int rows() {
+        return this.rows;
+    }
+
+    public int columns() {
+        return this.columns;
+    }
+
+    public int levels() {
+        return this.levels;
+    }
+
+    public FilterBank filterBank() {
+        return this.filterBank;
+    }
+
+    public int channelCount() {
+        return this.channels.length;
+    }
+
+    /**
+     * チャネルにデータがあるかどうかを応答する。
+     *
+     * @param channel チャネルの番号
+     * @return データがあれば true
+     */
+    public boolean hasChannel(int channel) {
+        return this.checkedChannel(channel) != null;
+    }
+
+    /**
+     * チャネルの詰め込み配置の係数（行優先、行数 × 列数）を、写像した領域を直接参照する読み取り専用のバッファーとして応答する。
+     * 要素を読むまでファイルの内容は読み込まれない。
+     *
+     * @param channel チャネルの番号
+     * @return 係数のバッファー（データのないチャネルは null）
+     */
+    public DoubleBuffer coefficients(int channel) {
+        DoubleBuffer aBuffer = this.checkedChannel(channel);
+        return aBuffer == null ? null : aBuffer.duplicate();
+    }
+
+    /**
+     * チャネルの係数を配列に読み込んで、保存したときと同じ段数とフィルターバンクのピラミッドを応答する。
+     * そのまま {@link DiscreteWavelet2dPyramid#recomposedCoefficients()} などで再構成できる。
+     *
+     * @param channel チャネルの番号
+     * @return ピラミッド（データのないチャネルは null）
+     */
+    public DiscreteWavelet2dPyramid pyramid(int channel) {
+        DoubleBuffer aBuffer = this.coefficients(channel);
+        if (aBuffer == null) {
+            return null;
+        }
+        double[] coefficients = new double[this.rows * this.columns];
+        aBuffer.get(coefficients);
+        DiscreteWavelet2dPyramid aPyramid = this.newPyramid();
+        aPyramid.coefficients(coefficients, this.rows, this.columns);
+        return aPyramid;
+    }
+
+    /**
+     * すべてのチャネルのピラミッドを応答する。
+     *
+     * @return チャネルごとのピラミッド（データのないチャネルは null）
+     */
+    public DiscreteWavelet2dPyramid[] pyramids() {
+        DiscreteWavelet2dPyramid[] pyramids = new DiscreteWavelet2dPyramid[this.channels.length];
+        for (int channel = 0; channel < pyramids.length; channel++) {
+            pyramids[channel] = this.pyramid(channel);
+        }
+        return pyramids;
+    }
+
+    private DoubleBuffer checkedChannel(int channel) {
+        if (channel < 0 || channel >= this.channels.length) {
+            throw new IllegalArgumentException("channel must be from 0 to " + (this.channels.length - 1) + ".");
+        }
+        return this.channels[channel];
+    }
+
+    /**
+     * 係数を持たない、この大きさ・段数・フィルターバンクのピラミッドを作る。
+     */
+    private DiscreteWavelet2dPyramid newPyramid() {
+        DiscreteWavelet2dPyramid aPyramid = new DiscreteWavelet2dPyramid(new double[1][1], 0);
+        aPyramid.coefficients(new double[this.rows * this.columns], this.rows, this.columns);
+        aPyramid.levels(this.levels);
+        aPyramid.filterBank(this.filterBank);
+        return aPyramid;
+    }
+
+    private static int align(int length) {
+        return (length + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+    }
+
+    private static void writeFully(FileChannel aChannel, ByteBuffer aBuffer) throws IOException {
+        while (aBuffer.hasRemaining()) {
+            aChannel.write(aBuffer);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package wavelet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * 多段の2次元離散ウェーブレット変換（{@link DiscreteWavelet2dPyramid}）の上で、ウェーブレット縮退による雑音除去を行うクラス。
+ * 画面を持たないので、スクリプトやバッチ処理からそのまま使える。{@link Wavelet2dModel} の "denoise" の操作もこのクラスを用いる。
+ *
+ * <p>
+ * 処理は次の3段からなる。
+ * <ol>
+ * <li>画像を levels 段まで分解し、最も細かい（第1段の）対角の帯域の係数の絶対値の中央値から雑音の標準偏差を
+ * {@code σ = median(|d|) / 0.6745} と推定する（{@link #noiseLevel(CoefficientMatrix)}）。</li>
+ * <li>各段の水平・垂直・対角の帯域ごとに、{@link ShrinkageRule} で閾値を選ぶ。</li>
+ * <li>帯域の係数を軟閾値処理（既定）または硬閾値処理して再構成する。スケーリング係数は変更しない。</li>
+ * </ol>
+ * フォーク／ジョインプールを設定すると、チャネルごとの処理と、チャネルの中の帯域ごとの閾値の選択と縮退を並列に行う。
+ * 帯域はそれぞれ独立に逐次と同じ順序で計算するので、並列度によらず結果は完全に一致する。</p>
+ *
+ * @see ShrinkageRule
+ * @see DiscreteWavelet2dPyramid
+ */
+public class WaveletDenoiser {
+
+    /**
+     * 正規分布に従う値の絶対値の中央値と標準偏差の比である（雑音の推定に用いる）。
+     */
+    private static final double MEDIAN_ABSOLUTE_DEVIATION = 0.6745;
+
+    protected ShrinkageRule shrinkageRule = ShrinkageRule.BAYES_SHRINK;
+
+    protected int levels = 3;
+
+    protected boolean softThresholding = true;
+
+    protected FilterBank filterBank = FilterBank.daubechies(4);
+
+    protected ForkJoinPool forkJoinPool = null;
+
+    public ShrinkageRule shrinkageRule() {
+        return this.shrinkageRule;
+    }
+
+    public void shrinkageRule(ShrinkageRule aShrinkageRule) {
+        if (aShrinkageRule == null) {
+            throw new IllegalArgumentException("shrinkage rule must not be null.");
+        }
+        this.shrinkageRule = aShrinkageRule;
+    }
+
+    public int levels() {
+        return this.levels;
+    }
+
+    /**
+     * 分解する段数を設定する。短い辺の長さの2を底とする対数（切り捨て）を超える場合は、その段数までにとどめる。
+     *
+     * @param levels 段数（1 以上）
+     */
+    public void levels(int levels) {
+        if (levels < 1) {
+            throw new IllegalArgumentException("levels must be positive.");
+        }
+        this.levels = levels;
+    }
+
+    public boolean softThresholding() {
+        return this.softThresholding;
+    }
+
+    /**
+     * 軟閾値処理（true、絶対値を閾値だけ 0 に近づける）と硬閾値処理（false、閾値以下を 0 にするだけ）を切り替える。
+     *
+     * @param softThresholding 軟閾値処理なら true
+     */
+    public void softThresholding(boolean softThresholding) {
+        this.softThresholding = softThresholding;
+    }
+
+    public FilterBank filterBank() {
+        return this.filterBank;
+    }
+
+    public void filterBank(FilterBank aFilterBank) {
+        if (aFilterBank == null) {
+            throw new IllegalArgumentException("filter bank must not be null.");
+        }
+        this.filterBank = aFilterBank;
+    }
+
+    public ForkJoinPool forkJoinPool() {
+        return this.forkJoinPool;
+    }
+
+    /**
+     * チャネル・帯域ごとの処理と、分解・再構成の行・列の処理に用いるフォーク／ジョインプールを設定する。null なら逐次に計算する。
+     *
+     * @param aForkJoinPool フォーク／ジョインプール
+     */
+    public void forkJoinPool(ForkJoinPool aForkJoinPool) {
+        this.forkJoinPool = aForkJoinPool;
+    }
+
+    /**
+     * 帯域の係数の絶対値の中央値から、雑音の標準偏差を推定する。最も細かい対角の帯域は信号の成分をほとんど含まないので、これを与える。
+     *
+     * @param aSubband 帯域の係数の行列（ビューでもよい、変更されない）
+     * @return 雑音の標準偏差の推定値
+     */
+    public static double noiseLevel(CoefficientMatrix aSubband) {
+        int count = aSubband.rowSize() * aSubband.columnSize();
+        if (count == 0) {
+            throw new IllegalArgumentException("subband must not be empty.");
+        }
+        double[] magnitudes = new double[count];
+        int index = 0;
+        for (int row = 0; row < aSubband.rowSize(); row++) {
+            for (int column = 0; column < aSubband.columnSize(); column++) {
+                magnitudes[index++] = Math.abs(aSubband.at(row, column));
+            }
+        }
+        Arrays.sort(magnitudes);
+        double median = count % 2 == 1 ? magnitudes[count / 2] : (magnitudes[count / 2 - 1] + magnitudes[count / 2]) / 2.0;
+        return median / MEDIAN_ABSOLUTE_DEVIATION;
+    }
+
+    /**
+     * 行列の雑音を除去した行列を応答する。元の行列は変更しない。1段も分解できない大きさ（辺の長さが 1）なら複写をそのまま応答する。
+     * 辺の長さが 2^levels の倍数でなければ、端で折り返して対称に延長（{@link BoundaryMode#SYMMETRIC} と同じ半標本対称）してから分解し、
+     * 再構成した行列を元の大きさに切り出す。
+     *
+     * @param aMatrix 雑音を含む行列
+     * @return 雑音を除去した行列
+     */
+    public double[][] denoise(double[][] aMatrix) {
+        int rows = aMatrix.length;
+        int columns = aMatrix[0].length;
+        int levelCount = Math.min(this.levels, 31 - Integer.numberOfLeadingZeros(Math.min(rows, columns)));
+        if (levelCount == 0) {
+            return CoefficientMatrix.fromArray(aMatrix).toArray();
+        }
+        int block = 1 << levelCount;
+        int paddedRows = (rows + block - 1) / block * block;
+        int paddedColumns = (columns + block - 1) / block * block;
+        double[][] source = aMatrix;
+        if (paddedRows != rows || paddedColumns != columns) {
+            source = new double[paddedRows][paddedColumns];
+            for (int row = 0; row < paddedRows; row++) {
+                double[] sourceRow = aMatrix[reflect(row, rows)];
+                for (int column = 0; column < paddedColumns; column++) {
+                    source[row][column] = sourceRow[reflect(column, columns)];
+                }
+            }
+        }
+        DiscreteWavelet2dPyramid aPyramid = new DiscreteWavelet2dPyramid(source, levelCount);
+        aPyramid.forkJoinPool(this.forkJoinPool);
+        aPyramid.filterBank(this.filterBank);
+        this.shrink(aPyramid);
+        if (source == aMatrix) {
+            return aPyramid.recomposedCoefficients();
+        }
+        return aPyramid.recomposedMatrix(0).subMatrix(0, 0, rows, columns).toArray();
+    }
+
+    /**
+     * チャネルごと（{@link Wavelet2dModel} の輝度・RGB の並びなど）に雑音を除去する。null のチャネルは null のまま応答する。
+     * プールが設定されていれば、チャネルを並列に処理する。
+     *
+     * @param channels チャネルごとの行列（要素は null でもよい）
+     * @return チャネルごとの雑音を除去した行列
+     */
+    public double[][][] denoise(double[][][] channels) {
+        double[][][] result = new double[channels.length][][];
+        List<Runnable> tasks = new ArrayList<>();
+        for (int channel = 0; channel < channels.length; channel++) {
+            if (channels[channel] != null) {
+                int index = channel;
+                tasks.add(() -> result[index] = this.denoise(channels[index]));
+            }
+        }
+        this.invokeAll(tasks);
+        return result;
+    }
+
+    /**
+     * 分解済みのピラミッドの各段の各帯域の閾値を応答する。雑音は第1段の対角の帯域から推定する。
+     *
+     * @param aPyramid 分解済みのピラミッド（変更されない）
+     * @return 閾値（[段 - 1][水平, 垂直, 対角]）
+     */
+    public double[][] thresholds(DiscreteWavelet2dPyramid aPyramid) {
+        if (aPyramid.levels() < 1) {
+            throw new IllegalArgumentException("pyramid must have at least one level.");
+        }
+        double sigma = noiseLevel(aPyramid.levelMatrix(1).diagonal());
+        long sampleCount = (long) aPyramid.rows() * aPyramid.columns();
+        double[][] thresholds = new double[aPyramid.levels()][3];
+        List<Runnable> tasks = new ArrayList<>();
+        for (int level = 1; level <= aPyramid.levels(); level++) {
+            CoefficientMatrix[] subbands = subbands(aPyramid, level);
+            for (int band = 0; band < 3; band++) {
+                CoefficientMatrix aSubband = subbands[band];
+                double[] levelThresholds = thresholds[level - 1];
+                int index = band;
+                tasks.add(() -> levelThresholds[index] = this.shrinkageRule.threshold(aSubband, sigma, sampleCount));
+            }
+        }
+        this.invokeAll(tasks);
+        return thresholds;
+    }
+
+    /**
+     * 分解済みのピラミッドの各帯域を、{@link #thresholds(DiscreteWavelet2dPyramid)} の閾値でその場で縮退させる。
+     *
+     * @param aPyramid 分解済みのピラミッド（ウェーブレット係数が書き換えられる）
+     */
+    public void shrink(DiscreteWavelet2dPyramid aPyramid) {
+        double[][] thresholds = this.thresholds(aPyramid);
+        List<Runnable> tasks = new ArrayList<>();
+        for (int level = 1; level <= aPyramid.levels(); level++) {
+            CoefficientMatrix[] subbands = subbands(aPyramid, level);
+            for (int band = 0; band < 3; band++) {
+                CoefficientMatrix aSubband = subbands[band];
+                double threshold = thresholds[level - 1][band];
+                tasks.add(() -> this.shrink(aSubband, threshold));
+            }
+        }
+        this.invokeAll(tasks);
+    }
+
+    /**
+     * 帯域の係数をその場で閾値処理する。
+     *
+     * @param aSubband 帯域の係数の行列（ビューでもよい）
+     * @param threshold 閾値
+     */
+    public void shrink(CoefficientMatrix aSubband, double threshold) {
+        double[] values = aSubband.values();
+        for (int row = 0; row < aSubband.rowSize(); row++) {
+            int base = aSubband.indexOf(row, 0);
+            for (int index = base; index < base + aSubband.columnSize(); index++) {
+                double magnitude = Math.abs(values[index]);
+                if (magnitude <= threshold) {
+                    values[index] = 0.0;
+                } else if (this.softThresholding) {
+                    values[index] = Math.signum(values[index]) * (magnitude - threshold);
+                }
+            }
+        }
+    }
+
+    /**
+     * 長さ length の信号を端で折り返して（{@code x[-1] = x[0]}、{@code x[n] = x[n-1]}）延長したときの、位置 index の標本の添字を応答する。
+     */
+    private static int reflect(int index, int length) {
+        int phase = index % (2 * length);
+        return phase < length ? phase : 2 * length - 1 - phase;
+    }
+
+    /**
+     * 第 level 段の {水平, 垂直, 対角} の帯域のビューを応答する。
+     */
+    private static CoefficientMatrix[] subbands(DiscreteWavelet2dPyramid aPyramid, int level) {
+        CoefficientMatrix levelMatrix = aPyramid.levelMatrix(level);
+        return new CoefficientMatrix[] {levelMatrix.horizontal(), levelMatrix.vertical(), levelMatrix.diagonal()};
+    }
+
+    /**
+     * 互いに独立な処理を、プールが設定されていれば並列に、なければ順に実行し、すべて終わるまで待つ。
+     */
+    private void invokeAll(List<Runnable> tasks) {
+        if (this.forkJoinPool == null || tasks.size() < 2) {
+            tasks.forEach(Runnable::run);
+            return;
+        }
+        List<ForkJoinTask<?>> submitted = new ArrayList<>();
+        for (Runnable task : tasks) {
+            submitted.add(this.forkJoinPool.submit(task));
+        }
+        submitted.forEach(ForkJoinTask::join);
+    }
+}
@@ -0,0 +1,29 @@
+package wavelet;
+
+/**
+ * 離散ウェーブレット変換の係数計算に用いる演算方式を表す列挙型である。
+ * {@link DiscreteWaveletTransformation#engine(WaveletEngine)} に渡すことで、
+ * 同じフィルターのまま計算方法だけを切り替えることができる。
+ *
+ * @see DiscreteWaveletTransformation
+ * @see LiftingScheme
+ */
+public enum WaveletEngine {
+    /**
+     * スケーリング係数列とウェーブレット係数列による直接の畳み込みで計算する（従来の方式）。
+     */
+    CONVOLUTION,
+
+    /**
+     * リフティングスキーム（予測・更新ステップの積）で計算する。
+     * 乗算回数がおよそ半分になり、作業バッファ上でその場（in-place）計算できる。
+     */
+    LIFTING,
+
+    /**
+     * Vector API（{@code jdk.incubator.vector}）で SIMD 化した畳み込みで計算する（{@link ConvolutionKernel#vector()}）。
+     * 結果は {@link #CONVOLUTION} と完全に一致する。インキュベータモジュールが読み込まれていない環境では、
+     * 自動的に {@link #CONVOLUTION} と同じスカラーの畳み込みで計算する。
+     */
+    VECTOR
+}
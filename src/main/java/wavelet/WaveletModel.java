@@ -3,6 +3,7 @@ package wavelet;
 import java.awt.Point;
 import java.awt.event.ActionEvent;
 import java.awt.event.MouseEvent;
+import java.util.concurrent.ForkJoinPool;
 import mvc.Model;
 
 /**
@@ -14,6 +15,40 @@ public class WaveletModel extends Model {
 	// 計算の精度を表す定数
 	public static double accuracy = 1.0E-5d;
 
+	// チャネルごとの変換や画像の生成を並行に実行するための、すべてのモデルで共有する計算用のプール
+	private static final ForkJoinPool COMPUTE_EXECUTOR = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+	/**
+	 * すべてのモデルで共有する計算用のプールを応答する。
+	 * プールのスレッドはデーモンスレッドなので、アプリケーションの終了を妨げない。
+	 * @return 計算用のフォーク／ジョインプール
+	 */
+	public static ForkJoinPool computeExecutor() {
+		return COMPUTE_EXECUTOR;
+	}
+
+	// 変換に用いるフィルターバンク（既定は Daubechies 4タップ）
+	protected FilterBank filterBank = FilterBank.daubechies(4);
+
+	/**
+	 * 変換に用いるフィルターバンクを応答する。
+	 * @return フィルターバンク
+	 */
+	public FilterBank filterBank() {
+		return this.filterBank;
+	}
+
+	/**
+	 * 変換に用いるフィルターバンクを設定する。次にソースデータを設定したときから有効になる。
+	 * @param aFilterBank フィルターバンク（{@link FilterBank#named(String)} などで得る）
+	 */
+	public void filterBank(FilterBank aFilterBank) {
+		if (aFilterBank == null) {
+			throw new IllegalArgumentException("filter bank must not be null.");
+		}
+		this.filterBank = aFilterBank;
+	}
+
 	/**
 	 * アクションイベントに対する処理を行う。
 	 * GUIイベントなどのアクションに応答するために使用される。
@@ -0,0 +1,340 @@
+package wavelet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 1次元のウェーブレットパケット分解と、情報コストによる最良基底の選択を実装するクラス。
+ * ピラミッドではスケーリング係数だけを再帰的に分解するが、パケットではウェーブレット係数の側も分解し、
+ * 深さ levels までの二分木の節点から、コスト（{@link PacketCost}）の和が最小になる基底を選ぶ。
+ *
+ * <p>
+ * 第 j 段の節点 i は長さ n / 2^j の係数で、選ばれた基底の節点は詰め込み配列の位置 {@code i × n / 2^j} から並ぶ
+ * （すべての節点が第 levels 段なら完全なパケット分解、0, 1 の低域側だけを分解したものが {@link DiscreteWavelet1dPyramid} と同じ配置になる）。
+ * 分解は各節点の範囲で {@link #decompose(double[], int, int, int, double[])} をその場で適用する。</p>
+ *
+ * <p>
+ * 探索は深さ優先で、節点ごとに自分のコストと、子の部分木の最良基底のコストの和を比べる。子を採らない場合は、
+ * 分解前に退避しておいた節点の係数を書き戻して子の部分木をその場で捨てる。したがって木全体の係数を同時に持つことはなく、
+ * 詰め込み配列のほかに必要なのは探索中の経路上の退避分だけである。兄弟の部分木は互いに独立なので、
+ * フォーク／ジョインプール（{@link #forkJoinPool(java.util.concurrent.ForkJoinPool)}）を設定すると、
+ * 十分に大きい節点の子をタスクに分けてワークスティーリングで並列に探索する。結果は並列度によらず完全に一致する。</p>
+ *
+ * @see WaveletPacket2dTransformation
+ * @see PacketCost
+ */
+public class WaveletPacket1dTransformation extends DiscreteWaveletTransformation {
+
+    /**
+     * 子の探索をタスクに分ける節点の長さの下限である。
+     */
+    private static final int FORK_THRESHOLD = 1 << 12;
+
+    /**
+     * 最良基底に選ばれた節点である。
+     */
+    public static final class Node {
+
+        private final int level;
+
+        private final int index;
+
+        private final int length;
+
+        private Node(int level, int index, int length) {
+            this.level = level;
+            this.index = index;
+            this.length = length;
+        }
+
+        /**
+         * 節点の段（0 が元の信号）を応答する。
+         *
+         * @return 段
+         */
+        public int level() {
+            return this.level;
+        }
+
+        /**
+         * 段の中での節点の番号（0 .. 2^level - 1）を応答する。
+         *
+         * @return 番号
+         */
+        public int index() {
+            return this.index;
+        }
+
+        /**
+         * 詰め込み配列の中で節点の係数が始まる位置を応答する。
+         *
+         * @return 先頭位置
+         */
+        public int offset() {
+            return this.index * this.length;
+        }
+
+        public int length() {
+            return this.length;
+        }
+    }
+
+    protected double[] sourceCoefficients;
+
+    protected double[] coefficients;
+
+    protected int levels;
+
+    protected PacketCost costFunction;
+
+    protected double cost;
+
+    private byte[] leafLevels; // 第 levels 段の各節点の位置を覆う、基底の節点の段
+
+    public WaveletPacket1dTransformation(double[] paramArrayOfdouble, int levels) {
+        this.initialize();
+        this.levels(levels);
+        this.sourceCoefficients(paramArrayOfdouble);
+    }
+
+    @Override
+    protected void initialize() {
+        super.initialize();
+        this.sourceCoefficients = null;
+        this.coefficients = null;
+        this.levels = 1;
+        this.costFunction = PacketCost.SHANNON;
+        this.cost = 0.0;
+        this.leafLevels = null;
+    }
+
+    public int levels() {
+        return this.levels;
+    }
+
+    public void levels(int levels) {
+        if (levels < 0 || levels > 30) {
+            throw new IllegalArgumentException("levels must be between 0 and 30.");
+        }
+        this.levels = levels;
+        if (this.sourceCoefficients != null) {
+            this.checkLength(this.sourceCoefficients.length);
+            this.coefficients = null;
+        }
+    }
+
+    public double[] sourceCoefficients() {
+        return this.sourceCoefficients;
+    }
+
+    public void sourceCoefficients(double[] paramArrayOfdouble) {
+        this.checkLength(paramArrayOfdouble.length);
+        this.sourceCoefficients = paramArrayOfdouble;
+        this.coefficients = null;
+    }
+
+    public PacketCost costFunction() {
+        return this.costFunction;
+    }
+
+    public void costFunction(PacketCost aPacketCost) {
+        if (aPacketCost == null) {
+            throw new IllegalArgumentException("cost function must not be null.");
+        }
+        this.costFunction = aPacketCost;
+        this.coefficients = null;
+    }
+
+    @Override
+    public void filterBank(FilterBank aFilterBank) {
+        super.filterBank(aFilterBank);
+        if (this.sourceCoefficients != null) {
+            this.coefficients = null;
+        }
+    }
+
+    /**
+     * 最良基底の節点の係数を並べた詰め込み配列を応答する。配列はこのオブジェクトと共有されており、
+     * 要素を書き換えると以降の再構成に反映される。
+     *
+     * @return 詰め込み配置の係数配列
+     */
+    public double[] coefficients() {
+        if (this.coefficients == null) {
+            this.computeCoefficients();
+        }
+        return this.coefficients;
+    }
+
+    /**
+     * 最良基底のコスト（基底の節点のコストの和）を応答する。
+     *
+     * @return コスト
+     */
+    public double cost() {
+        this.coefficients();
+        return this.cost;
+    }
+
+    /**
+     * 最良基底の節点を詰め込み配列の中の位置の順に応答する。
+     *
+     * @return 基底の節点のリスト
+     */
+    public List<Node> basis() {
+        double[] arrayOfDouble = this.coefficients();
+        List<Node> nodes = new ArrayList<>();
+        int position = 0;
+        while (position < this.leafLevels.length) {
+            int level = this.leafLevels[position];
+            int span = 1 << (this.levels - level);
+            nodes.add(new Node(level, position / span, arrayOfDouble.length >> level));
+            position += span;
+        }
+        return nodes;
+    }
+
+    /**
+     * 最良基底の節点の係数の複写を応答する。
+     *
+     * @param aNode 基底の節点（{@link #basis()} の要素）
+     * @return 節点の係数
+     */
+    public double[] nodeCoefficients(Node aNode) {
+        double[] arrayOfDouble = this.coefficients();
+        return Arrays.copyOfRange(arrayOfDouble, aNode.offset(), aNode.offset() + aNode.length());
+    }
+
+    /**
+     * 最良基底の係数から元の信号を再構成する。詰め込み配列は変更しない。
+     *
+     * @return 再構成した信号
+     */
+    public double[] recomposedCoefficients() {
+        double[] arrayOfDouble = this.coefficients();
+        double[] recomposed = arrayOfDouble.clone();
+        this.recomposeNode(recomposed, 0, 0, new double[recomposed.length]);
+        return recomposed;
+    }
+
+    @Override
+    public WaveletTransformation applyTo(Object anObject) {
+        if (!(anObject instanceof double[])) {
+            throw new IllegalArgumentException("anObject must be a double[].");
+        }
+        this.sourceCoefficients((double[]) anObject);
+        this.coefficients();
+        return this;
+    }
+
+    @Override
+    public WaveletTransformation transform(WaveletTransformation aWaveletTransformation) {
+        if (!(aWaveletTransformation instanceof WaveletPacket1dTransformation)) {
+            throw new IllegalArgumentException("waveletTransformation must be a WaveletPacket1dTransformation.");
+        }
+        WaveletPacket1dTransformation aTransformation = (WaveletPacket1dTransformation) aWaveletTransformation;
+        double[] arrayOfDouble = aTransformation.sourceCoefficients();
+        if (arrayOfDouble == null) {
+            arrayOfDouble = aTransformation.recomposedCoefficients();
+        }
+        WaveletPacket1dTransformation result = new WaveletPacket1dTransformation(arrayOfDouble, this.levels);
+        result.engine(this.engine);
+        result.forkJoinPool(this.forkJoinPool);
+        result.costFunction(this.costFunction);
+        result.filterBank(this.filterBank);
+        return result;
+    }
+
+    /**
+     * 元の信号を詰め込み配列に写し、根の節点から最良基底を探索する。
+     */
+    protected void computeCoefficients() {
+        if (this.sourceCoefficients == null) {
+            return;
+        }
+        double[] arrayOfDouble = this.sourceCoefficients.clone();
+        this.leafLevels = new byte[1 << this.levels];
+        if (this.forkJoinPool == null) {
+            this.cost = this.search(arrayOfDouble, 0, 0);
+        } else {
+            this.cost = this.forkJoinPool.invoke(new NodeTask(arrayOfDouble, 0, 0));
+        }
+        this.coefficients = arrayOfDouble;
+    }
+
+    /**
+     * 第 level 段の節点 index の部分木の最良基底を探索し、そのコストを応答する。
+     * 節点の係数はその場で最良基底の係数に置き換わる。
+     */
+    private double search(double[] data, int level, int index) {
+        int length = data.length >> level;
+        int offset = index * length;
+        double own = this.costFunction.cost(data, offset, length);
+        if (level < this.levels) {
+            double[] saved = Arrays.copyOfRange(data, offset, offset + length);
+            this.decompose(data, offset, length, 1, new double[length]);
+            double children;
+            if (this.forkJoinPool != null && length >= FORK_THRESHOLD) {
+                NodeTask low = new NodeTask(data, level + 1, index * 2);
+                NodeTask high = new NodeTask(data, level + 1, index * 2 + 1);
+                ForkJoinTask.invokeAll(low, high);
+                children = low.join() + high.join();
+            } else {
+                children = this.search(data, level + 1, index * 2) + this.search(data, level + 1, index * 2 + 1);
+            }
+            if (children < own) {
+                return children;
+            }
+            System.arraycopy(saved, 0, data, offset, length); // 子の部分木を捨てる
+        }
+        int span = 1 << (this.levels - level);
+        Arrays.fill(this.leafLevels, index * span, (index + 1) * span, (byte) level);
+        return own;
+    }
+
+    /**
+     * 第 level 段の節点 index が基底の節点でなければ、子を再構成してから節点を1段階だけ再構成する。
+     */
+    private void recomposeNode(double[] data, int level, int index, double[] work) {
+        if (this.leafLevels[index << (this.levels - level)] == level) {
+            return;
+        }
+        int length = data.length >> level;
+        this.recomposeNode(data, level + 1, index * 2, work);
+        this.recomposeNode(data, level + 1, index * 2 + 1, work);
+        this.recompose(data, index * length, length, 1, work);
+    }
+
+    private void checkLength(int length) {
+        if (length == 0 || length % (1 << this.levels) != 0) {
+            throw new IllegalArgumentException("length must be a multiple of 2^levels.");
+        }
+    }
+
+    /**
+     * 1つの節点の部分木を探索するタスクである。
+     */
+    private final class NodeTask extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient double[] data;
+
+        private final int level;
+
+        private final int index;
+
+        private NodeTask(double[] data, int level, int index) {
+            this.data = data;
+            this.level = level;
+            this.index = index;
+        }
+
+        @Override
+        protected Double compute() {
+            return WaveletPacket1dTransformation.this.search(this.data, this.level, this.index);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package wavelet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 2次元のウェーブレットパケット分解と、情報コストによる最良基底の選択を実装するクラス。
+ * 各節点を {@link DiscreteWavelet2dPyramid} の1段と同じく行、列の順にその場で分解し、4つの帯域すべてを子の節点として
+ * 深さ levels までの四分木から、コスト（{@link PacketCost}）の和が最小になる基底を選ぶ。
+ *
+ * <p>
+ * 第 j 段の節点 (r, c) は行列の {@code (r × rows / 2^j, c × columns / 2^j)} から始まる (rows / 2^j) × (columns / 2^j) の範囲を占める。
+ * 節点を分解すると、左上（スケーリング係数）、1つ目の添字方向の後半（水平）、2つ目の添字方向の後半（垂直）、右下（対角）の
+ * 四半分がそれぞれ子の節点 (2r, 2c)、(2r + 1, 2c)、(2r, 2c + 1)、(2r + 1, 2c + 1) になる。</p>
+ *
+ * <p>
+ * 探索は {@link WaveletPacket1dTransformation} と同じく深さ優先で、子を採らない節点では分解前に退避した係数を書き戻して
+ * 子の部分木をその場で捨てるので、木全体の係数を同時に持つことはない。4つの兄弟の部分木は互いに重ならない範囲を書き換えるので、
+ * フォーク／ジョインプールを設定すると十分に大きい節点の子をタスクに分けて並列に探索する。結果は並列度によらず完全に一致する。</p>
+ *
+ * @see WaveletPacket1dTransformation
+ * @see PacketCost
+ */
+public class WaveletPacket2dTransformation extends DiscreteWaveletTransformation {
+
+    /**
+     * 子の探索をタスクに分ける節点の要素数の下限である。
+     */
+    private static final int FORK_THRESHOLD = 1 << 12;
+
+    /**
+     * 最良基底に選ばれた節点である。
+     */
+    public static final class Node {
+
+        private final int level;
+
+        private final int row;
+
+        private final int column;
+
+        private final int rowSize;
+
+        private final int columnSize;
+
+        private Node(int level, int row, int column, int rowSize, int columnSize) {
+            this.level = level;
+            this.row = row;
+            this.column = column;
+            this.rowSize = rowSize;
+            this.columnSize = columnSize;
+        }
+
+        /**
+         * 節点の段（0 が元の行列）を応答する。
+         *
+         * @return 段
+         */
+        public int level() {
+            return this.level;
+        }
+
+        /**
+         * 段の中での節点の行方向の番号（0 .. 2^level - 1）を応答する。
+         *
+         * @return 行方向の番号
+         */
+        public int row() {
+            return this.row;
+        }
+
+        /**
+         * 段の中での節点の列方向の番号（0 .. 2^level - 1）を応答する。
+         *
+         * @return 列方向の番号
+         */
+        public int column() {
+            return this.column;
+        }
+
+        public int rowSize() {
+            return this.rowSize;
+        }
+
+        public int columnSize() {
+            return this.columnSize;
+        }
+    }
+
+    protected double[][] sourceCoefficients;
+
+    protected CoefficientMatrix coefficientMatrix;
+
+    protected int rows;
+
+    protected int columns;
+
+    protected int levels;
+
+    protected PacketCost costFunction;
+
+    protected double cost;
+
+    private byte[] leafLevels; // 第 levels 段の各節点（2^levels × 2^levels）の位置を覆う、基底の節点の段
+
+    public WaveletPacket2dTransformation(double[][] paramArrayOfdouble, int levels) {
+        this.initialize();
+        this.levels(levels);
+        this.sourceCoefficients(paramArrayOfdouble);
+    }
+
+    @Override
+    protected void initialize() {
+        super.initialize();
+        this.sourceCoefficients = null;
+        this.coefficientMatrix = null;
+        this.rows = 0;
+        this.columns = 0;
+        this.levels = 1;
+        this.costFunction = PacketCost.SHANNON;
+        this.cost = 0.0;
+        this.leafLevels = null;
+    }
+
+    public int levels() {
+        return this.levels;
+    }
+
+    public void levels(int levels) {
+        if (levels < 0 || levels > 15) {
+            throw new IllegalArgumentException("levels must be between 0 and 15.");
+        }
+        this.levels = levels;
+        if (this.sourceCoefficients != null) {
+            this.checkSize(this.rows, this.columns);
+            this.coefficientMatrix = null;
+        }
+    }
+
+    public int rows() {
+        return this.rows;
+    }
+
+    public int columns() {
+        return this.columns;
+    }
+
+    public double[][] sourceCoefficients() {
+        return this.sourceCoefficients;
+    }
+
+    public void sourceCoefficients(double[][] paramArrayOfdouble) {
+        int rowSize = paramArrayOfdouble.length;
+        int columnSize = rowSize == 0 ? 0 : paramArrayOfdouble[0].length;
+        this.checkSize(rowSize, columnSize);
+        this.sourceCoefficients = paramArrayOfdouble;
+        this.rows = rowSize;
+        this.columns = columnSize;
+        this.coefficientMatrix = null;
+    }
+
+    public PacketCost costFunction() {
+        return this.costFunction;
+    }
+
+    public void costFunction(PacketCost aPacketCost) {
+        if (aPacketCost == null) {
+            throw new IllegalArgumentException("cost function must not be null.");
+        }
+        this.costFunction = aPacketCost;
+        this.coefficientMatrix = null;
+    }
+
+    @Override
+    public void filterBank(FilterBank aFilterBank) {
+        super.filterBank(aFilterBank);
+        if (this.sourceCoefficients != null) {
+            this.coefficientMatrix = null;
+        }
+    }
+
+    /**
+     * 最良基底の節点の係数を並べた行列を応答する。行列はこのオブジェクトと共有されており、
+     * 要素を書き換えると以降の再構成に反映される。
+     *
+     * @return 最良基底の係数の行列
+     */
+    public CoefficientMatrix coefficientMatrix() {
+        if (this.coefficientMatrix == null) {
+            this.computeCoefficients();
+        }
+        return this.coefficientMatrix;
+    }
+
+    public double[][] coefficients() {
+        return this.coefficientMatrix().toArray();
+    }
+
+    /**
+     * 最良基底のコスト（基底の節点のコストの和）を応答する。
+     *
+     * @return コスト
+     */
+    public double cost() {
+        this.coefficientMatrix();
+        return this.cost;
+    }
+
+    /**
+     * 最良基底の節点を、第 levels 段の格子を行優先にたどって最初に現れる順に応答する。
+     *
+     * @return 基底の節点のリスト
+     */
+    public List<Node> basis() {
+        this.coefficientMatrix();
+        int grid = 1 << this.levels;
+        List<Node> nodes = new ArrayList<>();
+        for (int position = 0; position < this.leafLevels.length; position++) {
+            int level = this.leafLevels[position];
+            int span = 1 << (this.levels - level);
+            int gridRow = position / grid;
+            int gridColumn = position % grid;
+            if (gridRow % span == 0 && gridColumn % span == 0) {
+                nodes.add(new Node(level, gridRow / span, gridColumn / span, this.rows >> level, this.columns >> level));
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * 最良基底の節点の範囲のビューを応答する。
+     *
+     * @param aNode 基底の節点（{@link #basis()} の要素）
+     * @return 節点の係数を共有する行列
+     */
+    public CoefficientMatrix nodeMatrix(Node aNode) {
+        return this.region(this.coefficientMatrix(), aNode.level(), aNode.row(), aNode.column());
+    }
+
+    /**
+     * 最良基底の係数から元の行列を再構成する。係数の行列は変更しない。
+     *
+     * @return 再構成した行列
+     */
+    public double[][] recomposedCoefficients() {
+        CoefficientMatrix recomposed = this.coefficientMatrix().copy();
+        this.recomposeNode(recomposed, 0, 0, 0, new double[this.workLength(this.rows, this.columns)]);
+        return recomposed.toArray();
+    }
+
+    @Override
+    public WaveletTransformation applyTo(Object anObject) {
+        if (!(anObject instanceof double[][])) {
+            throw new IllegalArgumentException("anObject must be a double[][].");
+        }
+        this.sourceCoefficients((double[][]) anObject);
+        this.coefficientMatrix();
+        return this;
+    }
+
+    @Override
+    public WaveletTransformation transform(WaveletTransformation aWaveletTransformation) {
+        if (!(aWaveletTransformation instanceof WaveletPacket2dTransformation)) {
+            throw new IllegalArgumentException("waveletTransformation must be a WaveletPacket2dTransformation.");
+        }
+        WaveletPacket2dTransformation aTransformation = (WaveletPacket2dTransformation) aWaveletTransformation;
+        double[][] arrayOfDouble = aTransformation.sourceCoefficients();
+        if (arrayOfDouble == null) {
+            arrayOfDouble = aTransformation.recomposedCoefficients();
+        }
+        WaveletPacket2dTransformation result = new WaveletPacket2dTransformation(arrayOfDouble, this.levels);
+        result.engine(this.engine);
+        result.columnTileWidth(this.columnTileWidth);
+        result.forkJoinPool(this.forkJoinPool);
+        result.costFunction(this.costFunction);
+        result.filterBank(this.filterBank);
+        return result;
+    }
+
+    /**
+     * 元の行列を係数の行列に写し、根の節点から最良基底を探索する。
+     */
+    protected void computeCoefficients() {
+        if (this.sourceCoefficients == null) {
+            return;
+        }
+        CoefficientMatrix aCoefficientMatrix = CoefficientMatrix.fromArray(this.sourceCoefficients);
+        this.leafLevels = new byte[1 << (this.levels * 2)];
+        if (this.forkJoinPool == null) {
+            this.cost = this.search(aCoefficientMatrix, 0, 0, 0);
+        } else {
+            this.cost = this.forkJoinPool.invoke(new NodeTask(aCoefficientMatrix, 0, 0, 0));
+        }
+        this.coefficientMatrix = aCoefficientMatrix;
+    }
+
+    /**
+     * 第 level 段の節点 (row, column) の部分木の最良基底を探索し、そのコストを応答する。
+     * 節点の範囲はその場で最良基底の係数に置き換わる。
+     */
+    private double search(CoefficientMatrix aCoefficientMatrix, int level, int row, int column) {
+        CoefficientMatrix region = this.region(aCoefficientMatrix, level, row, column);
+        double own = this.costFunction.cost(region);
+        if (level < this.levels) {
+            CoefficientMatrix saved = region.copy();
+            double[] work = new double[this.workLength(region.rowSize(), region.columnSize())];
+            this.decomposeRows(region, work);
+            this.decomposeColumns(region, work);
+            double children;
+            if (this.forkJoinPool != null && region.rowSize() * region.columnSize() >= FORK_THRESHOLD) {
+                NodeTask[] tasks = new NodeTask[4];
+                for (int child = 0; child < 4; child++) {
+                    tasks[child] = new NodeTask(aCoefficientMatrix, level + 1, row * 2 + (child & 1), column * 2 + (child >> 1));
+                }
+                ForkJoinTask.invokeAll(tasks);
+                children = tasks[0].join() + tasks[1].join() + tasks[2].join() + tasks[3].join();
+            } else {
+                children = 0.0;
+                for (int child = 0; child < 4; child++) {
+                    children += this.search(aCoefficientMatrix, level + 1, row * 2 + (child & 1), column * 2 + (child >> 1));
+                }
+            }
+            if (children < own) {
+                return children;
+            }
+            region.copyFrom(saved); // 子の部分木を捨てる
+        }
+        int grid = 1 << this.levels;
+        int span = 1 << (this.levels - level);
+        for (int gridRow = row * span; gridRow < (row + 1) * span; gridRow++) {
+            for (int gridColumn = column * span; gridColumn < (column + 1) * span; gridColumn++) {
+                this.leafLevels[gridRow * grid + gridColumn] = (byte) level;
+            }
+        }
+        return own;
+    }
+
+    /**
+     * 第 level 段の節点 (row, column) が基底の節点でなければ、子を再構成してから節点を1段階だけ再構成する。
+     */
+    private void recomposeNode(CoefficientMatrix aCoefficientMatrix, int level, int row, int column, double[] work) {
+        int span = 1 << (this.levels - level);
+        if (this.leafLevels[(row * span << this.levels) + column * span] == level) {
+            return;
+        }
+        for (int child = 0; child < 4; child++) {
+            this.recomposeNode(aCoefficientMatrix, level + 1, row * 2 + (child & 1), column * 2 + (child >> 1), work);
+        }
+        CoefficientMatrix region = this.region(aCoefficientMatrix, level, row, column);
+        this.recomposeColumns(region, work);
+        this.recomposeRows(region, work);
+    }
+
+    private CoefficientMatrix region(CoefficientMatrix aCoefficientMatrix, int level, int row, int column) {
+        int rowSize = this.rows >> level;
+        int columnSize = this.columns >> level;
+        return aCoefficientMatrix.subMatrix(row * rowSize, column * columnSize, rowSize, columnSize);
+    }
+
+    private void checkSize(int rowSize, int columnSize) {
+        int i = 1 << this.levels;
+        if (rowSize == 0 || columnSize == 0 || rowSize % i != 0 || columnSize % i != 0) {
+            throw new IllegalArgumentException("rows and columns must be multiples of 2^levels.");
+        }
+    }
+
+    /**
+     * 1つの節点の部分木を探索するタスクである。
+     */
+    private final class NodeTask extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient CoefficientMatrix coefficientMatrix;
+
+        private final int level;
+
+        private final int row;
+
+        private final int column;
+
+        private NodeTask(CoefficientMatrix aCoefficientMatrix, int level, int row, int column) {
+            this.coefficientMatrix = aCoefficientMatrix;
+            this.level = level;
+            this.row = row;
+            this.column = column;
+        }
+
+        @Override
+        protected Double compute() {
+            return WaveletPacket2dTransformation.this.search(this.coefficientMatrix, this.level, this.row, this.column);
+        }
+    }
+}
@@ -391,4 +391,32 @@ class ImageUtilityTest {
             assertFalse(errContent.toString().isEmpty(), "Stack trace should be printed to stderr");
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("convertImageToRGBPlanes() and convertRGBPlanesToImage() round trip")
+    void testRGBPlanesRoundTrip() {
+        BufferedImage anImage = new BufferedImage(5, 3, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 5; x++) {
+                anImage.setRGB(x, y, new Color(x * 50, y * 100, (x + y) * 20).getRGB());
+            }
+        }
+        int[][] planes = ImageUtility.convertImageToRGBPlanes(anImage);
+        assertEquals(3, planes.length);
+        assertEquals(15, planes[0].length);
+        assertEquals(4 * 50, planes[0][2 * 5 + 4]);
+        assertEquals(2 * 100, planes[1][2 * 5 + 4]);
+        assertEquals(6 * 20, planes[2][2 * 5 + 4]);
+
+        BufferedImage restored = ImageUtility.convertRGBPlanesToImage(planes, 5, 3);
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 5; x++) {
+                assertEquals(anImage.getRGB(x, y), restored.getRGB(x, y), "Pixels should survive the round trip");
+            }
+        }
+
+        planes[0][0] = 300;
+        planes[1][0] = -5;
+        assertEquals(new Color(255, 0, 0).getRGB(), ImageUtility.convertRGBPlanesToImage(planes, 5, 3).getRGB(0, 0), "Values should be clamped");
+    }
+}
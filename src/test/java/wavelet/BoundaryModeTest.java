@@ -0,0 +1,171 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class BoundaryModeTest {
+
+    private static final double DELTA = 1e-9; // 浮動小数点比較の許容誤差
+
+    private static double[] randomSignal(int length, long seed) {
+        Random random = new Random(seed);
+        double[] signal = new double[length];
+        for (int i = 0; i < length; i++) {
+            signal[i] = random.nextDouble() - 0.5;
+        }
+        return signal;
+    }
+
+    @Test
+    void testPeriodicSplitMatchesModulo() {
+        for (String name : FilterBank.names()) {
+            FilterBank bank = FilterBank.named(name);
+            double[] h = bank.scalingFilter();
+            double[] g = bank.waveletFilter();
+            double[] ht = bank.synthesisScalingFilter();
+            double[] gt = bank.synthesisWaveletFilter();
+            for (int length = 2; length <= 48; length += 2) {
+                double[] signal = randomSignal(length, length * 17L + h.length);
+                int half = length / 2;
+                double[] expected = new double[length];
+                for (int b = 0; b < half; b++) {
+                    for (int k = 0; k < h.length; k++) {
+                        expected[b] += h[k] * signal[(k + 2 * b) % length];
+                        expected[half + b] += g[k] * signal[(k + 2 * b) % length];
+                    }
+                }
+                double[] actual = new double[length];
+                ConvolutionKernel.scalar().analyze(signal, 0, length, h, g, actual, 0, actual, half);
+                assertArrayEquals(expected, actual, 0.0, "剰余で折り返す計算と完全に一致すること（" + name + "、長さ " + length + "）");
+
+                double[] recomposed = new double[length];
+                for (int b = 0; b < half; b++) {
+                    double even = 0.0;
+                    double odd = 0.0;
+                    for (int m = 0; m < ht.length / 2; m++) {
+                        int n = Math.floorMod(b - m, half);
+                        even = even + ht[m * 2] * actual[n] + gt[m * 2] * actual[half + n];
+                        odd = odd + ht[m * 2 + 1] * actual[n] + gt[m * 2 + 1] * actual[half + n];
+                    }
+                    recomposed[b * 2] = even;
+                    recomposed[b * 2 + 1] = odd;
+                }
+                double[] synthesized = new double[length];
+                ConvolutionKernel.scalar().synthesize(actual, 0, actual, half, half, ht, gt, synthesized, 0);
+                assertArrayEquals(recomposed, synthesized, 0.0, "剰余で折り返す計算と完全に一致すること（" + name + "、長さ " + length + "）");
+
+                DiscreteWavelet1dTransformation transformation = new DiscreteWavelet1dTransformation(new double[2]);
+                transformation.filterBank(bank);
+                double[] strided = new double[length * 2];
+                for (int index = 0; index < length; index++) {
+                    strided[index * 2] = signal[index];
+                }
+                transformation.decompose(strided, 0, length, 2, new double[length]);
+                for (int index = 0; index < length; index++) {
+                    assertEquals(actual[index], strided[index * 2], 0.0, "間隔のある分解でも一致すること");
+                }
+                transformation.recompose(strided, 0, length, 2, new double[length]);
+                for (int index = 0; index < length; index++) {
+                    assertEquals(recomposed[index], strided[index * 2], 0.0, "間隔のある再構成でも一致すること");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testValueAt() {
+        double[] source = {9.0, 1.0, 2.0, 4.0, 9.0};
+        assertEquals(4.0, BoundaryMode.PERIODIC.valueAt(source, 1, 3, -1));
+        assertEquals(1.0, BoundaryMode.PERIODIC.valueAt(source, 1, 3, 6));
+        assertEquals(1.0, BoundaryMode.SYMMETRIC.valueAt(source, 1, 3, -1));
+        assertEquals(2.0, BoundaryMode.SYMMETRIC.valueAt(source, 1, 3, -2));
+        assertEquals(4.0, BoundaryMode.SYMMETRIC.valueAt(source, 1, 3, 3));
+        assertEquals(2.0, BoundaryMode.SYMMETRIC.valueAt(source, 1, 3, 4));
+        assertEquals(0.0, BoundaryMode.ZERO.valueAt(source, 1, 3, -1));
+        assertEquals(0.0, BoundaryMode.ZERO.valueAt(source, 1, 3, 3));
+        assertEquals(-1.0, BoundaryMode.SMOOTH.valueAt(source, 1, 3, -2));
+        assertEquals(10.0, BoundaryMode.SMOOTH.valueAt(source, 1, 3, 5));
+        assertEquals(2.0, BoundaryMode.SMOOTH.valueAt(source, 2, 1, -3), "長さ 1 では定数で延長すること");
+        assertEquals(8, BoundaryMode.PERIODIC.coefficientLength(16, 6));
+        assertEquals(10, BoundaryMode.SYMMETRIC.coefficientLength(16, 6));
+        assertEquals(10, BoundaryMode.ZERO.coefficientLength(15, 6));
+    }
+
+    @Test
+    void testPerfectReconstruction() {
+        for (BoundaryMode mode : BoundaryMode.values()) {
+            for (String name : FilterBank.names()) {
+                FilterBank bank = FilterBank.named(name);
+                for (int length = 1; length <= 40; length++) {
+                    double[] signal = randomSignal(length, length * 7L + bank.length());
+                    DiscreteWavelet1dTransformation transformation = new DiscreteWavelet1dTransformation(signal);
+                    transformation.filterBank(bank);
+                    transformation.boundaryMode(mode);
+                    transformation.scalingCoefficients();
+                    transformation.waveletCoefficients();
+                    if (mode != BoundaryMode.PERIODIC) {
+                        assertEquals(mode.coefficientLength(length, bank.length()), transformation.scalingCoefficients().length);
+                    }
+                    if (mode != BoundaryMode.PERIODIC || length > 1) {
+                        assertArrayEquals(signal, transformation.recomposedCoefficients(), DELTA, "元の信号に戻ること（" + mode + "、" + name + "、長さ " + length + "）");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testExtensionsAtTheEdges() {
+        double[] constant = new double[21];
+        Arrays.fill(constant, 3.0);
+        DiscreteWavelet1dTransformation symmetric = new DiscreteWavelet1dTransformation(constant);
+        symmetric.boundaryMode(BoundaryMode.SYMMETRIC);
+        for (double value : symmetric.waveletCoefficients()) {
+            assertEquals(0.0, value, DELTA, "定数の信号を対称に延長すると端でもウェーブレット係数が0になること");
+        }
+
+        double[] linear = new double[20];
+        for (int i = 0; i < linear.length; i++) {
+            linear[i] = 0.5 * i - 2.0;
+        }
+        DiscreteWavelet1dTransformation smooth = new DiscreteWavelet1dTransformation(linear);
+        smooth.boundaryMode(BoundaryMode.SMOOTH);
+        for (double value : smooth.waveletCoefficients()) {
+            assertEquals(0.0, value, DELTA, "1次の信号を直線で延長すると D4 のウェーブレット係数が0になること");
+        }
+
+        DiscreteWavelet1dTransformation zero = new DiscreteWavelet1dTransformation(constant);
+        zero.boundaryMode(BoundaryMode.ZERO);
+        double[] wavelet = zero.waveletCoefficients();
+        assertTrue(Math.abs(wavelet[0]) > 0.1, "0で延長すると端のウェーブレット係数が残ること");
+        assertEquals(0.0, wavelet[5], DELTA, "内側のウェーブレット係数は0であること");
+    }
+
+    @Test
+    void testModeIsKept() {
+        double[] signal = randomSignal(13, 3L);
+        DiscreteWavelet1dTransformation transformation = new DiscreteWavelet1dTransformation(signal);
+        transformation.boundaryMode(BoundaryMode.SMOOTH);
+        transformation.engine(WaveletEngine.LIFTING);
+        transformation.scalingCoefficients();
+        transformation.waveletCoefficients();
+        assertArrayEquals(signal, transformation.recomposedCoefficients(), DELTA, "リフティングを指定しても畳み込みで計算すること");
+        DiscreteWavelet1dTransformation result = (DiscreteWavelet1dTransformation) transformation.transform(transformation);
+        assertEquals(BoundaryMode.SMOOTH, result.boundaryMode());
+        assertThrows(IllegalArgumentException.class, () -> transformation.boundaryMode(null));
+
+        DiscreteWavelet1dTransformation restored = new DiscreteWavelet1dTransformation(transformation.scalingCoefficients(), transformation.waveletCoefficients());
+        restored.boundaryMode(BoundaryMode.SMOOTH);
+        double[] recomposed = restored.recomposedCoefficients();
+        assertEquals(14, recomposed.length, "係数だけから再構成すると偶数の長さになること");
+        for (int i = 0; i < 13; i++) {
+            assertEquals(signal[i], recomposed[i], DELTA);
+        }
+    }
+}
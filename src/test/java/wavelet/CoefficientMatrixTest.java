@@ -0,0 +1,113 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+public class CoefficientMatrixTest {
+
+    private static final double DELTA = 1e-9; // 浮動小数点比較の許容誤差
+
+    private static double[][] randomMatrix(int rows, int columns, long seed) {
+        Random random = new Random(seed);
+        double[][] matrix = new double[rows][columns];
+        for (double[] row : matrix) {
+            for (int i = 0; i < columns; i++) {
+                row[i] = random.nextDouble();
+            }
+        }
+        return matrix;
+    }
+
+    private static void assertMatrixEquals(double[][] expected, double[][] actual, String message) {
+        assertEquals(expected.length, actual.length, message);
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], actual[i], DELTA, message);
+        }
+    }
+
+    @Test
+    void testRowMajorLayout() {
+        double[][] source = {{1, 2, 3}, {4, 5, 6}};
+        CoefficientMatrix matrix = CoefficientMatrix.fromArray(source);
+        assertArrayEquals(new double[] {1, 2, 3, 4, 5, 6}, matrix.values(), "行優先で格納されること");
+        assertEquals(3, matrix.rowStride());
+        assertEquals(5.0, matrix.at(1, 1));
+        assertMatrixEquals(source, matrix.toArray(), "2次元配列に戻せること");
+    }
+
+    @Test
+    void testViewsShareBackingArray() {
+        CoefficientMatrix matrix = CoefficientMatrix.fromArray(randomMatrix(4, 6, 1L));
+        CoefficientMatrix column = matrix.column(2);
+        assertSame(matrix.values(), column.values(), "列のビューは同じ配列を共有すること");
+        assertEquals(4, column.rowSize());
+        assertEquals(1, column.columnSize());
+        column.atPut(3, 0, 42.0);
+        assertEquals(42.0, matrix.at(3, 2), "列のビューへの書き込みが元の行列に反映されること");
+
+        CoefficientMatrix row = matrix.row(1);
+        row.fill(-1.0);
+        assertArrayEquals(new double[] {-1, -1, -1, -1, -1, -1}, matrix.toArray()[1], DELTA, "行のビューへの書き込みが元の行列に反映されること");
+
+        CoefficientMatrix sub = matrix.subMatrix(1, 2, 2, 3);
+        assertEquals(matrix.indexOf(1, 2), sub.offset());
+        assertEquals(matrix.at(2, 4), sub.at(1, 2), "部分行列の要素が元の行列と対応すること");
+    }
+
+    @Test
+    void testQuadrants() {
+        double[][] source = randomMatrix(4, 8, 2L);
+        CoefficientMatrix matrix = CoefficientMatrix.fromArray(source);
+        assertEquals(source[0][0], matrix.scaling().at(0, 0));
+        assertEquals(source[2][0], matrix.horizontal().at(0, 0), "水平の帯域は行方向の後半であること");
+        assertEquals(source[0][4], matrix.vertical().at(0, 0), "垂直の帯域は列方向の後半であること");
+        assertEquals(source[3][7], matrix.diagonal().at(1, 3), "対角の帯域は両方の後半であること");
+        assertEquals(2, matrix.diagonal().rowSize());
+        assertEquals(4, matrix.diagonal().columnSize());
+    }
+
+    @Test
+    void testCopy() {
+        CoefficientMatrix matrix = CoefficientMatrix.fromArray(randomMatrix(8, 8, 3L));
+        CoefficientMatrix copy = matrix.diagonal().copy();
+        assertEquals(4, copy.rowStride(), "複写は隙間なく詰められること");
+        assertMatrixEquals(matrix.diagonal().toArray(), copy.toArray(), "内容が複写されること");
+        copy.fill(0.0);
+        assertTrue(matrix.diagonal().maximumAbsolute() > 0.0, "複写は元の行列と配列を共有しないこと");
+
+        CoefficientMatrix target = new CoefficientMatrix(8, 8);
+        target.vertical().copyFrom(matrix.vertical());
+        assertMatrixEquals(matrix.vertical().toArray(), target.vertical().toArray(), "ビュー同士で複写できること");
+        assertEquals(0.0, target.scaling().maximumAbsolute(), "複写先の他の帯域は変わらないこと");
+    }
+
+    @Test
+    void testTransformationMatrixMatchesArrays() {
+        double[][] source = randomMatrix(16, 8, 4L);
+        DiscreteWavelet2dTransformation transformation = new DiscreteWavelet2dTransformation(source);
+        CoefficientMatrix coefficients = transformation.coefficientMatrix();
+        assertMatrixEquals(transformation.scalingCoefficients(), coefficients.scaling().toArray(), "スケーリング係数が一致すること");
+        assertMatrixEquals(transformation.horizontalWaveletCoefficients(), coefficients.horizontal().toArray(), "水平方向の係数が一致すること");
+        assertMatrixEquals(transformation.verticalWaveletCoefficients(), coefficients.vertical().toArray(), "垂直方向の係数が一致すること");
+        assertMatrixEquals(transformation.diagonalWaveletCoefficients(), coefficients.diagonal().toArray(), "対角方向の係数が一致すること");
+        assertMatrixEquals(source, transformation.recomposedMatrix().toArray(), "行列から元の行列に戻ること");
+
+        DiscreteWavelet2dTransformation other = new DiscreteWavelet2dTransformation(CoefficientMatrix.fromArray(source).subMatrix(0, 0, 16, 8));
+        assertArrayEquals(coefficients.values(), other.coefficientMatrix().values(), DELTA, "ビューを元にしても同じ係数になること");
+    }
+
+    @Test
+    void testInvalidArguments() {
+        CoefficientMatrix matrix = new CoefficientMatrix(4, 4);
+        assertThrows(IllegalArgumentException.class, () -> matrix.subMatrix(2, 2, 3, 1));
+        assertThrows(IllegalArgumentException.class, () -> matrix.copyFrom(new double[3][4]));
+        assertThrows(IllegalArgumentException.class, () -> new CoefficientMatrix(new double[10], 0, 3, 4, 4));
+        assertThrows(IllegalArgumentException.class, () -> new CoefficientMatrix(new double[16], 0, 4, 4, 2));
+    }
+}
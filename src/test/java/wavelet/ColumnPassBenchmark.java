@@ -0,0 +1,114 @@
+package wavelet;
+
+import java.util.Random;
+
+/**
+ * 2次元変換の列方向の処理（1段階の分解）にかかる時間を、次の3通りで比較するベンチマークである。
+ * <ul>
+ * <li>transpose: 行列全体を転置し、行方向の1次元変換を適用してから転置し直す（従来の方式）</li>
+ * <li>strided: 列を1本ずつストライドをたどって変換する（列の束の幅 1）</li>
+ * <li>tiled: 列をキャッシュに収まる束に分けてまとめて変換する（{@link DiscreteWaveletTransformation#tileWidth(int, int)}）</li>
+ * </ul>
+ *
+ * <p>
+ * JUnit のテストではなく、{@code ant benchmark} から実行する。引数に一辺の画素数を並べると、その大きさだけを測る
+ * （既定は 256 から 8192 まで）。各大きさで空回し（warmup）の後に計測を繰り返し、1回あたりの平均時間を出力する。
+ * 8192 の場合は行列と転置先で約 1GB を使うため、十分なヒープを与えること。</p>
+ */
+public class ColumnPassBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 3; // 空回しの回数
+
+    private static final int MEASUREMENT_ITERATIONS = 5; // 計測の回数
+
+    private static final int[] DEFAULT_SIZES = {256, 512, 1024, 2048, 4096, 8192};
+
+    public static void main(String[] arguments) {
+        int[] sizes = DEFAULT_SIZES;
+        if (arguments.length > 0) {
+            sizes = new int[arguments.length];
+            for (int index = 0; index < arguments.length; index++) {
+                sizes[index] = Integer.parseInt(arguments[index]);
+            }
+        }
+        System.out.printf("%8s %8s %14s %14s %14s %10s%n", "size", "engine", "transpose[ms]", "strided[ms]", "tiled[ms]", "speedup");
+        for (int size : sizes) {
+            for (WaveletEngine engine : WaveletEngine.values()) {
+                run(size, engine);
+            }
+        }
+    }
+
+    private static void run(int size, WaveletEngine engine) {
+        DiscreteWavelet2dTransformation transformation = new DiscreteWavelet2dTransformation(new double[2][2]);
+        transformation.engine(engine);
+        CoefficientMatrix source = randomMatrix(size, 1L);
+        CoefficientMatrix matrix = new CoefficientMatrix(size, size);
+        double transpose = measure(() -> {
+            matrix.copyFrom(source);
+            transposedColumnPass(transformation, matrix);
+        });
+        transformation.columnTileWidth(1);
+        double[] work = new double[transformation.workLength(size, size)];
+        double strided = measure(() -> {
+            matrix.copyFrom(source);
+            transformation.decomposeColumns(matrix, work);
+        });
+        transformation.columnTileWidth(0);
+        double[] tileWork = new double[transformation.workLength(size, size)];
+        double tiled = measure(() -> {
+            matrix.copyFrom(source);
+            transformation.decomposeColumns(matrix, tileWork);
+        });
+        System.out.printf("%8d %8s %14.3f %14.3f %14.3f %9.2fx%n", size, engine, transpose, strided, tiled, transpose / tiled);
+    }
+
+    /**
+     * 転置した行列の各行に1次元の分解を適用し、転置し直して元の行列に書き戻す。
+     */
+    private static void transposedColumnPass(DiscreteWavelet2dTransformation transformation, CoefficientMatrix matrix) {
+        int rows = matrix.rowSize();
+        int columns = matrix.columnSize();
+        double[][] transposed = new double[columns][rows];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                transposed[column][row] = matrix.at(row, column);
+            }
+        }
+        double[] work = new double[rows];
+        for (double[] line : transposed) {
+            transformation.decompose(line, 0, rows, 1, work);
+        }
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                matrix.atPut(row, column, transposed[column][row]);
+            }
+        }
+    }
+
+    /**
+     * 空回しの後に計測を繰り返し、1回あたりの平均時間（ミリ秒）を応答する。
+     * 行列の複写にかかる時間も含むが、3通りとも同じだけ含まれる。
+     */
+    private static double measure(Runnable operation) {
+        for (int index = 0; index < WARMUP_ITERATIONS; index++) {
+            operation.run();
+        }
+        long start = System.nanoTime();
+        for (int index = 0; index < MEASUREMENT_ITERATIONS; index++) {
+            operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        return elapsed / 1.0e6 / MEASUREMENT_ITERATIONS;
+    }
+
+    private static CoefficientMatrix randomMatrix(int size, long seed) {
+        Random random = new Random(seed);
+        CoefficientMatrix matrix = new CoefficientMatrix(size, size);
+        double[] values = matrix.values();
+        for (int index = 0; index < values.length; index++) {
+            values[index] = random.nextDouble();
+        }
+        return matrix;
+    }
+}
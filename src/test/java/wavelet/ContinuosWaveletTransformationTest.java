@@ -3,41 +3,187 @@ package wavelet;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("ContinuosWaveletTransformation Class Unit Tests")
 class ContinuosWaveletTransformationTest {
 
+    private static double[] randomSignal(int length, long seed) {
+        Random random = new Random(seed);
+        double[] signal = new double[length];
+        for (int i = 0; i < length; i++) {
+            signal[i] = random.nextDouble() - 0.5;
+        }
+        return signal;
+    }
+
     @Test
     @DisplayName("Constructor creates an instance")
     void testConstructor() {
         ContinuosWaveletTransformation cwt = new ContinuosWaveletTransformation();
         assertNotNull(cwt, "ContinuosWaveletTransformation instance should not be null.");
+        assertEquals(MotherWavelet.MORLET, cwt.motherWavelet());
+        assertEquals(1.0, cwt.samplingInterval());
+        assertNull(cwt.scales(), "信号もスケールもなければ null を返すこと");
     }
 
     @Test
-    @DisplayName("applyTo() returns itself regardless of the argument")
-    void testApplyTo() {
-        ContinuosWaveletTransformation cwt = new ContinuosWaveletTransformation();
-        Object dummyObject = new Object(); // ダミーのオブジェクト
-        WaveletTransformation result = cwt.applyTo(dummyObject);
-        assertSame(cwt, result, "applyTo() should return the instance itself.");
+    @DisplayName("FFT convolution matches the direct O(N^2) sum")
+    void testMatchesDirectSum() {
+        double[] signal = randomSignal(37, 1L);
+        double[] scales = {1.5, 3.0, 7.0};
+        int padded = 64;
+        for (MotherWavelet wavelet : MotherWavelet.values()) {
+            ContinuosWaveletTransformation cwt = new ContinuosWaveletTransformation(signal, scales);
+            cwt.motherWavelet(wavelet);
+            cwt.samplingInterval(0.5);
+            // 0 で延長した信号の離散フーリエ変換をそのまま計算する
+            double[] re = new double[padded];
+            double[] im = new double[padded];
+            for (int k = 0; k < padded; k++) {
+                for (int n = 0; n < signal.length; n++) {
+                    re[k] += signal[n] * Math.cos(2.0 * Math.PI * k * n / padded);
+                    im[k] -= signal[n] * Math.sin(2.0 * Math.PI * k * n / padded);
+                }
+            }
+            for (int j = 0; j < scales.length; j++) {
+                double[] spectrum = wavelet.spectrum(padded, scales[j], 0.5);
+                for (int n = 0; n < signal.length; n++) {
+                    double real = 0.0;
+                    double imaginary = 0.0;
+                    for (int k = 0; k < padded; k++) {
+                        double c = Math.cos(2.0 * Math.PI * k * n / padded);
+                        double s = Math.sin(2.0 * Math.PI * k * n / padded);
+                        real += spectrum[k] * (re[k] * c - im[k] * s);
+                        imaginary += spectrum[k] * (re[k] * s + im[k] * c);
+                    }
+                    assertEquals(real / padded, cwt.realCoefficients()[j][n], 1e-9, "実部が直接の和と一致すること（" + wavelet + "）");
+                    assertEquals(imaginary / padded, cwt.imaginaryCoefficients()[j][n], 1e-9, "虚部が直接の和と一致すること（" + wavelet + "）");
+                }
+            }
+        }
+    }
 
-        // nullを渡しても自身を返すことを確認
-        result = cwt.applyTo(null);
-        assertSame(cwt, result, "applyTo() should return the instance itself even with null argument.");
+    @Test
+    @DisplayName("Power peaks at the scale whose period matches a sinusoid")
+    void testPeakPeriod() {
+        double[] signal = new double[512];
+        for (int n = 0; n < signal.length; n++) {
+            signal[n] = Math.sin(2.0 * Math.PI * n / 16.0);
+        }
+        for (MotherWavelet wavelet : MotherWavelet.values()) {
+            ContinuosWaveletTransformation cwt = new ContinuosWaveletTransformation();
+            cwt.motherWavelet(wavelet);
+            assertSame(cwt, cwt.applyTo(signal));
+            double[][] power = cwt.powerSpectrum();
+            assertEquals(cwt.scales().length, power.length);
+            assertEquals(512, power[0].length);
+            int best = 0;
+            for (int j = 0; j < power.length; j++) {
+                if (power[j][256] > power[best][256]) {
+                    best = j;
+                }
+            }
+            double period = cwt.periods()[best];
+            assertTrue(period > 16.0 / 1.3 && period < 16.0 * 1.3, "信号の周期に近いスケールでパワーが最大になること（" + wavelet + "、" + period + "）");
+        }
+
+        ContinuosWaveletTransformation hat = new ContinuosWaveletTransformation(signal, new double[] {2.0, 5.0});
+        hat.motherWavelet(MotherWavelet.MEXICAN_HAT);
+        for (double[] row : hat.imaginaryCoefficients()) {
+            for (double value : row) {
+                assertEquals(0.0, value, 1e-12, "実数のウェーブレットでは虚部が0になること");
+            }
+        }
     }
 
     @Test
-    @DisplayName("transform() returns itself regardless of the argument")
-    void testTransform() {
-        ContinuosWaveletTransformation cwt = new ContinuosWaveletTransformation();
-        WaveletTransformation dummyTransformation = new DiscreteWavelet1dTransformation(new double[]{1.0}); // ダミーのWaveletTransformation
-        WaveletTransformation result = cwt.transform(dummyTransformation);
-        assertSame(cwt, result, "transform() should return the instance itself.");
+    @DisplayName("Spectra are cached per (length, scale) and shared by transform()")
+    void testSpectrumCache() {
+        double[] scales = ContinuosWaveletTransformation.dyadicScales(2.0, 4, 9);
+        assertEquals(4.0, scales[4], 1e-12);
+        ContinuosWaveletTransformation cwt = new ContinuosWaveletTransformation(randomSignal(100, 2L), scales);
+        cwt.realCoefficients();
+        assertEquals(9, cwt.cachedSpectrumCount());
+        cwt.applyTo(randomSignal(120, 3L));
+        assertEquals(9, cwt.cachedSpectrumCount(), "同じ長さに延長される信号ではスペクトルを作り直さないこと");
+
+        ContinuosWaveletTransformation other = new ContinuosWaveletTransformation(randomSignal(100, 4L), new double[] {1.0});
+        ContinuosWaveletTransformation result = (ContinuosWaveletTransformation) cwt.transform(other);
+        assertArrayEquals(scales, result.scales(), 0.0);
+        assertSame(other.sourceCoefficients(), result.sourceCoefficients());
+        result.realCoefficients();
+        assertEquals(9, cwt.cachedSpectrumCount(), "transform() で作った変換もキャッシュを共有すること");
+        result.applyTo(randomSignal(300, 5L));
+        assertEquals(18, cwt.cachedSpectrumCount());
+        cwt.motherWavelet(MotherWavelet.PAUL);
+        assertEquals(0, cwt.cachedSpectrumCount(), "マザーウェーブレットを変えるとキャッシュを作り直すこと");
+        assertEquals(1, ContinuosWaveletTransformation.paddedLength(1));
+        assertEquals(128, ContinuosWaveletTransformation.paddedLength(120));
+        assertEquals(128, ContinuosWaveletTransformation.paddedLength(128));
+    }
 
-        // nullを渡しても自身を返すことを確認
-        result = cwt.transform(null);
-        assertSame(cwt, result, "transform() should return the instance itself even with null argument.");
+    @Test
+    @DisplayName("The spectrum cache stays within its byte limit")
+    void testSpectrumCacheLimit() {
+        double[] scales = ContinuosWaveletTransformation.dyadicScales(2.0, 4, 9);
+        double[] signal = randomSignal(100, 6L);
+        ContinuosWaveletTransformation cached = new ContinuosWaveletTransformation(signal, scales);
+        ContinuosWaveletTransformation limited = new ContinuosWaveletTransformation(signal, scales);
+        limited.spectrumCacheBytes(3L * 128 * Double.BYTES);
+        ContinuosWaveletTransformation uncached = new ContinuosWaveletTransformation(signal, scales);
+        uncached.spectrumCacheBytes(0L);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            uncached.forkJoinPool(pool);
+            for (int j = 0; j < scales.length; j++) {
+                assertArrayEquals(cached.realCoefficients()[j], limited.realCoefficients()[j], 0.0, "上限があっても係数は同じであること");
+                assertArrayEquals(cached.imaginaryCoefficients()[j], uncached.imaginaryCoefficients()[j], 0.0, "キャッシュしなくても係数は同じであること");
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(3, limited.cachedSpectrumCount(), "上限に収まる分だけキャッシュすること");
+        assertEquals(0, uncached.cachedSpectrumCount(), "上限 0 ではキャッシュしないこと");
+        assertEquals(ContinuosWaveletTransformation.DEFAULT_SPECTRUM_CACHE_BYTES, cached.spectrumCacheBytes());
+        assertThrows(IllegalArgumentException.class, () -> cached.spectrumCacheBytes(-1L));
+    }
+
+    @Test
+    @DisplayName("Work buffers are allocated once per worker, not once per scale")
+    void testWorkBuffersAreReused() {
+        double[] scales = ContinuosWaveletTransformation.dyadicScales(2.0, 4, 16);
+        ContinuosWaveletTransformation cwt = new ContinuosWaveletTransformation(randomSignal(100, 7L), scales);
+        Set<double[]> buffers = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        cwt.forEachScale((j, real, imaginary) -> buffers.add(real));
+        assertEquals(1, buffers.size(), "逐次では1本の作業配列を全スケールで使い回すこと");
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            buffers.clear();
+            cwt.forkJoinPool(pool);
+            cwt.forEachScale((j, real, imaginary) -> buffers.add(real));
+            assertEquals(2, buffers.size(), "並列度の数の末端のタスクだけが作業配列を確保すること");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid arguments are rejected")
+    void testInvalidArguments() {
+        ContinuosWaveletTransformation cwt = new ContinuosWaveletTransformation();
+        assertThrows(IllegalArgumentException.class, () -> cwt.applyTo(new Object()));
+        assertThrows(IllegalArgumentException.class, () -> cwt.applyTo(null));
+        assertThrows(IllegalArgumentException.class, () -> cwt.transform(null));
+        assertThrows(IllegalArgumentException.class, () -> cwt.transform(new DiscreteWavelet1dTransformation(new double[] {1.0})));
+        assertThrows(IllegalArgumentException.class, () -> cwt.scales(new double[] {1.0, -2.0}));
+        assertThrows(IllegalArgumentException.class, () -> cwt.samplingInterval(0.0));
+        assertThrows(IllegalArgumentException.class, () -> cwt.applyTo(new double[0]));
     }
-}
\ No newline at end of file
+}
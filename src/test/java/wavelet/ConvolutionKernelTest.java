@@ -0,0 +1,94 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.Random;
+
+public class ConvolutionKernelTest {
+
+    private static final double DELTA = 1e-9; // 浮動小数点比較の許容誤差
+
+    private static double[] randomSignal(int length, long seed) {
+        Random random = new Random(seed);
+        double[] signal = new double[length];
+        for (int i = 0; i < length; i++) {
+            signal[i] = random.nextDouble() - 0.5;
+        }
+        return signal;
+    }
+
+    private static double[][] filters(int order) {
+        DiscreteWavelet1dTransformation transformation = new DiscreteWavelet1dTransformation(new double[2]);
+        transformation.initialize(order);
+        return new double[][] {transformation.daubechiesScalingSequence, transformation.daubechiesWaveletSequence};
+    }
+
+    @Test
+    void testVectorMatchesScalarExactly() {
+        ConvolutionKernel scalar = ConvolutionKernel.scalar();
+        ConvolutionKernel vector = ConvolutionKernel.vector();
+        for (int order = 1; order <= 4; order++) {
+            double[][] filter = filters(order);
+            for (int length : new int[] {2, 4, 6, 10, 16, 34, 64, 254, 1024}) {
+                double[] signal = randomSignal(length, order * 31L + length);
+                int half = length / 2;
+                double[] expected = new double[length];
+                double[] actual = new double[length];
+                scalar.analyze(signal, 0, length, filter[0], filter[1], expected, 0, expected, half);
+                vector.analyze(signal, 0, length, filter[0], filter[1], actual, 0, actual, half);
+                assertArrayEquals(expected, actual, 0.0, "分析の結果が完全に一致すること（次数 " + order + "、長さ " + length + "）");
+
+                double[] recomposedExpected = new double[length];
+                double[] recomposedActual = new double[length];
+                scalar.synthesize(expected, 0, expected, half, half, filter[0], filter[1], recomposedExpected, 0);
+                vector.synthesize(actual, 0, actual, half, half, filter[0], filter[1], recomposedActual, 0);
+                assertArrayEquals(recomposedExpected, recomposedActual, 0.0, "合成の結果が完全に一致すること（次数 " + order + "、長さ " + length + "）");
+                assertArrayEquals(signal, recomposedActual, DELTA, "合成で元の信号に戻ること");
+            }
+        }
+    }
+
+    @Test
+    void testOffsets() {
+        double[][] filter = filters(2);
+        double[] signal = randomSignal(40, 7L);
+        double[] padded = new double[45];
+        System.arraycopy(signal, 0, padded, 5, 40);
+        double[] expected = new double[40];
+        double[] actual = new double[50];
+        ConvolutionKernel.scalar().analyze(signal, 0, 40, filter[0], filter[1], expected, 0, expected, 20);
+        ConvolutionKernel.vector().analyze(padded, 5, 40, filter[0], filter[1], actual, 3, actual, 30);
+        for (int b = 0; b < 20; b++) {
+            assertEquals(expected[b], actual[3 + b], 0.0, "先頭位置をずらしても同じ結果になること");
+            assertEquals(expected[20 + b], actual[30 + b], 0.0, "先頭位置をずらしても同じ結果になること");
+        }
+    }
+
+    @Test
+    void testVectorEngineMatchesConvolution() {
+        double[] signal = randomSignal(512, 8L);
+        DiscreteWavelet1dTransformation convolution = new DiscreteWavelet1dTransformation(signal);
+        DiscreteWavelet1dTransformation vector = new DiscreteWavelet1dTransformation(signal);
+        vector.engine(WaveletEngine.VECTOR);
+        assertArrayEquals(convolution.scalingCoefficients(), vector.scalingCoefficients(), 0.0, "スケーリング係数が完全に一致すること");
+        assertArrayEquals(convolution.waveletCoefficients(), vector.waveletCoefficients(), 0.0, "ウェーブレット係数が完全に一致すること");
+        assertArrayEquals(convolution.recomposedCoefficients(), vector.recomposedCoefficients(), 0.0, "再構成が完全に一致すること");
+
+        DiscreteWavelet2dPyramid pyramid = new DiscreteWavelet2dPyramid(new double[][] {signal, signal.clone()}, 1);
+        DiscreteWavelet2dPyramid vectorPyramid = new DiscreteWavelet2dPyramid(new double[][] {signal, signal.clone()}, 1);
+        vectorPyramid.engine(WaveletEngine.VECTOR);
+        assertArrayEquals(pyramid.coefficients(), vectorPyramid.coefficients(), 0.0, "2次元でも係数が完全に一致すること");
+        assertArrayEquals(pyramid.recomposedMatrix(0).values(), vectorPyramid.recomposedMatrix(0).values(), 0.0, "2次元でも再構成が完全に一致すること");
+    }
+
+    @Test
+    void testFallback() {
+        boolean present = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        assertEquals(present, ConvolutionKernel.isVectorAvailable(), "モジュールがある場合にだけ Vector API の演算器を用いること");
+        if (!present) {
+            assertEquals(ConvolutionKernel.scalar(), ConvolutionKernel.vector(), "モジュールがない場合はスカラーの演算器に切り替わること");
+        }
+    }
+}
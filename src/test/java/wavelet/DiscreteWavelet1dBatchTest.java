@@ -0,0 +1,120 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class DiscreteWavelet1dBatchTest {
+
+    private static double[][] randomSignals(int count, int length, long seed) {
+        Random random = new Random(seed);
+        double[][] signals = new double[count][length];
+        for (double[] signal : signals) {
+            for (int i = 0; i < length; i++) {
+                signal[i] = random.nextDouble() - 0.5;
+            }
+        }
+        return signals;
+    }
+
+    @Test
+    void testMatchesSingleSignalTransform() {
+        for (BoundaryMode mode : BoundaryMode.values()) {
+            for (WaveletEngine engine : new WaveletEngine[] {WaveletEngine.CONVOLUTION, WaveletEngine.LIFTING}) {
+                for (String name : FilterBank.names()) {
+                    FilterBank bank = FilterBank.named(name);
+                    for (int length : new int[] {1, 7, 64}) {
+                        double[][] signals = randomSignals(5, length, length * 3L + bank.length());
+                        DiscreteWavelet1dBatch batch = new DiscreteWavelet1dBatch(length);
+                        batch.filterBank(bank);
+                        batch.engine(engine);
+                        batch.boundaryMode(mode);
+                        int half = batch.coefficientLength();
+                        double[][] scaling = new double[5][half];
+                        double[][] wavelet = new double[5][half];
+                        batch.decompose(signals, scaling, wavelet);
+                        double[][] recomposed = new double[5][length];
+                        batch.recompose(scaling, wavelet, recomposed);
+
+                        String message = "1つずつの変換と一致すること（" + mode + "、" + engine + "、" + name + "、長さ " + length + "）";
+                        for (int index = 0; index < 5; index++) {
+                            DiscreteWavelet1dTransformation single = new DiscreteWavelet1dTransformation(signals[index]);
+                            single.filterBank(bank);
+                            single.engine(engine);
+                            single.boundaryMode(mode);
+                            assertArrayEquals(single.scalingCoefficients(), scaling[index], 0.0, message);
+                            assertArrayEquals(single.waveletCoefficients(), wavelet[index], 0.0, message);
+                            if (mode != BoundaryMode.PERIODIC || length > 1) {
+                                assertArrayEquals(signals[index], recomposed[index], 1e-9, "元の信号に戻ること（" + message + "）");
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFlatBuffers() {
+        int count = 6;
+        int length = 33;
+        double[][] signals = randomSignals(count, length, 5L);
+        DiscreteWavelet1dBatch batch = new DiscreteWavelet1dBatch(length);
+        batch.filterBank(FilterBank.daubechies(6));
+        int half = batch.coefficientLength();
+        assertEquals(17, half);
+
+        double[] flat = new double[3 + count * length];
+        for (int index = 0; index < count; index++) {
+            System.arraycopy(signals[index], 0, flat, 3 + index * length, length);
+        }
+        double[] coefficients = new double[count * half * 2];
+        batch.decompose(flat, 3, count, coefficients, 0, coefficients, count * half);
+
+        batch.applyTo(signals);
+        for (int index = 0; index < count; index++) {
+            assertArrayEquals(batch.scalingCoefficients()[index], Arrays.copyOfRange(coefficients, index * half, (index + 1) * half), 0.0, "平坦な出力でも行ごとの出力と一致すること");
+            assertArrayEquals(batch.waveletCoefficients()[index], Arrays.copyOfRange(coefficients, (count + index) * half, (count + index + 1) * half), 0.0);
+        }
+
+        double[] recomposed = new double[count * length];
+        batch.recompose(coefficients, 0, coefficients, count * half, count, recomposed, 0);
+        for (int index = 0; index < count; index++) {
+            assertArrayEquals(signals[index], Arrays.copyOfRange(recomposed, index * length, (index + 1) * length), 1e-9);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> batch.decompose(flat, 4, count, coefficients, 0, coefficients, count * half));
+        assertThrows(IllegalArgumentException.class, () -> batch.decompose(signals, new double[count][half], new double[count - 1][half]));
+        assertThrows(IllegalArgumentException.class, () -> batch.recompose(new double[count][half - 1], new double[count][half], new double[count][length]));
+        assertThrows(IllegalArgumentException.class, () -> new DiscreteWavelet1dBatch(0));
+        assertThrows(IllegalArgumentException.class, () -> batch.applyTo(new double[4]));
+    }
+
+    @Test
+    void testParallelMatchesSequential() {
+        int count = 2000;
+        int length = 256;
+        double[][] signals = randomSignals(count, length, 9L);
+        DiscreteWavelet1dBatch sequential = new DiscreteWavelet1dBatch(length);
+        DiscreteWavelet1dBatch parallel = new DiscreteWavelet1dBatch(length);
+        parallel.forkJoinPool(new ForkJoinPool(4));
+        sequential.applyTo(signals);
+        parallel.applyTo(signals);
+        for (int index = 0; index < count; index += 97) {
+            assertArrayEquals(sequential.scalingCoefficients()[index], parallel.scalingCoefficients()[index], 0.0, "並列でも完全に一致すること");
+            assertArrayEquals(sequential.waveletCoefficients()[index], parallel.waveletCoefficients()[index], 0.0);
+        }
+        double[][] recomposed = new double[count][length];
+        parallel.recompose(parallel.scalingCoefficients(), parallel.waveletCoefficients(), recomposed);
+        assertArrayEquals(signals[count - 1], recomposed[count - 1], 1e-9);
+
+        DiscreteWavelet1dBatch result = (DiscreteWavelet1dBatch) parallel.transform(new DiscreteWavelet1dBatch(8));
+        assertEquals(8, result.length());
+        assertEquals(parallel.forkJoinPool(), result.forkJoinPool());
+    }
+}
@@ -0,0 +1,95 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+public class DiscreteWavelet1dPyramidTest {
+
+    private static final double DELTA = 1e-9; // 浮動小数点比較の許容誤差
+
+    private static double[] randomSignal(int length, long seed) {
+        Random random = new Random(seed);
+        double[] signal = new double[length];
+        for (int i = 0; i < length; i++) {
+            signal[i] = random.nextDouble();
+        }
+        return signal;
+    }
+
+    @Test
+    void testPackedLayoutMatchesRepeatedSingleLevel() {
+        double[] source = randomSignal(64, 1L);
+        DiscreteWavelet1dPyramid pyramid = new DiscreteWavelet1dPyramid(source, 3);
+        double[] packed = pyramid.coefficients();
+        assertEquals(64, packed.length, "詰め込み配列は元の信号と同じ長さであること");
+
+        double[] approximation = source;
+        for (int level = 1; level <= 3; level++) {
+            DiscreteWavelet1dTransformation transformation = new DiscreteWavelet1dTransformation(approximation);
+            assertArrayEquals(transformation.waveletCoefficients(), pyramid.waveletCoefficients(level), DELTA,
+                    "第" + level + "段のウェーブレット係数が1段ずつの変換と一致すること");
+            assertEquals(64 >> level, pyramid.waveletOffset(level));
+            approximation = transformation.scalingCoefficients();
+        }
+        assertArrayEquals(approximation, pyramid.scalingCoefficients(), DELTA, "最上段のスケーリング係数が一致すること");
+    }
+
+    @Test
+    void testRecomposeToAnyLevel() {
+        double[] source = randomSignal(32, 2L);
+        DiscreteWavelet1dPyramid pyramid = new DiscreteWavelet1dPyramid(source, 4);
+        assertArrayEquals(source, pyramid.recomposedCoefficients(), DELTA, "元の信号に戻ること");
+
+        DiscreteWavelet1dTransformation transformation = new DiscreteWavelet1dTransformation(source);
+        double[] level1 = transformation.scalingCoefficients();
+        double[] level2 = new DiscreteWavelet1dTransformation(level1).scalingCoefficients();
+        assertArrayEquals(level1, pyramid.recomposedCoefficients(1), DELTA, "第1段の近似まで再構成できること");
+        assertArrayEquals(level2, pyramid.recomposedCoefficients(2), DELTA, "第2段の近似まで再構成できること");
+        assertArrayEquals(pyramid.scalingCoefficients(), pyramid.recomposedCoefficients(4), DELTA);
+    }
+
+    @Test
+    void testLiftingEngineMatchesConvolution() {
+        double[] source = randomSignal(128, 3L);
+        DiscreteWavelet1dPyramid convolution = new DiscreteWavelet1dPyramid(source, 5);
+        DiscreteWavelet1dPyramid lifting = new DiscreteWavelet1dPyramid(source, 5);
+        lifting.engine(WaveletEngine.LIFTING);
+        assertArrayEquals(convolution.coefficients(), lifting.coefficients(), DELTA, "演算方式によらず係数が一致すること");
+        assertArrayEquals(source, lifting.recomposedCoefficients(), DELTA, "リフティングでも元の信号に戻ること");
+    }
+
+    @Test
+    void testCoefficientsSetterAndSharedBuffer() {
+        double[] source = randomSignal(16, 4L);
+        DiscreteWavelet1dPyramid pyramid = new DiscreteWavelet1dPyramid(source, 2);
+        double[] packed = pyramid.coefficients().clone();
+
+        DiscreteWavelet1dPyramid other = new DiscreteWavelet1dPyramid(new double[16], 2);
+        other.coefficients(packed);
+        assertSame(packed, other.coefficients(), "設定した配列がそのまま共有されること");
+        assertArrayEquals(source, other.recomposedCoefficients(), DELTA, "設定した係数から再構成できること");
+        assertArrayEquals(packed, other.coefficients(), 0.0, "再構成で詰め込み配列が変更されないこと");
+    }
+
+    @Test
+    void testMaximumLevels() {
+        assertEquals(6, DiscreteWavelet1dPyramid.maximumLevels(64));
+        assertEquals(2, DiscreteWavelet1dPyramid.maximumLevels(12));
+        assertEquals(0, DiscreteWavelet1dPyramid.maximumLevels(7));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new DiscreteWavelet1dPyramid(new double[12], 3));
+        assertThrows(IllegalArgumentException.class, () -> new DiscreteWavelet1dPyramid(new double[8], -1));
+        DiscreteWavelet1dPyramid pyramid = new DiscreteWavelet1dPyramid(new double[8], 2);
+        assertThrows(IllegalArgumentException.class, () -> pyramid.recomposedCoefficients(3));
+        assertThrows(IllegalArgumentException.class, () -> pyramid.waveletCoefficients(0));
+        assertThrows(IllegalArgumentException.class, () -> pyramid.applyTo("not an array"));
+    }
+}
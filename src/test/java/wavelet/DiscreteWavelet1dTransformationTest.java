@@ -61,13 +61,9 @@ public class DiscreteWavelet1dTransformationTest {
         }
     }
 
-    // nextPowerOfTwoメソッドはprivate staticなので、ここでは実際の挙動に合わせて期待値を計算
-    private int calculateNextPowerOfTwo(int value) {
-      Integer n = 1;
-      while (n < value) {
-        n <<= 1;
-      }
-      return n;
+    // 奇数の長さは1つだけ広げて偶数にするので、ここでは実際の挙動に合わせて期待値を計算
+    private int calculateEvenLength(int value) {
+      return value + (value & 1);
     }
 
     // 親クラスのdaubechiesScalingSequenceとdaubechiesWaveletSequenceフィールドにアクセスするためのヘルパー
@@ -96,8 +92,8 @@ public class DiscreteWavelet1dTransformationTest {
         originalLengthField.setAccessible(true);
         int actualOriginalLength = (int) originalLengthField.get(transformation);
 
-        int expectedPaddedLength = calculateNextPowerOfTwo(inputData.length);
-        assertEquals(expectedPaddedLength, actualSourceCoefficients.length, "ソース係数の長さは次の2のべき乗であるべき");
+        int expectedPaddedLength = calculateEvenLength(inputData.length);
+        assertEquals(expectedPaddedLength, actualSourceCoefficients.length, "ソース係数の長さは偶数に切り上げた長さであるべき");
 
         for (int i = 0; i < inputData.length; i++) {
             assertEquals(inputData[i], actualSourceCoefficients[i], DELTA, "元のデータは正しくコピーされるべき");
@@ -123,11 +119,11 @@ public class DiscreteWavelet1dTransformationTest {
         originalLengthField.setAccessible(true);
         int actualOriginalLength = (int) originalLengthField.get(transformation);
 
-        assertEquals(4, actualSourceCoefficients.length, "長さは次の2のべき乗（4）にパディングされるべき");
+        assertEquals(4, actualSourceCoefficients.length, "長さは偶数（4）にパディングされるべき");
         assertEquals(1.0, actualSourceCoefficients[0], DELTA);
         assertEquals(2.0, actualSourceCoefficients[1], DELTA);
         assertEquals(3.0, actualSourceCoefficients[2], DELTA);
-        assertEquals(0.0, actualSourceCoefficients[3], DELTA, "パディングされた値はゼロであるべき");
+        assertEquals(3.0, actualSourceCoefficients[3], DELTA, "パディングされた値は最後の標本の複写であるべき");
 
         assertEquals(inputData.length, actualOriginalLength, "originalLengthは入力データの長さに設定されるべき");
 
@@ -137,7 +133,7 @@ public class DiscreteWavelet1dTransformationTest {
     }
 
     @Test
-    void testConstructorWithZeroLengthInputPadsToOne() throws NoSuchFieldException, IllegalAccessException {
+    void testConstructorWithZeroLengthInputIsNotPadded() throws NoSuchFieldException, IllegalAccessException {
         double[] inputData = {}; // 長さ0
         transformation = new DiscreteWavelet1dTransformation(inputData);
         assertNotNull(transformation);
@@ -150,13 +146,12 @@ public class DiscreteWavelet1dTransformationTest {
         originalLengthField.setAccessible(true);
         int actualOriginalLength = (int) originalLengthField.get(transformation);
 
-        assertEquals(1, actualSourceCoefficients.length, "長さ0の入力は1にパディングされるべき");
-        assertEquals(0.0, actualSourceCoefficients[0], DELTA, "パディングされた値はゼロであるべき");
+        assertEquals(0, actualSourceCoefficients.length, "長さ0の入力はパディングされないべき");
         assertEquals(inputData.length, actualOriginalLength, "originalLengthは入力データの長さに設定されるべき");
 
         Field isPaddedField = DiscreteWavelet1dTransformation.class.getDeclaredField("isPadded");
         isPaddedField.setAccessible(true);
-        assertTrue((boolean) isPaddedField.get(transformation), "isPaddedはtrueであるべき (0->1のパディング)");
+        assertFalse((boolean) isPaddedField.get(transformation), "長さ0は偶数なのでisPaddedはfalseであるべき");
     }
 
     @Test
@@ -350,4 +345,50 @@ public class DiscreteWavelet1dTransformationTest {
         ContinuosWaveletTransformation invalidTransform = new ContinuosWaveletTransformation();
         assertThrows(IllegalArgumentException.class, () -> transformation.transform(invalidTransform));
     }
+
+    @Test
+    void testRecomposeRegionMatchesFullRecomposition() {
+        java.util.Random random = new java.util.Random(7L);
+        for (String name : new String[] {"Haar", "D4", "D8", "CDF9/7"}) {
+            double[] scaling = new double[32];
+            double[] wavelet = new double[32];
+            for (int i = 0; i < 32; i++) {
+                scaling[i] = random.nextDouble();
+                wavelet[i] = random.nextDouble() - 0.5;
+            }
+            DiscreteWavelet1dTransformation local = new DiscreteWavelet1dTransformation(scaling, wavelet);
+            local.filterBank(FilterBank.named(name));
+            double[] recomposed = local.recomposedCoefficients();
+            for (int index : new int[] {0, 5, 31}) { // 先頭と末尾は周期境界で折り返す
+                wavelet[index] = index % 2 == 0 ? 0.0 : 3.0;
+                double[] before = recomposed.clone();
+                int[] region = local.recomposeRegion(index, index + 1);
+                assertTrue(recomposed == local.recomposedCoefficients(), "再構成された係数はその場で更新されること");
+
+                DiscreteWavelet1dTransformation full = new DiscreteWavelet1dTransformation(scaling.clone(), wavelet.clone());
+                full.filterBank(FilterBank.named(name));
+                assertArrayEquals(full.recomposedCoefficients(), recomposed, DELTA, "全体を再構成した結果と一致すること（" + name + "）");
+                for (int i = 0; i < recomposed.length; i++) {
+                    if (i < region[0] || i >= region[1]) {
+                        assertEquals(before[i], recomposed[i], 0.0, "範囲の外は書き換えないこと（" + name + "）");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRecomposeRegionRange() {
+        double[] wavelet = new double[16];
+        DiscreteWavelet1dTransformation local = new DiscreteWavelet1dTransformation(new double[16], wavelet);
+        local.recomposedCoefficients();
+        assertArrayEquals(new int[] {10, 14}, local.recomposeRegion(5, 6), "D4 では係数 5 が標本 10 .. 13 に寄与すること");
+        assertArrayEquals(new int[] {0, 32}, local.recomposeRegion(15, 16), "末尾の係数は周期境界で折り返すので全体になること");
+        local.filterBank(FilterBank.haar());
+        local.recomposedCoefficients();
+        assertArrayEquals(new int[] {30, 32}, local.recomposeRegion(15, 16), "Haar では係数の2つの標本だけになること");
+        assertThrows(IllegalArgumentException.class, () -> local.recomposeRegion(3, 3));
+        assertThrows(IllegalArgumentException.class, () -> local.recomposeRegion(-1, 2));
+        assertThrows(IllegalArgumentException.class, () -> local.recomposeRegion(15, 17));
+    }
 }
\ No newline at end of file
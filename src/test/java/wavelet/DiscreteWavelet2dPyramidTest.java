@@ -0,0 +1,148 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class DiscreteWavelet2dPyramidTest {
+
+    private static final double DELTA = 1e-9; // 浮動小数点比較の許容誤差
+
+    private static double[][] randomMatrix(int rows, int columns, long seed) {
+        Random random = new Random(seed);
+        double[][] matrix = new double[rows][columns];
+        for (double[] row : matrix) {
+            for (int i = 0; i < columns; i++) {
+                row[i] = random.nextDouble();
+            }
+        }
+        return matrix;
+    }
+
+    private static void assertMatrixEquals(double[][] expected, double[][] actual, String message) {
+        assertEquals(expected.length, actual.length, message);
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], actual[i], DELTA, message);
+        }
+    }
+
+    @Test
+    void testSubbandsMatchRepeatedSingleLevel() {
+        double[][] source = randomMatrix(32, 16, 1L);
+        DiscreteWavelet2dPyramid pyramid = new DiscreteWavelet2dPyramid(source, 2);
+        assertEquals(32 * 16, pyramid.coefficients().length, "詰め込み配列は元の行列と同じ大きさであること");
+
+        double[][] approximation = source;
+        for (int level = 1; level <= 2; level++) {
+            DiscreteWavelet2dTransformation transformation = new DiscreteWavelet2dTransformation(approximation);
+            assertMatrixEquals(transformation.horizontalWaveletCoefficients(), pyramid.horizontalWaveletCoefficients(level), "水平方向の係数が一致すること");
+            assertMatrixEquals(transformation.verticalWaveletCoefficients(), pyramid.verticalWaveletCoefficients(level), "垂直方向の係数が一致すること");
+            assertMatrixEquals(transformation.diagonalWaveletCoefficients(), pyramid.diagonalWaveletCoefficients(level), "対角方向の係数が一致すること");
+            approximation = transformation.scalingCoefficients();
+        }
+        assertMatrixEquals(approximation, pyramid.scalingCoefficients(), "最上段のスケーリング係数が一致すること");
+    }
+
+    @Test
+    void testRecomposeToAnyLevel() {
+        double[][] source = randomMatrix(16, 16, 2L);
+        DiscreteWavelet2dPyramid pyramid = new DiscreteWavelet2dPyramid(source, 3);
+        assertMatrixEquals(source, pyramid.recomposedCoefficients(), "元の行列に戻ること");
+        double[][] level1 = new DiscreteWavelet2dTransformation(source).scalingCoefficients();
+        assertMatrixEquals(level1, pyramid.recomposedCoefficients(1), "第1段の近似まで再構成できること");
+        assertMatrixEquals(pyramid.scalingCoefficients(), pyramid.recomposedCoefficients(3), "最上段ではスケーリング係数そのものになること");
+    }
+
+    @Test
+    void testLiftingEngineMatchesConvolution() {
+        double[][] source = randomMatrix(64, 32, 3L);
+        DiscreteWavelet2dPyramid convolution = new DiscreteWavelet2dPyramid(source, 3);
+        DiscreteWavelet2dPyramid lifting = new DiscreteWavelet2dPyramid(source, 3);
+        lifting.engine(WaveletEngine.LIFTING);
+        assertArrayEquals(convolution.coefficients(), lifting.coefficients(), DELTA, "演算方式によらず係数が一致すること");
+        assertMatrixEquals(source, lifting.recomposedCoefficients(), "リフティングでも元の行列に戻ること");
+    }
+
+    @Test
+    void testTiledColumnPassIsExact() {
+        double[][] source = randomMatrix(64, 40, 5L);
+        for (WaveletEngine engine : WaveletEngine.values()) {
+            DiscreteWavelet2dPyramid columnByColumn = new DiscreteWavelet2dPyramid(source, 3);
+            columnByColumn.engine(engine);
+            columnByColumn.columnTileWidth(1);
+            for (int width : new int[] {0, 3, 8, 64}) {
+                DiscreteWavelet2dPyramid tiled = new DiscreteWavelet2dPyramid(source, 3);
+                tiled.engine(engine);
+                tiled.columnTileWidth(width);
+                assertArrayEquals(columnByColumn.coefficients(), tiled.coefficients(), 0.0, "列の束の幅によらず係数が完全に一致すること");
+                assertArrayEquals(columnByColumn.recomposedMatrix(0).values(), tiled.recomposedMatrix(0).values(), 0.0, "列の束の幅によらず再構成が完全に一致すること");
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new DiscreteWavelet2dPyramid(source, 1).columnTileWidth(-1));
+    }
+
+    @Test
+    void testParallelIsBitIdentical() {
+        double[][] source = randomMatrix(512, 384, 6L);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (WaveletEngine engine : WaveletEngine.values()) {
+                DiscreteWavelet2dPyramid sequential = new DiscreteWavelet2dPyramid(source, 3);
+                sequential.engine(engine);
+                DiscreteWavelet2dPyramid parallel = new DiscreteWavelet2dPyramid(source, 3);
+                parallel.engine(engine);
+                parallel.forkJoinPool(pool);
+                assertEquals(4, parallel.parallelism());
+                assertArrayEquals(sequential.coefficients(), parallel.coefficients(), 0.0, "並列でも係数が完全に一致すること");
+                assertArrayEquals(sequential.recomposedMatrix(0).values(), parallel.recomposedMatrix(0).values(), 0.0, "並列でも再構成が完全に一致すること");
+
+                DiscreteWavelet2dTransformation transformation = new DiscreteWavelet2dTransformation(source);
+                transformation.engine(engine);
+                transformation.parallelism(3);
+                DiscreteWavelet2dTransformation reference = new DiscreteWavelet2dTransformation(source);
+                reference.engine(engine);
+                assertArrayEquals(reference.coefficientMatrix().values(), transformation.coefficientMatrix().values(), 0.0, "1段階の変換でも係数が完全に一致すること");
+                assertArrayEquals(reference.recomposedMatrix().toArray()[17], transformation.recomposedMatrix().toArray()[17], 0.0, "1段階の変換でも再構成が完全に一致すること");
+            }
+        } finally {
+            pool.shutdown();
+        }
+        DiscreteWavelet2dPyramid pyramid = new DiscreteWavelet2dPyramid(source, 1);
+        pyramid.parallelism(3);
+        ForkJoinPool shared = pyramid.forkJoinPool();
+        assertEquals(3, shared.getParallelism());
+        new DiscreteWavelet2dTransformation(source).parallelism(3);
+        pyramid.parallelism(3);
+        assertSame(shared, pyramid.forkJoinPool(), "同じ並列度では同じプールを使い回すこと");
+        pyramid.parallelism(1);
+        assertEquals(null, pyramid.forkJoinPool(), "並列度 1 では逐次に計算すること");
+        assertThrows(IllegalArgumentException.class, () -> pyramid.parallelism(0));
+    }
+
+    @Test
+    void testCoefficientsSetter() {
+        double[][] source = randomMatrix(8, 16, 4L);
+        DiscreteWavelet2dPyramid pyramid = new DiscreteWavelet2dPyramid(source, 2);
+        DiscreteWavelet2dPyramid other = new DiscreteWavelet2dPyramid(new double[4][4], 2);
+        other.coefficients(pyramid.coefficients().clone(), 8, 16);
+        assertEquals(8, other.rows());
+        assertEquals(16, other.columns());
+        assertMatrixEquals(source, other.recomposedCoefficients(), "設定した係数から再構成できること");
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new DiscreteWavelet2dPyramid(new double[12][16], 3));
+        assertEquals("matrix must not be empty.", assertThrows(IllegalArgumentException.class, () -> new DiscreteWavelet2dPyramid(new double[0][0], 1)).getMessage());
+        assertEquals("matrix must not be empty.", assertThrows(IllegalArgumentException.class, () -> new DiscreteWavelet2dPyramid(new double[4][0], 1)).getMessage());
+        DiscreteWavelet2dPyramid pyramid = new DiscreteWavelet2dPyramid(new double[8][8], 2);
+        assertThrows(IllegalArgumentException.class, () -> pyramid.coefficients(new double[10], 2, 4));
+        assertThrows(IllegalArgumentException.class, () -> pyramid.horizontalWaveletCoefficients(3));
+        assertEquals(3, DiscreteWavelet2dPyramid.maximumLevels(8, 24));
+    }
+}
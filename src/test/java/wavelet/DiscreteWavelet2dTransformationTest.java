@@ -368,4 +368,144 @@ class DiscreteWavelet2dTransformationTest {
 
         assertSame(testWavelets[1], dwt2d.verticalWaveletCoefficients(), "Vertical wavelet coefficients should return the correct array.");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("odd sizes are transformed at their native size")
+    void testNativeOddSizes() {
+        int[][] sizes = {{1, 9}, {7, 5}, {33, 17}, {30, 45}, {64, 48}};
+        java.util.Random random = new java.util.Random(12L);
+        for (int[] size : sizes) {
+            double[][] source = new double[size[0]][size[1]];
+            for (int i = 0; i < size[0]; i++) {
+                for (int j = 0; j < size[1]; j++) {
+                    source[i][j] = random.nextInt(256);
+                }
+            }
+            DiscreteWavelet2dTransformation dwt2d = new DiscreteWavelet2dTransformation(source);
+            double[][] scaling = dwt2d.scalingCoefficients();
+            assertEquals((size[0] + 1) / 2, scaling.length, "帯域の行数は元の行数の半分の切り上げであること");
+            assertEquals((size[1] + 1) / 2, scaling[0].length, "帯域の列数は元の列数の半分の切り上げであること");
+            assertEquals((size[0] + 1) / 2 * 2, dwt2d.coefficientMatrix().rowSize(), "行列は1行だけ広げること");
+            double[][] recomposed = dwt2d.recomposedCoefficients();
+            assertEquals(size[0], recomposed.length);
+            for (int i = 0; i < size[0]; i++) {
+                assertArrayEquals(source[i], recomposed[i], 1.0e-9, "元の大きさのまま完全に戻ること（" + size[0] + "x" + size[1] + "）");
+            }
+            dwt2d.coefficientMatrix(dwt2d.coefficientMatrix());
+            assertEquals(size[0], dwt2d.recomposedCoefficients().length, "係数の行列を設定し直しても元の大きさに戻ること");
+            assertEquals(size[1], dwt2d.recomposedCoefficients()[0].length);
+
+            DiscreteWavelet2dTransformation fromBands = new DiscreteWavelet2dTransformation(scaling, new double[][][] {
+                dwt2d.horizontalWaveletCoefficients(), dwt2d.verticalWaveletCoefficients(), dwt2d.diagonalWaveletCoefficients() });
+            double[][] evenRecomposed = fromBands.recomposedCoefficients();
+            assertEquals(scaling.length * 2, evenRecomposed.length, "帯域だけからは偶数の大きさに戻ること");
+            for (int i = 0; i < size[0]; i++) {
+                for (int j = 0; j < size[1]; j++) {
+                    assertEquals(source[i][j], evenRecomposed[i][j], 1.0e-9);
+                }
+            }
+
+            DiscreteWavelet2dFloatTransformation floatTransformation = new DiscreteWavelet2dFloatTransformation(source);
+            assertEquals(scaling.length, floatTransformation.scalingCoefficients().length);
+            float[][] floatRecomposed = floatTransformation.recomposedCoefficients();
+            assertEquals(size[0], floatRecomposed.length);
+            assertEquals(size[1], floatRecomposed[0].length);
+            floatTransformation.coefficientMatrix(floatTransformation.coefficientMatrix());
+            assertEquals(size[1], floatTransformation.recomposedCoefficients()[0].length, "係数の行列を設定し直しても元の大きさに戻ること");
+            for (int i = 0; i < size[0]; i++) {
+                for (int j = 0; j < size[1]; j++) {
+                    assertEquals(source[i][j], floatRecomposed[i][j], 1.0e-3, "単精度でも元の大きさのまま戻ること");
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("recomposeRegion() updates only the window affected by edited coefficients")
+    void testRecomposeRegionMatchesFullRecomposition() {
+        java.util.Random random = new java.util.Random(21L);
+        int[][] sizes = {{32, 24}, {33, 17}, {8, 6}};
+        for (String name : new String[] {"Haar", "D4", "D8", "CDF9/7"}) {
+            for (int[] size : sizes) {
+                double[][] source = new double[size[0]][size[1]];
+                for (double[] row : source) {
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = random.nextDouble();
+                    }
+                }
+                DiscreteWavelet2dTransformation transformation = new DiscreteWavelet2dTransformation(source);
+                transformation.filterBank(FilterBank.named(name));
+                CoefficientMatrix packed = transformation.coefficientMatrix().copy();
+                packed.horizontal().fill(0.0);
+                packed.vertical().fill(0.0);
+                packed.diagonal().fill(0.0);
+                transformation.coefficientMatrix(packed);
+                double[][] recomposed = transformation.recomposedCoefficients();
+
+                int halfRows = packed.rowSize() / 2;
+                int halfColumns = packed.columnSize() / 2;
+                int[][] blocks = {{0, 2, 0, 3}, {halfRows - 2, halfRows, halfColumns - 1, halfColumns}, {1, 2, 2, 3}};
+                for (int[] block : blocks) {
+                    for (int row = block[0]; row < block[1]; row++) {
+                        for (int column = block[2]; column < block[3]; column++) {
+                            packed.values()[packed.horizontal().indexOf(row, column)] = random.nextDouble() - 0.5;
+                            packed.values()[packed.diagonal().indexOf(row, column)] = random.nextDouble() - 0.5;
+                        }
+                    }
+                    double[][] before = new double[recomposed.length][];
+                    for (int row = 0; row < recomposed.length; row++) {
+                        before[row] = recomposed[row].clone();
+                    }
+                    int[] region = transformation.recomposeRegion(block[0], block[1], block[2], block[3]);
+                    assertSame(recomposed, transformation.recomposedCoefficients(), "取得済みの2次元配列をその場で更新すること");
+
+                    DiscreteWavelet2dTransformation reference = new DiscreteWavelet2dTransformation(source);
+                    reference.filterBank(FilterBank.named(name));
+                    reference.coefficientMatrix(packed.copy());
+                    double[][] expected = reference.recomposedCoefficients();
+                    for (int row = 0; row < expected.length; row++) {
+                        assertArrayEquals(expected[row], recomposed[row], 1e-12, "全体を再構成し直した結果と一致すること（" + name + "）");
+                        for (int column = 0; column < expected[row].length; column++) {
+                            boolean inside = region[0] <= row && row < region[1] && region[2] <= column && column < region[3];
+                            if (!inside) {
+                                assertEquals(before[row][column], recomposed[row][column], 0.0, "範囲の外は書き換えないこと");
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        DiscreteWavelet2dTransformation transformation = new DiscreteWavelet2dTransformation(new double[8][8]);
+        assertThrows(IllegalArgumentException.class, () -> transformation.recomposeRegion(0, 5, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> transformation.recomposeRegion(2, 2, 0, 1));
+        assertArrayEquals(new int[] {0, 8, 0, 8}, transformation.recomposeRegion(0, 1, 0, 1), "未計算なら全体を再構成すること");
+        assertArrayEquals(new int[] {2, 6, 0, 8}, transformation.recomposeRegion(1, 2, 2, 4), "台の分だけ広げ、周期境界で折り返す方向は全体とすること");
+    }
+
+    @Test
+    @DisplayName("recomposeRegion() of the single-precision transformation matches full recomposition")
+    void testFloatRecomposeRegion() {
+        double[][] source = new double[20][13];
+        for (int row = 0; row < source.length; row++) {
+            for (int column = 0; column < source[row].length; column++) {
+                source[row][column] = Math.sin(row * 0.3) + Math.cos(column * 0.7);
+            }
+        }
+        DiscreteWavelet2dFloatTransformation transformation = new DiscreteWavelet2dFloatTransformation(source);
+        transformation.filterBank(FilterBank.daubechies(6));
+        FloatCoefficientMatrix packed = transformation.coefficientMatrix();
+        transformation.recomposedMatrix();
+        packed.values()[packed.vertical().indexOf(4, 3)] = 2.5F;
+        int[] region = transformation.recomposeRegion(4, 5, 3, 4);
+        assertArrayEquals(new int[] {8, 14, 6, 12}, region, "D6 では係数1つが3組の出力に寄与すること");
+
+        DiscreteWavelet2dFloatTransformation reference = new DiscreteWavelet2dFloatTransformation(source);
+        reference.filterBank(FilterBank.daubechies(6));
+        reference.coefficientMatrix(packed.copy());
+        float[][] expected = reference.recomposedCoefficients();
+        float[][] actual = transformation.recomposedCoefficients();
+        for (int row = 0; row < expected.length; row++) {
+            assertArrayEquals(expected[row], actual[row], 1e-5F, "全体を再構成し直した結果と一致すること");
+        }
+    }
+}
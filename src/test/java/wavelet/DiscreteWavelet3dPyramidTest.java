@@ -0,0 +1,179 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class DiscreteWavelet3dPyramidTest {
+
+    private static final double DELTA = 1e-9; // 浮動小数点比較の許容誤差
+
+    private static double[][][] randomVolume(int slices, int rows, int columns, long seed) {
+        Random random = new Random(seed);
+        double[][][] volume = new double[slices][rows][columns];
+        for (double[][] slice : volume) {
+            for (double[] row : slice) {
+                for (int i = 0; i < columns; i++) {
+                    row[i] = random.nextDouble();
+                }
+            }
+        }
+        return volume;
+    }
+
+    private static void assertVolumeEquals(double[][][] expected, double[][][] actual, String message) {
+        assertEquals(expected.length, actual.length, message);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].length, actual[i].length, message);
+            for (int j = 0; j < expected[i].length; j++) {
+                assertArrayEquals(expected[i][j], actual[i][j], DELTA, message);
+            }
+        }
+    }
+
+    @Test
+    void testMatchesFrameTransformFollowedBySlicePass() {
+        for (String name : new String[] {"Haar", "D4", "CDF9/7"}) {
+            FilterBank bank = FilterBank.named(name);
+            double[][][] source = randomVolume(8, 16, 12, 1L);
+            DiscreteWavelet3dPyramid pyramid = new DiscreteWavelet3dPyramid(source, 1);
+            pyramid.filterBank(bank);
+
+            int frame = 16 * 12;
+            double[] expected = new double[8 * frame];
+            for (int slice = 0; slice < 8; slice++) {
+                DiscreteWavelet2dPyramid planar = new DiscreteWavelet2dPyramid(source[slice], 1);
+                planar.filterBank(bank);
+                System.arraycopy(planar.coefficients(), 0, expected, slice * frame, frame);
+            }
+            DiscreteWavelet1dPyramid line = new DiscreteWavelet1dPyramid(new double[2], 1);
+            line.filterBank(bank);
+            for (int index = 0; index < frame; index++) {
+                line.decompose(expected, index, 8, frame, new double[8]);
+            }
+            assertArrayEquals(expected, pyramid.coefficients(), DELTA, "フレームごとの2次元変換とスライス方向の分解を続けた結果と一致すること（" + name + "）");
+        }
+    }
+
+    @Test
+    void testSubbandsMatchRepeatedSingleLevel() {
+        double[][][] source = randomVolume(8, 16, 8, 2L);
+        DiscreteWavelet3dPyramid pyramid = new DiscreteWavelet3dPyramid(source, 2);
+        assertEquals(8 * 16 * 8, pyramid.coefficients().length, "詰め込み配列は元のボリュームと同じ大きさであること");
+
+        DiscreteWavelet3dPyramid first = new DiscreteWavelet3dPyramid(source, 1);
+        for (int band = 1; band < 8; band++) {
+            assertVolumeEquals(first.subband(1, band), pyramid.subband(1, band), "第1段の帯域 " + band + " が一致すること");
+        }
+        DiscreteWavelet3dPyramid second = new DiscreteWavelet3dPyramid(first.scalingCoefficients(), 1);
+        double[][][][] bands = pyramid.waveletCoefficients(2);
+        assertEquals(7, bands.length);
+        for (int band = 1; band < 8; band++) {
+            assertVolumeEquals(second.subband(1, band), bands[band - 1], "第2段の帯域 " + band + " が一致すること");
+        }
+        assertVolumeEquals(second.scalingCoefficients(), pyramid.scalingCoefficients(), "最上段のスケーリング係数が一致すること");
+        assertEquals(2, pyramid.scalingCoefficients().length);
+        assertEquals(4, pyramid.scalingCoefficients()[0].length);
+        assertEquals(2, pyramid.scalingCoefficients()[0][0].length);
+    }
+
+    @Test
+    void testBandsSeparateTheAxes() {
+        double[][][] source = new double[4][4][4];
+        for (int slice = 0; slice < 4; slice++) {
+            for (int row = 0; row < 4; row++) {
+                for (int column = 0; column < 4; column++) {
+                    source[slice][row][column] = (slice % 2 == 0) ? 1.0 : -1.0; // スライス方向にだけ変化する
+                }
+            }
+        }
+        DiscreteWavelet3dPyramid pyramid = new DiscreteWavelet3dPyramid(source, 1);
+        pyramid.filterBank(FilterBank.haar());
+        for (int band = 0; band < 8; band++) {
+            double expected = band == 4 ? 2.0 * Math.sqrt(2.0) : 0.0;
+            for (double[][] slice : pyramid.subband(1, band)) {
+                for (double[] row : slice) {
+                    for (double value : row) {
+                        assertEquals(expected, Math.abs(value), DELTA, "スライス方向の変化は帯域 4 だけに現れること（帯域 " + band + "）");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRecomposeToAnyLevel() {
+        double[][][] source = randomVolume(16, 8, 16, 3L);
+        for (WaveletEngine engine : WaveletEngine.values()) {
+            DiscreteWavelet3dPyramid pyramid = new DiscreteWavelet3dPyramid(source, 3);
+            pyramid.engine(engine);
+            assertVolumeEquals(source, pyramid.recomposedCoefficients(), "元のボリュームに戻ること（" + engine + "）");
+            DiscreteWavelet3dPyramid first = new DiscreteWavelet3dPyramid(source, 1);
+            first.engine(engine);
+            assertVolumeEquals(first.scalingCoefficients(), pyramid.recomposedCoefficients(1), "第1段の近似まで再構成できること");
+            assertVolumeEquals(pyramid.scalingCoefficients(), pyramid.recomposedCoefficients(3), "最上段ではスケーリング係数そのものになること");
+        }
+    }
+
+    @Test
+    void testParallelIsBitIdentical() {
+        double[][][] source = randomVolume(32, 64, 48, 4L);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (WaveletEngine engine : WaveletEngine.values()) {
+                DiscreteWavelet3dPyramid sequential = new DiscreteWavelet3dPyramid(source, 2);
+                sequential.engine(engine);
+                DiscreteWavelet3dPyramid parallel = new DiscreteWavelet3dPyramid(source, 2);
+                parallel.engine(engine);
+                parallel.forkJoinPool(pool);
+                assertArrayEquals(sequential.coefficients(), parallel.coefficients(), 0.0, "並列でも係数が完全に一致すること");
+                assertArrayEquals(sequential.recomposedCoefficients()[31][63], parallel.recomposedCoefficients()[31][63], 0.0, "並列でも再構成が完全に一致すること");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testCoefficientsSetter() {
+        double[][][] source = randomVolume(4, 8, 16, 5L);
+        DiscreteWavelet3dPyramid pyramid = new DiscreteWavelet3dPyramid(source, 2);
+        DiscreteWavelet3dPyramid other = new DiscreteWavelet3dPyramid(new double[4][4][4], 2);
+        other.coefficients(pyramid.coefficients().clone(), 4, 8, 16);
+        assertEquals(4, other.slices());
+        assertEquals(8, other.rows());
+        assertEquals(16, other.columns());
+        assertVolumeEquals(source, other.recomposedCoefficients(), "設定した係数から再構成できること");
+        assertEquals(pyramid.coefficients()[8 * 16 + 3], pyramid.sliceMatrix(1).at(0, 3), "スライスの面を共有して参照できること");
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertEquals(3, DiscreteWavelet3dPyramid.maximumLevels(8, 32, 16));
+        assertThrows(IllegalArgumentException.class, () -> new DiscreteWavelet3dPyramid(new double[6][8][8], 2));
+        assertEquals("volume must not be empty.", assertThrows(IllegalArgumentException.class, () -> new DiscreteWavelet3dPyramid(new double[0][0][0], 1)).getMessage());
+        assertEquals("volume must not be empty.", assertThrows(IllegalArgumentException.class, () -> new DiscreteWavelet3dPyramid(new double[2][2][0], 1)).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new DiscreteWavelet3dPyramid(new double[][][] {new double[2][2], new double[2][4]}, 1));
+        double[] row = new double[2048];
+        double[][][] huge = new double[1024][1024][];
+        for (double[][] slice : huge) {
+            Arrays.fill(slice, row); // 同じ行を共有して、要素数が int を超えるボリュームを小さなメモリで作る
+        }
+        assertThrows(IllegalArgumentException.class, () -> new DiscreteWavelet3dPyramid(huge, 0), "詰め込み配列の長さが int を超えるボリュームは受け付けないこと");
+        DiscreteWavelet3dPyramid pyramid = new DiscreteWavelet3dPyramid(new double[4][4][4], 2);
+        assertThrows(IllegalArgumentException.class, () -> pyramid.subband(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> pyramid.subband(3, 1));
+        assertThrows(IllegalArgumentException.class, () -> pyramid.subband(2, 8));
+        assertThrows(IllegalArgumentException.class, () -> pyramid.sliceMatrix(4));
+        assertThrows(IllegalArgumentException.class, () -> pyramid.levels(3));
+        assertThrows(IllegalArgumentException.class, () -> pyramid.levels(32), "1 << 32 が 1 に折り返しても受け付けないこと");
+        assertThrows(IllegalArgumentException.class, () -> pyramid.levels(-1));
+        assertThrows(IllegalArgumentException.class, () -> pyramid.coefficients(new double[10], 2, 2, 2));
+        assertThrows(IllegalArgumentException.class, () -> pyramid.applyTo(new double[4][4]));
+    }
+}
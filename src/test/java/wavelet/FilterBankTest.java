@@ -0,0 +1,173 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.List;
+import java.util.Random;
+
+public class FilterBankTest {
+
+    private static final double DELTA = 1e-12; // 浮動小数点比較の許容誤差
+
+    private static double[] randomSignal(int length, long seed) {
+        Random random = new Random(seed);
+        double[] signal = new double[length];
+        for (int i = 0; i < length; i++) {
+            signal[i] = random.nextDouble() - 0.5;
+        }
+        return signal;
+    }
+
+    private static double correlation(double[] p, double[] q, int shift) {
+        double sum = 0.0;
+        for (int n = 0; n < p.length; n++) {
+            int m = n + shift;
+            if (m >= 0 && m < q.length) {
+                sum += p[n] * q[m];
+            }
+        }
+        return sum;
+    }
+
+    @Test
+    void testRegistry() {
+        List<String> names = FilterBank.names();
+        assertEquals(26, names.size());
+        assertEquals("Haar", names.get(0));
+        assertTrue(names.containsAll(List.of("D4", "D20", "Sym2", "Sym10", "Coif1", "Coif5", "CDF9/7", "CDF5/3")));
+        for (String name : names) {
+            assertSame(FilterBank.named(name), FilterBank.named(name.toUpperCase()), "大文字・小文字を区別せずに同じインスタンスを応答すること");
+            assertEquals(name, FilterBank.named(name).name());
+        }
+        assertSame(FilterBank.haar(), FilterBank.daubechies(2));
+        assertSame(FilterBank.named("D12"), FilterBank.daubechies(12));
+        assertArrayEquals(FilterBank.daubechies(6).scalingFilter(), FilterBank.symlet(3).scalingFilter(), 0.0, "次数 3 の Symlet は D6 と同じであること");
+        assertEquals(30, FilterBank.coiflet(5).length());
+        assertEquals(10, FilterBank.cdf97().length());
+        assertEquals(6, FilterBank.cdf53().length());
+        assertThrows(IllegalArgumentException.class, () -> FilterBank.named("D5"));
+        assertThrows(IllegalArgumentException.class, () -> FilterBank.daubechies(22));
+        assertThrows(IllegalArgumentException.class, () -> FilterBank.symlet(1));
+        assertThrows(IllegalArgumentException.class, () -> FilterBank.coiflet(6));
+        assertThrows(UnsupportedOperationException.class, () -> names.add("x"));
+    }
+
+    @Test
+    void testFiltersAreSharedCopies() {
+        FilterBank bank = FilterBank.daubechies(8);
+        double[] copy = bank.scalingFilter();
+        copy[0] = 100.0;
+        assertEquals(0.2303778133088964, bank.scalingFilter()[0], 0.0, "複製を書き換えても共有のフィルターは変わらないこと");
+
+        DiscreteWavelet1dTransformation first = new DiscreteWavelet1dTransformation(new double[8]);
+        DiscreteWavelet1dTransformation second = new DiscreteWavelet1dTransformation(new double[8]);
+        assertSame(first.daubechiesScalingSequence, second.daubechiesScalingSequence, "インスタンスごとにフィルターを作らないこと");
+        assertSame(FilterBank.daubechies(4), first.filterBank());
+        assertThrows(IllegalArgumentException.class, () -> first.filterBank(null));
+    }
+
+    @Test
+    void testBiorthogonality() {
+        for (String name : FilterBank.names()) {
+            FilterBank bank = FilterBank.named(name);
+            double[] h = bank.scalingFilter();
+            double[] g = bank.waveletFilter();
+            double[] ht = bank.synthesisScalingFilter();
+            double[] gt = bank.synthesisWaveletFilter();
+            assertEquals(Math.sqrt(2.0), sum(h), DELTA, name + " のスケーリングフィルターの和が √2 であること");
+            for (int k = -h.length / 2; k <= h.length / 2; k++) {
+                double delta = k == 0 ? 1.0 : 0.0;
+                assertEquals(delta, correlation(h, ht, 2 * k), DELTA, name + " の h と h~ が双直交であること");
+                assertEquals(delta, correlation(g, gt, 2 * k), DELTA, name + " の g と g~ が双直交であること");
+                assertEquals(0.0, correlation(h, gt, 2 * k), DELTA, name + " の h と g~ が直交すること");
+                assertEquals(0.0, correlation(g, ht, 2 * k), DELTA, name + " の g と h~ が直交すること");
+            }
+        }
+        assertFalse(FilterBank.cdf97().isOrthogonal());
+        assertTrue(FilterBank.coiflet(3).isOrthogonal());
+    }
+
+    @Test
+    void testVanishingMoments() {
+        for (int taps = 4; taps <= 20; taps += 2) {
+            assertVanishingMoments(FilterBank.daubechies(taps), taps / 2);
+            assertVanishingMoments(FilterBank.symlet(taps / 2), taps / 2);
+        }
+        for (int order = 1; order <= 5; order++) {
+            assertVanishingMoments(FilterBank.coiflet(order), order * 2);
+        }
+        assertVanishingMoments(FilterBank.cdf97(), 4);
+        assertVanishingMoments(FilterBank.cdf53(), 2);
+    }
+
+    private static void assertVanishingMoments(FilterBank bank, int moments) {
+        double[] g = bank.waveletFilter();
+        double center = (g.length - 1) / 2.0;
+        for (int j = 0; j < moments; j++) {
+            double moment = 0.0;
+            for (int k = 0; k < g.length; k++) {
+                moment += g[k] * Math.pow((k - center) / center, j);
+            }
+            assertEquals(0.0, moment, 1e-10, bank + " のウェーブレットフィルターの " + j + " 次のモーメントが 0 であること");
+        }
+    }
+
+    @Test
+    void testPerfectReconstruction() {
+        for (String name : FilterBank.names()) {
+            FilterBank bank = FilterBank.named(name);
+            for (WaveletEngine engine : WaveletEngine.values()) {
+                double[] signal = randomSignal(64, name.hashCode());
+                DiscreteWavelet1dTransformation transformation = new DiscreteWavelet1dTransformation(signal);
+                transformation.engine(engine);
+                transformation.filterBank(bank);
+                transformation.scalingCoefficients();
+                transformation.waveletCoefficients();
+                assertArrayEquals(signal, transformation.recomposedCoefficients(), 1e-10, name + "（" + engine + "）で1次元の信号に戻ること");
+
+                DiscreteWavelet1dPyramid pyramid = new DiscreteWavelet1dPyramid(randomSignal(16, 3L), 3);
+                pyramid.engine(engine);
+                pyramid.filterBank(bank);
+                assertArrayEquals(pyramid.sourceCoefficients(), pyramid.recomposedCoefficients(), 1e-10, name + "（" + engine + "）でフィルターより短い信号も戻ること");
+
+                double[][] matrix = {randomSignal(32, 1L), randomSignal(32, 2L), randomSignal(32, 3L), randomSignal(32, 4L)};
+                DiscreteWavelet2dPyramid pyramid2d = new DiscreteWavelet2dPyramid(matrix, 2);
+                pyramid2d.engine(engine);
+                pyramid2d.filterBank(bank);
+                assertArrayEquals(CoefficientMatrix.fromArray(matrix).values(), pyramid2d.recomposedMatrix(0).copy().values(), 1e-10, name + "（" + engine + "）で2次元の行列に戻ること");
+            }
+        }
+    }
+
+    @Test
+    void testDaubechiesOrderMatchesRegistry() {
+        DiscreteWavelet1dTransformation transformation = new DiscreteWavelet1dTransformation(new double[8]);
+        int[] taps = {4, 2, 4, 6, 8, 4};
+        for (int order = 0; order <= 5; order++) {
+            transformation.initialize(order);
+            assertSame(FilterBank.daubechies(taps[order]), transformation.filterBank(), "次数 " + order + " に対応するフィルターバンクであること");
+        }
+    }
+
+    @Test
+    void testTransformKeepsFilterBank() {
+        DiscreteWavelet2dTransformation transformation = new DiscreteWavelet2dTransformation(new double[4][4]);
+        transformation.filterBank(FilterBank.cdf53());
+        DiscreteWavelet2dTransformation result = (DiscreteWavelet2dTransformation) transformation.transform(new DiscreteWavelet2dTransformation(new double[4][4]));
+        assertSame(FilterBank.cdf53(), result.filterBank());
+    }
+
+    private static double sum(double[] values) {
+        double sum = 0.0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,97 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+public class FloatCoefficientMatrixTest {
+
+    private static final double RELATIVE_BOUND = 1.0e-6; // 倍精度との差の上限（係数の絶対値の最大値に対する比）
+
+    private static double[][] randomMatrix(int rows, int columns, long seed) {
+        Random random = new Random(seed);
+        double[][] matrix = new double[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                matrix[row][column] = random.nextDouble() * 255.0;
+            }
+        }
+        return matrix;
+    }
+
+    private static double maximumDifference(CoefficientMatrix expected, FloatCoefficientMatrix actual) {
+        double maximum = 0.0;
+        for (int row = 0; row < expected.rowSize(); row++) {
+            for (int column = 0; column < expected.columnSize(); column++) {
+                maximum = Math.max(maximum, Math.abs(expected.at(row, column) - actual.at(row, column)));
+            }
+        }
+        return maximum;
+    }
+
+    @Test
+    void testViewsAndCopies() {
+        double[][] source = {{1.0, 2.0, 3.0, 4.0}, {5.0, 6.0, 7.0, 8.0}};
+        FloatCoefficientMatrix matrix = FloatCoefficientMatrix.fromArray(source);
+        assertEquals(2, matrix.rowSize());
+        assertEquals(4, matrix.columnSize());
+        assertEquals(7.0f, matrix.at(1, 2));
+        assertEquals(6.0f, matrix.horizontal().at(0, 1));
+        assertEquals(3.0f, matrix.vertical().at(0, 0));
+        assertEquals(8.0f, matrix.diagonal().at(0, 1));
+
+        matrix.diagonal().fill(0.0f);
+        assertEquals(0.0f, matrix.at(1, 3));
+        assertEquals(4.0f, matrix.at(0, 3), "ビューの外は変更されないこと");
+
+        CoefficientMatrix widened = matrix.toCoefficientMatrix();
+        assertArrayEquals(new double[] {1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 0.0, 0.0}, widened.values(), 0.0);
+        assertEquals(FloatCoefficientMatrix.fromMatrix(widened).toArray()[1][1], matrix.copy().toArray()[1][1]);
+        assertEquals(6.0, matrix.maximumAbsolute(), 0.0);
+    }
+
+    @Test
+    void testInvalidShapes() {
+        assertThrows(IllegalArgumentException.class, () -> new FloatCoefficientMatrix(new float[4], 0, 2, 3, 3));
+        assertThrows(IllegalArgumentException.class, () -> new FloatCoefficientMatrix(2, 2).subMatrix(1, 1, 2, 1));
+        assertThrows(IllegalArgumentException.class, () -> new FloatCoefficientMatrix(2, 2).copyFrom(new FloatCoefficientMatrix(2, 3)));
+    }
+
+    @Test
+    void testErrorBoundAgainstDoublePrecision() {
+        int[][] sizes = {{8, 8}, {64, 32}, {256, 256}, {100, 60}};
+        for (WaveletEngine engine : WaveletEngine.values()) {
+            for (int[] size : sizes) {
+                double[][] source = randomMatrix(size[0], size[1], size[0] * 31L + size[1]);
+                DiscreteWavelet2dTransformation expected = new DiscreteWavelet2dTransformation(source);
+                DiscreteWavelet2dFloatTransformation actual = new DiscreteWavelet2dFloatTransformation(source);
+                expected.engine(engine);
+                actual.engine(engine);
+
+                CoefficientMatrix coefficients = expected.coefficientMatrix();
+                double bound = RELATIVE_BOUND * coefficients.maximumAbsolute();
+                double coefficientError = maximumDifference(coefficients, actual.coefficientMatrix());
+                assertTrue(coefficientError <= bound, "係数の誤差 " + coefficientError + " が上限 " + bound + " 以内であること（" + engine + "、" + size[0] + "x" + size[1] + "）");
+
+                double recomposedError = maximumDifference(expected.recomposedMatrix(), actual.recomposedMatrix());
+                assertTrue(recomposedError <= bound, "再構成の誤差 " + recomposedError + " が上限 " + bound + " 以内であること（" + engine + "、" + size[0] + "x" + size[1] + "）");
+                assertEquals(expected.scalingCoefficients().length, actual.scalingCoefficients().length);
+                assertEquals(expected.diagonalWaveletCoefficients()[0].length, actual.diagonalWaveletCoefficients()[0].length);
+            }
+        }
+    }
+
+    @Test
+    void testParallelMatchesSequential() {
+        double[][] source = randomMatrix(512, 512, 5L);
+        DiscreteWavelet2dFloatTransformation sequential = new DiscreteWavelet2dFloatTransformation(source);
+        DiscreteWavelet2dFloatTransformation parallel = new DiscreteWavelet2dFloatTransformation(source);
+        parallel.parallelism(4);
+        assertArrayEquals(sequential.coefficientMatrix().values(), parallel.coefficientMatrix().values(), 0.0f, "並列でも係数が完全に一致すること");
+        assertArrayEquals(sequential.recomposedMatrix().copy().values(), parallel.recomposedMatrix().copy().values(), 0.0f, "並列でも再構成が完全に一致すること");
+    }
+}
@@ -0,0 +1,92 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class IntegerWavelet2dPyramidTest {
+
+    private static int[] randomPlane(int length, long seed) {
+        Random random = new Random(seed);
+        int[] plane = new int[length];
+        for (int index = 0; index < length; index++) {
+            plane[index] = random.nextInt(512) - 128;
+        }
+        return plane;
+    }
+
+    @Test
+    void testLiftingSteps() {
+        int[] signal = {1, 2, 3, 4};
+        IntegerLiftingScheme.forward(signal, 0, 4, new int[2]);
+        assertArrayEquals(new int[] {1, 3, 0, 1}, signal, "予測と更新の値が定義どおりであること");
+
+        int[] odd = {5, 5, 5, 5, 5};
+        IntegerLiftingScheme.forward(odd, 0, 5, new int[2]);
+        assertArrayEquals(new int[] {5, 5, 5, 0, 0}, odd, "定数の信号では高域が0になること");
+
+        for (int length = 1; length <= 33; length++) {
+            int[] source = randomPlane(length + 3, length);
+            int[] data = source.clone();
+            IntegerLiftingScheme.forward(data, 3, length, new int[length]);
+            assertEquals(source[0], data[0], "範囲の外は変更されないこと");
+            IntegerLiftingScheme.inverse(data, 3, length, new int[length]);
+            assertArrayEquals(source, data, "長さ " + length + " で元の信号に戻ること");
+        }
+    }
+
+    @Test
+    void testExactReconstruction() {
+        int[][] sizes = {{1, 1}, {1, 9}, {9, 1}, {2, 2}, {7, 5}, {8, 8}, {33, 17}, {64, 48}, {101, 67}};
+        for (int[] size : sizes) {
+            for (int levels = 0; levels <= 6; levels++) {
+                int[] plane = randomPlane(size[0] * size[1], size[0] * 31L + size[1] + levels);
+                int[] copy = plane.clone();
+                IntegerWavelet2dPyramid pyramid = new IntegerWavelet2dPyramid(plane, size[0], size[1], levels);
+                pyramid.coefficients();
+                assertArrayEquals(copy, plane, "元の平面は変更されないこと");
+                assertArrayEquals(plane, pyramid.recomposedPlane(), "完全に元の平面に戻ること（" + size[0] + "x" + size[1] + "、" + levels + " 段）");
+            }
+        }
+    }
+
+    @Test
+    void testLayoutAndIntermediateLevels() {
+        int width = 12;
+        int height = 10;
+        int[] plane = new int[width * height];
+        Arrays.fill(plane, 100);
+        IntegerWavelet2dPyramid pyramid = new IntegerWavelet2dPyramid(plane, width, height, 2);
+        int[] coefficients = pyramid.coefficients();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int expected = (x < 3 && y < 3) ? 100 : 0;
+                assertEquals(expected, coefficients[y * width + x], "定数の平面では近似成分だけが残ること");
+            }
+        }
+        int[] half = pyramid.recomposedPlane(1);
+        assertEquals(6 * 5, half.length);
+        for (int value : half) {
+            assertEquals(100, value, "1段目の近似が定数になること");
+        }
+    }
+
+    @Test
+    void testCoefficientsAndTransform() {
+        int[] plane = randomPlane(20 * 15, 3L);
+        IntegerWavelet2dPyramid pyramid = new IntegerWavelet2dPyramid(plane, 20, 15, 3);
+        IntegerWavelet2dPyramid restored = new IntegerWavelet2dPyramid(new int[1], 1, 1, 3);
+        restored.coefficients(pyramid.coefficients().clone(), 20, 15);
+        assertArrayEquals(plane, restored.recomposedPlane(), "係数から元の平面に戻ること");
+
+        IntegerWavelet2dPyramid transformed = (IntegerWavelet2dPyramid) pyramid.transform(restored);
+        assertArrayEquals(pyramid.coefficients(), transformed.coefficients(), "再構成した平面から同じ係数になること");
+        assertThrows(IllegalArgumentException.class, () -> new IntegerWavelet2dPyramid(new int[5], 2, 3, 1));
+        assertThrows(IllegalArgumentException.class, () -> pyramid.levels(-1));
+        assertThrows(IllegalArgumentException.class, () -> pyramid.recomposedPlane(4));
+    }
+}
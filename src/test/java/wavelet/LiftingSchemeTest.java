@@ -0,0 +1,159 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+public class LiftingSchemeTest {
+
+    private static final double DELTA = 1e-9; // 浮動小数点比較の許容誤差
+
+    private static double[] randomSignal(int length, long seed) {
+        Random random = new Random(seed);
+        double[] signal = new double[length];
+        for (int i = 0; i < length; i++) {
+            signal[i] = random.nextDouble() * 2.0 - 1.0;
+        }
+        return signal;
+    }
+
+    private static DiscreteWavelet1dTransformation transformation(int order, double[] source, WaveletEngine engine) {
+        DiscreteWavelet1dTransformation transformation = new DiscreteWavelet1dTransformation(source);
+        transformation.initialize(order);
+        transformation.sourceCoefficients(source);
+        transformation.engine(engine);
+        return transformation;
+    }
+
+    @Test
+    void testForwardMatchesConvolution() {
+        for (int order = 1; order <= 4; order++) {
+            for (int length = 2; length <= 64; length *= 2) {
+                double[] source = randomSignal(length, order * 100 + length);
+                DiscreteWavelet1dTransformation convolution = transformation(order, source, WaveletEngine.CONVOLUTION);
+                DiscreteWavelet1dTransformation lifting = transformation(order, source, WaveletEngine.LIFTING);
+                assertArrayEquals(convolution.scalingCoefficients(), lifting.scalingCoefficients(), DELTA,
+                        "スケーリング係数が畳み込みと一致すること (order=" + order + ", length=" + length + ")");
+                assertArrayEquals(convolution.waveletCoefficients(), lifting.waveletCoefficients(), DELTA,
+                        "ウェーブレット係数が畳み込みと一致すること (order=" + order + ", length=" + length + ")");
+            }
+        }
+    }
+
+    @Test
+    void testInverseMatchesConvolution() {
+        for (int order = 1; order <= 4; order++) {
+            for (int length = 2; length <= 64; length *= 2) {
+                double[] scaling = randomSignal(length / 2, order * 10 + length);
+                double[] wavelet = randomSignal(length / 2, order * 10 + length + 1);
+                DiscreteWavelet1dTransformation convolution = new DiscreteWavelet1dTransformation(scaling, wavelet);
+                convolution.initialize(order);
+                convolution.scalingCoefficients(scaling);
+                convolution.waveletCoefficients(wavelet);
+                DiscreteWavelet1dTransformation lifting = new DiscreteWavelet1dTransformation(scaling, wavelet);
+                lifting.initialize(order);
+                lifting.scalingCoefficients(scaling);
+                lifting.waveletCoefficients(wavelet);
+                lifting.engine(WaveletEngine.LIFTING);
+                assertArrayEquals(convolution.recomposedCoefficients(), lifting.recomposedCoefficients(), DELTA,
+                        "再構成係数が畳み込みと一致すること (order=" + order + ", length=" + length + ")");
+            }
+        }
+    }
+
+    @Test
+    void testInPlaceStridedRoundTrip() {
+        for (int order = 1; order <= 4; order++) {
+            LiftingScheme scheme = LiftingScheme.daubechies(order);
+            int length = 32;
+            int stride = 3;
+            int offset = 2;
+            double[] data = randomSignal(offset + length * stride, order);
+            double[] original = data.clone();
+            scheme.forward(data, offset, length, stride);
+            scheme.inverse(data, offset, length, stride);
+            assertArrayEquals(original, data, DELTA, "その場変換の往復で元に戻ること (order=" + order + ")");
+        }
+    }
+
+    @Test
+    void testShiftedStepsWrapAtEveryLength() {
+        for (int order = 1; order <= 4; order++) {
+            LiftingScheme scheme = LiftingScheme.daubechies(order);
+            for (int length = 2; length <= 20; length += 2) { // 系列の長さが奇数でも、ずれが系列の長さ以上でも折り返すこと
+                double[] source = randomSignal(length, order * 1000 + length);
+                DiscreteWavelet1dTransformation convolution = transformation(order, source, WaveletEngine.CONVOLUTION);
+                double[] scaling = new double[length / 2];
+                double[] wavelet = new double[length / 2];
+                scheme.forward(source, scaling, wavelet);
+                assertArrayEquals(convolution.scalingCoefficients(), scaling, DELTA, "スケーリング係数が畳み込みと一致すること (order=" + order + ", length=" + length + ")");
+                assertArrayEquals(convolution.waveletCoefficients(), wavelet, DELTA, "ウェーブレット係数が畳み込みと一致すること (order=" + order + ", length=" + length + ")");
+                double[] recomposed = new double[length];
+                scheme.inverse(scaling, wavelet, recomposed);
+                assertArrayEquals(source, recomposed, DELTA, "往復で元に戻ること (order=" + order + ", length=" + length + ")");
+            }
+        }
+    }
+
+    @Test
+    void testInPlaceInterleavedLayout() {
+        double[] source = randomSignal(16, 7L);
+        DiscreteWavelet1dTransformation convolution = transformation(2, source, WaveletEngine.CONVOLUTION);
+        double[] data = source.clone();
+        LiftingScheme.daubechies(2).forward(data, 0, data.length, 1);
+        for (int i = 0; i < data.length / 2; i++) {
+            assertEquals(convolution.scalingCoefficients()[i], data[2 * i], DELTA, "偶数位置にスケーリング係数が入ること");
+            assertEquals(convolution.waveletCoefficients()[i], data[2 * i + 1], DELTA, "奇数位置にウェーブレット係数が入ること");
+        }
+    }
+
+    @Test
+    void testOddLengthThrowsException() {
+        LiftingScheme scheme = LiftingScheme.haar();
+        assertThrows(IllegalArgumentException.class, () -> scheme.forward(new double[3], 0, 3, 1));
+        assertThrows(IllegalArgumentException.class, () -> scheme.inverse(new double[3], 0, 3, 1));
+    }
+
+    @Test
+    void testEngineAccessors() {
+        DiscreteWavelet1dTransformation transformation = new DiscreteWavelet1dTransformation(new double[4]);
+        assertEquals(WaveletEngine.CONVOLUTION, transformation.engine(), "既定の演算方式は畳み込みであること");
+        transformation.engine(WaveletEngine.LIFTING);
+        assertEquals(WaveletEngine.LIFTING, transformation.engine());
+    }
+
+    @Test
+    void test2dLiftingMatchesConvolution() {
+        double[][] source = new double[16][8];
+        Random random = new Random(42L);
+        for (double[] row : source) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = random.nextDouble();
+            }
+        }
+        DiscreteWavelet2dTransformation convolution = new DiscreteWavelet2dTransformation(source);
+        DiscreteWavelet2dTransformation lifting = new DiscreteWavelet2dTransformation(source);
+        lifting.engine(WaveletEngine.LIFTING);
+        double[][] expectedScaling = convolution.scalingCoefficients();
+        double[][] actualScaling = lifting.scalingCoefficients();
+        for (int x = 0; x < expectedScaling.length; x++) {
+            assertArrayEquals(expectedScaling[x], actualScaling[x], DELTA, "2次元のスケーリング係数が一致すること");
+        }
+        double[][][] expectedWavelet = convolution.waveletCoefficients();
+        double[][][] actualWavelet = lifting.waveletCoefficients();
+        for (int k = 0; k < 3; k++) {
+            for (int x = 0; x < expectedWavelet[k].length; x++) {
+                assertArrayEquals(expectedWavelet[k][x], actualWavelet[k][x], DELTA, "2次元のウェーブレット係数が一致すること");
+            }
+        }
+        DiscreteWavelet2dTransformation inverse = new DiscreteWavelet2dTransformation(actualScaling, actualWavelet);
+        inverse.engine(WaveletEngine.LIFTING);
+        double[][] recomposed = inverse.recomposedCoefficients();
+        for (int x = 0; x < source.length; x++) {
+            assertArrayEquals(source[x], recomposed[x], DELTA, "2次元の往復で元に戻ること");
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package wavelet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.event.ActionEvent;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ScalogramModel Class Unit Tests")
+class ScalogramModelTest {
+
+    private static double[] sinusoid(int length, double period) {
+        double[] signal = new double[length];
+        for (int n = 0; n < length; n++) {
+            signal[n] = Math.sin(2.0 * Math.PI * n / period);
+        }
+        return signal;
+    }
+
+    @Test
+    @DisplayName("Magnitudes are per-column maxima of |W| and match between sequential and parallel runs")
+    void testComputeMagnitudes() {
+        double[] signal = sinusoid(1 << 14, 32.0);
+        double[] scales = ContinuosWaveletTransformation.dyadicScales(2.0, 4, 32);
+        ContinuosWaveletTransformation sequential = new ContinuosWaveletTransformation(signal, scales);
+        ContinuosWaveletTransformation parallel = new ContinuosWaveletTransformation(signal, scales);
+        parallel.forkJoinPool(new ForkJoinPool(4));
+        float[][] expected = ScalogramModel.computeMagnitudes(sequential, 512);
+        float[][] actual = ScalogramModel.computeMagnitudes(parallel, 512);
+        assertEquals(32, actual.length);
+        for (int j = 0; j < expected.length; j++) {
+            assertArrayEquals(expected[j], actual[j], "並列でも完全に一致すること");
+        }
+        assertArrayEquals(sequential.realCoefficients()[5], parallel.realCoefficients()[5], 0.0);
+
+        double[][] power = sequential.powerSpectrum();
+        double maximum = 0.0;
+        for (int n = 32 * 7; n < 32 * 8; n++) {
+            maximum = Math.max(maximum, power[9][n]);
+        }
+        assertEquals((float) Math.sqrt(maximum), expected[9][7], "列の区間の |W| の最大値であること");
+
+        int best = 0;
+        for (int j = 0; j < expected.length; j++) {
+            if (expected[j][256] > expected[best][256]) {
+                best = j;
+            }
+        }
+        double period = sequential.periods()[best];
+        assertTrue(period > 32.0 / 1.3 && period < 32.0 * 1.3, "信号の周期の行が最も明るいこと（" + period + "）");
+        assertThrows(IllegalArgumentException.class, () -> ScalogramModel.computeMagnitudes(sequential, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ContinuosWaveletTransformation().forEachScale((j, re, im) -> { }));
+    }
+
+    @Test
+    @DisplayName("Images are written through the colour table")
+    void testGenerateImage() {
+        int[] table = ScalogramModel.colorTable();
+        assertEquals(256, table.length);
+        assertEquals(0x000000, table[0]);
+        assertEquals(0xFCFDBF, table[255]);
+
+        float[][] magnitudes = {{0.0F, 1.0F, 2.0F}, {4.0F, 3.0F, 0.5F}};
+        BufferedImage image = ScalogramModel.generateImage(magnitudes, table);
+        assertEquals(3, image.getWidth());
+        assertEquals(2, image.getHeight());
+        assertEquals(table[0], image.getRGB(0, 0) & 0xFFFFFF);
+        assertEquals(table[255], image.getRGB(0, 1) & 0xFFFFFF, "最大値は参照表の最後の色になること");
+        assertEquals(table[127], image.getRGB(2, 0) & 0xFFFFFF);
+
+        BufferedImage signal = ScalogramModel.generateSignalImage(sinusoid(100, 10.0), 50);
+        assertEquals(50, signal.getWidth());
+        assertEquals(0xFFFFFF, signal.getRGB(0, 0) & 0xFFFFFF);
+        assertEquals(0x000000, signal.getRGB(2, signal.getHeight() / 2 - 60) & 0xFFFFFF, "山の区間に線を描くこと");
+    }
+
+    @Test
+    @DisplayName("Model renders the sample signal and switches mother wavelets")
+    void testModel() {
+        ScalogramModel model = new ScalogramModel();
+        BufferedImage picture = model.scalogramPaneModel.picture();
+        assertEquals(ScalogramModel.MAXIMUM_IMAGE_WIDTH, picture.getWidth());
+        assertEquals(ContinuosWaveletTransformation.defaultScales(4096, 1.0).length, picture.getHeight());
+        assertEquals(MotherWavelet.MORLET, model.motherWavelet());
+        ContinuosWaveletTransformation transformation = model.transformation;
+
+        model.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "mexican hat"));
+        assertEquals(MotherWavelet.MEXICAN_HAT, model.motherWavelet());
+        model.scales(new double[] {4.0, 8.0, 16.0});
+        model.setSourceData(sinusoid(300, 20.0));
+        assertEquals(300, model.scalogramPaneModel.picture().getWidth());
+        assertEquals(3, model.magnitudes.length);
+        assertSame(transformation, model.transformation, "変換を作り直さずに使い回すこと");
+        assertEquals(MotherWavelet.MEXICAN_HAT, transformation.motherWavelet());
+        assertArrayEquals(new double[] {4.0, 8.0, 16.0}, transformation.scales(), 0.0);
+        assertThrows(IllegalArgumentException.class, () -> model.motherWavelet(null));
+    }
+}
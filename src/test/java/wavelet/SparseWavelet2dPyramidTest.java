@@ -0,0 +1,176 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class SparseWavelet2dPyramidTest {
+
+    private static final double DELTA = 1e-9; // 浮動小数点比較の許容誤差
+
+    private static double[][] randomMatrix(int rows, int columns, long seed) {
+        Random random = new Random(seed);
+        double[][] matrix = new double[rows][columns];
+        for (double[] row : matrix) {
+            for (int i = 0; i < columns; i++) {
+                row[i] = random.nextDouble();
+            }
+        }
+        return matrix;
+    }
+
+    private static void assertMatrixEquals(double[][] expected, double[][] actual, String message) {
+        assertEquals(expected.length, actual.length, message);
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], actual[i], DELTA, message);
+        }
+    }
+
+    @Test
+    void testRoundTripKeepsEveryCoefficient() {
+        for (String name : new String[] {"Haar", "D4", "CDF9/7"}) {
+            double[][] source = randomMatrix(32, 64, 1L);
+            DiscreteWavelet2dPyramid pyramid = new DiscreteWavelet2dPyramid(source, 3);
+            pyramid.filterBank(FilterBank.named(name));
+            SparseWavelet2dPyramid sparse = new SparseWavelet2dPyramid(pyramid, 8);
+            assertArrayEquals(pyramid.coefficients(), sparse.coefficients(), 0.0, "詰め込み配列に戻せること（" + name + "）");
+            assertMatrixEquals(source, sparse.recomposedCoefficients(), "元の行列に戻ること（" + name + "）");
+            assertMatrixEquals(pyramid.recomposedCoefficients(1), sparse.recomposedCoefficients(1), "任意の段まで再構成できること（" + name + "）");
+            assertMatrixEquals(pyramid.scalingCoefficients(), sparse.scalingCoefficients(), "スケーリング係数が一致すること");
+            double[][][] expected = pyramid.waveletCoefficients(2);
+            double[][][] actual = sparse.waveletCoefficients(2);
+            for (int band = 0; band < 3; band++) {
+                assertMatrixEquals(expected[band], actual[band], "帯域 " + band + " が一致すること");
+            }
+        }
+    }
+
+    @Test
+    void testThresholding() {
+        double[] packed = new double[8 * 8];
+        packed[0] = 5.0; // スケーリング係数（閾値処理しない）
+        packed[4] = 0.5;
+        packed[5] = -2.0;
+        packed[4 * 8 + 1] = 3.0;
+        packed[6 * 8 + 6] = -1.0;
+        packed[1 * 8 + 2] = 0.25;
+
+        SparseWavelet2dPyramid hard = new SparseWavelet2dPyramid(packed, 8, 8, 2, 2);
+        assertEquals(5, hard.nonZeroCount());
+        hard.hardThreshold(0.5);
+        assertEquals(3, hard.nonZeroCount(), "絶対値が閾値以下の係数を取り除くこと");
+        double[] expected = packed.clone();
+        expected[4] = 0.0;
+        expected[1 * 8 + 2] = 0.0;
+        assertArrayEquals(expected, hard.coefficients(), 0.0);
+
+        SparseWavelet2dPyramid soft = new SparseWavelet2dPyramid(packed, 8, 8, 2, 2);
+        soft.softThreshold(1.0);
+        expected = new double[8 * 8];
+        expected[0] = 5.0;
+        expected[5] = -1.0;
+        expected[4 * 8 + 1] = 2.0;
+        assertArrayEquals(expected, soft.coefficients(), 0.0, "絶対値を閾値だけ縮めること");
+        assertEquals(2, soft.nonZeroCount());
+
+        SparseWavelet2dPyramid largest = new SparseWavelet2dPyramid(packed, 8, 8, 2, 2);
+        largest.keepLargest(2);
+        expected = new double[8 * 8];
+        expected[0] = 5.0;
+        expected[5] = -2.0;
+        expected[4 * 8 + 1] = 3.0;
+        assertArrayEquals(expected, largest.coefficients(), 0.0, "絶対値の大きい係数だけを残すこと");
+        largest.keepLargest(0);
+        assertEquals(0, largest.nonZeroCount());
+        assertEquals(0, largest.nonEmptyBlockCount());
+    }
+
+    @Test
+    void testKeepLargestBreaksTiesInOrder() {
+        double[] packed = new double[4 * 4];
+        packed[2] = 1.0; // 第1段の垂直
+        packed[2 * 4] = -1.0; // 第1段の水平
+        packed[3 * 4 + 3] = 1.0; // 第1段の対角
+        SparseWavelet2dPyramid sparse = new SparseWavelet2dPyramid(packed, 4, 4, 1, 4);
+        sparse.keepLargest(2);
+        assertEquals(2, sparse.nonZeroCount(), "絶対値の等しい係数があっても指定した個数だけ残すこと");
+        assertEquals(0.0, sparse.coefficients()[3 * 4 + 3], 0.0, "帯域の順で後の係数を取り除くこと");
+    }
+
+    @Test
+    void testReconstructionSkipsEmptyBlocksExactly() {
+        double[][] source = new double[64][64];
+        for (int row = 8; row < 24; row++) {
+            for (int column = 40; column < 56; column++) {
+                source[row][column] = Math.sin(row * 0.3) + Math.cos(column * 0.7); // 一部だけに信号がある画像
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (WaveletEngine engine : WaveletEngine.values()) {
+                DiscreteWavelet2dPyramid pyramid = new DiscreteWavelet2dPyramid(source, 3);
+                pyramid.engine(engine);
+                pyramid.columnTileWidth(8);
+                SparseWavelet2dPyramid sparse = new SparseWavelet2dPyramid(pyramid, 8);
+                assertTrue(sparse.nonEmptyBlockCount() < sparse.blockCount(), "空のブロックがあること");
+                sparse.hardThreshold(1e-3);
+                DiscreteWavelet2dPyramid dense = new DiscreteWavelet2dPyramid(new double[64][64], 3);
+                dense.engine(engine);
+                dense.coefficients(sparse.coefficients(), 64, 64);
+                assertMatrixEquals(dense.recomposedCoefficients(), sparse.recomposedCoefficients(), "密な再構成と一致すること（" + engine + "）");
+                sparse.forkJoinPool(pool);
+                assertMatrixEquals(dense.recomposedCoefficients(), sparse.recomposedCoefficients(), "並列でも一致すること（" + engine + "）");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testBlockWindowsWrapAroundSmallBands() {
+        for (String name : new String[] {"Haar", "D4", "CDF9/7"}) {
+            for (int blockSize : new int[] {1, 3, 16}) {
+                double[][] source = randomMatrix(24, 40, 3L);
+                DiscreteWavelet2dPyramid pyramid = new DiscreteWavelet2dPyramid(source, 3);
+                pyramid.filterBank(FilterBank.named(name));
+                SparseWavelet2dPyramid sparse = new SparseWavelet2dPyramid(pyramid, blockSize);
+                sparse.keepLargest(40); // 3 × 5 の最上段でも窓が折り返す
+                DiscreteWavelet2dPyramid dense = new DiscreteWavelet2dPyramid(new double[24][40], 3);
+                dense.filterBank(FilterBank.named(name));
+                dense.coefficients(sparse.coefficients(), 24, 40);
+                assertMatrixEquals(dense.recomposedCoefficients(), sparse.recomposedCoefficients(), "密な再構成と一致すること（" + name + "、" + blockSize + "）");
+                assertMatrixEquals(dense.recomposedCoefficients(2), sparse.recomposedCoefficients(2), "途中の段でも一致すること（" + name + "、" + blockSize + "）");
+            }
+        }
+    }
+
+    @Test
+    void testApplyToAndTransform() {
+        double[][] source = randomMatrix(16, 16, 2L);
+        SparseWavelet2dPyramid sparse = new SparseWavelet2dPyramid(new double[16 * 16], 16, 16, 2, 4);
+        sparse.applyTo(source);
+        assertEquals(16 * 16 - 4 * 4, sparse.nonZeroCount(), "スケーリング係数の外の係数をすべて保持すること");
+        assertMatrixEquals(source, sparse.recomposedCoefficients(), "行列を分解して保持できること");
+        SparseWavelet2dPyramid other = (SparseWavelet2dPyramid) sparse.transform(sparse);
+        assertArrayEquals(sparse.coefficients(), other.coefficients(), DELTA);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new SparseWavelet2dPyramid(new double[36], 6, 6, 2, 4));
+        assertThrows(IllegalArgumentException.class, () -> new SparseWavelet2dPyramid(new double[10], 4, 4, 1, 4));
+        assertThrows(IllegalArgumentException.class, () -> new SparseWavelet2dPyramid(new double[16], 4, 4, 1, 0));
+        SparseWavelet2dPyramid sparse = new SparseWavelet2dPyramid(new double[16], 4, 4, 1, 2);
+        assertThrows(IllegalArgumentException.class, () -> sparse.hardThreshold(-1.0));
+        assertThrows(IllegalArgumentException.class, () -> sparse.softThreshold(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> sparse.keepLargest(-1));
+        assertThrows(IllegalArgumentException.class, () -> sparse.waveletCoefficients(2));
+        assertThrows(IllegalArgumentException.class, () -> sparse.recomposedCoefficients(2));
+        assertThrows(IllegalArgumentException.class, () -> sparse.applyTo(new double[4]));
+    }
+}
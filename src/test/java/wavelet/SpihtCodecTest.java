@@ -0,0 +1,133 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class SpihtCodecTest {
+
+    private static int[] smoothPlane(int width, int height, long seed) {
+        Random random = new Random(seed);
+        int[] plane = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                double value = 128 + 60 * Math.sin(x * 0.15) * Math.cos(y * 0.1) + (x > width / 2 ? 40 : 0);
+                plane[y * width + x] = (int) Math.max(0, Math.min(255, value + random.nextInt(9) - 4));
+            }
+        }
+        return plane;
+    }
+
+    private static double meanSquaredError(int[] expected, int[] actual) {
+        double sum = 0.0;
+        for (int i = 0; i < expected.length; i++) {
+            double difference = expected[i] - actual[i];
+            sum += difference * difference;
+        }
+        return sum / expected.length;
+    }
+
+    @Test
+    void testFullStreamIsLossless() {
+        for (int[] size : new int[][] {{64, 64}, {50, 37}, {1, 1}, {130, 20}}) {
+            int width = size[0];
+            int height = size[1];
+            int[][] planes = {smoothPlane(width, height, 1L), smoothPlane(width, height, 2L), new int[width * height]};
+            planes[2][0] = -300; // 負の値も扱えること
+            SpihtCodec codec = new SpihtCodec();
+            codec.tileSize(32);
+            byte[] stream = codec.encode(planes, width, height);
+            SpihtCodec.Header header = SpihtCodec.header(stream);
+            assertEquals(width, header.width());
+            assertEquals(height, header.height());
+            assertEquals(3, header.channels());
+            int[][] decoded = codec.decode(stream);
+            for (int channel = 0; channel < 3; channel++) {
+                assertArrayEquals(planes[channel], decoded[channel], "全体を復号すると元の平面に戻ること（" + width + "×" + height + "）");
+            }
+        }
+    }
+
+    @Test
+    void testTruncatedStreamsDecodeProgressively() {
+        int[] plane = smoothPlane(128, 96, 3L);
+        SpihtCodec codec = new SpihtCodec();
+        byte[] stream = codec.encode(new int[][] {plane}, 128, 96);
+        assertTrue(stream.length < plane.length, "1画素1バイトより小さく符号化できること");
+        double previous = Double.POSITIVE_INFINITY;
+        for (int budget : new int[] {SpihtCodec.HEADER_LENGTH, stream.length / 16, stream.length / 4, stream.length / 2, stream.length - 1}) {
+            double error = meanSquaredError(plane, codec.decode(stream, budget)[0]);
+            assertTrue(error <= previous, "長く読むほど誤差が小さくなること（" + budget + " バイト）");
+            previous = error;
+        }
+        assertTrue(meanSquaredError(plane, codec.decode(Arrays.copyOf(stream, stream.length / 4))[0]) < 100.0, "4分の1でも元の平面に近いこと");
+        assertArrayEquals(plane, codec.decode(stream, Integer.MAX_VALUE)[0]);
+    }
+
+    @Test
+    void testParallelStreamMatchesSequential() {
+        int[][] planes = {smoothPlane(100, 70, 4L), smoothPlane(100, 70, 5L), smoothPlane(100, 70, 6L)};
+        SpihtCodec sequential = new SpihtCodec();
+        sequential.tileSize(32);
+        sequential.levels(3);
+        byte[] expected = sequential.encode(planes, 100, 70);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SpihtCodec parallel = new SpihtCodec();
+            parallel.tileSize(32);
+            parallel.levels(3);
+            parallel.forkJoinPool(pool);
+            assertArrayEquals(expected, parallel.encode(planes, 100, 70), "並列でも同じバイト列になること");
+            int[][] decoded = parallel.decode(expected, expected.length / 3);
+            int[][] reference = sequential.decode(expected, expected.length / 3);
+            for (int channel = 0; channel < 3; channel++) {
+                assertArrayEquals(reference[channel], decoded[channel], "並列でも同じように復号すること");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testImageRoundTrip() {
+        BufferedImage image = new BufferedImage(40, 24, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 24; y++) {
+            for (int x = 0; x < 40; x++) {
+                image.setRGB(x, y, (x * 6) << 16 | (y * 10) << 8 | ((x + y) * 4));
+            }
+        }
+        SpihtCodec codec = new SpihtCodec();
+        BufferedImage decoded = codec.decodeImage(codec.encode(image));
+        assertEquals(40, decoded.getWidth());
+        assertEquals(24, decoded.getHeight());
+        for (int y = 0; y < 24; y++) {
+            for (int x = 0; x < 40; x++) {
+                assertEquals(image.getRGB(x, y) & 0xFFFFFF, decoded.getRGB(x, y) & 0xFFFFFF, "画像も完全に戻ること");
+            }
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        SpihtCodec codec = new SpihtCodec();
+        assertThrows(IllegalArgumentException.class, () -> codec.tileSize(48));
+        assertThrows(IllegalArgumentException.class, () -> codec.tileSize(1));
+        assertThrows(IllegalArgumentException.class, () -> codec.levels(0));
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(new int[][] {new int[5]}, 2, 2));
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(new int[0][], 2, 2));
+        byte[] stream = codec.encode(new int[][] {new int[16]}, 4, 4);
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(Arrays.copyOf(stream, SpihtCodec.HEADER_LENGTH - 1)));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(stream, 4));
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeImage(stream));
+        byte[] corrupt = stream.clone();
+        corrupt[0] = 'X';
+        assertThrows(IllegalArgumentException.class, () -> SpihtCodec.header(corrupt));
+    }
+}
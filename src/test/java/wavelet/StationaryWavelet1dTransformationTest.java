@@ -0,0 +1,90 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class StationaryWavelet1dTransformationTest {
+
+    private static final double DELTA = 1e-9; // 浮動小数点比較の許容誤差
+
+    private static double[] randomSignal(int length, long seed) {
+        Random random = new Random(seed);
+        double[] signal = new double[length];
+        for (int i = 0; i < length; i++) {
+            signal[i] = random.nextDouble() - 0.5;
+        }
+        return signal;
+    }
+
+    @Test
+    void testEvenPhaseMatchesDecimatedTransform() {
+        for (String name : FilterBank.names()) {
+            FilterBank bank = FilterBank.named(name);
+            double[] signal = randomSignal(64, bank.length());
+            StationaryWavelet1dTransformation stationary = new StationaryWavelet1dTransformation(signal, 1);
+            stationary.filterBank(bank);
+            DiscreteWavelet1dTransformation decimated = new DiscreteWavelet1dTransformation(signal);
+            decimated.filterBank(bank);
+            double[] scaling = decimated.scalingCoefficients();
+            double[] wavelet = decimated.waveletCoefficients();
+            for (int b = 0; b < scaling.length; b++) {
+                assertEquals(scaling[b], stationary.scalingCoefficients()[b * 2], 0.0, "偶数番目は間引いた変換と一致すること（" + name + "）");
+                assertEquals(wavelet[b], stationary.waveletCoefficients(1)[b * 2], 0.0);
+            }
+        }
+    }
+
+    @Test
+    void testShiftInvariance() {
+        double[] signal = randomSignal(48, 3L);
+        double[] shifted = new double[signal.length];
+        for (int i = 0; i < signal.length; i++) {
+            shifted[(i + 5) % signal.length] = signal[i];
+        }
+        StationaryWavelet1dTransformation original = new StationaryWavelet1dTransformation(signal, 3);
+        StationaryWavelet1dTransformation moved = new StationaryWavelet1dTransformation(shifted, 3);
+        for (int level = 1; level <= 3; level++) {
+            for (int i = 0; i < signal.length; i++) {
+                assertEquals(original.waveletCoefficients(level)[i], moved.waveletCoefficients(level)[(i + 5) % signal.length], DELTA, "信号をずらすと係数も同じだけずれること");
+            }
+        }
+    }
+
+    @Test
+    void testPerfectReconstruction() {
+        for (String name : FilterBank.names()) {
+            FilterBank bank = FilterBank.named(name);
+            for (int length : new int[] {1, 5, 16, 37}) {
+                for (int levels = 0; levels <= 4; levels++) {
+                    double[] signal = randomSignal(length, length * 11L + levels);
+                    StationaryWavelet1dTransformation transformation = new StationaryWavelet1dTransformation(signal, levels);
+                    transformation.filterBank(bank);
+                    assertEquals(length, transformation.scalingCoefficients().length);
+                    assertArrayEquals(signal, transformation.recomposedCoefficients(), DELTA, "元の信号に戻ること（" + name + "、長さ " + length + "、" + levels + " 段）");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testParallelMatchesSequential() {
+        double[] signal = randomSignal(40000, 7L);
+        StationaryWavelet1dTransformation sequential = new StationaryWavelet1dTransformation(signal, 4);
+        StationaryWavelet1dTransformation parallel = new StationaryWavelet1dTransformation(signal, 4);
+        parallel.forkJoinPool(new ForkJoinPool(4));
+        assertArrayEquals(sequential.scalingCoefficients(), parallel.scalingCoefficients(), 0.0, "並列でも完全に一致すること");
+        assertArrayEquals(sequential.waveletCoefficients(3), parallel.waveletCoefficients(3), 0.0);
+        assertArrayEquals(sequential.recomposedCoefficients(), parallel.recomposedCoefficients(), 0.0);
+
+        StationaryWavelet1dTransformation transformed = (StationaryWavelet1dTransformation) parallel.transform(sequential);
+        assertArrayEquals(sequential.waveletCoefficients(2), transformed.waveletCoefficients(2), 0.0);
+        assertThrows(IllegalArgumentException.class, () -> sequential.waveletCoefficients(5));
+        assertThrows(IllegalArgumentException.class, () -> sequential.levels(-1));
+        assertThrows(IllegalArgumentException.class, () -> new StationaryWavelet1dTransformation(new double[0], 1));
+    }
+}
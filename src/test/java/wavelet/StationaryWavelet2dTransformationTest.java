@@ -0,0 +1,98 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class StationaryWavelet2dTransformationTest {
+
+    private static double[][] randomMatrix(int rows, int columns, long seed) {
+        Random random = new Random(seed);
+        double[][] aMatrix = new double[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                aMatrix[row][column] = random.nextInt(256);
+            }
+        }
+        return aMatrix;
+    }
+
+    private static void assertMatrixEquals(double[][] expected, double[][] actual, double delta, String message) {
+        assertEquals(expected.length, actual.length, message);
+        for (int row = 0; row < expected.length; row++) {
+            assertArrayEquals(expected[row], actual[row], delta, message);
+        }
+    }
+
+    @Test
+    void testPerfectReconstruction() {
+        int[][] sizes = {{1, 1}, {7, 5}, {16, 16}, {33, 20}};
+        for (int[] size : sizes) {
+            for (int levels = 0; levels <= 3; levels++) {
+                double[][] source = randomMatrix(size[0], size[1], size[0] * 31L + size[1] + levels);
+                StationaryWavelet2dTransformation transformation = new StationaryWavelet2dTransformation(source, levels);
+                transformation.filterBank(FilterBank.daubechies(6));
+                String message = "元の行列に戻ること（" + size[0] + "x" + size[1] + "、" + levels + " 段）";
+                assertMatrixEquals(source, transformation.recomposedCoefficients(), 1e-9, message);
+
+                transformation.singlePrecision(true);
+                assertMatrixEquals(source, transformation.recomposedCoefficients(), 1e-3, "単精度でも" + message);
+            }
+        }
+    }
+
+    @Test
+    void testBandsMatchDecimatedTransform() {
+        double[][] source = randomMatrix(16, 12, 5L);
+        StationaryWavelet2dTransformation stationary = new StationaryWavelet2dTransformation(source, 1);
+        DiscreteWavelet2dTransformation decimated = new DiscreteWavelet2dTransformation(source);
+        double[][][] expected = {decimated.scalingCoefficients(), decimated.horizontalWaveletCoefficients(),
+            decimated.verticalWaveletCoefficients(), decimated.diagonalWaveletCoefficients()};
+        double[][][] actual = {stationary.scalingCoefficients(), stationary.horizontalWaveletCoefficients(1),
+            stationary.verticalWaveletCoefficients(1), stationary.diagonalWaveletCoefficients(1)};
+        for (int band = 0; band < 4; band++) {
+            for (int row = 0; row < 8; row++) {
+                for (int column = 0; column < 6; column++) {
+                    assertEquals(expected[band][row][column], actual[band][row * 2][column * 2], 1e-9, "偶数番目の行・列は間引いた変換の帯域と一致すること（帯域 " + band + "）");
+                }
+            }
+        }
+
+        double[][] constant = new double[9][10];
+        for (double[] row : constant) {
+            java.util.Arrays.fill(row, 42.0);
+        }
+        StationaryWavelet2dTransformation flat = new StationaryWavelet2dTransformation(constant, 3);
+        for (int level = 1; level <= 3; level++) {
+            for (double[] row : flat.diagonalWaveletCoefficients(level)) {
+                for (double value : row) {
+                    assertEquals(0.0, value, 1e-9, "定数の行列ではウェーブレット係数が0になること");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testParallelAndStorage() {
+        double[][] source = randomMatrix(200, 180, 9L);
+        StationaryWavelet2dTransformation sequential = new StationaryWavelet2dTransformation(source, 2);
+        StationaryWavelet2dTransformation parallel = new StationaryWavelet2dTransformation(source, 2);
+        parallel.forkJoinPool(new ForkJoinPool(4));
+        assertMatrixEquals(sequential.verticalWaveletCoefficients(2), parallel.verticalWaveletCoefficients(2), 0.0, "並列でも完全に一致すること");
+        assertMatrixEquals(sequential.recomposedCoefficients(), parallel.recomposedCoefficients(), 0.0, "並列でも完全に一致すること");
+
+        long bytes = sequential.coefficientBytes();
+        assertEquals(7L * 200 * 180 * Double.BYTES, bytes);
+        sequential.singlePrecision(true);
+        assertEquals(bytes / 2, sequential.coefficientBytes(), "単精度ではメモリが半分になること");
+
+        StationaryWavelet2dTransformation transformed = (StationaryWavelet2dTransformation) sequential.transform(parallel);
+        assertEquals(true, transformed.singlePrecision());
+        assertThrows(IllegalArgumentException.class, () -> sequential.horizontalWaveletCoefficients(3));
+        assertThrows(IllegalArgumentException.class, () -> new StationaryWavelet2dTransformation(new double[3][0], 1));
+    }
+}
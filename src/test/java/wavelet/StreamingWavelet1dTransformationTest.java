@@ -0,0 +1,140 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class StreamingWavelet1dTransformationTest {
+
+    private static final double DELTA = 1e-12; // 浮動小数点比較の許容誤差
+
+    /**
+     * 段ごとに受け取った係数をつないで保持する。
+     */
+    private static final class Collector implements StreamingWavelet1dTransformation.CoefficientConsumer {
+        final double[][] scaling;
+        final double[][] wavelet;
+        final int[] counts;
+
+        Collector(int levels) {
+            this.scaling = new double[levels][16];
+            this.wavelet = new double[levels][16];
+            this.counts = new int[levels];
+        }
+
+        @Override
+        public void accept(int level, double[] scalingCoefficients, double[] waveletCoefficients, int count) {
+            int index = level - 1;
+            int size = this.counts[index] + count;
+            if (this.scaling[index].length < size) {
+                this.scaling[index] = Arrays.copyOf(this.scaling[index], size * 2);
+                this.wavelet[index] = Arrays.copyOf(this.wavelet[index], size * 2);
+            }
+            System.arraycopy(scalingCoefficients, 0, this.scaling[index], this.counts[index], count);
+            System.arraycopy(waveletCoefficients, 0, this.wavelet[index], this.counts[index], count);
+            this.counts[index] = size;
+        }
+
+        double[] scaling(int level) {
+            return Arrays.copyOf(this.scaling[level - 1], this.counts[level - 1]);
+        }
+
+        double[] wavelet(int level) {
+            return Arrays.copyOf(this.wavelet[level - 1], this.counts[level - 1]);
+        }
+    }
+
+    private static double[] randomSignal(int length, long seed) {
+        Random random = new Random(seed);
+        double[] signal = new double[length];
+        for (int i = 0; i < length; i++) {
+            signal[i] = random.nextDouble() - 0.5;
+        }
+        return signal;
+    }
+
+    private static void pushInRandomBlocks(StreamingWavelet1dTransformation stream, double[] signal, long seed) {
+        Random random = new Random(seed);
+        int offset = 0;
+        while (offset < signal.length) {
+            int length = Math.min(signal.length - offset, random.nextInt(40));
+            stream.push(signal, offset, length);
+            offset += length;
+        }
+        stream.finish();
+    }
+
+    @Test
+    void testMatchesWholeSignalTransform() {
+        int levels = 3;
+        for (String name : FilterBank.names()) {
+            FilterBank bank = FilterBank.named(name);
+            for (int length : new int[] {1, 2, 7, 64, 1001}) {
+                double[] signal = randomSignal(length, length * 13L + bank.length());
+                Collector collector = new Collector(levels);
+                StreamingWavelet1dTransformation stream = new StreamingWavelet1dTransformation(levels, collector);
+                stream.filterBank(bank);
+                pushInRandomBlocks(stream, signal, length);
+                assertEquals(length, stream.sampleCount());
+
+                double[] input = signal;
+                for (int level = 1; level <= levels; level++) {
+                    DiscreteWavelet1dTransformation whole = new DiscreteWavelet1dTransformation(input);
+                    whole.filterBank(bank);
+                    whole.boundaryMode(BoundaryMode.ZERO);
+                    String message = "信号全体の変換と一致すること（" + name + "、長さ " + length + "、第 " + level + " 段）";
+                    assertArrayEquals(whole.scalingCoefficients(), collector.scaling(level), DELTA, message);
+                    assertArrayEquals(whole.waveletCoefficients(), collector.wavelet(level), DELTA, message);
+                    input = whole.scalingCoefficients();
+                }
+            }
+        }
+    }
+
+    @Test
+    void testPerfectReconstruction() {
+        FilterBank bank = FilterBank.daubechies(8);
+        double[] signal = randomSignal(517, 5L);
+        Collector collector = new Collector(1);
+        StreamingWavelet1dTransformation stream = new StreamingWavelet1dTransformation(1, collector);
+        stream.filterBank(bank);
+        stream.engine(WaveletEngine.VECTOR);
+        pushInRandomBlocks(stream, signal, 9L);
+        double[] scaling = collector.scaling(1);
+        double[] recomposed = new double[signal.length];
+        ConvolutionKernel.scalar().synthesizeExtended(scaling, 0, collector.wavelet(1), 0, scaling.length,
+                bank.synthesisScalingSequence(), bank.synthesisWaveletSequence(), recomposed, 0, signal.length);
+        assertArrayEquals(signal, recomposed, 1e-9, "流れてきた係数から元の信号に戻ること");
+    }
+
+    @Test
+    void testIncrementalEmission() {
+        Collector collector = new Collector(2);
+        StreamingWavelet1dTransformation stream = new StreamingWavelet1dTransformation(2, collector);
+        stream.push(new double[] {1.0});
+        assertEquals(0, collector.counts[0], "標本が足りないうちは係数を出さないこと");
+        stream.push(new double[] {2.0, 3.0, 4.0, 5.0, 6.0});
+        assertEquals(3, collector.counts[0], "届いた標本で確定した係数だけを出すこと");
+        assertEquals(1, collector.counts[1]);
+        stream.finish();
+        assertEquals(BoundaryMode.ZERO.coefficientLength(6, 4), collector.counts[0]);
+        assertTrue(stream.isFinished());
+        assertThrows(IllegalArgumentException.class, () -> stream.push(new double[1]));
+        assertThrows(IllegalArgumentException.class, () -> stream.filterBank(FilterBank.haar()));
+
+        stream.reset();
+        assertEquals(0L, stream.sampleCount());
+        stream.filterBank(FilterBank.haar());
+        stream.finish();
+        assertEquals(BoundaryMode.ZERO.coefficientLength(6, 4), collector.counts[0], "標本のない信号では係数を出さないこと");
+
+        assertThrows(IllegalArgumentException.class, () -> new StreamingWavelet1dTransformation(0, collector));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingWavelet1dTransformation(1, null));
+        assertThrows(IllegalArgumentException.class, () -> stream.push(new double[4], 2, 3));
+    }
+}
@@ -147,4 +147,33 @@ class Wavelet1dModelTest {
         // なので、assertNull ではなく assertNotNull が正しいです。
         assertNotNull(getRecomposedCoefficients(model), "Recomposed coefficients should be computed after sampling."); 
     }
+
+    @Test
+    @DisplayName("computeFromPoint() recomposes and repaints only the span the edited coefficient affects")
+    void testComputeFromPointRecomposesOnlyTheAffectedSpan() throws NoSuchFieldException, IllegalAccessException {
+        BufferedImage interactiveImage = model.interactiveWaveletCoefficientsPaneModel.picture();
+        BufferedImage recomposedImage = model.recomposedCoefficientsPaneModel.picture();
+        int lastIndex = model.interactiveWaveletCoefficients.length - 1;
+        for (int coefficientIndex : new int[] {0, 5, lastIndex}) {
+            model.computeFromPoint(new java.awt.Point(coefficientIndex * 10 + 3, 0), false);
+
+            DiscreteWavelet1dTransformation full = new DiscreteWavelet1dTransformation(getScalingCoefficients(model), model.interactiveWaveletCoefficients.clone());
+            double[] expected = full.recomposedCoefficients();
+            assertArrayEquals(expected, getRecomposedCoefficients(model), 1e-9, "Local recomposition should match a full recomposition.");
+            assertSame(interactiveImage, model.interactiveWaveletCoefficientsPaneModel.picture(), "The interactive plot should be patched, not regenerated.");
+            assertSame(recomposedImage, model.recomposedCoefficientsPaneModel.picture(), "The recomposed plot should be patched, not regenerated.");
+            assertImageEquals(Wavelet1dModel.generateImage(model.interactiveWaveletCoefficients), interactiveImage);
+            assertImageEquals(Wavelet1dModel.generateImage(expected), recomposedImage);
+        }
+    }
+
+    private static void assertImageEquals(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Patched pixels should match a regenerated plot at (" + x + ", " + y + ").");
+            }
+        }
+    }
 }
\ No newline at end of file
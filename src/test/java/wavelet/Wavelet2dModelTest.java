@@ -377,4 +377,82 @@ public class Wavelet2dModelTest {
     void testOpen() {
         assertDoesNotThrow(() -> model.open());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSetSourceDataChannelsMatchSequentialTransform() {
+        double[][][] testData = new double[4][128][256];
+        for (int channel = 0; channel < testData.length; channel++) {
+            for (int x = 0; x < 128; x++) {
+                for (int y = 0; y < 256; y++) {
+                    testData[channel][x][y] = Math.sin(0.05 * (channel + 1) * x) * Math.cos(0.03 * y);
+                }
+            }
+        }
+        model.setSourceData(testData);
+
+        for (int channel = 0; channel < testData.length; channel++) {
+            DiscreteWavelet2dTransformation sequential = new DiscreteWavelet2dTransformation(testData[channel]);
+            double[][] scaling = sequential.scalingCoefficients();
+            double[][] diagonal = sequential.diagonalWaveletCoefficients();
+            assertArrayEquals(scaling[5], model.scalingCoefficientsArray[channel][5], 0.0, "Concurrent channels must be bit-identical to the sequential transform.");
+            assertArrayEquals(diagonal[63], model.diagonalWaveletCoefficientsArray[channel][63], 0.0, "Concurrent channels must be bit-identical to the sequential transform.");
+
+            double[][] zeros = new double[scaling.length][scaling[0].length];
+            double[][] expected = new DiscreteWavelet2dTransformation(scaling, new double[][][] {zeros, zeros, zeros}).recomposedCoefficients();
+            assertArrayEquals(expected[100], model.recomposedCoefficientsArray[channel][100], 0.0, "Recomposition from cleared coefficients must match for every channel.");
+        }
+    }
+
+    @Test
+    void testComputeFromPointRecomposesOnlyTheAffectedRegion() {
+        double[][] testData = new double[96][80];
+        for (int x = 0; x < testData.length; x++) {
+            for (int y = 0; y < testData[x].length; y++) {
+                testData[x][y] = Math.sin(0.2 * x) * Math.cos(0.15 * y) + ((x * 7 + y * 3) % 5) * 0.1;
+            }
+        }
+        model.setSourceData(testData);
+        for (Point point : new Point[] {new Point(20, 11), new Point(1, 39), new Point(47, 0)}) {
+            for (boolean isAltDown : new boolean[] {false, true}) {
+                model.computeFromPoint(point, isAltDown);
+                double[][] scaling = model.scalingCoefficientsArray[0];
+                double[][] expected = new DiscreteWavelet2dTransformation(model.scalingCoefficientsArray[0], new double[][][] {
+                        model.interactiveHorizontalWaveletCoefficientsArray[0], model.interactiveVerticalWaveletCoefficientsArray[0],
+                        model.interactiveDiagonalWaveletCoefficientsArray[0]}).recomposedCoefficients();
+                for (int x = 0; x < expected.length; x++) {
+                    assertArrayEquals(expected[x], model.recomposedCoefficientsArray[0][x], 1e-12, "Local recomposition must match a full recomposition.");
+                }
+                assertEquals(scaling.length * 2, model.recomposedCoefficientsArray[0].length);
+            }
+        }
+        // 一部だけ書き換えた画像は、同じ正規化で画像全体を作り直したものと一致する
+        BufferedImage patched = model.recomposedCoefficientsPaneModel.picture();
+        BufferedImage regenerated = Wavelet2dModel.generateImage(model.recomposedCoefficientsArray, model.maximumAbsoluteRecomposedCoefficient());
+        for (int x = 0; x < regenerated.getWidth(); x++) {
+            for (int y = 0; y < regenerated.getHeight(); y++) {
+                assertEquals(regenerated.getRGB(x, y), patched.getRGB(x, y), "Patched pixels must match a regenerated image.");
+            }
+        }
+    }
+
+    @Test
+    void testDoDenoiseReplacesSourceWithDenoisedChannels() {
+        double[][] clean = new double[64][64];
+        double[][] noisy = new double[64][64];
+        java.util.Random random = new java.util.Random(3L);
+        for (int x = 0; x < 64; x++) {
+            for (int y = 0; y < 64; y++) {
+                clean[x][y] = x < 32 ? 0.2 : 0.8;
+                noisy[x][y] = clean[x][y] + random.nextGaussian() * 0.05;
+            }
+        }
+        model.setSourceData(noisy);
+        double[][] expected = model.denoiser().denoise(noisy);
+        model.actionPerformed(new java.awt.event.ActionEvent(this, java.awt.event.ActionEvent.ACTION_PERFORMED, "denoise"));
+        for (int x = 0; x < 64; x++) {
+            assertArrayEquals(expected[x], model.sourceCoefficientsArray[0][x], 1e-12, "The denoised image must become the new source.");
+        }
+        assertNull(model.sourceCoefficientsArray[1], "Missing channels must stay missing.");
+        assertNotNull(model.recomposedCoefficientsPaneModel.picture());
+    }
+}
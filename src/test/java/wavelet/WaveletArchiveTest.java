@@ -0,0 +1,123 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+public class WaveletArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private static double[][] randomMatrix(int rows, int columns, long seed) {
+        Random random = new Random(seed);
+        double[][] matrix = new double[rows][columns];
+        for (double[] row : matrix) {
+            for (int i = 0; i < columns; i++) {
+                row[i] = random.nextDouble();
+            }
+        }
+        return matrix;
+    }
+
+    private static DiscreteWavelet2dPyramid pyramid(double[][] matrix, int levels, String filterName) {
+        DiscreteWavelet2dPyramid aPyramid = new DiscreteWavelet2dPyramid(matrix, levels);
+        aPyramid.filterBank(FilterBank.named(filterName));
+        return aPyramid;
+    }
+
+    @Test
+    void testRoundTripRestoresEveryChannel() {
+        double[][] red = randomMatrix(32, 64, 1L);
+        double[][] blue = randomMatrix(32, 64, 2L);
+        DiscreteWavelet2dPyramid[] pyramids = {pyramid(red, 3, "CDF9/7"), null, pyramid(blue, 3, "CDF9/7")};
+        Path aPath = this.directory.resolve("decomposition.wvlt");
+        WaveletArchive.write(aPath, pyramids);
+
+        WaveletArchive anArchive = WaveletArchive.open(aPath);
+        assertEquals(32, anArchive.rows());
+        assertEquals(64, anArchive.columns());
+        assertEquals(3, anArchive.levels());
+        assertEquals(3, anArchive.channelCount());
+        assertEquals("CDF9/7", anArchive.filterBank().name(), "フィルターバンクを名前で復元すること");
+        assertFalse(anArchive.hasChannel(1));
+        assertNull(anArchive.coefficients(1), "データのないチャネルは null であること");
+        assertNull(anArchive.pyramid(1));
+
+        DoubleBuffer coefficients = anArchive.coefficients(2);
+        assertEquals(32 * 64, coefficients.remaining());
+        assertTrue(coefficients.isReadOnly(), "写像は読み取り専用であること");
+        for (int index = 0; index < 32 * 64; index++) {
+            assertEquals(pyramids[2].coefficients()[index], coefficients.get(index), 0.0, "係数がそのまま保存されること");
+        }
+        DiscreteWavelet2dPyramid[] restored = anArchive.pyramids();
+        assertArrayEquals(pyramids[0].coefficients(), restored[0].coefficients(), 0.0);
+        double[][] recomposed = restored[2].recomposedCoefficients();
+        for (int row = 0; row < 32; row++) {
+            assertArrayEquals(blue[row], recomposed[row], 1e-9, "再計算せずに元の行列まで再構成できること");
+        }
+    }
+
+    @Test
+    void testLayoutIsLittleEndian() throws Exception {
+        double[][] matrix = {{1.0, 2.0}, {3.0, 4.0}};
+        DiscreteWavelet2dPyramid aPyramid = pyramid(matrix, 1, "Haar");
+        Path aPath = this.directory.resolve("haar.wvlt");
+        WaveletArchive.write(aPath, aPyramid);
+
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(aPath)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(WaveletArchive.HEADER_LENGTH + 8 + 4 * 8, bytes.capacity());
+        assertEquals('W', bytes.get(0));
+        assertEquals('T', bytes.get(3));
+        assertEquals(1, bytes.getShort(4), "版");
+        assertEquals(WaveletArchive.HEADER_LENGTH, bytes.getShort(6), "ヘッダーの長さ");
+        assertEquals(2, bytes.getInt(8), "行数");
+        assertEquals(2, bytes.getInt(12), "列数");
+        assertEquals(1, bytes.getInt(16), "段数");
+        assertEquals(1, bytes.getInt(20), "チャネル数");
+        assertEquals('H', bytes.get(24), "フィルターバンクの名前");
+        assertEquals(WaveletArchive.HEADER_LENGTH + 8, bytes.getLong(WaveletArchive.HEADER_LENGTH), "チャネルの先頭位置");
+        for (int index = 0; index < 4; index++) {
+            assertEquals(aPyramid.coefficients()[index], bytes.getDouble(WaveletArchive.HEADER_LENGTH + 8 + index * 8), 0.0);
+        }
+    }
+
+    @Test
+    void testInvalidArchives() throws Exception {
+        Path aPath = this.directory.resolve("invalid.wvlt");
+        assertThrows(IllegalArgumentException.class, () -> WaveletArchive.write(aPath, (DiscreteWavelet2dPyramid) null));
+        assertThrows(IllegalArgumentException.class, () -> WaveletArchive.write(aPath, pyramid(new double[4][4], 1, "Haar"), pyramid(new double[4][4], 2, "Haar")));
+        assertThrows(IllegalArgumentException.class, () -> WaveletArchive.write(aPath, pyramid(new double[4][4], 1, "Haar"), pyramid(new double[4][4], 1, "D4")));
+        assertThrows(UncheckedIOException.class, () -> WaveletArchive.open(this.directory.resolve("missing.wvlt")));
+
+        Files.write(aPath, new byte[WaveletArchive.HEADER_LENGTH]);
+        assertThrows(IllegalArgumentException.class, () -> WaveletArchive.open(aPath), "識別子がなければ読み込まないこと");
+
+        WaveletArchive.write(aPath, pyramid(new double[4][4], 1, "Haar"));
+        byte[] bytes = Files.readAllBytes(aPath);
+        Files.write(aPath, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IllegalArgumentException.class, () -> WaveletArchive.open(aPath), "切り詰めたファイルは読み込まないこと");
+        bytes[4] = 2;
+        Files.write(aPath, bytes);
+        assertThrows(IllegalArgumentException.class, () -> WaveletArchive.open(aPath), "知らない版は読み込まないこと");
+
+        WaveletArchive.write(aPath, pyramid(new double[4][4], 1, "Haar"));
+        WaveletArchive anArchive = WaveletArchive.open(aPath);
+        assertThrows(IllegalArgumentException.class, () -> anArchive.coefficients(1));
+        assertThrows(IllegalArgumentException.class, () -> anArchive.hasChannel(-1));
+    }
+}
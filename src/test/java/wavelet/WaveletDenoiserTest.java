@@ -0,0 +1,190 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class WaveletDenoiserTest {
+
+    private static final double DELTA = 1e-12; // 浮動小数点比較の許容誤差
+
+    private static double[][] cleanImage(int size) {
+        double[][] image = new double[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                image[row][column] = (row < size / 2 ? 0.2 : 0.8) + 0.3 * Math.sin(column * 0.1);
+            }
+        }
+        return image;
+    }
+
+    private static double[][] addNoise(double[][] image, double sigma, long seed) {
+        Random random = new Random(seed);
+        double[][] noisy = new double[image.length][];
+        for (int row = 0; row < image.length; row++) {
+            noisy[row] = image[row].clone();
+            for (int column = 0; column < noisy[row].length; column++) {
+                noisy[row][column] += random.nextGaussian() * sigma;
+            }
+        }
+        return noisy;
+    }
+
+    private static double meanSquaredError(double[][] expected, double[][] actual) {
+        double sum = 0.0;
+        int count = 0;
+        for (int row = 0; row < expected.length; row++) {
+            for (int column = 0; column < expected[row].length; column++) {
+                double difference = expected[row][column] - actual[row][column];
+                sum += difference * difference;
+                count++;
+            }
+        }
+        return sum / count;
+    }
+
+    @Test
+    void testNoiseLevelFromFinestDiagonal() {
+        CoefficientMatrix subband = CoefficientMatrix.fromArray(new double[][] {{-3.0, 1.0}, {2.0, -4.0}});
+        assertEquals(2.5 / 0.6745, WaveletDenoiser.noiseLevel(subband), DELTA, "絶対値の中央値を 0.6745 で割ること");
+
+        double[][] noise = addNoise(new double[128][128], 0.1, 1L);
+        DiscreteWavelet2dPyramid pyramid = new DiscreteWavelet2dPyramid(noise, 1);
+        assertEquals(0.1, WaveletDenoiser.noiseLevel(pyramid.levelMatrix(1).diagonal()), 0.01, "白色雑音の標準偏差を推定できること");
+    }
+
+    @Test
+    void testEveryRuleReducesTheError() {
+        double[][] clean = cleanImage(128);
+        double[][] noisy = addNoise(clean, 0.1, 2L);
+        for (ShrinkageRule rule : ShrinkageRule.values()) {
+            WaveletDenoiser denoiser = new WaveletDenoiser();
+            denoiser.shrinkageRule(rule);
+            denoiser.levels(4);
+            double[][] denoised = denoiser.denoise(noisy);
+            assertTrue(meanSquaredError(clean, denoised) < meanSquaredError(clean, noisy) / 2.0, "雑音の誤差が半分未満になること（" + rule + "）");
+        }
+    }
+
+    @Test
+    void testRuleThresholds() {
+        double[][] values = new double[8][8];
+        values[3][5] = 10.0; // まばらな帯域
+        CoefficientMatrix sparse = CoefficientMatrix.fromArray(values);
+        assertEquals(0.5 * Math.sqrt(2.0 * Math.log(4096)), ShrinkageRule.VISU_SHRINK.threshold(sparse, 0.5, 4096), DELTA, "画素数による普遍閾値になること");
+        CoefficientMatrix flat = new CoefficientMatrix(8, 8);
+        flat.fill(0.5); // エネルギーが雑音と同程度の帯域
+        assertEquals(0.5 * Math.sqrt(2.0 * Math.log(64)), ShrinkageRule.SURE_SHRINK.threshold(flat, 0.5, 4096), DELTA, "信号のまばらな帯域では帯域の普遍閾値になること");
+        double variance = 100.0 / 64 - 0.25;
+        assertEquals(0.25 / Math.sqrt(variance), ShrinkageRule.BAYES_SHRINK.threshold(sparse, 0.5, 4096), DELTA, "σ² / σx になること");
+        assertEquals(10.0, ShrinkageRule.BAYES_SHRINK.threshold(sparse, 4.0, 4096), DELTA, "雑音だけの帯域ではすべての係数を取り除くこと");
+        for (ShrinkageRule rule : ShrinkageRule.values()) {
+            assertEquals(0.0, rule.threshold(sparse, 0.0, 4096), 0.0, "雑音がなければ閾値は 0 であること");
+        }
+
+        double[][] noise = addNoise(new double[32][32], 1.0, 3L);
+        double sure = ShrinkageRule.SURE_SHRINK.threshold(CoefficientMatrix.fromArray(noise), 1.0, 1024);
+        assertTrue(sure > 0.0 && sure <= Math.sqrt(2.0 * Math.log(1024)) + DELTA, "SURE の閾値は普遍閾値以下であること");
+    }
+
+    @Test
+    void testSoftAndHardShrink() {
+        WaveletDenoiser denoiser = new WaveletDenoiser();
+        CoefficientMatrix soft = CoefficientMatrix.fromArray(new double[][] {{-3.0, 0.5}, {1.0, 2.0}});
+        denoiser.shrink(soft, 1.0);
+        assertArrayEquals(new double[] {-2.0, 0.0, 0.0, 1.0}, soft.values(), DELTA, "軟閾値処理は絶対値を閾値だけ縮めること");
+        denoiser.softThresholding(false);
+        CoefficientMatrix hard = CoefficientMatrix.fromArray(new double[][] {{-3.0, 0.5}, {1.0, 2.0}});
+        denoiser.shrink(hard, 1.0);
+        assertArrayEquals(new double[] {-3.0, 0.0, 0.0, 2.0}, hard.values(), DELTA, "硬閾値処理は閾値を超える係数をそのまま残すこと");
+    }
+
+    @Test
+    void testShrinkKeepsScalingCoefficients() {
+        double[][] noisy = addNoise(cleanImage(64), 0.1, 4L);
+        DiscreteWavelet2dPyramid pyramid = new DiscreteWavelet2dPyramid(noisy, 3);
+        double[][] scaling = pyramid.scalingCoefficients();
+        WaveletDenoiser denoiser = new WaveletDenoiser();
+        double[][] thresholds = denoiser.thresholds(pyramid);
+        assertEquals(3, thresholds.length);
+        denoiser.shrink(pyramid);
+        double[][] after = pyramid.scalingCoefficients();
+        for (int row = 0; row < scaling.length; row++) {
+            assertArrayEquals(scaling[row], after[row], 0.0, "スケーリング係数は変更しないこと");
+        }
+        int zeros = 0;
+        for (double[] row : pyramid.diagonalWaveletCoefficients(1)) {
+            for (double value : row) {
+                zeros += value == 0.0 ? 1 : 0;
+            }
+        }
+        assertTrue(zeros > 32 * 32 / 2, "雑音だけの細かい対角の帯域は大半が 0 になること");
+    }
+
+    @Test
+    void testParallelChannelsMatchSequential() {
+        double[][][] channels = {addNoise(cleanImage(64), 0.1, 5L), null, addNoise(cleanImage(64), 0.2, 6L), addNoise(cleanImage(64), 0.05, 7L)};
+        WaveletDenoiser sequential = new WaveletDenoiser();
+        sequential.shrinkageRule(ShrinkageRule.SURE_SHRINK);
+        double[][][] expected = sequential.denoise(channels);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            WaveletDenoiser parallel = new WaveletDenoiser();
+            parallel.shrinkageRule(ShrinkageRule.SURE_SHRINK);
+            parallel.forkJoinPool(pool);
+            double[][][] actual = parallel.denoise(channels);
+            assertNull(actual[1], "データのないチャネルは null のままであること");
+            for (int channel : new int[] {0, 2, 3}) {
+                for (int row = 0; row < 64; row++) {
+                    assertArrayEquals(expected[channel][row], actual[channel][row], 0.0, "並列でも完全に一致すること");
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testLevelsAreLimitedByTheImageSize() {
+        WaveletDenoiser denoiser = new WaveletDenoiser();
+        denoiser.levels(10);
+        double[][] noisy = addNoise(cleanImage(16), 0.1, 8L);
+        assertEquals(16, denoiser.denoise(noisy).length, "分解できる段数までで処理すること");
+        double[][] line = addNoise(new double[1][5], 0.1, 9L);
+        double[][] result = denoiser.denoise(line);
+        assertArrayEquals(line[0], result[0], 0.0, "分解できない大きさはそのまま応答すること");
+    }
+
+    @Test
+    void testOddSizedImagesAreDenoised() {
+        double[][] clean = new double[75][101];
+        for (int row = 0; row < 75; row++) {
+            for (int column = 0; column < 101; column++) {
+                clean[row][column] = (row < 37 ? 0.2 : 0.8) + 0.3 * Math.sin(column * 0.1);
+            }
+        }
+        double[][] noisy = addNoise(clean, 0.1, 10L);
+        WaveletDenoiser denoiser = new WaveletDenoiser();
+        denoiser.levels(3);
+        double[][] denoised = denoiser.denoise(noisy);
+        assertEquals(75, denoised.length, "元の大きさに切り出すこと");
+        assertEquals(101, denoised[0].length, "元の大きさに切り出すこと");
+        assertTrue(meanSquaredError(clean, denoised) < meanSquaredError(clean, noisy) / 2.0, "辺の長さが奇数でも雑音の誤差が半分未満になること");
+    }
+
+    @Test
+    void testInvalidArguments() {
+        WaveletDenoiser denoiser = new WaveletDenoiser();
+        assertThrows(IllegalArgumentException.class, () -> denoiser.levels(0));
+        assertThrows(IllegalArgumentException.class, () -> denoiser.shrinkageRule(null));
+        assertThrows(IllegalArgumentException.class, () -> denoiser.filterBank(null));
+        assertThrows(IllegalArgumentException.class, () -> WaveletDenoiser.noiseLevel(new CoefficientMatrix(0, 0)));
+        assertThrows(IllegalArgumentException.class, () -> denoiser.thresholds(new DiscreteWavelet2dPyramid(new double[4][4], 0)));
+    }
+}
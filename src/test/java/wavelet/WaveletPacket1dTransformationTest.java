@@ -0,0 +1,103 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class WaveletPacket1dTransformationTest {
+
+    private static final double DELTA = 1e-9; // 浮動小数点比較の許容誤差
+
+    private static double[] randomSignal(int length, long seed) {
+        Random random = new Random(seed);
+        double[] signal = new double[length];
+        for (int i = 0; i < length; i++) {
+            signal[i] = Math.sin(i * 0.9) + 0.3 * (random.nextDouble() - 0.5);
+        }
+        return signal;
+    }
+
+    @Test
+    void testCostFunctions() {
+        double[] values = {9.0, 3.0, 0.0, -4.0, 9.0};
+        assertEquals(7.0, PacketCost.L1.cost(values, 1, 3), 0.0, "0 の係数はコストに寄与しないこと");
+        assertEquals(Math.log(9.0) + Math.log(16.0), PacketCost.LOG_ENERGY.cost(values, 1, 3), DELTA);
+        assertEquals(-(9.0 * Math.log(9.0) + 16.0 * Math.log(16.0)), PacketCost.SHANNON.cost(values, 1, 3), DELTA);
+        CoefficientMatrix aMatrix = CoefficientMatrix.fromArray(new double[][] {{1.0, -2.0}, {3.0, 0.5}});
+        assertEquals(6.5, PacketCost.L1.cost(aMatrix), 0.0);
+        assertEquals(2.5, PacketCost.L1.cost(aMatrix.column(1)), 0.0, "ビューでも範囲の係数だけを数えること");
+    }
+
+    @Test
+    void testPerfectReconstruction() {
+        for (PacketCost costFunction : PacketCost.values()) {
+            for (String name : FilterBank.names()) {
+                FilterBank bank = FilterBank.named(name);
+                for (int levels = 0; levels <= 4; levels++) {
+                    double[] signal = randomSignal(48, levels * 7L + bank.length());
+                    WaveletPacket1dTransformation transformation = new WaveletPacket1dTransformation(signal, levels);
+                    transformation.filterBank(bank);
+                    transformation.costFunction(costFunction);
+                    String message = "元の信号に戻ること（" + costFunction + "、" + name + "、" + levels + " 段）";
+                    assertArrayEquals(signal, transformation.recomposedCoefficients(), DELTA, message);
+
+                    int offset = 0;
+                    for (WaveletPacket1dTransformation.Node node : transformation.basis()) {
+                        assertEquals(offset, node.offset(), "基底の節点が隙間なく並ぶこと");
+                        assertEquals(48 >> node.level(), node.length());
+                        offset += node.length();
+                    }
+                    assertEquals(48, offset);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testBestBasisIsNoWorseThanFixedBases() {
+        double[] signal = randomSignal(256, 1L);
+        WaveletPacket1dTransformation transformation = new WaveletPacket1dTransformation(signal, 5);
+        double best = transformation.cost();
+        assertEquals(PacketCost.SHANNON.cost(transformation.coefficients(), 0, 256), best, DELTA, "基底の節点のコストの和であること");
+        assertTrue(best <= PacketCost.SHANNON.cost(signal, 0, 256), "元の信号より悪くならないこと");
+        DiscreteWavelet1dPyramid pyramid = new DiscreteWavelet1dPyramid(signal, 5);
+        assertTrue(best <= PacketCost.SHANNON.cost(pyramid.coefficients(), 0, 256) + DELTA, "ピラミッドの基底より悪くならないこと");
+
+        double[] constant = new double[64];
+        Arrays.fill(constant, 2.0);
+        WaveletPacket1dTransformation flat = new WaveletPacket1dTransformation(constant, 3);
+        flat.filterBank(FilterBank.haar());
+        flat.costFunction(PacketCost.L1);
+        List<WaveletPacket1dTransformation.Node> basis = flat.basis();
+        assertEquals(3, basis.get(0).level(), "定数の信号ではスケーリング係数の節点を最後まで分解すること");
+        assertEquals(8 * 2.0 * Math.pow(Math.sqrt(2.0), 3), flat.cost(), DELTA);
+        double[] node = flat.nodeCoefficients(basis.get(0));
+        assertEquals(8, node.length);
+        assertEquals(2.0 * Math.pow(Math.sqrt(2.0), 3), node[0], DELTA);
+    }
+
+    @Test
+    void testParallelMatchesSequential() {
+        double[] signal = randomSignal(1 << 15, 3L);
+        WaveletPacket1dTransformation sequential = new WaveletPacket1dTransformation(signal, 6);
+        WaveletPacket1dTransformation parallel = new WaveletPacket1dTransformation(signal, 6);
+        parallel.forkJoinPool(new ForkJoinPool(4));
+        assertArrayEquals(sequential.coefficients(), parallel.coefficients(), 0.0, "並列でも完全に一致すること");
+        assertEquals(sequential.cost(), parallel.cost(), 0.0);
+        assertEquals(sequential.basis().size(), parallel.basis().size());
+        assertArrayEquals(signal, parallel.recomposedCoefficients(), DELTA);
+
+        WaveletPacket1dTransformation transformed = (WaveletPacket1dTransformation) parallel.transform(sequential);
+        assertArrayEquals(sequential.coefficients(), transformed.coefficients(), 0.0);
+        assertThrows(IllegalArgumentException.class, () -> new WaveletPacket1dTransformation(new double[12], 3));
+        assertThrows(IllegalArgumentException.class, () -> sequential.costFunction(null));
+        assertThrows(IllegalArgumentException.class, () -> sequential.levels(16));
+    }
+}
@@ -0,0 +1,88 @@
+package wavelet;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class WaveletPacket2dTransformationTest {
+
+    private static double[][] texture(int rows, int columns, long seed) {
+        Random random = new Random(seed);
+        double[][] aMatrix = new double[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                aMatrix[row][column] = 100.0 * Math.sin(row * 2.5) * Math.cos(column * 0.2) + random.nextInt(8);
+            }
+        }
+        return aMatrix;
+    }
+
+    private static void assertMatrixEquals(double[][] expected, double[][] actual, double delta, String message) {
+        assertEquals(expected.length, actual.length, message);
+        for (int row = 0; row < expected.length; row++) {
+            assertArrayEquals(expected[row], actual[row], delta, message);
+        }
+    }
+
+    @Test
+    void testPerfectReconstruction() {
+        for (String name : FilterBank.names()) {
+            for (int levels = 0; levels <= 3; levels++) {
+                double[][] source = texture(24, 16, levels);
+                WaveletPacket2dTransformation transformation = new WaveletPacket2dTransformation(source, levels);
+                transformation.filterBank(FilterBank.named(name));
+                assertMatrixEquals(source, transformation.recomposedCoefficients(), 1e-8, "元の行列に戻ること（" + name + "、" + levels + " 段）");
+
+                int area = 0;
+                for (WaveletPacket2dTransformation.Node node : transformation.basis()) {
+                    assertEquals(24 >> node.level(), node.rowSize());
+                    area += node.rowSize() * node.columnSize();
+                }
+                assertEquals(24 * 16, area, "基底の節点が行列を覆うこと");
+            }
+        }
+    }
+
+    @Test
+    void testBestBasis() {
+        double[][] source = texture(64, 64, 5L);
+        WaveletPacket2dTransformation transformation = new WaveletPacket2dTransformation(source, 3);
+        double best = transformation.cost();
+        assertEquals(PacketCost.SHANNON.cost(transformation.coefficientMatrix()), best, 1e-6, "基底の節点のコストの和であること");
+        assertTrue(best <= PacketCost.SHANNON.cost(CoefficientMatrix.fromArray(source)), "元の行列より悪くならないこと");
+        DiscreteWavelet2dPyramid pyramid = new DiscreteWavelet2dPyramid(source, 3);
+        assertTrue(best <= PacketCost.SHANNON.cost(pyramid.coefficientMatrix()) + 1e-6, "ピラミッドの基底より悪くならないこと");
+
+        List<WaveletPacket2dTransformation.Node> basis = transformation.basis();
+        boolean highBand = false;
+        for (WaveletPacket2dTransformation.Node node : basis) {
+            highBand |= node.level() > 1 && (node.row() > 1 || node.column() > 1);
+        }
+        assertTrue(highBand, "高域の節点も分解されること");
+        WaveletPacket2dTransformation.Node first = basis.get(0);
+        CoefficientMatrix view = transformation.nodeMatrix(first);
+        assertEquals(first.rowSize(), view.rowSize());
+        assertEquals(transformation.coefficientMatrix().at(0, 0), view.at(0, 0));
+    }
+
+    @Test
+    void testParallelMatchesSequential() {
+        double[][] source = texture(256, 128, 7L);
+        WaveletPacket2dTransformation sequential = new WaveletPacket2dTransformation(source, 4);
+        WaveletPacket2dTransformation parallel = new WaveletPacket2dTransformation(source, 4);
+        parallel.forkJoinPool(new ForkJoinPool(4));
+        assertMatrixEquals(sequential.coefficients(), parallel.coefficients(), 0.0, "並列でも完全に一致すること");
+        assertEquals(sequential.cost(), parallel.cost(), 0.0);
+        assertEquals(sequential.basis().size(), parallel.basis().size());
+        assertMatrixEquals(source, parallel.recomposedCoefficients(), 1e-8, "並列でも元の行列に戻ること");
+
+        assertThrows(IllegalArgumentException.class, () -> new WaveletPacket2dTransformation(new double[12][16], 3));
+        assertThrows(IllegalArgumentException.class, () -> sequential.transform(new DiscreteWavelet2dPyramid(source, 1)));
+    }
+}